@@ -0,0 +1,20 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import com.yeskatronics.vs_recorder_backend.services.RateLimitService;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Rate-limits a controller method (or every method of a controller) with the given policy.
+ * Callers are keyed by username when authenticated, otherwise by client IP.
+ * Enforced by {@link RateLimitInterceptor}; over-limit requests get 429 with Retry-After.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    RateLimitService.Policy value();
+}
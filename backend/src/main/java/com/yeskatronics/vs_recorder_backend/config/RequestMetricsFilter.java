@@ -0,0 +1,84 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import com.yeskatronics.vs_recorder_backend.utils.QueryCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Per-request JPA statement counts and slow-request logging.
+ *
+ * <p>Records {@code http.server.requests.queries} (tagged by method and route pattern, like
+ * Spring's own {@code http.server.requests} timer) and logs any request slower than
+ * {@code app.metrics.slow-request-threshold} together with its status and query count, so a
+ * latency spike on the dashboard can be matched to a concrete request in the logs.
+ *
+ * <p>Runs first in the chain so authentication lookups are counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestThresholdNanos;
+
+    public RequestMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.metrics.slow-request-threshold:1s}") Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestThresholdNanos = slowRequestThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        QueryCounter.reset();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            int queries = QueryCounter.current();
+            QueryCounter.clear();
+
+            String route = route(request);
+            DistributionSummary.builder("http.server.requests.queries")
+                    .description("JPA statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route)
+                    .register(meterRegistry)
+                    .record(queries);
+
+            if (elapsedNanos >= slowRequestThresholdNanos) {
+                log.warn("Slow request: {} {} (route {}) -> {} in {}ms, {} queries",
+                        request.getMethod(), request.getRequestURI(), route, response.getStatus(),
+                        elapsedNanos / 1_000_000, queries);
+            }
+        }
+    }
+
+    /**
+     * Route template (e.g. {@code /api/teams/{teamId}/analytics/usage}) to keep tag cardinality bounded.
+     */
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
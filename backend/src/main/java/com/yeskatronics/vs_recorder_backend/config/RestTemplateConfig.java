@@ -1,18 +1,45 @@
 package com.yeskatronics.vs_recorder_backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration for RestTemplate HTTP client.
  * Used for making external API calls to Pokemon Showdown and Pokepaste.
+ * Every call waits for a per-host slot in {@link UpstreamConcurrencyLimiter}, then is timed per
+ * upstream host by {@link UpstreamMetricsInterceptor}. Connect and read timeouts keep a hung
+ * upstream from holding a thread indefinitely.
  */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public UpstreamConcurrencyLimiter upstreamConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.upstream.max-concurrency-per-host:16}") int maxConcurrencyPerHost,
+            @Value("${app.upstream.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new UpstreamConcurrencyLimiter(meterRegistry, maxConcurrencyPerHost, acquireTimeout);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(
+            MeterRegistry meterRegistry,
+            UpstreamConcurrencyLimiter upstreamConcurrencyLimiter,
+            @Value("${app.upstream.connect-timeout:5s}") Duration connectTimeout,
+            @Value("${app.upstream.read-timeout:20s}") Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(upstreamConcurrencyLimiter);
+        restTemplate.getInterceptors().add(new UpstreamMetricsInterceptor(meterRegistry));
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
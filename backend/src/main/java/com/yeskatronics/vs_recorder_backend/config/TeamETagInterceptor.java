@@ -0,0 +1,110 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.services.PokemonService;
+import com.yeskatronics.vs_recorder_backend.services.TeamAccessService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Conditional GET for {@link TeamVersioned} endpoints.
+ *
+ * <p>The ETag is a hash of the team's {@code updatedAt}, the caller and their permissions on the
+ * team, and the Pokemon registry version (analytics resolve names through it). Every write to a
+ * team's replays, matches or members bumps {@code updatedAt}, so a matching If-None-Match means
+ * the body would be identical: the request ends here with 304, before rate limiting and before
+ * the controller or any service runs. The check costs one projection query that reads the
+ * team's version and the caller's membership together (joining from the replay or match on those
+ * routes); the caller's id comes from the principal the JWT filter already loaded.
+ *
+ * <p>Responses are marked {@code private, no-cache}: browsers keep them but revalidate on every
+ * use. Callers without access fall through to the handler, which renders its usual error.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamETagInterceptor implements HandlerInterceptor {
+
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final TeamAccessService teamAccessService;
+    private final PokemonService pokemonService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        TeamVersioned versioned = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), TeamVersioned.class);
+        if (versioned == null) {
+            return true;
+        }
+
+        Long id = idFrom(request, versioned.value());
+        Optional<String> etag = id == null
+                ? Optional.empty()
+                : CustomUserDetailsService.currentUserId().flatMap(userId -> etag(versioned.scope(), id, userId));
+        if (etag.isEmpty()) {
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return !new ServletWebRequest(request, response).checkNotModified(etag.get());
+    }
+
+    private Optional<String> etag(TeamVersioned.Scope scope, Long id, Long userId) {
+        Optional<TeamAccessService.AccessVersion> found = switch (scope) {
+            case TEAM -> teamAccessService.resolveVersion(id, userId);
+            case REPLAY -> teamAccessService.resolveVersionByReplay(id, userId);
+            case MATCH -> teamAccessService.resolveVersionByMatch(id, userId);
+        };
+        return found.map(access -> {
+            StringBuilder version = new StringBuilder()
+                    .append(access.getTeamId()).append('|')
+                    .append(access.getUpdatedAt()).append('|')
+                    .append(userId).append('|')
+                    .append(access.getRole()).append('|');
+            for (TeamAccessService.Permission permission : TeamAccessService.Permission.values()) {
+                version.append(access.getPermissions().contains(permission) ? '1' : '0');
+            }
+            version.append('|').append(pokemonService.getRegistry().getEtag());
+
+            return "W/\"" + DigestUtils.md5DigestAsHex(version.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        });
+    }
+
+    /**
+     * The named path variable, or else the request parameter; null when absent or not a number
+     * (the handler then rejects the request as usual).
+     */
+    @SuppressWarnings("unchecked")
+    private static Long idFrom(HttpServletRequest request, String name) {
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String raw = pathVariables != null && pathVariables.containsKey(name)
+                ? pathVariables.get(name)
+                : request.getParameter(name);
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
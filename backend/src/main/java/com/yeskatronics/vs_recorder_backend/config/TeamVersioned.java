@@ -0,0 +1,31 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a team-scoped GET whose response only changes when the team does, i.e. when
+ * {@code Team.updatedAt} is bumped. Enforced by {@link TeamETagInterceptor}: the response gets a
+ * weak ETag, and a matching If-None-Match is answered with 304 before the handler runs.
+ *
+ * <p>Only for reads built from the team's own rows (replays, matches, members, analytics).
+ * Responses that also depend on other users' data or on upstream fetches must not use it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TeamVersioned {
+
+    /**
+     * Path variable or request parameter holding the id.
+     */
+    String value() default "teamId";
+
+    /**
+     * What the id identifies; replays and matches are mapped to their team.
+     */
+    Scope scope() default Scope.TEAM;
+
+    enum Scope { TEAM, REPLAY, MATCH }
+}
@@ -0,0 +1,143 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps in-flight outbound RestTemplate calls per upstream host, so one slow upstream (a Showdown
+ * outage, a stalled pokepast.es) can only tie up a bounded number of request threads and the
+ * rest of the API keeps serving.
+ *
+ * <p>The permit is held until the response is closed, so slow bodies count as well as slow
+ * headers. A call that can't get a permit within {@code acquireTimeout} fails with an IOException,
+ * which RestTemplate surfaces as a ResourceAccessException — the same path as a connect timeout,
+ * so callers' existing upstream error handling applies unchanged.
+ *
+ * <p>Meters: {@code upstream.in_flight} (gauge) and {@code upstream.limiter.rejected} (counter),
+ * both tagged {@code host}.
+ */
+public class UpstreamConcurrencyLimiter implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrentPerHost;
+    private final long acquireTimeoutNanos;
+    private final Map<String, HostLimit> limits = new ConcurrentHashMap<>();
+
+    public UpstreamConcurrencyLimiter(MeterRegistry meterRegistry, int maxConcurrentPerHost, Duration acquireTimeout) {
+        if (maxConcurrentPerHost <= 0) {
+            throw new IllegalArgumentException("maxConcurrentPerHost must be positive");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        String host = request.getURI().getHost() != null ? request.getURI().getHost() : "unknown";
+        HostLimit limit = limits.computeIfAbsent(host, HostLimit::new);
+        try {
+            if (!limit.permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                limit.rejected.increment();
+                throw new IOException("Too many concurrent requests to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection slot to " + host);
+        }
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body), limit.permits);
+        } catch (IOException | RuntimeException e) {
+            limit.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Calls currently holding a permit for {@code host}.
+     */
+    public int inFlight(String host) {
+        HostLimit limit = limits.get(host);
+        return limit == null ? 0 : maxConcurrentPerHost - limit.permits.availablePermits();
+    }
+
+    private final class HostLimit {
+        final Semaphore permits = new Semaphore(maxConcurrentPerHost);
+        final Counter rejected;
+
+        HostLimit(String host) {
+            this.rejected = Counter.builder("upstream.limiter.rejected")
+                    .description("Outbound calls refused because the host was at its concurrency limit")
+                    .tag("host", host)
+                    .register(meterRegistry);
+            Gauge.builder("upstream.in_flight", permits, p -> maxConcurrentPerHost - p.availablePermits())
+                    .description("Outbound calls currently in flight")
+                    .tag("host", host)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Gives the permit back when RestTemplate closes the response after reading the body.
+     */
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
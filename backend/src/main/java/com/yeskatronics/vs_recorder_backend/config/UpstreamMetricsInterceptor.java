@@ -0,0 +1,65 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Times every outbound RestTemplate call per upstream host (Showdown, pokepast.es, PokeAPI, ...).
+ *
+ * <p>Meters:
+ * <ul>
+ *   <li>{@code upstream.requests} — time to response headers, tagged {@code host}, {@code method},
+ *       {@code status} and {@code outcome} (SUCCESS / CLIENT_ERROR / SERVER_ERROR / IO_ERROR)</li>
+ *   <li>{@code upstream.response.size} — declared Content-Length per host, when the upstream sends one</li>
+ * </ul>
+ * Only the host is tagged, never the full URL, since paste and replay ids would explode cardinality.
+ */
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        String host = request.getURI().getHost() != null ? request.getURI().getHost() : "unknown";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String status = "IO_ERROR";
+        String outcome = "IO_ERROR";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            int code = response.getStatusCode().value();
+            status = Integer.toString(code);
+            outcome = code >= 500 ? "SERVER_ERROR" : code >= 400 ? "CLIENT_ERROR" : "SUCCESS";
+
+            long length = response.getHeaders().getContentLength();
+            if (length >= 0) {
+                DistributionSummary.builder("upstream.response.size")
+                        .baseUnit("bytes")
+                        .tag("host", host)
+                        .register(meterRegistry)
+                        .record(length);
+            }
+            return response;
+        } finally {
+            sample.stop(Timer.builder("upstream.requests")
+                    .description("Outbound HTTP calls to third-party services")
+                    .tag("host", host)
+                    .tag("method", request.getMethod().name())
+                    .tag("status", status)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
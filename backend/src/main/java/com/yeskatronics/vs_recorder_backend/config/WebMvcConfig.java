@@ -0,0 +1,24 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration: registers handler interceptors.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final TeamETagInterceptor teamETagInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 304s are answered first, so revalidations don't spend rate-limit tokens
+        registry.addInterceptor(teamETagInterceptor);
+        registry.addInterceptor(rateLimitInterceptor);
+    }
+}
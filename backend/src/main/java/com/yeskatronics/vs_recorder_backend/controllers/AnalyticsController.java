@@ -1,9 +1,13 @@
 package com.yeskatronics.vs_recorder_backend.controllers;
 
+import com.yeskatronics.vs_recorder_backend.config.RateLimited;
+import com.yeskatronics.vs_recorder_backend.config.TeamVersioned;
 import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
 import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
 import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
 import com.yeskatronics.vs_recorder_backend.services.AnalyticsService;
+import com.yeskatronics.vs_recorder_backend.services.MetagameService;
+import com.yeskatronics.vs_recorder_backend.services.RateLimitService;
 import com.yeskatronics.vs_recorder_backend.services.TeamAccessService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,10 +20,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 /**
  * REST Controller for Analytics operations.
  * Provides statistical analysis of battle replays.
@@ -31,9 +39,11 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Slf4j
 @Tag(name = "Analytics", description = "Battle replay analytics and statistics")
+@RateLimited(RateLimitService.Policy.ANALYTICS)
 public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
+    private final MetagameService metagameService;
     private final TeamAccessService teamAccessService;
     private final CustomUserDetailsService userDetailsService;
 
@@ -57,13 +67,17 @@ public class AnalyticsController {
      * GET /api/teams/{teamId}/analytics/usage
      *
      * @param teamId the team ID
+     * @param filter optional date range, Bo1/Bo3, result, opponent and match tag filters
+     * @param rank "raw" (by usage) or "confidence" (by win rate confidence lower bound)
      * @param authentication the authenticated user
      * @return usage statistics including Pokemon usage, lead pairs, and win rates
      */
     @GetMapping("/usage")
     @Operation(
             summary = "Get team usage statistics",
-            description = "Analyze Pokemon usage rates, lead pairs, and win rates for a team",
+            description = "Analyze Pokemon usage rates, lead pairs, and win rates for a team. " +
+                    "Each win rate also carries a smoothed estimate and 95% confidence interval; " +
+                    "rank=confidence orders by the interval's lower bound instead of usage",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
@@ -78,9 +92,13 @@ public class AnalyticsController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
+    @TeamVersioned
     public ResponseEntity<AnalyticsDTO.UsageStatsResponse> getUsageStats(
             @Parameter(description = "Team ID", required = true)
             @PathVariable Long teamId,
+            @ParameterObject AnalyticsDTO.Filter filter,
+            @Parameter(description = "Ranking: raw or confidence")
+            @RequestParam(defaultValue = "raw") String rank,
             Authentication authentication) {
 
         Long userId = getCurrentUserId(authentication);
@@ -88,7 +106,7 @@ public class AnalyticsController {
 
         verifyTeamAccess(teamId, userId);
 
-        AnalyticsDTO.UsageStatsResponse stats = analyticsService.getUsageStats(teamId);
+        AnalyticsDTO.UsageStatsResponse stats = analyticsService.getUsageStats(teamId, filter, rank);
         return ResponseEntity.ok(stats);
     }
 
@@ -97,13 +115,17 @@ public class AnalyticsController {
      * GET /api/teams/{teamId}/analytics/matchups
      *
      * @param teamId the team ID
+     * @param filter optional date range, Bo1/Bo3, result, opponent and match tag filters
+     * @param rank "raw" (rounded rates) or "confidence" (confidence interval bounds)
+     * @param minGames minimum encounters for best/worst matchups when ranking raw rates
      * @param authentication the authenticated user
      * @return matchup statistics including best/worst matchups and attendance rates
      */
     @GetMapping("/matchups")
     @Operation(
             summary = "Get team matchup statistics",
-            description = "Analyze performance against opponent Pokemon, including win rates and attendance",
+            description = "Analyze performance against opponent Pokemon, including win rates and attendance. " +
+                    "rank=confidence ranks every opponent by its 95% confidence bounds instead of a minGames cutoff",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
@@ -118,9 +140,15 @@ public class AnalyticsController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
+    @TeamVersioned
     public ResponseEntity<AnalyticsDTO.MatchupStatsResponse> getMatchupStats(
             @Parameter(description = "Team ID", required = true)
             @PathVariable Long teamId,
+            @ParameterObject AnalyticsDTO.Filter filter,
+            @Parameter(description = "Ranking: raw or confidence")
+            @RequestParam(defaultValue = "raw") String rank,
+            @Parameter(description = "Minimum encounters for best/worst matchups (raw ranking)")
+            @RequestParam(defaultValue = "3") int minGames,
             Authentication authentication) {
 
         Long userId = getCurrentUserId(authentication);
@@ -128,15 +156,72 @@ public class AnalyticsController {
 
         verifyTeamAccess(teamId, userId);
 
-        AnalyticsDTO.MatchupStatsResponse stats = analyticsService.getMatchupStats(teamId);
+        AnalyticsDTO.MatchupStatsResponse stats = analyticsService.getMatchupStats(teamId, filter, rank, minGames);
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get one page of the full matchup ranking for a team
+     * GET /api/teams/{teamId}/analytics/matchups/ranking
+     *
+     * @param teamId the team ID
+     * @param filter optional date range, Bo1/Bo3, result, opponent and match tag filters
+     * @param sort "winRate", "confidence", "games" or "attendance"
+     * @param order "desc" or "asc"
+     * @param page zero-based page number
+     * @param size page size (1-100)
+     * @param authentication the authenticated user
+     * @return the requested page of opponent Pokemon and the total number ranked
+     */
+    @GetMapping("/matchups/ranking")
+    @Operation(
+            summary = "Get team matchup ranking",
+            description = "Every opponent Pokemon ranked by win rate, win rate confidence bound, games or " +
+                    "attendance, one page at a time. " +
+                    "Ties go to the larger sample; attendance only ranks Pokemon seen on team sheets",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Matchup ranking retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AnalyticsDTO.MatchupRankingResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid sort, order or page",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @TeamVersioned
+    public ResponseEntity<AnalyticsDTO.MatchupRankingResponse> getMatchupRanking(
+            @Parameter(description = "Team ID", required = true)
+            @PathVariable Long teamId,
+            @ParameterObject AnalyticsDTO.Filter filter,
+            @Parameter(description = "Rank by: winRate, confidence, games or attendance")
+            @RequestParam(defaultValue = "winRate") String sort,
+            @Parameter(description = "desc or asc")
+            @RequestParam(defaultValue = "desc") String order,
+            @Parameter(description = "Zero-based page number")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        log.debug("Fetching matchup ranking for team: {} (user: {})", teamId, userId);
+
+        verifyTeamAccess(teamId, userId);
+
+        return ResponseEntity.ok(analyticsService.getMatchupRanking(teamId, filter, sort, order, page, clampLimit(size)));
+    }
+
     /**
      * Analyze win rate against a custom opponent team
      * POST /api/teams/{teamId}/analytics/matchups/custom
      *
      * @param teamId the team ID
+     * @param filter optional date range, Bo1/Bo3, result, opponent and match tag filters
      * @param authentication the authenticated user
      * @param request the custom opponent team (4-6 Pokemon)
      * @return custom matchup analysis
@@ -167,6 +252,7 @@ public class AnalyticsController {
     public ResponseEntity<AnalyticsDTO.CustomMatchupResponse> getCustomMatchupAnalysis(
             @Parameter(description = "Team ID", required = true)
             @PathVariable Long teamId,
+            @ParameterObject AnalyticsDTO.Filter filter,
             Authentication authentication,
             @Valid @RequestBody AnalyticsDTO.CustomMatchupRequest request) {
 
@@ -182,7 +268,7 @@ public class AnalyticsController {
             throw new IllegalArgumentException("Must provide 4-6 Pokemon for custom matchup analysis");
         }
 
-        AnalyticsDTO.CustomMatchupResponse stats = analyticsService.getCustomMatchupAnalysis(teamId, request);
+        AnalyticsDTO.CustomMatchupResponse stats = analyticsService.getCustomMatchupAnalysis(teamId, request, filter);
         return ResponseEntity.ok(stats);
     }
 
@@ -191,6 +277,7 @@ public class AnalyticsController {
      * GET /api/teams/{teamId}/analytics/moves
      *
      * @param teamId the team ID
+     * @param filter optional date range, Bo1/Bo3, result, opponent and match tag filters
      * @param authentication the authenticated user
      * @return move usage statistics per Pokemon
      */
@@ -212,9 +299,11 @@ public class AnalyticsController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
+    @TeamVersioned
     public ResponseEntity<AnalyticsDTO.MoveUsageResponse> getMoveUsageStats(
             @Parameter(description = "Team ID", required = true)
             @PathVariable Long teamId,
+            @ParameterObject AnalyticsDTO.Filter filter,
             Authentication authentication) {
 
         Long userId = getCurrentUserId(authentication);
@@ -222,10 +311,148 @@ public class AnalyticsController {
 
         verifyTeamAccess(teamId, userId);
 
-        AnalyticsDTO.MoveUsageResponse stats = analyticsService.getMoveUsageStats(teamId);
+        AnalyticsDTO.MoveUsageResponse stats = analyticsService.getMoveUsageStats(teamId, filter);
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get win-rate and usage trends for a team
+     * GET /api/teams/{teamId}/analytics/trends
+     *
+     * @param teamId the team ID
+     * @param granularity "day" or "week" buckets
+     * @param from first day (inclusive), optional
+     * @param to last day (inclusive), optional
+     * @param limit max species and lead pair series
+     * @param authentication the authenticated user
+     * @return team win rate per bucket plus species and lead pair series
+     */
+    @GetMapping("/trends")
+    @Operation(
+            summary = "Get team trends",
+            description = "Games, wins and win rate per day or week, overall and for the most-brought species " +
+                    "and lead pairs. Served from pre-aggregated rollups",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Trends retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AnalyticsDTO.TrendResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid granularity or date range",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    @TeamVersioned
+    public ResponseEntity<AnalyticsDTO.TrendResponse> getTrends(
+            @Parameter(description = "Team ID", required = true)
+            @PathVariable Long teamId,
+            @Parameter(description = "Bucket size: day or week")
+            @RequestParam(defaultValue = "week") String granularity,
+            @Parameter(description = "First day (ISO date, inclusive)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (ISO date, inclusive)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Max species and lead pair series")
+            @RequestParam(defaultValue = "6") int limit,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        log.debug("Fetching trends for team: {} (user: {})", teamId, userId);
+
+        verifyTeamAccess(teamId, userId);
+
+        return ResponseEntity.ok(analyticsService.getTrends(teamId, granularity, from, to, clampLimit(limit)));
+    }
+
+    /**
+     * Get the opponent metagame across all of the caller's teams in this team's regulation
+     * GET /api/teams/{teamId}/analytics/metagame
+     *
+     * @param teamId the team ID (selects the regulation)
+     * @param limit max entries per list
+     * @param authentication the authenticated user
+     * @return most common opponent species, lead pairs, Tera and Mega picks with win rates
+     */
+    @GetMapping("/metagame")
+    @Operation(
+            summary = "Get regulation metagame across my teams",
+            description = "Most common opponent species, lead pairs, Tera and Mega picks across every team " +
+                    "the caller owns in this team's regulation",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Metagame retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AnalyticsDTO.MetagameResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Team has no regulation set",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<AnalyticsDTO.MetagameResponse> getMetagame(
+            @Parameter(description = "Team ID", required = true)
+            @PathVariable Long teamId,
+            @Parameter(description = "Max entries per list")
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        log.debug("Fetching metagame for team: {} (user: {})", teamId, userId);
+
+        verifyTeamAccess(teamId, userId);
+
+        return ResponseEntity.ok(metagameService.getUserMetagame(teamId, userId, clampLimit(limit)));
+    }
+
+    /**
+     * Get the anonymized opponent metagame across every user who opted in to sharing
+     * GET /api/teams/{teamId}/analytics/metagame/global
+     *
+     * @param teamId the team ID (selects the regulation)
+     * @param limit max entries per list
+     * @param authentication the authenticated user
+     * @return aggregate counts only; empty until enough users contribute
+     */
+    @GetMapping("/metagame/global")
+    @Operation(
+            summary = "Get global regulation metagame",
+            description = "Anonymized rollup across users who enabled shareMetagameStats, for this team's regulation",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Metagame retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = AnalyticsDTO.MetagameResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Team has no regulation set",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<AnalyticsDTO.MetagameResponse> getGlobalMetagame(
+            @Parameter(description = "Team ID", required = true)
+            @PathVariable Long teamId,
+            @Parameter(description = "Max entries per list")
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        log.debug("Fetching global metagame for team: {} (user: {})", teamId, userId);
+
+        verifyTeamAccess(teamId, userId);
+
+        return ResponseEntity.ok(metagameService.getGlobalMetagame(teamId, clampLimit(limit)));
+    }
+
     /**
      * Exception handler for IllegalArgumentException
      */
@@ -245,4 +472,8 @@ public class AnalyticsController {
 
         return ResponseEntity.badRequest().body(error);
     }
-}
\ No newline at end of file
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, 100));
+    }
+}
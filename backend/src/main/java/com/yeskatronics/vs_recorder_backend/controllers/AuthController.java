@@ -10,6 +10,7 @@ import com.yeskatronics.vs_recorder_backend.security.JwtUtil;
 import com.yeskatronics.vs_recorder_backend.services.PasswordResetService;
 import com.yeskatronics.vs_recorder_backend.services.TeamCollaboratorService;
 import com.yeskatronics.vs_recorder_backend.services.UserService;
+import com.yeskatronics.vs_recorder_backend.utils.ClientIp;
 import jakarta.servlet.http.HttpServletRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -342,7 +343,7 @@ public class AuthController {
         log.info("Password reset requested for email: {}***",
             request.getEmail().substring(0, Math.min(3, request.getEmail().indexOf('@'))));
 
-        String clientIp = getClientIp(httpRequest);
+        String clientIp = ClientIp.of(httpRequest);
 
         try {
             passwordResetService.initiatePasswordReset(request.getEmail(), clientIp);
@@ -430,17 +431,6 @@ public class AuthController {
         }
     }
 
-    /**
-     * Helper method to extract client IP address
-     */
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
-
     /**
      * Exception handler for authentication errors
      */
@@ -7,6 +7,8 @@ import com.yeskatronics.vs_recorder_backend.services.TeamImportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -153,11 +155,17 @@ public class ExportController {
      * Note: This endpoint is public to allow sharing export codes.
      * The actual import still requires authentication.
      *
+     * Exports never change, so clients revalidate with If-None-Match and get a 304 without the
+     * payload being loaded or parsed again.
+     *
      * @param code the 6-character share code
+     * @param ifNoneMatch ETag from an earlier response, if any
      * @return the export data
      */
     @GetMapping("/api/export/{code}")
-    public ResponseEntity<ExportDTO.ExportData> getExportByCode(@PathVariable String code) {
+    public ResponseEntity<ExportDTO.ExportData> getExportByCode(
+            @PathVariable String code,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Fetching export by code: {}", code);
 
         // Basic validation
@@ -165,8 +173,21 @@ public class ExportController {
             return ResponseEntity.badRequest().build();
         }
 
-        ExportDTO.ExportData exportData = teamExportService.getExportByCode(code);
-        return ResponseEntity.ok(exportData);
+        if (ifNoneMatch != null) {
+            String etag = teamExportService.getExportEtag(code);
+            if (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*")) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+        }
+
+        TeamExportService.VersionedExport export = teamExportService.getVersionedExport(code);
+        return ResponseEntity.ok()
+                .eTag(export.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(export.data());
     }
 
     // ==================== Import Operations ====================
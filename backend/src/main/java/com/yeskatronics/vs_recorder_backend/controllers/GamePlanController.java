@@ -4,8 +4,11 @@ import com.yeskatronics.vs_recorder_backend.dto.GamePlanDTO;
 import com.yeskatronics.vs_recorder_backend.entities.GamePlan;
 import com.yeskatronics.vs_recorder_backend.entities.GamePlanTeam;
 import com.yeskatronics.vs_recorder_backend.mappers.GamePlanMapper;
+import com.yeskatronics.vs_recorder_backend.config.RateLimited;
 import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.services.CompositionRecordService;
 import com.yeskatronics.vs_recorder_backend.services.GamePlanService;
+import com.yeskatronics.vs_recorder_backend.services.RateLimitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -35,6 +38,7 @@ import java.util.List;
 public class GamePlanController {
 
     private final GamePlanService gamePlanService;
+    private final CompositionRecordService compositionRecordService;
     private final GamePlanMapper gamePlanMapper;
     private final CustomUserDetailsService userDetailsService;
 
@@ -206,6 +210,7 @@ public class GamePlanController {
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PostMapping("/{gamePlanId}/teams")
+    @RateLimited(RateLimitService.Policy.PASTE_FETCH)
     public ResponseEntity<GamePlanDTO.GamePlanTeamResponse> addTeam(
             @PathVariable Long gamePlanId,
             Authentication authentication,
@@ -214,7 +219,9 @@ public class GamePlanController {
         Long userId = getCurrentUserId(authentication);
         log.info("Adding team to game plan: {}", gamePlanId);
 
+        // Resolved here, before the service opens a transaction, since a paste URL is fetched
         GamePlanTeam team = gamePlanMapper.toEntity(request);
+        team.setPasteSpecies(compositionRecordService.resolveSpecies(request.getPokepaste()));
         GamePlanTeam savedTeam = gamePlanService.addTeamToGamePlan(gamePlanId, userId, team);
         GamePlanDTO.GamePlanTeamResponse response = gamePlanMapper.toResponse(savedTeam);
 
@@ -274,6 +281,7 @@ public class GamePlanController {
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PatchMapping("/{gamePlanId}/teams/{teamId}")
+    @RateLimited(RateLimitService.Policy.PASTE_FETCH)
     public ResponseEntity<GamePlanDTO.GamePlanTeamResponse> updateTeam(
             @PathVariable Long gamePlanId,
             @PathVariable Long teamId,
@@ -285,6 +293,9 @@ public class GamePlanController {
 
         GamePlanTeam updates = gamePlanMapper.toEntity(new GamePlanDTO.AddTeamRequest(
                 request.getPokepaste(), request.getNotes(), request.getColor()));
+        if (request.getPokepaste() != null) {
+            updates.setPasteSpecies(compositionRecordService.resolveSpecies(request.getPokepaste()));
+        }
         GamePlanTeam updatedTeam = gamePlanService.updateGamePlanTeam(teamId, gamePlanId, userId, updates);
         GamePlanDTO.GamePlanTeamResponse response = gamePlanMapper.toResponse(updatedTeam);
 
@@ -312,6 +323,28 @@ public class GamePlanController {
 
     // ==================== Composition Endpoints ====================
 
+    @Operation(summary = "Get composition records",
+            description = "Each composition's record from the linked team's replays: with the same lead, with the same lead and back, and against opponents resembling this team")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved composition records",
+                    content = @Content(schema = @Schema(implementation = GamePlanDTO.CompositionRecordsResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Game plan is not linked to a team"),
+            @ApiResponse(responseCode = "404", description = "Team not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/{gamePlanId}/teams/{teamId}/compositions/records")
+    @RateLimited(RateLimitService.Policy.PASTE_FETCH)
+    public ResponseEntity<GamePlanDTO.CompositionRecordsResponse> getCompositionRecords(
+            @PathVariable Long gamePlanId,
+            @PathVariable Long teamId,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        log.info("Fetching composition records for team: {}", teamId);
+
+        return ResponseEntity.ok(gamePlanService.getCompositionRecords(teamId, gamePlanId, userId));
+    }
+
     @Operation(summary = "Add composition", description = "Add a team composition (leads + backs) to an opponent team")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Composition added successfully",
@@ -1,5 +1,6 @@
 package com.yeskatronics.vs_recorder_backend.controllers;
 
+import com.yeskatronics.vs_recorder_backend.config.TeamVersioned;
 import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
 import com.yeskatronics.vs_recorder_backend.dto.MatchDTO;
 import com.yeskatronics.vs_recorder_backend.entities.Match;
@@ -86,6 +87,7 @@ public class MatchController {
      * @return the match with replays and statistics
      */
     @GetMapping("/{id}")
+    @TeamVersioned(value = "id", scope = TeamVersioned.Scope.MATCH)
     public ResponseEntity<MatchDTO.Response> getMatchById(
             @PathVariable Long id,
             Authentication authentication) {
@@ -119,6 +121,7 @@ public class MatchController {
      * @return list of matches (summary)
      */
     @GetMapping
+    @TeamVersioned
     public ResponseEntity<List<MatchDTO.Summary>> getMatchesByTeamId(
             @RequestParam Long teamId,
             Authentication authentication) {
@@ -147,6 +150,7 @@ public class MatchController {
      * @return list of matches with full details
      */
     @GetMapping("/with-replays")
+    @TeamVersioned
     public ResponseEntity<List<MatchDTO.Response>> getMatchesWithReplays(
             @RequestParam Long teamId,
             Authentication authentication) {
@@ -176,6 +180,7 @@ public class MatchController {
      * @return list of matches
      */
     @GetMapping("/opponent/{opponent}")
+    @TeamVersioned
     public ResponseEntity<List<MatchDTO.Summary>> getMatchesByOpponent(
             @RequestParam Long teamId,
             Authentication authentication,
@@ -206,6 +211,7 @@ public class MatchController {
      * @return list of matches
      */
     @GetMapping("/tag/{tag}")
+    @TeamVersioned
     public ResponseEntity<List<MatchDTO.Summary>> getMatchesByTag(
             @RequestParam Long teamId,
             Authentication authentication,
@@ -351,6 +357,7 @@ public class MatchController {
      * @return match statistics
      */
     @GetMapping("/{id}/stats")
+    @TeamVersioned(value = "id", scope = TeamVersioned.Scope.MATCH)
     public ResponseEntity<MatchDTO.MatchStats> getMatchStats(
             @PathVariable Long id,
             Authentication authentication) {
@@ -377,6 +384,7 @@ public class MatchController {
      * @return team match statistics
      */
     @GetMapping("/stats/team")
+    @TeamVersioned
     public ResponseEntity<MatchDTO.TeamMatchStatsResponse> getTeamMatchStats(
             @RequestParam Long teamId,
             Authentication authentication) {
@@ -1,11 +1,15 @@
 package com.yeskatronics.vs_recorder_backend.controllers;
 
+import com.yeskatronics.vs_recorder_backend.config.RateLimited;
 import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
 import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
 import com.yeskatronics.vs_recorder_backend.dto.PokemonDTO;
 import com.yeskatronics.vs_recorder_backend.dto.PokemonEntry;
+import com.yeskatronics.vs_recorder_backend.services.PokeApiService;
 import com.yeskatronics.vs_recorder_backend.services.PokemonService;
 import com.yeskatronics.vs_recorder_backend.services.PokepasteService;
+import com.yeskatronics.vs_recorder_backend.services.RateLimitService;
+import com.yeskatronics.vs_recorder_backend.utils.PokemonRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,14 +19,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * REST Controller for Pokemon-related operations.
@@ -41,27 +48,53 @@ public class PokemonController {
 
     private final PokepasteService pokepasteService;
     private final PokemonService pokemonService;
-    private final RestTemplate restTemplate;
-
-    // PokeAPI cache for fallback sprite lookups
-    private final Map<String, CacheEntry> spriteCache = new ConcurrentHashMap<>();
-    private static final long CACHE_TTL_MS = 7L * 24 * 60 * 60 * 1000; // 7 days
+    private final PokeApiService pokeApiService;
 
     /**
      * Get the full Pokemon registry
      * GET /api/pokemon/registry
+     *
+     * The body is serialized and gzipped once at build time (see PokemonRegistryCompiler), so this
+     * just writes the stored bytes. Clients revalidate with If-None-Match and get a 304 while the
+     * registry is unchanged.
      */
     @GetMapping("/registry")
     @Operation(
             summary = "Get Pokemon registry",
-            description = "Returns the full Pokemon registry with all entries, aliases, types, and sprite info. Use the version field for cache busting."
+            description = "Returns the full Pokemon registry with all entries, aliases, types, and sprite info. Use the version field or ETag for cache busting."
     )
-    public ResponseEntity<Map<String, Object>> getRegistry() {
-        Map<String, Object> response = Map.of(
-                "version", pokemonService.getRegistryVersion(),
-                "pokemon", pokemonService.getFullRegistry()
-        );
-        return ResponseEntity.ok(response);
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Registry returned"),
+            @ApiResponse(responseCode = "304", description = "Registry unchanged since the ETag sent in If-None-Match")
+    })
+    public ResponseEntity<byte[]> getRegistry(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException {
+
+        PokemonRegistry registry = pokemonService.getRegistry();
+        String etag = "\"" + registry.getEtag() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(registry.getRegistryJsonGzip());
+        }
+        try (InputStream json = registry.openRegistryJson()) {
+            return response.body(json.readAllBytes());
+        }
     }
 
     /**
@@ -135,6 +168,7 @@ public class PokemonController {
      * GET /api/pokemon/pokepaste/fetch?url=...
      */
     @GetMapping("/pokepaste/fetch")
+    @RateLimited(RateLimitService.Policy.PASTE_FETCH)
     @Operation(
             summary = "Fetch full pokepaste data",
             description = "Fetches and returns complete paste data from pokepaste or pokebin URL, including title and full Pokemon details. Use this endpoint to avoid CORS issues with Pokebin."
@@ -149,6 +183,11 @@ public class PokemonController {
                     responseCode = "400",
                     description = "Invalid URL or failed to fetch/parse paste",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many paste fetches from this client",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
             )
     })
     public ResponseEntity<PokepasteDTO.PasteData> fetchPokepaste(
@@ -205,63 +244,13 @@ public class PokemonController {
             return ResponseEntity.ok(new PokemonDTO.SpriteResponse(spritePath));
         }
 
-        // Fall back to PokeAPI for unknown Pokemon
-        try {
-            String normalizedName = name.toLowerCase().trim()
-                    .replace(" ", "-").replace("'", "")
-                    .replace(".", "").replace("\u00e9", "e");
-
-            CacheEntry cached = spriteCache.get(normalizedName);
-            if (cached != null && !cached.isExpired()) {
-                return ResponseEntity.ok(new PokemonDTO.SpriteResponse(cached.spriteUrl));
-            }
-
-            String pokeApiUrl = "https://pokeapi.co/api/v2/pokemon/" + normalizedName;
-            Map<String, Object> response = restTemplate.getForObject(pokeApiUrl, Map.class);
-
-            if (response == null) {
-                throw new IllegalArgumentException("Failed to fetch Pokemon data from PokeAPI");
-            }
-
-            Map<String, Object> sprites = (Map<String, Object>) response.get("sprites");
-            if (sprites == null) {
-                throw new IllegalArgumentException("No sprite data found for Pokemon: " + normalizedName);
-            }
-
-            String spriteUrl = (String) sprites.get("front_default");
-            if (spriteUrl == null || spriteUrl.isEmpty()) {
-                throw new IllegalArgumentException("No default sprite available for Pokemon: " + normalizedName);
-            }
-
-            spriteCache.put(normalizedName, new CacheEntry(spriteUrl, System.currentTimeMillis()));
-            return ResponseEntity.ok(new PokemonDTO.SpriteResponse(spriteUrl));
-
-        } catch (org.springframework.web.client.HttpClientErrorException.NotFound e) {
-            log.error("Pokemon not found: {}", name);
-            throw new IllegalArgumentException("Pokemon not found: " + name);
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Error fetching Pokemon sprite: {}", e.getMessage(), e);
-            throw new IllegalArgumentException("Failed to fetch Pokemon sprite: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Simple cache entry with TTL for PokeAPI fallback
-     */
-    private static class CacheEntry {
-        private final String spriteUrl;
-        private final long timestamp;
-
-        public CacheEntry(String spriteUrl, long timestamp) {
-            this.spriteUrl = spriteUrl;
-            this.timestamp = timestamp;
-        }
-
-        public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_TTL_MS;
-        }
+        // Fall back to PokeAPI for unknown Pokemon (bounded cache, misses cached too)
+        return pokeApiService.getSpriteUrl(name)
+                .map(url -> ResponseEntity.ok(new PokemonDTO.SpriteResponse(url)))
+                .orElseThrow(() -> {
+                    log.error("Pokemon not found: {}", name);
+                    return new IllegalArgumentException("Pokemon not found: " + name);
+                });
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -1,23 +1,32 @@
 package com.yeskatronics.vs_recorder_backend.controllers;
 
+import com.yeskatronics.vs_recorder_backend.config.RateLimited;
+import com.yeskatronics.vs_recorder_backend.config.TeamVersioned;
 import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
 import com.yeskatronics.vs_recorder_backend.dto.ReplayDTO;
 import com.yeskatronics.vs_recorder_backend.dto.ShowdownDTO;
 import com.yeskatronics.vs_recorder_backend.entities.Replay;
 import com.yeskatronics.vs_recorder_backend.mappers.ReplayMapper;
 import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.services.RateLimitService;
+import com.yeskatronics.vs_recorder_backend.services.ReplayIngestService;
 import com.yeskatronics.vs_recorder_backend.services.ReplayService;
+import com.yeskatronics.vs_recorder_backend.services.ReplayTimelineService;
 import com.yeskatronics.vs_recorder_backend.services.TeamAccessService;
 import com.yeskatronics.vs_recorder_backend.services.TeamAccessService.Permission;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +42,8 @@ import java.util.stream.Collectors;
 public class ReplayController {
 
     private final ReplayService replayService;
+    private final ReplayIngestService replayIngestService;
+    private final ReplayTimelineService replayTimelineService;
     private final ReplayMapper replayMapper;
     private final TeamAccessService teamAccessService;
     private final CustomUserDetailsService userDetailsService;
@@ -69,6 +80,7 @@ public class ReplayController {
      * @return the created replay
      */
     @PostMapping("/from-url")
+    @RateLimited(RateLimitService.Policy.REPLAY_IMPORT)
     public ResponseEntity<ReplayDTO.Summary> createReplayFromUrl(
             @RequestParam Long teamId,
             Authentication authentication,
@@ -79,26 +91,86 @@ public class ReplayController {
 
         verifyTeamPermission(teamId, userId, Permission.ADD_REPLAYS);
 
-        Replay savedReplay = replayService.createReplayFromUrl(teamId, request.getUrl());
-
-        // Apply optional fields (notes, reviewed) via partial update
-        boolean hasNotes = request.getNotes() != null && !request.getNotes().isEmpty();
-        boolean hasReviewed = Boolean.TRUE.equals(request.getReviewed());
-        if (hasNotes || hasReviewed) {
-            Replay updates = new Replay();
-            if (hasNotes) {
-                updates.setNotes(request.getNotes());
-            }
-            if (hasReviewed) {
-                updates.setReviewed(true);
-            }
-            savedReplay = replayService.updateReplay(savedReplay.getId(), updates);
-        }
+        Replay savedReplay = replayIngestService.ingest(
+                teamId, request.getUrl(), request.getNotes(), request.getReviewed());
 
         ReplayDTO.Summary response = replayMapper.toSummaryDTO(savedReplay);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Queue a replay URL for background import and return immediately.
+     * POST /api/replays/from-url/async?teamId={teamId}
+     *
+     * The Showdown fetch happens on a worker; poll the Location URL (or subscribe to its
+     * /events stream) for the outcome. Responds 503 when the import queue is full.
+     *
+     * @param teamId the team ID
+     * @param authentication the authenticated user
+     * @param request the replay URL and optional notes
+     * @return the queued job (202 Accepted)
+     */
+    @PostMapping("/from-url/async")
+    @RateLimited(RateLimitService.Policy.REPLAY_IMPORT)
+    public ResponseEntity<ReplayDTO.IngestJobResponse> submitReplayFromUrl(
+            @RequestParam Long teamId,
+            Authentication authentication,
+            @Valid @RequestBody ReplayDTO.CreateFromUrlRequest request) {
+
+        Long userId = getCurrentUserId(authentication);
+        verifyTeamPermission(teamId, userId, Permission.ADD_REPLAYS);
+
+        ReplayDTO.IngestJobResponse job = replayIngestService.submit(
+                teamId, userId, request.getUrl(), request.getNotes(), request.getReviewed());
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/replays/jobs/" + job.getJobId()))
+                .body(job);
+    }
+
+    /**
+     * Get the status of a background replay import.
+     * GET /api/replays/jobs/{jobId}
+     *
+     * @param jobId the job ID returned by /from-url/async
+     * @param authentication the authenticated user
+     * @return the job, including the created replay once it succeeds
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReplayDTO.IngestJobResponse> getIngestJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+
+        ReplayDTO.IngestJobResponse job = replayIngestService.getJob(jobId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Ingest job not found: " + jobId));
+
+        if (job.getReplayId() != null) {
+            replayService.getReplayById(job.getReplayId())
+                    .map(replayMapper::toSummaryDTO)
+                    .ifPresent(job::setReplay);
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Stream status changes of a background replay import as server-sent events.
+     * GET /api/replays/jobs/{jobId}/events
+     *
+     * @param jobId the job ID returned by /from-url/async
+     * @param authentication the authenticated user
+     * @return an event stream that completes when the job succeeds or fails
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamIngestJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        return replayIngestService.subscribe(jobId, userId);
+    }
+
     /**
      * Preview a replay from URL WITHOUT persisting it (bulk-import grouping step).
      * POST /api/replays/preview?teamId={teamId}
@@ -112,6 +184,7 @@ public class ReplayController {
      * @return the parsed (non-persisted) preview
      */
     @PostMapping("/preview")
+    @RateLimited(RateLimitService.Policy.REPLAY_IMPORT)
     public ResponseEntity<ShowdownDTO.ReplayPreview> previewReplayFromUrl(
             @RequestParam Long teamId,
             Authentication authentication,
@@ -121,7 +194,7 @@ public class ReplayController {
 
         verifyTeamPermission(teamId, userId, Permission.ADD_REPLAYS);
 
-        ShowdownDTO.ReplayPreview preview = replayService.previewReplayFromUrl(teamId, request.getUrl());
+        ShowdownDTO.ReplayPreview preview = replayIngestService.preview(teamId, request.getUrl());
         return ResponseEntity.ok(preview);
     }
 
@@ -161,6 +234,7 @@ public class ReplayController {
      * @return the replay with full battle log
      */
     @GetMapping("/{id}")
+    @TeamVersioned(value = "id", scope = TeamVersioned.Scope.REPLAY)
     public ResponseEntity<ReplayDTO.Response> getReplayById(
             @PathVariable Long id,
             Authentication authentication) {
@@ -183,16 +257,50 @@ public class ReplayController {
     }
 
     /**
-     * Get all replays for a team
-     * GET /api/replays?teamId={teamId}
+     * Get a replay's turn-by-turn timeline instead of its raw battle log
+     * GET /api/replays/{id}/timeline[?kinds=switch,move,damage]
+     *
+     * @param id the replay ID
+     * @param kinds optional event kinds to keep (switch, move, damage, heal, faint, tera, mega,
+     *              weather, field, side, status); all when omitted
+     * @param authentication the authenticated user
+     * @return the timeline
+     */
+    @GetMapping("/{id}/timeline")
+    @TeamVersioned(value = "id", scope = TeamVersioned.Scope.REPLAY)
+    public ResponseEntity<ReplayDTO.Timeline> getReplayTimeline(
+            @PathVariable Long id,
+            @RequestParam(required = false) Set<String> kinds,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        log.debug("Fetching timeline for replay ID: {}", id);
+
+        Long teamId = replayService.getReplayTeamId(id).orElse(null);
+        if (teamId == null) {
+            return ResponseEntity.notFound().build();
+        }
+        verifyTeamAccess(teamId, userId);
+
+        return replayTimelineService.getTimeline(id, kinds)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get all replays for a team, optionally only those against an opponent core
+     * GET /api/replays?teamId={teamId}[&opponentPokemon=Incineroar,Rillaboom]
      *
      * @param teamId the team ID
+     * @param opponentPokemon optional species the opponent must all have brought
      * @param authentication the authenticated user
      * @return list of replays (summary without battle logs)
      */
     @GetMapping
+    @TeamVersioned
     public ResponseEntity<List<ReplayDTO.Summary>> getReplaysByTeamId(
             @RequestParam Long teamId,
+            @RequestParam(required = false) List<String> opponentPokemon,
             Authentication authentication) {
 
         Long userId = getCurrentUserId(authentication);
@@ -200,7 +308,11 @@ public class ReplayController {
 
         verifyTeamAccess(teamId, userId);
 
-        List<ReplayDTO.Summary> replays = replayService.getReplaysByTeamIdOrderedByDate(teamId).stream()
+        List<Replay> found = opponentPokemon == null || opponentPokemon.isEmpty()
+                ? replayService.getReplaysByTeamIdOrderedByDate(teamId)
+                : replayService.getReplaysByOpponentCore(teamId, opponentPokemon);
+
+        List<ReplayDTO.Summary> replays = found.stream()
                 .map(replayMapper::toSummaryDTO)
                 .collect(Collectors.toList());
 
@@ -216,6 +328,7 @@ public class ReplayController {
      * @return list of standalone replays
      */
     @GetMapping("/standalone")
+    @TeamVersioned
     public ResponseEntity<List<ReplayDTO.Summary>> getStandaloneReplays(
             @RequestParam Long teamId,
             Authentication authentication) {
@@ -241,6 +354,7 @@ public class ReplayController {
      * @return list of replays in the match
      */
     @GetMapping("/match/{matchId}")
+    @TeamVersioned(value = "matchId", scope = TeamVersioned.Scope.MATCH)
     public ResponseEntity<List<ReplayDTO.Summary>> getReplaysByMatchId(
             @PathVariable Long matchId,
             Authentication authentication) {
@@ -307,6 +421,7 @@ public class ReplayController {
      * @return list of replays
      */
     @GetMapping("/result/{result}")
+    @TeamVersioned
     public ResponseEntity<List<ReplayDTO.Summary>> getReplaysByResult(
             @RequestParam Long teamId,
             Authentication authentication,
@@ -334,6 +449,7 @@ public class ReplayController {
      * @return list of replays
      */
     @GetMapping("/opponent/{opponent}")
+    @TeamVersioned
     public ResponseEntity<List<ReplayDTO.Summary>> getReplaysByOpponent(
             @RequestParam Long teamId,
             Authentication authentication,
@@ -482,6 +598,7 @@ public class ReplayController {
      * @return win rate percentage
      */
     @GetMapping("/stats/win-rate")
+    @TeamVersioned
     public ResponseEntity<Double> getWinRate(
             @RequestParam Long teamId,
             Authentication authentication) {
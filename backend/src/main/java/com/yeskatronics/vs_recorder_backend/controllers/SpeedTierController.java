@@ -0,0 +1,93 @@
+package com.yeskatronics.vs_recorder_backend.controllers;
+
+import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
+import com.yeskatronics.vs_recorder_backend.dto.SpeedTierDTO;
+import com.yeskatronics.vs_recorder_backend.services.SpeedTierService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller for per-regulation speed tier tables, built at startup by {@link SpeedTierService}.
+ * The team overlay lives at GET /api/teams/{id}/speed-tiers.
+ *
+ * Base path: /api/pokemon/speed-tiers
+ *
+ * Note: These endpoints are public and do not require authentication.
+ */
+@RestController
+@RequestMapping("/api/pokemon/speed-tiers")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Speed Tiers", description = "Level 50 speed tiers per regulation")
+public class SpeedTierController {
+
+    private final SpeedTierService speedTierService;
+
+    /**
+     * List regulations with speed tiers
+     * GET /api/pokemon/speed-tiers
+     */
+    @GetMapping
+    @Operation(summary = "List speed tier regulations")
+    public ResponseEntity<List<String>> getRegulations() {
+        return ResponseEntity.ok(speedTierService.getRegulations());
+    }
+
+    /**
+     * Get the speed tier table for a regulation
+     * GET /api/pokemon/speed-tiers/{regulation}
+     */
+    @GetMapping("/{regulation}")
+    @Operation(
+            summary = "Get speed tiers",
+            description = "Every legal species (Megas included) at max +Spe, max neutral, 0 neutral and 0 -Spe, fastest first."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Speed tiers returned"),
+            @ApiResponse(responseCode = "400", description = "No speed tiers for the regulation",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<SpeedTierDTO.TierTable> getTable(
+            @Parameter(description = "Regulation code", required = true, example = "M-A")
+            @PathVariable String regulation) {
+
+        // Tables only change on deploy
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic())
+                .body(speedTierService.getTable(regulation));
+    }
+
+    /**
+     * What moves before a given speed
+     * GET /api/pokemon/speed-tiers/{regulation}/check?speed=150
+     */
+    @GetMapping("/{regulation}/check")
+    @Operation(
+            summary = "Check a speed against the tiers",
+            description = "Counts and lists the rows that move first against the given speed, normally and under opposing Tailwind, Choice Scarf and Trick Room."
+    )
+    public ResponseEntity<SpeedTierDTO.SpeedCheckResponse> checkSpeed(
+            @Parameter(description = "Regulation code", required = true, example = "M-A")
+            @PathVariable String regulation,
+            @Parameter(description = "Level 50 speed stat, own modifiers included", required = true, example = "150")
+            @RequestParam int speed,
+            @Parameter(description = "Max rows listed per scenario (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+
+        int clamped = Math.max(1, Math.min(limit, 100));
+        return ResponseEntity.ok(speedTierService.checkSpeed(regulation, speed, clamped));
+    }
+}
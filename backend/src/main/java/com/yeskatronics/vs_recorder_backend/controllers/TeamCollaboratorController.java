@@ -19,6 +19,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -107,8 +108,9 @@ public class TeamCollaboratorController {
     public ResponseEntity<List<TeamDTO.Summary>> sharedWithMe(Authentication authentication) {
         Long userId = getCurrentUserId(authentication);
         List<Team> teams = collaboratorService.listSharedTeams(userId);
+        Map<Long, TeamService.SummaryCounts> counts = teamService.getSummaryCounts(teams);
         List<TeamDTO.Summary> response = teams.stream()
-                .map(team -> toSummaryWithRole(team, /*owner*/ false))
+                .map(team -> toSummaryWithRole(team, counts.get(team.getId()), /*owner*/ false))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(response);
     }
@@ -117,8 +119,9 @@ public class TeamCollaboratorController {
     public ResponseEntity<List<TeamDTO.Summary>> teamsIAmSharing(Authentication authentication) {
         Long userId = getCurrentUserId(authentication);
         List<Team> teams = collaboratorService.listTeamsOwnerIsSharing(userId);
+        Map<Long, TeamService.SummaryCounts> counts = teamService.getSummaryCounts(teams);
         List<TeamDTO.Summary> response = teams.stream()
-                .map(team -> toSummaryWithRole(team, /*owner*/ true))
+                .map(team -> toSummaryWithRole(team, counts.get(team.getId()), /*owner*/ true))
                 .collect(Collectors.toList());
         return ResponseEntity.ok(response);
     }
@@ -164,11 +167,9 @@ public class TeamCollaboratorController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    private TeamDTO.Summary toSummaryWithRole(Team team, boolean isOwner) {
-        int replayCount = team.getReplays() != null ? team.getReplays().size() : 0;
-        int matchCount = team.getMatches() != null ? team.getMatches().size() : 0;
-        double winRate = teamService.getTeamStats(team.getId()).winRate();
-        TeamDTO.Summary summary = teamMapper.toSummaryDTO(team, replayCount, matchCount, winRate);
+    private TeamDTO.Summary toSummaryWithRole(Team team, TeamService.SummaryCounts counts, boolean isOwner) {
+        TeamDTO.Summary summary = teamMapper.toSummaryDTO(
+                team, counts.replayCount(), counts.matchCount(), counts.winRate());
         summary.setRole(isOwner ? "OWNER" : "COLLABORATOR");
         return summary;
     }
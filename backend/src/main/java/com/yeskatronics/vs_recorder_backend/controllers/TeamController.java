@@ -1,10 +1,13 @@
 package com.yeskatronics.vs_recorder_backend.controllers;
 
+import com.yeskatronics.vs_recorder_backend.config.TeamVersioned;
 import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
+import com.yeskatronics.vs_recorder_backend.dto.SpeedTierDTO;
 import com.yeskatronics.vs_recorder_backend.dto.TeamDTO;
 import com.yeskatronics.vs_recorder_backend.entities.Team;
 import com.yeskatronics.vs_recorder_backend.mappers.TeamMapper;
 import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.services.SpeedTierService;
 import com.yeskatronics.vs_recorder_backend.services.TeamAccessService;
 import com.yeskatronics.vs_recorder_backend.services.TeamAccessService.Permission;
 import com.yeskatronics.vs_recorder_backend.services.TeamAccessService.Role;
@@ -19,6 +22,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -38,6 +42,7 @@ public class TeamController {
     private final TeamService teamService;
     private final TeamAccessService teamAccessService;
     private final TeamMapper teamMapper;
+    private final SpeedTierService speedTierService;
     private final CustomUserDetailsService userDetailsService;
 
     /**
@@ -66,13 +71,12 @@ public class TeamController {
 
     /**
      * Build a Summary DTO for a team and tag it with the caller's role. Owners get OWNER;
-     * accepted collaborators get COLLABORATOR. Used by list endpoints.
+     * accepted collaborators get COLLABORATOR. Used by list endpoints, with counts from
+     * {@link TeamService#getSummaryCounts}.
      */
-    private TeamDTO.Summary toSummaryDtoWithRole(Team team, Long userId) {
-        int replayCount = team.getReplays() != null ? team.getReplays().size() : 0;
-        int matchCount = team.getMatches() != null ? team.getMatches().size() : 0;
-        double winRate = teamService.getTeamStats(team.getId()).winRate();
-        TeamDTO.Summary summary = teamMapper.toSummaryDTO(team, replayCount, matchCount, winRate);
+    private TeamDTO.Summary toSummaryDtoWithRole(Team team, TeamService.SummaryCounts counts, Long userId) {
+        TeamDTO.Summary summary = teamMapper.toSummaryDTO(
+                team, counts.replayCount(), counts.matchCount(), counts.winRate());
         boolean isOwner = team.getUser() != null && userId.equals(team.getUser().getId());
         summary.setRole(isOwner ? Role.OWNER.name() : Role.COLLABORATOR.name());
         return summary;
@@ -140,8 +144,9 @@ public class TeamController {
         log.debug("Fetching accessible teams for user: {}", userId);
 
         List<Team> teams = teamService.getAccessibleTeams(userId);
+        Map<Long, TeamService.SummaryCounts> counts = teamService.getSummaryCounts(teams);
         List<TeamDTO.Summary> summaries = teams.stream()
-                .map(team -> toSummaryDtoWithRole(team, userId))
+                .map(team -> toSummaryDtoWithRole(team, counts.get(team.getId()), userId))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(summaries);
@@ -164,8 +169,9 @@ public class TeamController {
         log.debug("Fetching teams for user: {} with regulation: {}", userId, regulation);
 
         List<Team> teams = teamService.getTeamsByUserIdAndRegulation(userId, regulation);
+        Map<Long, TeamService.SummaryCounts> counts = teamService.getSummaryCounts(teams);
         List<TeamDTO.Summary> summaries = teams.stream()
-                .map(team -> toSummaryDtoWithRole(team, userId))
+                .map(team -> toSummaryDtoWithRole(team, counts.get(team.getId()), userId))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(summaries);
@@ -230,6 +236,7 @@ public class TeamController {
      * @return team statistics
      */
     @GetMapping("/{id}/stats")
+    @TeamVersioned("id")
     public ResponseEntity<TeamDTO.TeamStats> getTeamStats(
             @PathVariable Long id,
             Authentication authentication) {
@@ -245,6 +252,28 @@ public class TeamController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the team's speeds placed in its regulation's speed tiers
+     * GET /api/teams/{id}/speed-tiers
+     *
+     * @param id the team ID
+     * @param regulation optional regulation code, defaults to the team's regulation
+     * @param authentication the authenticated user
+     * @return one row per team member (plus Mega formes) with its rank in the table
+     */
+    @GetMapping("/{id}/speed-tiers")
+    public ResponseEntity<SpeedTierDTO.TeamOverlayResponse> getTeamSpeedTiers(
+            @PathVariable Long id,
+            @RequestParam(required = false) String regulation,
+            Authentication authentication) {
+
+        Long userId = getCurrentUserId(authentication);
+        log.debug("Fetching speed tier overlay for team: {}", id);
+
+        TeamAccess access = teamAccessService.resolve(id, userId);
+        return ResponseEntity.ok(speedTierService.getTeamOverlay(access.getTeam(), regulation));
+    }
+
     /**
      * Add a showdown username to a team
      * POST /api/teams/{id}/showdown-usernames
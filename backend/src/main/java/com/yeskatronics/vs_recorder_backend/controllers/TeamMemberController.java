@@ -1,5 +1,6 @@
 package com.yeskatronics.vs_recorder_backend.controllers;
 
+import com.yeskatronics.vs_recorder_backend.config.TeamVersioned;
 import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
 import com.yeskatronics.vs_recorder_backend.dto.TeamMemberDTO;
 import com.yeskatronics.vs_recorder_backend.entities.TeamMember;
@@ -72,6 +73,7 @@ public class TeamMemberController {
      * GET /api/team-members?teamId={teamId}
      */
     @GetMapping
+    @TeamVersioned
     public ResponseEntity<List<TeamMemberDTO.Response>> getTeamMembers(
             @RequestParam Long teamId,
             Authentication authentication) {
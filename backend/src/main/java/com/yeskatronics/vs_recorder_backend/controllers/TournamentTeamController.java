@@ -0,0 +1,151 @@
+package com.yeskatronics.vs_recorder_backend.controllers;
+
+import com.yeskatronics.vs_recorder_backend.dto.ErrorResponse;
+import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
+import com.yeskatronics.vs_recorder_backend.dto.TournamentTeamDTO;
+import com.yeskatronics.vs_recorder_backend.services.TournamentTeamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller for recent tournament teams (LabMaus top teams), served from
+ * {@link TournamentTeamService}'s in-memory snapshots for the Matchup Planner.
+ *
+ * Base path: /api/pokemon/tournament-teams
+ *
+ * Note: These endpoints are public and do not require authentication.
+ */
+@RestController
+@RequestMapping("/api/pokemon/tournament-teams")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Tournament Teams", description = "Recent tournament top teams from LabMaus")
+public class TournamentTeamController {
+
+    private final TournamentTeamService tournamentTeamService;
+
+    /**
+     * List cached regulations
+     * GET /api/pokemon/tournament-teams
+     */
+    @GetMapping
+    @Operation(
+            summary = "List tournament team regulations",
+            description = "Returns the regulations with cached tournament teams, their date range and size."
+    )
+    public ResponseEntity<List<TournamentTeamDTO.RegulationSummary>> getRegulations() {
+        return ResponseEntity.ok(tournamentTeamService.getRegulations());
+    }
+
+    /**
+     * Get all tournament teams for a regulation
+     * GET /api/pokemon/tournament-teams/{regulation}
+     *
+     * Written from the snapshot's stored gzip bytes. Clients revalidate with If-None-Match and get
+     * a 304 until the next refresh changes the data.
+     */
+    @GetMapping("/{regulation}")
+    @Operation(
+            summary = "Get tournament teams",
+            description = "Returns every cached cluster and team for the regulation, same shape as the bundled tournamentTeams JSON."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tournament teams returned",
+                    content = @Content(schema = @Schema(implementation = TournamentTeamDTO.Snapshot.class))),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag sent in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unsupported regulation",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "LabMaus unreachable and nothing cached yet",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<byte[]> getTournamentTeams(
+            @Parameter(description = "Regulation code", required = true, example = "M-A")
+            @PathVariable String regulation,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException {
+
+        TournamentTeamService.CachedSnapshot snapshot = tournamentTeamService.getSnapshot(regulation);
+        String etag = "\"" + snapshot.getEtag() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic();
+
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getJsonGzip());
+        }
+        try (InputStream json = snapshot.openJson()) {
+            return response.body(json.readAllBytes());
+        }
+    }
+
+    /**
+     * Find clusters containing every given species
+     * GET /api/pokemon/tournament-teams/{regulation}/clusters?species=Incineroar,Rillaboom
+     */
+    @GetMapping("/{regulation}/clusters")
+    @Operation(
+            summary = "Search tournament clusters by species",
+            description = "Returns the clusters whose core contains all of the given species (any name variant)."
+    )
+    public ResponseEntity<List<TournamentTeamDTO.ClusterMatch>> findClusters(
+            @Parameter(description = "Regulation code", required = true, example = "M-A")
+            @PathVariable String regulation,
+            @Parameter(description = "Species that must all be in the cluster", required = true, example = "Incineroar,Rillaboom")
+            @RequestParam List<String> species) {
+
+        return ResponseEntity.ok(tournamentTeamService.findClusters(regulation, species));
+    }
+
+    /**
+     * Fetch the paste for one tournament team
+     * GET /api/pokemon/tournament-teams/{regulation}/compositions/{size}/clusters/{clusterIndex}/teams/{teamIndex}/paste
+     */
+    @GetMapping("/{regulation}/compositions/{size}/clusters/{clusterIndex}/teams/{teamIndex}/paste")
+    @Operation(
+            summary = "Get a tournament team's paste",
+            description = "Fetches and parses the team's pokepaste on first request, then serves it from cache."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Paste returned"),
+            @ApiResponse(responseCode = "400", description = "Unknown team or paste fetch failed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<PokepasteDTO.PasteData> getTeamPaste(
+            @PathVariable String regulation,
+            @PathVariable int size,
+            @PathVariable int clusterIndex,
+            @PathVariable int teamIndex) {
+
+        return ResponseEntity.ok(tournamentTeamService.resolvePaste(regulation, size, clusterIndex, teamIndex));
+    }
+}
@@ -4,7 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -29,6 +31,7 @@ public class AnalyticsDTO {
         private Integer teraWinRate;    // Win rate when Tera'd (null if never)
         private int megaUsage;          // Times Mega Evolved (or Primal Reverted)
         private Integer megaWinRate;    // Win rate when Mega'd (null if never)
+        private WinRateConfidence confidence;   // Small-sample view of overallWinRate
     }
 
     /**
@@ -45,6 +48,19 @@ public class AnalyticsDTO {
         private int usageRate;          // Percentage of total games
         private int wins;
         private int winRate;
+        private WinRateConfidence confidence;
+    }
+
+    /**
+     * Small-sample aware view of a win rate, in percent
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WinRateConfidence {
+        private int smoothed;           // Beta-smoothed toward the team's overall win rate
+        private int low;                // 95% Wilson interval
+        private int high;
     }
 
     /**
@@ -58,6 +74,7 @@ public class AnalyticsDTO {
         private List<LeadPairStats> leadPairStats;
         private int averageWinRate;
         private int totalGames;
+        private String rank;                            // "raw" or "confidence"
     }
 
     /**
@@ -74,6 +91,7 @@ public class AnalyticsDTO {
         private int timesOnTeam;        // Times seen on team sheet
         private int timesBrought;       // Times actually brought to battle
         private Integer attendanceRate; // % brought when on team (null if never on team)
+        private WinRateConfidence confidence;   // Small-sample view of winRate
     }
 
     /**
@@ -87,6 +105,42 @@ public class AnalyticsDTO {
         private List<MatchupStats> worstMatchups;       // Top 5 lowest win rate
         private List<MatchupStats> highestAttendance;   // Top 5 most brought
         private List<MatchupStats> lowestAttendance;    // Top 5 least brought
+        private String rank;                            // "raw" or "confidence"
+    }
+
+    /**
+     * One page of the full opponent matchup ranking
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MatchupRankingResponse {
+        private String sort;                    // "winRate", "confidence", "games" or "attendance"
+        private String order;                   // "desc" or "asc"
+        private int page;                       // Zero-based
+        private int size;
+        private int total;                      // Ranked entries across all pages
+        private List<MatchupStats> matchups;
+    }
+
+    /**
+     * Optional filters for the analytics views, bound from query parameters.
+     * Fields left null match every replay.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Filter {
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate from;        // first battle day (inclusive)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate to;          // last battle day (inclusive)
+        private String bestOf;         // "bo1" (standalone games) or "bo3" (games of a match set)
+        private String result;         // "win" or "loss"
+        private String opponent;
+        private String tag;            // only games of matches with this tag
+        private String excludeTag;     // drop games of matches with this tag, e.g. "ladder"
     }
 
     /**
@@ -158,4 +212,75 @@ public class AnalyticsDTO {
     public static class MoveUsageResponse {
         private List<PokemonMoveStats> pokemonMoves;
     }
-}
\ No newline at end of file
+
+    /**
+     * One opponent choice in a metagame rollup (species, lead pair, Tera or Mega pick)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MetagameEntry {
+        private String name;            // "Incineroar" or "Incineroar + Rillaboom"
+        private int games;              // Games where the opponent made this choice
+        private int usageRate;          // Percentage of all games in the rollup
+        private int wins;               // Our wins in those games
+        private int winRate;
+    }
+
+    /**
+     * Opponent metagame for one regulation, across all of a user's teams (or every opted-in user)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MetagameResponse {
+        private String regulation;
+        private String scope;                       // "user" or "global"
+        private int totalGames;
+        private int winRate;
+        private Integer contributors;               // Users in a global rollup (null for "user")
+        private List<MetagameEntry> species;
+        private List<MetagameEntry> leadPairs;
+        private List<MetagameEntry> teraPicks;
+        private List<MetagameEntry> megaPicks;
+    }
+
+    /**
+     * Games and wins in one time bucket
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrendPoint {
+        private LocalDate periodStart;  // First day of the day/week bucket
+        private int games;
+        private int wins;
+        private int winRate;
+    }
+
+    /**
+     * Time series for one species or lead pair; buckets without games are omitted
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrendSeries {
+        private String name;            // "Incineroar" or "Incineroar + Rillaboom"
+        private int games;              // Games in the whole range
+        private int winRate;
+        private List<TrendPoint> points;
+    }
+
+    /**
+     * Win-rate and usage trends for a team, served from day/week rollups
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrendResponse {
+        private String granularity;                 // "day" or "week"
+        private List<TrendPoint> points;            // Whole team, one per bucket with games
+        private List<TrendSeries> species;          // Most-brought species in the range
+        private List<TrendSeries> leadPairs;        // Most-used lead pairs in the range
+    }
+}
@@ -221,4 +221,49 @@ public class GamePlanDTO {
         @NotNull(message = "Composition index is required")
         private Integer index;
     }
-}
\ No newline at end of file
+
+    // ==================== Composition records ====================
+
+    /**
+     * Games and wins of a composition in one slice of the team's replays
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompositionOutcome {
+        private int games;
+        private int wins;
+        private int winRate;
+        private AnalyticsDTO.WinRateConfidence confidence;
+    }
+
+    /**
+     * A saved composition with its record from the team's replays.
+     * Pairs are null when the composition names fewer than two Pokemon there.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompositionRecord {
+        private int index;
+        private TeamCompositionDTO composition;
+        private String leadPair;                // "Incineroar + Rillaboom", as stored on replays
+        private String backPair;
+        private CompositionOutcome withLead;    // Same lead, any back
+        private CompositionOutcome overall;     // Same lead and back, any opponent
+        private CompositionOutcome vsOpponent;  // Same lead and back, opponents resembling this team; null if the paste can't be read
+    }
+
+    /**
+     * Response DTO for the composition records of a game plan team
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CompositionRecordsResponse {
+        private Long gamePlanTeamId;
+        private List<String> opponentSpecies;   // Analytics names from the paste, empty if unreadable
+        private int archetypeOverlap;           // Shared species needed to count as this opponent
+        private List<CompositionRecord> compositions;
+    }
+}
@@ -1,9 +1,12 @@
 package com.yeskatronics.vs_recorder_backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 /**
  * Immutable record representing a Pokemon entry from the generated pokemon-data.json registry.
+ * {@code baseSpeed} is null for entries the data file has no stats for.
  */
 public record PokemonEntry(
     String canonicalName,
@@ -13,5 +16,6 @@ public record PokemonEntry(
     String displayName,
     String baseSpecies,
     List<String> types,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Integer baseSpeed,
     List<String> aliases
 ) {}
@@ -4,7 +4,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTOs for Pokepaste team data.
@@ -22,6 +24,10 @@ public class PokepasteDTO {
         private String item;
         private String ability;
         private String teraType;
+        private Integer level;
+        private String nature;
+        private Map<String, Integer> evs = new LinkedHashMap<>(); // "HP", "Atk", ... "Spe"; SPs in Champions pastes
+        private Map<String, Integer> ivs = new LinkedHashMap<>();
         private List<String> moves = new ArrayList<>();
     }
 
@@ -1,8 +1,10 @@
 package com.yeskatronics.vs_recorder_backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -170,6 +172,53 @@ public class ReplayDTO {
         private BattleData battleData;
     }
 
+    /**
+     * Turn-by-turn digest of a battle log, served instead of the raw log to replay views.
+     * Positions are Showdown slots ("p1a", "p2b"; "p1" for side conditions) and HP is in percent.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Timeline {
+        private Long replayId;
+        private Map<String, String> players; // "p1" -> username
+        private String winner;
+        private int turnCount;
+        private List<TimelineTurn> turns; // turn 0 holds the leads and start-of-battle effects
+    }
+
+    /**
+     * Events of one turn, in log order
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimelineTurn {
+        private int turn;
+        private List<TimelineEvent> events;
+    }
+
+    /**
+     * One timeline event; fields that don't apply to the kind are left out of the JSON.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class TimelineEvent {
+        private String kind;    // switch, move, damage, heal, faint, tera, mega, weather, field, side, status
+        private String pos;     // "p1a"; "p1" for side conditions; null for weather and field
+        private String species; // active Pokemon at pos (switch-in forme, e.g. "Calyrex-Ice")
+        private String move;
+        private String target;  // "p2a", or "p2a,p2b" for spread moves
+        private Integer hp;     // HP percent after the event
+        private Integer delta;  // HP change in percentage points
+        private String detail;  // tera type, mega forme, weather, condition, status, or "miss"
+        private String from;    // cause of damage or healing, e.g. "item: Leftovers"
+        private Boolean end;    // true when a weather, condition or status ends
+    }
+
     /**
      * Request DTO for associating replay with match
      */
@@ -193,4 +242,22 @@ public class ReplayDTO {
         private LocalDateTime startDate;
         private LocalDateTime endDate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Response DTO for a background replay ingest job
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IngestJobResponse {
+        private String jobId;
+        private Long teamId;
+        private String url;
+        private String status; // QUEUED, RUNNING, SUCCEEDED, FAILED
+        private Long replayId;
+        private String error;
+        private LocalDateTime submittedAt;
+        private LocalDateTime completedAt;
+        private Summary replay; // set once SUCCEEDED
+    }
+}
@@ -0,0 +1,88 @@
+package com.yeskatronics.vs_recorder_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTOs for speed tier tables and team speed overlays.
+ */
+public class SpeedTierDTO {
+
+    /**
+     * One row of a speed tier table: a species at a benchmark spread
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TierEntry {
+        private String pokemon;
+        private int baseSpeed;
+        private String spread;          // "32 SPs / +Spe"
+        private int speedStat;          // Level 50
+    }
+
+    /**
+     * Every legal species of a regulation at the benchmark spreads, fastest first
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TierTable {
+        private String regulation;      // "M-A"
+        private int speciesCount;
+        private String statUnit;        // "SPs" (Champions) or "EVs"
+        private List<TierEntry> entries;
+    }
+
+    /**
+     * Which table rows act before a given speed under one field condition
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpeedCheck {
+        private String scenario;        // NEUTRAL, TAILWIND, SCARF or TRICK_ROOM (opponent side)
+        private int outspeedCount;      // Rows that move first
+        private int tieCount;           // Rows that speed tie
+        private List<TierEntry> outspeeds; // Closest rows that move first, nearest first
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpeedCheckResponse {
+        private String regulation;
+        private int speed;
+        private int totalEntries;
+        private List<SpeedCheck> checks;
+    }
+
+    /**
+     * A team member's actual speed from its paste, and where it lands in the table
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OverlayRow {
+        private String pokemon;
+        private int baseSpeed;
+        private String spread;          // "20 SPs / +Spe / Choice Scarf"
+        private int speedStat;          // Including item modifier
+        private int outspeedCount;      // Table rows faster than this
+        private int tieCount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TeamOverlayResponse {
+        private Long teamId;
+        private String regulation;
+        private String statUnit;
+        private int totalEntries;
+        private List<OverlayRow> rows;
+    }
+}
@@ -0,0 +1,102 @@
+package com.yeskatronics.vs_recorder_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTOs for recent tournament teams (LabMaus top teams), used by the Matchup Planner.
+ *
+ * <p>{@link Snapshot} has the same shape as the {@code tournamentTeams-reg*.json} files that
+ * {@code scripts/generate-tournament-teams.js} writes for the frontend.
+ */
+public class TournamentTeamDTO {
+
+    /**
+     * Trimmed top teams for one regulation over the configured date window
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Snapshot {
+        private String regulation;                  // "M-A"
+        private String labmausRegulation;           // "Regulation Set M-A"
+        private DateRange dateRange;
+        private String generatedAt;                 // ISO date
+        private List<Composition> compositions;     // Sorted by size
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DateRange {
+        private String from;
+        private String to;
+    }
+
+    /**
+     * Clusters LabMaus grouped by how many Pokemon they share
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Composition {
+        private int size;
+        private List<Cluster> clusters;
+    }
+
+    /**
+     * A core of Pokemon and the tournament teams built around it
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cluster {
+        private List<String> pokemon;               // LabMaus ids
+        private List<String> pokemonNames;          // Showdown-style names ("Basculegion-M")
+        private int wins;
+        private int losses;
+        private List<Team> teams;                   // Best-scoring first, pokepast.es only
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Team {
+        private String name;
+        private Integer placement;
+        private String record;
+        private List<String> pokemonNames;
+        private String pokepasteUrl;
+        private String tournamentName;
+    }
+
+    /**
+     * Summary of a cached regulation, without the clusters
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegulationSummary {
+        private String regulation;
+        private String labmausRegulation;
+        private DateRange dateRange;
+        private String generatedAt;
+        private int clusters;
+        private int teams;
+    }
+
+    /**
+     * A cluster matching a species search, with the indices needed to resolve its pastes
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClusterMatch {
+        private int size;
+        private int clusterIndex;
+        private Cluster cluster;
+    }
+}
@@ -47,6 +47,8 @@ public class UserDTO {
 
         @Size(min = 6, message = "Password must be at least 6 characters")
         private String password;
+
+        private Boolean shareMetagameStats;
     }
 
     /**
@@ -63,6 +65,7 @@ public class UserDTO {
         private LocalDateTime lastLogin;
         private LocalDateTime createdAt;
         private int teamCount;
+        private Boolean shareMetagameStats;
     }
 
     /**
@@ -0,0 +1,74 @@
+package com.yeskatronics.vs_recorder_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outgoing email, written in the same transaction as the change that triggered it
+ * (a reset token, an invite) and delivered later by {@code EmailDispatcher}.
+ * A row is committed with its business change or not at all, and the request thread never
+ * waits on the mail provider.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_sent_at", columnList = "sent_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        /** Gave up after the configured number of attempts. */
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_email", nullable = false, length = 320)
+    private String toEmail;
+
+    @Column(nullable = false, length = 300)
+    private String subject;
+
+    /**
+     * Rendered body. May contain a reset or invite link, so it is blanked once the row is SENT
+     * or FAILED.
+     */
+    @Column(name = "html_body", nullable = false, columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    /**
+     * When the dispatcher may next pick this row up. Pushed forward while a send is in
+     * progress (a lease) and after each failure (backoff).
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
@@ -36,6 +36,14 @@ public class GamePlanTeam {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String pokepaste;
 
+    /**
+     * Analytics names of the species in {@link #pokepaste}, resolved when the paste is saved so
+     * composition records never fetch it. Null when the paste couldn't be read.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "paste_species", columnDefinition = "TEXT")
+    private List<String> pasteSpecies;
+
     @Column(columnDefinition = "TEXT")
     private String notes;
 
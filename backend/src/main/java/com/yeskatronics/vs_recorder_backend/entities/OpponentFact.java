@@ -0,0 +1,33 @@
+package com.yeskatronics.vs_recorder_backend.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One indexed choice the opponent made in a replay, such as the lead pair they opened with.
+ * Stored per replay (see {@link Replay#getOpponentFacts()}) and rolled up into metagame stats.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpponentFact {
+
+    public enum Category {
+        LEAD_PAIR,  // "Incineroar + Rillaboom" (names sorted)
+        TERA,       // species that Terastallized
+        MEGA        // species that Mega Evolved
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 16, nullable = false)
+    private Category category;
+
+    @Column(name = "fact_value", length = 200, nullable = false)
+    private String value;
+}
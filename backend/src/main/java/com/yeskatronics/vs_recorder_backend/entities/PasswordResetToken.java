@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @Table(name = "password_reset_tokens", indexes = {
     @Index(name = "idx_token_hash", columnList = "token_hash"),
     @Index(name = "idx_prt_user_id", columnList = "user_id"),
-    @Index(name = "idx_prt_expires_at", columnList = "expires_at")
+    @Index(name = "idx_prt_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_prt_request_ip", columnList = "request_ip, created_at")
 })
 @Data
 @NoArgsConstructor
@@ -5,13 +5,17 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Replay entity representing a Pokemon Showdown battle replay.
@@ -20,6 +24,10 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "replays", uniqueConstraints = {
     @UniqueConstraint(name = "uk_replay_url_team", columnNames = {"url", "team_id"})
+}, indexes = {
+    @Index(name = "idx_replay_team_date", columnList = "team_id, date"),
+    @Index(name = "idx_replay_team_composition", columnList = "team_id, lead_pair, back_pair"),
+    @Index(name = "idx_replay_index_version", columnList = "opponent_index_version")
 })
 @Data
 @NoArgsConstructor
@@ -79,6 +87,64 @@ public class Replay {
     @Column(name = "date")
     private LocalDateTime date;
 
+    /**
+     * Inverted index of the opponent's revealed species (analytics names, see
+     * {@link com.yeskatronics.vs_recorder_backend.services.OpponentIndexService}). Lets core
+     * queries ("vs. Incineroar + Rillaboom") run as an indexed join instead of re-parsing logs.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "replay_opponent_species",
+            joinColumns = @JoinColumn(name = "replay_id"),
+            indexes = @Index(name = "idx_opponent_species_species", columnList = "species, replay_id"))
+    @Column(name = "species", length = 100, nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<String> opponentSpecies = new HashSet<>();
+
+    /**
+     * Opponent lead pair, Tera and Mega choices, indexed alongside {@link #opponentSpecies}.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "replay_opponent_facts",
+            joinColumns = @JoinColumn(name = "replay_id"),
+            indexes = @Index(name = "idx_opponent_facts_category", columnList = "category, fact_value"))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<OpponentFact> opponentFacts = new HashSet<>();
+
+    /**
+     * Species the team brought (analytics names), indexed alongside {@link #opponentSpecies}.
+     * Feeds the per-species trend rollups.
+     */
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "replay_team_picks", joinColumns = @JoinColumn(name = "replay_id"))
+    @Column(name = "species", length = 100, nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Set<String> teamPicks = new HashSet<>();
+
+    /**
+     * The team's lead pair ("Incineroar + Rillaboom", names sorted), or null if unknown.
+     */
+    @Column(name = "lead_pair", length = 200)
+    private String leadPair;
+
+    /**
+     * The two species the team brought in the back (same format as {@link #leadPair}), or null
+     * unless exactly two non-leads were revealed. Together with the lead pair this is the
+     * composition game plans are scored on.
+     */
+    @Column(name = "back_pair", length = 200)
+    private String backPair;
+
+    /**
+     * Index format {@link #opponentSpecies}/{@link #opponentFacts} were built with. Null or older
+     * than the current version means the replay still has to be (re)indexed, e.g. it predates the
+     * index or the team's usernames/roster changed (which resets it to 0).
+     */
+    @Column(name = "opponent_index_version")
+    private Integer opponentIndexVersion;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
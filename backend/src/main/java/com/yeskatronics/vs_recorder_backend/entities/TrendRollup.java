@@ -0,0 +1,84 @@
+package com.yeskatronics.vs_recorder_backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Pre-aggregated games/wins for one team, one time bucket (a day or an ISO week) and one key:
+ * the team overall, a species the team brought, or a lead pair it opened with.
+ *
+ * <p>Derived data: rows are rebuilt per bucket by
+ * {@link com.yeskatronics.vs_recorder_backend.services.TrendRollupService} whenever a replay in
+ * that bucket is added, changed, deleted or re-indexed, and trend charts read only these rows.
+ * {@code teamId} is a plain column (no foreign key) so rollups never block deleting a team.
+ */
+@Entity
+@Table(name = "trend_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_trend_rollup",
+            columnNames = {"team_id", "granularity", "period_start", "category", "rollup_value"})
+}, indexes = {
+    @Index(name = "idx_trend_rollup_team_period", columnList = "team_id, granularity, period_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendRollup {
+
+    public enum Granularity {
+        DAY,
+        WEEK;   // ISO weeks, starting Monday
+
+        /**
+         * First day of the bucket containing {@code day}.
+         */
+        public LocalDate start(LocalDate day) {
+            return this == DAY ? day : day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        /**
+         * First day of the bucket after the one starting at {@code start}.
+         */
+        public LocalDate next(LocalDate start) {
+            return this == DAY ? start.plusDays(1) : start.plusWeeks(1);
+        }
+    }
+
+    public enum Category {
+        TOTAL,      // every game in the bucket; value is ""
+        SPECIES,    // a species the team brought (analytics name)
+        LEAD_PAIR   // "Incineroar + Rillaboom" (names sorted)
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "team_id", nullable = false)
+    private Long teamId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 8, nullable = false)
+    private Granularity granularity;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", length = 16, nullable = false)
+    private Category category;
+
+    @Column(name = "rollup_value", length = 200, nullable = false)
+    private String value;
+
+    @Column(name = "games", nullable = false)
+    private int games;
+
+    @Column(name = "wins", nullable = false)
+    private int wins;
+}
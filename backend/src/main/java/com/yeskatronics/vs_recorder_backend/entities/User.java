@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -45,6 +46,13 @@ public class User {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
+    /**
+     * Opt-in: include this user's replays, anonymized, in the global metagame rollup.
+     */
+    @Column(name = "share_metagame_stats", nullable = false)
+    @ColumnDefault("false")
+    private Boolean shareMetagameStats = false;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,10 @@
+package com.yeskatronics.vs_recorder_backend.exceptions;
+
+/**
+ * Thrown when the background replay ingest queue is at capacity. Mapped to 503 so clients retry later.
+ */
+public class IngestQueueFullException extends RuntimeException {
+    public IngestQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,22 @@
 package com.yeskatronics.vs_recorder_backend.exceptions;
 
+/**
+ * Thrown when a caller has used up a rate limit. Mapped to 429 with a Retry-After header.
+ */
 public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
     public RateLimitExceededException(String message) {
+        this(message, 60);
+    }
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
         super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
     }
 }
@@ -0,0 +1,15 @@
+package com.yeskatronics.vs_recorder_backend.exceptions;
+
+/**
+ * Thrown when an upstream data source (e.g. LabMaus) can't be reached and nothing cached can be
+ * served instead. Mapped to 503 so clients retry later.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
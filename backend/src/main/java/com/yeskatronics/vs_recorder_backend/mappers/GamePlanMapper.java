@@ -63,6 +63,7 @@ public interface GamePlanMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "gamePlan", ignore = true)
     @Mapping(target = "compositions", ignore = true)
+    @Mapping(target = "pasteSpecies", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     GamePlanTeam toEntity(GamePlanDTO.AddTeamRequest dto);
 
@@ -72,6 +73,7 @@ public interface GamePlanMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "gamePlan", ignore = true)
     @Mapping(target = "compositions", ignore = true)
+    @Mapping(target = "pasteSpecies", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateEntityFromDto(GamePlanDTO.UpdateTeamRequest dto, @MappingTarget GamePlanTeam entity);
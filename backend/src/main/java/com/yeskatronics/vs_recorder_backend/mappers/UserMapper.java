@@ -20,6 +20,7 @@ public interface UserMapper {
     @Mapping(target = "lastLogin", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "teams", ignore = true)
+    @Mapping(target = "shareMetagameStats", ignore = true)
     User toEntity(UserDTO.CreateRequest dto);
 
     /**
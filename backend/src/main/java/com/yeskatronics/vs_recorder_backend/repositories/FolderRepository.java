@@ -2,6 +2,9 @@ package com.yeskatronics.vs_recorder_backend.repositories;
 
 import com.yeskatronics.vs_recorder_backend.entities.Folder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +18,14 @@ public interface FolderRepository extends JpaRepository<Folder, Long> {
     Optional<Folder> findByIdAndUserId(Long id, Long userId);
 
     int countByUserId(Long userId);
+
+    /**
+     * Remove a folder from every team in one statement, without loading the teams.
+     * Clears the persistence context so already-loaded teams don't re-flush the old links.
+     * @param folderId the folder ID
+     * @return number of team links removed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM team_folders WHERE folder_id = :folderId", nativeQuery = true)
+    int unlinkTeams(@Param("folderId") Long folderId);
 }
@@ -3,8 +3,10 @@ package com.yeskatronics.vs_recorder_backend.repositories;
 import com.yeskatronics.vs_recorder_backend.entities.Match;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,6 +54,15 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
      */
     long countByTeamId(Long teamId);
 
+    /**
+     * Count matches for several teams at once
+     * @param teamIds the team IDs
+     * @return one row per team with at least one match
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.MatchRepository$TeamMatchCount(" +
+            "m.team.id, COUNT(m)) FROM Match m WHERE m.team.id IN :teamIds GROUP BY m.team.id")
+    List<TeamMatchCount> countByTeamIds(@Param("teamIds") Collection<Long> teamIds);
+
     /**
      * Check if a match exists by ID and team ID
      * @param id the match ID
@@ -76,4 +87,10 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
      */
     @Query("SELECT m FROM Match m WHERE m.team.id = :teamId AND :tag MEMBER OF m.tags")
     List<Match> findByTeamIdAndTag(Long teamId, String tag);
-}
\ No newline at end of file
+
+    /**
+     * Number of matches of one team.
+     */
+    record TeamMatchCount(Long teamId, Long matches) {
+    }
+}
@@ -28,14 +28,14 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     );
 
     /**
-     * Count recent token requests for a user (rate limiting).
+     * Count recent token requests for a user (seeds the in-memory rate limit after a restart).
      */
     @Query("SELECT COUNT(t) FROM PasswordResetToken t WHERE t.user = :user " +
            "AND t.createdAt > :since")
     long countRecentTokensByUser(@Param("user") User user, @Param("since") LocalDateTime since);
 
     /**
-     * Count recent token requests from an IP (rate limiting).
+     * Count recent token requests from an IP (seeds the in-memory rate limit after a restart).
      */
     @Query("SELECT COUNT(t) FROM PasswordResetToken t WHERE t.requestIp = :ip " +
            "AND t.createdAt > :since")
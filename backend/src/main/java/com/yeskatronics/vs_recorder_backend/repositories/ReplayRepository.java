@@ -1,12 +1,16 @@
 package com.yeskatronics.vs_recorder_backend.repositories;
 
+import com.yeskatronics.vs_recorder_backend.entities.OpponentFact;
 import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,6 +42,22 @@ public interface ReplayRepository extends JpaRepository<Replay, Long> {
      */
     Optional<Replay> findByUrl(String url);
 
+    /**
+     * Team a replay belongs to, without loading the replay (and its battle log)
+     * @param id the replay ID
+     * @return Optional containing the team ID if the replay exists
+     */
+    @Query("SELECT r.team.id FROM Replay r WHERE r.id = :id")
+    Optional<Long> findTeamIdById(@Param("id") Long id);
+
+    /**
+     * Battle log of a replay, without the rest of the row
+     * @param id the replay ID
+     * @return Optional containing the battle log if the replay exists
+     */
+    @Query("SELECT r.battleLog FROM Replay r WHERE r.id = :id")
+    Optional<String> findBattleLogById(@Param("id") Long id);
+
     /**
      * Check if a replay URL already exists
      * @param url the replay URL
@@ -132,4 +152,331 @@ public interface ReplayRepository extends JpaRepository<Replay, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
-}
\ No newline at end of file
+
+    // ==================== Analytics ====================
+    // Every analytics query appends ANALYTICS_FILTER, so filtered views only load (and parse) the
+    // matching replays. Each condition is skipped when its ReplayFilter field is null.
+
+    String ANALYTICS_FILTER =
+            "AND (:#{#filter.from()} IS NULL OR r.date >= :#{#filter.from()}) " +
+            "AND (:#{#filter.until()} IS NULL OR r.date < :#{#filter.until()}) " +
+            "AND (:#{#filter.bo3()} IS NULL " +
+            "OR (:#{#filter.bo3()} = true AND r.gameNumber IS NOT NULL) " +
+            "OR (:#{#filter.bo3()} = false AND r.gameNumber IS NULL)) " +
+            "AND (:#{#filter.result()} IS NULL OR LOWER(r.result) = :#{#filter.result()}) " +
+            "AND (:#{#filter.opponent()} IS NULL OR LOWER(r.opponent) = :#{#filter.opponent()}) " +
+            "AND (:#{#filter.tag()} IS NULL OR EXISTS (" +
+            "SELECT 1 FROM Match m JOIN m.tags t WHERE m = r.match AND LOWER(t) = :#{#filter.tag()})) " +
+            "AND (:#{#filter.excludeTag()} IS NULL OR NOT EXISTS (" +
+            "SELECT 1 FROM Match xm JOIN xm.tags xt WHERE xm = r.match AND LOWER(xt) = :#{#filter.excludeTag()})) ";
+
+    /**
+     * Replays of a team matching an analytics filter
+     * @param teamId the team ID
+     * @param filter analytics filter
+     * @return matching replays
+     */
+    @Query("SELECT r FROM Replay r WHERE r.team.id = :teamId " + ANALYTICS_FILTER)
+    List<Replay> findForAnalytics(@Param("teamId") Long teamId, @Param("filter") ReplayFilter filter);
+
+    /**
+     * Count replays of a team matching an analytics filter
+     * @param teamId the team ID
+     * @param filter analytics filter
+     * @return number of matching replays
+     */
+    @Query("SELECT COUNT(r) FROM Replay r WHERE r.team.id = :teamId " + ANALYTICS_FILTER)
+    long countForAnalytics(@Param("teamId") Long teamId, @Param("filter") ReplayFilter filter);
+
+    // ==================== Opponent species index ====================
+
+    /**
+     * Replays whose opponent species index is missing or stale, oldest first
+     * @param teamId the team ID
+     * @param pageable batch size
+     * @return replays to (re)index
+     */
+    @Query("SELECT r FROM Replay r WHERE r.team.id = :teamId " +
+            "AND (r.opponentIndexVersion IS NULL OR r.opponentIndexVersion < :version) ORDER BY r.id")
+    List<Replay> findUnindexedByTeamId(@Param("teamId") Long teamId, @Param("version") int version,
+                                       Pageable pageable);
+
+    /**
+     * Teams with at least one replay whose opponent species index is missing or stale
+     * @return team IDs
+     */
+    @Query("SELECT DISTINCT r.team.id FROM Replay r " +
+            "WHERE r.opponentIndexVersion IS NULL OR r.opponentIndexVersion < :version")
+    List<Long> findTeamIdsWithUnindexedReplays(@Param("version") int version);
+
+    /**
+     * Mark every replay of a team for re-indexing (e.g. after usernames or roster change)
+     * @param teamId the team ID
+     * @return number of replays marked
+     */
+    @Modifying
+    @Query("UPDATE Replay r SET r.opponentIndexVersion = 0 WHERE r.team.id = :teamId")
+    int invalidateOpponentIndex(@Param("teamId") Long teamId);
+
+    /**
+     * One row per (replay, species) hit: the replay's opponent brought one of the given species
+     * @param teamId the team ID
+     * @param species analytics species names
+     * @param filter analytics filter
+     * @return matching hits
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$SpeciesHit(r.id, r.result, s) " +
+            "FROM Replay r JOIN r.opponentSpecies s " +
+            "WHERE r.team.id = :teamId AND s IN :species " + ANALYTICS_FILTER)
+    List<SpeciesHit> findOpponentSpeciesHits(
+            @Param("teamId") Long teamId,
+            @Param("species") Collection<String> species,
+            @Param("filter") ReplayFilter filter);
+
+    /**
+     * IDs of replays whose opponent brought every one of the given species
+     * @param teamId the team ID
+     * @param species distinct analytics species names
+     * @param count number of species (size of {@code species})
+     * @return matching replay IDs
+     */
+    @Query("SELECT r.id FROM Replay r JOIN r.opponentSpecies s " +
+            "WHERE r.team.id = :teamId AND s IN :species " +
+            "GROUP BY r.id HAVING COUNT(DISTINCT s) = :count")
+    List<Long> findIdsWithOpponentCore(
+            @Param("teamId") Long teamId,
+            @Param("species") Collection<String> species,
+            @Param("count") long count);
+
+    /**
+     * Count replays of a team with an indexed opponent team
+     * @param teamId the team ID
+     * @param filter analytics filter
+     * @return replays with at least one indexed opponent species
+     */
+    @Query("SELECT COUNT(DISTINCT r.id) FROM Replay r JOIN r.opponentSpecies s WHERE r.team.id = :teamId " +
+            ANALYTICS_FILTER)
+    long countWithOpponentSpecies(@Param("teamId") Long teamId, @Param("filter") ReplayFilter filter);
+
+    // ==================== Trend rollups ====================
+    // One bucket (day or week) of one team; see TrendRollupService.
+
+    /**
+     * Games and wins of a team in a time range
+     * @param teamId the team ID
+     * @param from start (inclusive)
+     * @param until end (exclusive)
+     * @return a single row with an empty value
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$FactCount(" +
+            "'', COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r WHERE r.team.id = :teamId AND r.date >= :from AND r.date < :until")
+    FactCount countGamesBetween(
+            @Param("teamId") Long teamId,
+            @Param("from") LocalDateTime from,
+            @Param("until") LocalDateTime until);
+
+    /**
+     * Games and wins per species the team brought in a time range
+     * @param teamId the team ID
+     * @param from start (inclusive)
+     * @param until end (exclusive)
+     * @return one row per species
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$FactCount(" +
+            "s, COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r JOIN r.teamPicks s " +
+            "WHERE r.team.id = :teamId AND r.date >= :from AND r.date < :until " +
+            "GROUP BY s")
+    List<FactCount> countTeamPicksBetween(
+            @Param("teamId") Long teamId,
+            @Param("from") LocalDateTime from,
+            @Param("until") LocalDateTime until);
+
+    /**
+     * Games and wins per lead pair of the team in a time range
+     * @param teamId the team ID
+     * @param from start (inclusive)
+     * @param until end (exclusive)
+     * @return one row per lead pair
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$FactCount(" +
+            "r.leadPair, COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r " +
+            "WHERE r.team.id = :teamId AND r.date >= :from AND r.date < :until AND r.leadPair IS NOT NULL " +
+            "GROUP BY r.leadPair")
+    List<FactCount> countLeadPairsBetween(
+            @Param("teamId") Long teamId,
+            @Param("from") LocalDateTime from,
+            @Param("until") LocalDateTime until);
+
+    // ==================== Metagame aggregates ====================
+    // Scope: one user's teams (userId set), or every user who opted in to sharing (userId null).
+    // Only replays indexed by the current OpponentIndexService.INDEX_VERSION count, so stale
+    // entries waiting for the backfill never mix older index formats into the totals.
+
+    /**
+     * Games and wins against each opponent species in a regulation
+     * @param userId the user ID, or null for the opted-in global rollup
+     * @param regulation the team regulation (e.g. "Reg G")
+     * @param version the current index version
+     * @return one row per species
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$FactCount(" +
+            "s, COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r JOIN r.opponentSpecies s JOIN r.team t JOIN t.user u " +
+            "WHERE t.regulation = :regulation AND r.opponentIndexVersion = :version " +
+            "AND ((:userId IS NOT NULL AND u.id = :userId) OR (:userId IS NULL AND u.shareMetagameStats = true)) " +
+            "GROUP BY s")
+    List<FactCount> countOpponentSpecies(
+            @Param("userId") Long userId,
+            @Param("regulation") String regulation,
+            @Param("version") int version);
+
+    /**
+     * Games and wins against each opponent choice of one category in a regulation
+     * @param userId the user ID, or null for the opted-in global rollup
+     * @param regulation the team regulation
+     * @param category lead pair, Tera or Mega
+     * @param version the current index version
+     * @return one row per distinct choice
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$FactCount(" +
+            "f.value, COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r JOIN r.opponentFacts f JOIN r.team t JOIN t.user u " +
+            "WHERE t.regulation = :regulation AND f.category = :category AND r.opponentIndexVersion = :version " +
+            "AND ((:userId IS NOT NULL AND u.id = :userId) OR (:userId IS NULL AND u.shareMetagameStats = true)) " +
+            "GROUP BY f.value")
+    List<FactCount> countOpponentFacts(
+            @Param("userId") Long userId,
+            @Param("regulation") String regulation,
+            @Param("category") OpponentFact.Category category,
+            @Param("version") int version);
+
+    /**
+     * Indexed games (with a known opponent team) and wins in a regulation
+     * @param userId the user ID, or null for the opted-in global rollup
+     * @param regulation the team regulation
+     * @param version the current index version
+     * @return a single row with an empty value
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$FactCount(" +
+            "'', COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r JOIN r.team t JOIN t.user u " +
+            "WHERE t.regulation = :regulation AND r.opponentIndexVersion = :version AND SIZE(r.opponentSpecies) > 0 " +
+            "AND ((:userId IS NOT NULL AND u.id = :userId) OR (:userId IS NULL AND u.shareMetagameStats = true))")
+    FactCount countIndexedGames(
+            @Param("userId") Long userId,
+            @Param("regulation") String regulation,
+            @Param("version") int version);
+
+    /**
+     * Number of opted-in users contributing indexed games to a regulation
+     * @param regulation the team regulation
+     * @param version the current index version
+     * @return distinct contributing users
+     */
+    @Query("SELECT COUNT(DISTINCT u.id) FROM Replay r JOIN r.team t JOIN t.user u " +
+            "WHERE t.regulation = :regulation AND u.shareMetagameStats = true " +
+            "AND r.opponentIndexVersion = :version AND SIZE(r.opponentSpecies) > 0")
+    long countSharingContributors(@Param("regulation") String regulation, @Param("version") int version);
+
+    /**
+     * Games and wins per team, for list views that only need the totals
+     * @param teamIds the team IDs
+     * @return one row per team with at least one replay
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$TeamCount(" +
+            "r.team.id, COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r WHERE r.team.id IN :teamIds GROUP BY r.team.id")
+    List<TeamCount> countGamesByTeam(@Param("teamIds") Collection<Long> teamIds);
+
+    // ==================== Game plan compositions ====================
+    // Lead pair + back pair of the team, see OpponentIndexService.
+
+    /**
+     * Games and wins per (lead pair, back pair) of a team, for the given lead pairs
+     * @param teamId the team ID
+     * @param leadPairs lead pairs as stored ("A + B", names sorted)
+     * @return one row per composition played, including unknown back pairs (null)
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$CompositionCount(" +
+            "r.leadPair, r.backPair, COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r WHERE r.team.id = :teamId AND r.leadPair IN :leadPairs " +
+            "GROUP BY r.leadPair, r.backPair")
+    List<CompositionCount> countCompositions(
+            @Param("teamId") Long teamId,
+            @Param("leadPairs") Collection<String> leadPairs);
+
+    /**
+     * Same as {@link #countCompositions}, limited to games whose opponent team sheet shares at
+     * least {@code overlap} species with {@code species}
+     * @param teamId the team ID
+     * @param leadPairs lead pairs as stored
+     * @param species distinct analytics species names of the opponent archetype
+     * @param overlap minimum shared species
+     * @return one row per composition played against the archetype
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository$CompositionCount(" +
+            "r.leadPair, r.backPair, COUNT(r), SUM(CASE WHEN LOWER(r.result) = 'win' THEN 1 ELSE 0 END)) " +
+            "FROM Replay r WHERE r.team.id = :teamId AND r.leadPair IN :leadPairs AND r.id IN (" +
+            "SELECT o.id FROM Replay o JOIN o.opponentSpecies s " +
+            "WHERE o.team.id = :teamId AND s IN :species " +
+            "GROUP BY o.id HAVING COUNT(DISTINCT s) >= :overlap) " +
+            "GROUP BY r.leadPair, r.backPair")
+    List<CompositionCount> countCompositionsAgainst(
+            @Param("teamId") Long teamId,
+            @Param("leadPairs") Collection<String> leadPairs,
+            @Param("species") Collection<String> species,
+            @Param("overlap") long overlap);
+
+    /**
+     * Games and wins of one (lead pair, back pair) composition.
+     */
+    record CompositionCount(String leadPair, String backPair, Long games, Long wins) {
+    }
+
+    /**
+     * Games/wins for one aggregate key. {@code wins} is null when no rows matched.
+     */
+    record FactCount(String value, Long games, Long wins) {
+        public int gamesInt() {
+            return games == null ? 0 : games.intValue();
+        }
+
+        public int winsInt() {
+            return wins == null ? 0 : wins.intValue();
+        }
+    }
+
+    /**
+     * Games and wins of one team.
+     */
+    record TeamCount(Long teamId, Long games, Long wins) {
+    }
+
+    /**
+     * Normalized analytics filter over stored replay columns; null fields match everything.
+     *
+     * @param from earliest battle date (inclusive)
+     * @param until latest battle date (exclusive)
+     * @param bo3 true for games of a Bo3 set, false for standalone Bo1 games
+     * @param result "win" or "loss"
+     * @param opponent opponent name, lower case
+     * @param tag only games of matches with this tag, lower case
+     * @param excludeTag drop games of matches with this tag, lower case
+     */
+    record ReplayFilter(LocalDateTime from, LocalDateTime until, Boolean bo3, String result,
+                        String opponent, String tag, String excludeTag) {
+        public static final ReplayFilter NONE = new ReplayFilter(null, null, null, null, null, null, null);
+    }
+
+    /**
+     * A replay whose opponent brought {@code species}.
+     */
+    record SpeciesHit(Long replayId, String result, String species) {
+        public boolean isWin() {
+            return "win".equalsIgnoreCase(result);
+        }
+    }
+}
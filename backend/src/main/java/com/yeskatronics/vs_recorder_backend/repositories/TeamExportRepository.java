@@ -22,6 +22,13 @@ public interface TeamExportRepository extends JpaRepository<TeamExport, Long> {
      */
     Optional<TeamExport> findByCode(String code);
 
+    /**
+     * Find the id, checksum and expiry of an export without loading its payload
+     */
+    @Query("SELECT new com.yeskatronics.vs_recorder_backend.repositories.TeamExportRepository$ExportVersion(" +
+            "e.id, e.dataChecksum, e.expiresAt) FROM TeamExport e WHERE e.code = :code")
+    Optional<ExportVersion> findVersionByCode(@Param("code") String code);
+
     /**
      * Check if a code already exists
      */
@@ -60,4 +67,10 @@ public interface TeamExportRepository extends JpaRepository<TeamExport, Long> {
      */
     @Query("SELECT e FROM TeamExport e WHERE e.expiresAt IS NOT NULL AND e.expiresAt BETWEEN :now AND :soon")
     List<TeamExport> findExpiringExports(@Param("now") LocalDateTime now, @Param("soon") LocalDateTime soon);
+
+    /**
+     * What identifies an export's payload.
+     */
+    record ExportVersion(Long id, String dataChecksum, LocalDateTime expiresAt) {
+    }
 }
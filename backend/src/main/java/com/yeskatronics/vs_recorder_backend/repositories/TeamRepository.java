@@ -1,10 +1,15 @@
 package com.yeskatronics.vs_recorder_backend.repositories;
 
 import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.entities.TeamCollaborator;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +20,16 @@ import java.util.Optional;
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
 
+    /**
+     * Load a team and hold a write lock on its row until the transaction ends. Writers that
+     * rebuild a team's derived rows (trend rollups) take it first so they run one at a time.
+     * @param id the team ID
+     * @return Optional containing the locked team if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Team t WHERE t.id = :id")
+    Optional<Team> lockById(@Param("id") Long id);
+
     /**
      * Find all teams belonging to a specific user
      * @param userId the user ID
@@ -73,4 +88,64 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
            "OR EXISTS (SELECT 1 FROM TeamCollaborator c " +
            "           WHERE c.team = t AND c.user.id = :userId AND c.status = 'ACCEPTED')")
     List<Team> findAllAccessibleByUserId(Long userId);
+
+    /**
+     * Select list shared by the access stamp queries; {@code t} is the team and {@code c} the
+     * caller's membership, left-joined so it is null for anyone else.
+     */
+    String ACCESS_STAMP_SELECT =
+            "SELECT new com.yeskatronics.vs_recorder_backend.repositories.TeamRepository$AccessStamp(" +
+            "t.id, t.updatedAt, t.user.id, c.id, c.canAddReplays, c.canDeleteReplays, c.canEditReplayNotes, " +
+            "c.canEditTeamMemberNotes, c.canEditTeamMemberCalcs, c.canEditTeamDetails, c.canEditGamePlans) ";
+
+    String ACCESS_STAMP_MEMBERSHIP =
+            "LEFT JOIN TeamCollaborator c ON c.team = t AND c.user.id = :userId AND c.status = :status ";
+
+    /**
+     * The team's version and the caller's membership in one statement, without loading either
+     * entity (for conditional GETs). Collaborator columns are null unless {@code userId} is a
+     * collaborator with the given status.
+     * @param teamId the team ID
+     * @param userId the caller
+     * @param status collaborator status that grants access
+     * @return Optional containing the stamp if the team exists
+     */
+    @Query(ACCESS_STAMP_SELECT + "FROM Team t " + ACCESS_STAMP_MEMBERSHIP + "WHERE t.id = :teamId")
+    Optional<AccessStamp> findAccessStamp(@Param("teamId") Long teamId,
+                                          @Param("userId") Long userId,
+                                          @Param("status") TeamCollaborator.Status status);
+
+    /**
+     * {@link #findAccessStamp} for the team a replay belongs to, in the same statement.
+     * @param replayId the replay ID
+     * @param userId the caller
+     * @param status collaborator status that grants access
+     * @return Optional containing the stamp if the replay exists
+     */
+    @Query(ACCESS_STAMP_SELECT + "FROM Replay r JOIN r.team t " + ACCESS_STAMP_MEMBERSHIP + "WHERE r.id = :replayId")
+    Optional<AccessStamp> findAccessStampByReplayId(@Param("replayId") Long replayId,
+                                                    @Param("userId") Long userId,
+                                                    @Param("status") TeamCollaborator.Status status);
+
+    /**
+     * {@link #findAccessStamp} for the team a match belongs to, in the same statement.
+     * @param matchId the match ID
+     * @param userId the caller
+     * @param status collaborator status that grants access
+     * @return Optional containing the stamp if the match exists
+     */
+    @Query(ACCESS_STAMP_SELECT + "FROM Match m JOIN m.team t " + ACCESS_STAMP_MEMBERSHIP + "WHERE m.id = :matchId")
+    Optional<AccessStamp> findAccessStampByMatchId(@Param("matchId") Long matchId,
+                                                   @Param("userId") Long userId,
+                                                   @Param("status") TeamCollaborator.Status status);
+
+    /**
+     * What a cached team read depends on: when the team last changed, its owner, and the
+     * caller's collaborator permissions (null when the caller isn't one).
+     */
+    record AccessStamp(Long teamId, LocalDateTime updatedAt, Long ownerId, Long collaboratorId,
+                       Boolean canAddReplays, Boolean canDeleteReplays, Boolean canEditReplayNotes,
+                       Boolean canEditTeamMemberNotes, Boolean canEditTeamMemberCalcs,
+                       Boolean canEditTeamDetails, Boolean canEditGamePlans) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.yeskatronics.vs_recorder_backend.repositories;
+
+import com.yeskatronics.vs_recorder_backend.entities.TrendRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for TrendRollup entity.
+ */
+@Repository
+public interface TrendRollupRepository extends JpaRepository<TrendRollup, Long> {
+
+    /**
+     * Rollup rows of a team in a date range, oldest bucket first
+     * @param teamId the team ID
+     * @param granularity day or week buckets
+     * @param from first bucket start (inclusive), or null for no lower bound
+     * @param to last bucket start (inclusive), or null for no upper bound
+     * @return rows of every category
+     */
+    @Query("SELECT t FROM TrendRollup t WHERE t.teamId = :teamId AND t.granularity = :granularity " +
+            "AND (:from IS NULL OR t.periodStart >= :from) " +
+            "AND (:to IS NULL OR t.periodStart <= :to) " +
+            "ORDER BY t.periodStart")
+    List<TrendRollup> findSeries(
+            @Param("teamId") Long teamId,
+            @Param("granularity") TrendRollup.Granularity granularity,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Delete every row of one bucket, before it is rebuilt
+     * @param teamId the team ID
+     * @param granularity day or week buckets
+     * @param periodStart the bucket start
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM TrendRollup t WHERE t.teamId = :teamId " +
+            "AND t.granularity = :granularity AND t.periodStart = :periodStart")
+    int deletePeriod(
+            @Param("teamId") Long teamId,
+            @Param("granularity") TrendRollup.Granularity granularity,
+            @Param("periodStart") LocalDate periodStart);
+}
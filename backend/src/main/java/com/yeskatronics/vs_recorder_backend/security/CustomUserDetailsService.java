@@ -3,12 +3,15 @@ package com.yeskatronics.vs_recorder_backend.security;
 import com.yeskatronics.vs_recorder_backend.entities.User;
 import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Optional;
 
 /**
  * Custom UserDetailsService implementation for Spring Security.
@@ -25,7 +28,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return new org.springframework.security.core.userdetails.User(
+        return new UserPrincipal(
+                user.getId(),
                 user.getUsername(),
                 user.getPasswordHash(),
                 new ArrayList<>() // No roles/authorities for now
@@ -40,14 +44,31 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     /**
-     * Get user ID by username
+     * Get user ID by username. The authenticated caller's own ID is taken from the principal
+     * loaded for this request rather than queried again.
      */
     public Long getUserIdByUsername(String username) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.getUsername().equals(username)) {
+            return principal.getId();
+        }
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
         return user.getId();
     }
 
+    /**
+     * ID of the authenticated caller, when the request was authenticated with a {@link UserPrincipal}
+     */
+    public static Optional<Long> currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal.getId());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Get user email by ID
      */
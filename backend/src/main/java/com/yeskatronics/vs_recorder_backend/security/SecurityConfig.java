@@ -1,8 +1,11 @@
 package com.yeskatronics.vs_recorder_backend.security;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -31,6 +34,7 @@ public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final CorsConfigurationSource corsConfigurationSource;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+    private final Environment environment;
 
     /**
      * Configure security filter chain
@@ -41,6 +45,10 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource)) // Enable CORS
                 .csrf(AbstractHttpConfigurer::disable) // Disable CSRF for stateless JWT
                 .authorizeHttpRequests(auth -> auth
+                        // Metrics and Prometheus scrapes on the management port (prod), which the
+                        // proxy doesn't route; only health and info are public on the app port
+                        .requestMatchers(this::onManagementPort).permitAll()
+
                         // Public endpoints (no authentication required)
                         .requestMatchers(
                                 "/api/auth/**",           // Auth endpoints (login, register)
@@ -50,7 +58,9 @@ public class SecurityConfig {
                                 "/swagger-ui/**",         // Swagger UI
                                 "/v3/api-docs/**",        // OpenAPI docs
                                 "/swagger-ui.html",       // Swagger UI HTML
-                                "/actuator/**"            // Health checks and metrics
+                                "/actuator/health",       // Health checks
+                                "/actuator/health/**",
+                                "/actuator/info"
                         ).permitAll()
                         // Public export code lookup (read-only, import still requires auth)
                         .requestMatchers(HttpMethod.GET, "/api/export/{code}").permitAll()
@@ -59,6 +69,10 @@ public class SecurityConfig {
                         // so it can show team/owner details. The accept POST still needs auth.
                         .requestMatchers(HttpMethod.GET, "/api/collaborations/invites/{token}").permitAll()
 
+                        // Async re-dispatches (SSE streams) were authorized on the original request;
+                        // stateless JWT auth isn't re-run for them
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // All other endpoints require authentication
                         .anyRequest().authenticated()
                 )
@@ -77,6 +91,15 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Whether the request came in on a separate management port ({@code management.server.port}).
+     * Read per request because the port is only known once the server has started.
+     */
+    private boolean onManagementPort(HttpServletRequest request) {
+        String managementPort = environment.getProperty("local.management.port");
+        return managementPort != null && managementPort.equals(String.valueOf(request.getLocalPort()));
+    }
+
     /**
      * Password encoder bean (BCrypt)
      */
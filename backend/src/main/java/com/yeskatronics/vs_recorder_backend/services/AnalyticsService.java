@@ -1,21 +1,33 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
 import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
-import com.yeskatronics.vs_recorder_backend.dto.PokemonEntry;
 import com.yeskatronics.vs_recorder_backend.entities.Replay;
 import com.yeskatronics.vs_recorder_backend.entities.Team;
-import com.yeskatronics.vs_recorder_backend.entities.TeamMember;
+import com.yeskatronics.vs_recorder_backend.entities.TrendRollup;
 import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
 import com.yeskatronics.vs_recorder_backend.utils.BattleLogParser;
+import com.yeskatronics.vs_recorder_backend.utils.CounterTable;
+import com.yeskatronics.vs_recorder_backend.utils.LongIntMap;
+import com.yeskatronics.vs_recorder_backend.utils.NameIds;
 import com.yeskatronics.vs_recorder_backend.utils.PlayerIdentifier;
+import com.yeskatronics.vs_recorder_backend.utils.TopK;
+import com.yeskatronics.vs_recorder_backend.utils.WinRateScore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
 
 /**
  * Service for calculating analytics and statistics from battle replays.
@@ -29,45 +41,83 @@ public class AnalyticsService {
     private final ReplayRepository replayRepository;
     private final TeamRepository teamRepository;
     private final PokemonService pokemonService;
+    private final OpponentIndexService opponentIndexService;
+    private final TrendRollupService trendRollupService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analytics.prior-games:5}")
+    private double priorGames;
 
     /**
      * Get usage statistics for a team
      */
     public AnalyticsDTO.UsageStatsResponse getUsageStats(Long teamId) {
+        return getUsageStats(teamId, null);
+    }
+
+    /**
+     * Get usage statistics for the team's replays matching {@code filter}
+     */
+    public AnalyticsDTO.UsageStatsResponse getUsageStats(Long teamId, AnalyticsDTO.Filter filter) {
+        return getUsageStats(teamId, filter, RANK_RAW);
+    }
+
+    /**
+     * Get usage statistics for the team's replays matching {@code filter}
+     *
+     * @param rank "raw" ranks Pokemon by usage and keeps the most-used lead pairs; "confidence"
+     *             ranks both by the lower bound of their win rate's confidence interval
+     * @throws IllegalArgumentException for an unknown rank
+     */
+    public AnalyticsDTO.UsageStatsResponse getUsageStats(Long teamId, AnalyticsDTO.Filter filter, String rank) {
+        ReplayRepository.ReplayFilter replayFilter = toReplayFilter(filter);
+        boolean byConfidence = rankByConfidence(rank);
+        return timed("usage", () -> computeUsageStats(teamId, replayFilter, byConfidence));
+    }
+
+    private AnalyticsDTO.UsageStatsResponse computeUsageStats(Long teamId, ReplayRepository.ReplayFilter filter,
+                                                              boolean byConfidence) {
         log.info("Calculating usage stats for team: {}", teamId);
 
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
 
-        List<Replay> replays = replayRepository.findByTeamId(teamId);
+        List<Replay> replays = replayRepository.findForAnalytics(teamId, filter);
+        recordReplayCount("usage", replays.size());
 
         if (replays.isEmpty()) {
             return new AnalyticsDTO.UsageStatsResponse(
                     new ArrayList<>(),
                     new ArrayList<>(),
                     0,
-                    0
+                    0,
+                    rankName(byConfidence)
             );
         }
 
         // Parse all battle logs
         List<ParsedReplay> parsedReplays = parseBattleLogs(replays, team);
+        NameIds species = newSpeciesIds();
+
+        // Calculate average win rate (also the prior confidence scores are smoothed toward)
+        long wins = replays.stream().filter(Replay::isWin).count();
+        int averageWinRate = (int) Math.round((wins * 100.0) / replays.size());
+        Prior prior = new Prior((double) wins / replays.size(), priorGames);
 
         // Calculate Pokemon usage stats
-        List<AnalyticsDTO.PokemonUsageStats> pokemonStats = calculatePokemonUsage(parsedReplays, replays);
+        List<AnalyticsDTO.PokemonUsageStats> pokemonStats =
+                calculatePokemonUsage(parsedReplays, replays, species, prior, byConfidence);
 
         // Calculate lead pair stats
-        List<AnalyticsDTO.LeadPairStats> leadPairStats = calculateLeadPairStats(parsedReplays, replays.size());
-
-        // Calculate average win rate
-        long wins = replays.stream().filter(Replay::isWin).count();
-        int averageWinRate = (int) Math.round((wins * 100.0) / replays.size());
+        List<AnalyticsDTO.LeadPairStats> leadPairStats =
+                calculateLeadPairStats(parsedReplays, replays.size(), species, prior, byConfidence);
 
         return new AnalyticsDTO.UsageStatsResponse(
                 pokemonStats,
                 leadPairStats,
                 averageWinRate,
-                replays.size()
+                replays.size(),
+                rankName(byConfidence)
         );
     }
 
@@ -75,27 +125,170 @@ public class AnalyticsService {
      * Get matchup statistics for a team
      */
     public AnalyticsDTO.MatchupStatsResponse getMatchupStats(Long teamId) {
-        log.info("Calculating matchup stats for team: {}", teamId);
+        return getMatchupStats(teamId, null);
+    }
 
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+    /**
+     * Get matchup statistics for the team's replays matching {@code filter}
+     */
+    public AnalyticsDTO.MatchupStatsResponse getMatchupStats(Long teamId, AnalyticsDTO.Filter filter) {
+        return getMatchupStats(teamId, filter, RANK_RAW, DEFAULT_MIN_ENCOUNTERS);
+    }
 
-        List<Replay> replays = replayRepository.findByTeamId(teamId);
+    /**
+     * Get matchup statistics for the team's replays matching {@code filter}
+     *
+     * @param rank "raw" ranks by rounded win and attendance rates among species faced at least
+     *             {@code minGames} times; "confidence" ranks every species by its confidence
+     *             bounds instead (lower bound for best/highest, upper bound for worst/lowest)
+     * @param minGames minimum encounters for best/worst in "raw" mode
+     * @throws IllegalArgumentException for an unknown rank or a negative minGames
+     */
+    public AnalyticsDTO.MatchupStatsResponse getMatchupStats(Long teamId, AnalyticsDTO.Filter filter,
+                                                             String rank, int minGames) {
+        ReplayRepository.ReplayFilter replayFilter = toReplayFilter(filter);
+        boolean byConfidence = rankByConfidence(rank);
+        if (minGames < 0) {
+            throw new IllegalArgumentException("minGames must not be negative");
+        }
+        return timed("matchups", () -> computeMatchupStats(teamId, replayFilter, byConfidence, minGames));
+    }
 
-        if (replays.isEmpty()) {
+    private AnalyticsDTO.MatchupStatsResponse computeMatchupStats(Long teamId, ReplayRepository.ReplayFilter filter,
+                                                                  boolean byConfidence, int minGames) {
+        log.info("Calculating matchup stats for team: {}", teamId);
+
+        MatchupTable matchups = countMatchups(teamId, filter, "matchups");
+        if (matchups == null) {
             return new AnalyticsDTO.MatchupStatsResponse(
                     new ArrayList<>(),
                     new ArrayList<>(),
                     new ArrayList<>(),
-                    new ArrayList<>()
+                    new ArrayList<>(),
+                    rankName(byConfidence)
             );
         }
 
+        if (byConfidence) {
+            // Scored straight from the counters; small samples sink on their wide intervals
+            return new AnalyticsDTO.MatchupStatsResponse(
+                    matchups.top(5, id -> true,
+                            id -> TopK.key(WinRateScore.rankKey(matchups.winRateLower(id)), matchups.gamesAgainst(id))),
+                    matchups.top(5, id -> true,
+                            id -> TopK.key(-WinRateScore.rankKey(matchups.winRateUpper(id)), matchups.gamesAgainst(id))),
+                    matchups.top(5, id -> matchups.timesOnTeam(id) > 0,
+                            id -> TopK.key(WinRateScore.rankKey(matchups.attendanceLower(id)), matchups.timesOnTeam(id))),
+                    matchups.top(5, id -> matchups.timesOnTeam(id) > 0,
+                            id -> TopK.key(-WinRateScore.rankKey(matchups.attendanceUpper(id)), matchups.timesOnTeam(id))),
+                    RANK_CONFIDENCE
+            );
+        }
+
+        // Rank on packed int keys; DTOs are only built for the survivors. Same directions as the
+        // confidence lists above: best and highest first, worst and lowest first, larger samples on ties.
+        List<AnalyticsDTO.MatchupStats> bestMatchups = matchups.top(5,
+                id -> matchups.gamesAgainst(id) >= minGames,
+                id -> TopK.key(matchups.winRate(id), matchups.gamesAgainst(id)));
+
+        List<AnalyticsDTO.MatchupStats> worstMatchups = matchups.top(5,
+                id -> matchups.gamesAgainst(id) >= minGames,
+                id -> TopK.key(-matchups.winRate(id), matchups.gamesAgainst(id)));
+
+        List<AnalyticsDTO.MatchupStats> highestAttendance = matchups.top(5,
+                id -> matchups.timesOnTeam(id) > 0,
+                id -> TopK.key(matchups.attendanceRate(id), matchups.timesOnTeam(id)));
+
+        List<AnalyticsDTO.MatchupStats> lowestAttendance = matchups.top(5,
+                id -> matchups.timesOnTeam(id) > 0,
+                id -> TopK.key(-matchups.attendanceRate(id), matchups.timesOnTeam(id)));
+
+        return new AnalyticsDTO.MatchupStatsResponse(
+                bestMatchups,
+                worstMatchups,
+                highestAttendance,
+                lowestAttendance,
+                RANK_RAW
+        );
+    }
+
+    /**
+     * One page of the full matchup ranking for the team's replays matching {@code filter}.
+     *
+     * @param sort "winRate", "confidence", "games" or "attendance" (ties go to the larger sample);
+     *             "confidence" ranks by the lower bound of the win rate's confidence interval, or
+     *             by the upper bound when ascending
+     * @param order "desc" or "asc"
+     * @param page zero-based page number
+     * @param size page size
+     * @throws IllegalArgumentException for an unknown sort or order, or a negative page
+     */
+    public AnalyticsDTO.MatchupRankingResponse getMatchupRanking(Long teamId, AnalyticsDTO.Filter filter,
+                                                                 String sort, String order, int page, int size) {
+        ReplayRepository.ReplayFilter replayFilter = toReplayFilter(filter);
+        if (!"desc".equals(order) && !"asc".equals(order)) {
+            throw new IllegalArgumentException("order must be 'desc' or 'asc'");
+        }
+        if (!MATCHUP_RANKING_SORTS.contains(sort)) {
+            throw new IllegalArgumentException("sort must be one of " + MATCHUP_RANKING_SORTS);
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("page must be 0 or more and size at least 1");
+        }
+        return timed("matchup-ranking", () -> computeMatchupRanking(teamId, replayFilter, sort, order, page, size));
+    }
+
+    private AnalyticsDTO.MatchupRankingResponse computeMatchupRanking(Long teamId, ReplayRepository.ReplayFilter filter,
+                                                                      String sort, String order, int page, int size) {
+        log.info("Ranking matchups for team: {} by {} {}", teamId, sort, order);
+
+        MatchupTable matchups = countMatchups(teamId, filter, "matchup-ranking");
+        if (matchups == null) {
+            return new AnalyticsDTO.MatchupRankingResponse(sort, order, page, size, 0, new ArrayList<>());
+        }
+
+        int sign = "desc".equals(order) ? 1 : -1;
+        IntPredicate include = "attendance".equals(sort) ? id -> matchups.timesOnTeam(id) > 0 : id -> true;
+        IntToLongFunction key = switch (sort) {
+            case "confidence" -> sign > 0
+                    ? id -> TopK.key(WinRateScore.rankKey(matchups.winRateLower(id)), matchups.gamesAgainst(id))
+                    : id -> TopK.key(-WinRateScore.rankKey(matchups.winRateUpper(id)), matchups.gamesAgainst(id));
+            case "games" -> id -> TopK.key(sign * matchups.gamesAgainst(id), matchups.winRate(id));
+            case "attendance" -> id -> TopK.key(sign * matchups.attendanceRate(id), matchups.timesOnTeam(id));
+            default -> id -> TopK.key(sign * matchups.winRate(id), matchups.gamesAgainst(id));
+        };
+
+        // Only the first (page + 1) * size entries are ever ranked
+        long offset = (long) page * size;
+        TopK top = new TopK((int) Math.min(offset + size, Integer.MAX_VALUE));
+        matchups.offer(top, include, key);
+        int[] ranked = top.drain();
+        int from = (int) Math.min(offset, ranked.length);
+        return new AnalyticsDTO.MatchupRankingResponse(sort, order, page, size, top.offered(),
+                matchups.toDtos(Arrays.copyOfRange(ranked, from, ranked.length)));
+    }
+
+    /**
+     * Count appearances, picks and wins against each opponent species.
+     *
+     * @return the counters, or null when the team has no matching replays
+     */
+    private MatchupTable countMatchups(Long teamId, ReplayRepository.ReplayFilter filter, String view) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+
+        List<Replay> replays = replayRepository.findForAnalytics(teamId, filter);
+        recordReplayCount(view, replays.size());
+
+        if (replays.isEmpty()) {
+            return null;
+        }
+
         // Parse all battle logs
         List<ParsedReplay> parsedReplays = parseBattleLogs(replays, team);
 
-        // Track opponent Pokemon statistics
-        Map<String, MatchupTracker> opponentStats = new HashMap<>();
+        // Track opponent Pokemon statistics, one counter row per species id
+        NameIds species = newSpeciesIds();
+        CounterTable opponentStats = new CounterTable(MATCHUP_COLUMNS);
 
         for (ParsedReplay pr : parsedReplays) {
             if (pr == null || pr.battleData == null) continue;
@@ -103,199 +296,132 @@ public class AnalyticsService {
             Replay replay = pr.replay;
             BattleLogParser.BattleData battleData = pr.battleData;
 
-            String playerName = identifyPlayer(team, battleData);
+            String playerName = PlayerIdentifier.identifyUserPlayer(team, battleData, pokemonService);
             if (playerName == null) continue;
 
             List<String> opponentTeam = BattleLogParser.getOpponentTeam(battleData, playerName);
             List<String> opponentPicks = BattleLogParser.getOpponentPicks(battleData, playerName);
 
             // Normalize opponent picks for comparison
-            Set<String> normalizedOpponentPicks = opponentPicks.stream()
-                    .map(this::normalizeForAnalytics)
-                    .collect(Collectors.toSet());
+            int[] opponentPickIds = toIds(species, opponentPicks);
 
             for (String pokemon : opponentTeam) {
-                String normalizedPokemon = normalizeForAnalytics(pokemon);
-
-                MatchupTracker tracker = opponentStats.computeIfAbsent(
-                        normalizedPokemon,
-                        k -> new MatchupTracker()
-                );
+                int id = species.idOf(pokemon);
 
-                tracker.timesOnTeam++;
-                tracker.gamesAgainst++;
+                opponentStats.increment(id, MATCHUP_TIMES_ON_TEAM);
+                opponentStats.increment(id, MATCHUP_GAMES_AGAINST);
 
-                if (normalizedOpponentPicks.contains(normalizedPokemon)) {
-                    tracker.timesBrought++;
+                if (contains(opponentPickIds, id)) {
+                    opponentStats.increment(id, MATCHUP_TIMES_BROUGHT);
                 }
 
                 if (replay.isWin()) {
-                    tracker.winsAgainst++;
+                    opponentStats.increment(id, MATCHUP_WINS_AGAINST);
                 }
             }
         }
 
-        // Convert to DTO and sort
-        List<AnalyticsDTO.MatchupStats> allMatchups = opponentStats.entrySet().stream()
-                .map(entry -> {
-                    MatchupTracker tracker = entry.getValue();
-                    int winRate = (int) Math.round((tracker.winsAgainst * 100.0) / tracker.gamesAgainst);
-                    Integer attendanceRate = tracker.timesOnTeam > 0
-                            ? (int) Math.round((tracker.timesBrought * 100.0) / tracker.timesOnTeam)
-                            : null;
-
-                    return new AnalyticsDTO.MatchupStats(
-                            entry.getKey(),
-                            tracker.gamesAgainst,
-                            tracker.winsAgainst,
-                            winRate,
-                            tracker.timesOnTeam,
-                            tracker.timesBrought,
-                            attendanceRate
-                    );
-                })
-                .collect(Collectors.toList());
-
-        // Filter and sort for different categories
-        List<AnalyticsDTO.MatchupStats> bestMatchups = allMatchups.stream()
-                .filter(m -> m.getGamesAgainst() >= 3) // Minimum 3 encounters
-                .sorted(Comparator.comparingInt(AnalyticsDTO.MatchupStats::getWinRate).reversed()
-                        .thenComparingInt(AnalyticsDTO.MatchupStats::getGamesAgainst).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        List<AnalyticsDTO.MatchupStats> worstMatchups = allMatchups.stream()
-                .filter(m -> m.getGamesAgainst() >= 3) // Minimum 3 encounters
-                .sorted(Comparator.comparingInt(AnalyticsDTO.MatchupStats::getWinRate)
-                        .thenComparingInt(AnalyticsDTO.MatchupStats::getGamesAgainst).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        List<AnalyticsDTO.MatchupStats> highestAttendance = allMatchups.stream()
-                .filter(m -> m.getTimesOnTeam() > 0)
-                .filter(m -> m.getAttendanceRate() != null)
-                .sorted(Comparator.comparingInt(AnalyticsDTO.MatchupStats::getAttendanceRate).reversed()
-                        .thenComparingInt(AnalyticsDTO.MatchupStats::getTimesOnTeam).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        List<AnalyticsDTO.MatchupStats> lowestAttendance = allMatchups.stream()
-                .filter(m -> m.getTimesOnTeam() > 0)
-                .filter(m -> m.getAttendanceRate() != null)
-                .sorted(Comparator.comparingInt(AnalyticsDTO.MatchupStats::getAttendanceRate)
-                        .thenComparingInt(AnalyticsDTO.MatchupStats::getTimesOnTeam).reversed())
-                .limit(5)
-                .collect(Collectors.toList());
-
-        return new AnalyticsDTO.MatchupStatsResponse(
-                bestMatchups,
-                worstMatchups,
-                highestAttendance,
-                lowestAttendance
-        );
+        long wins = replays.stream().filter(Replay::isWin).count();
+        return new MatchupTable(species, opponentStats, nameRanks(species.size(), species::nameOf),
+                new Prior((double) wins / replays.size(), priorGames));
     }
 
     /**
-     * Calculate win rate against a custom opponent team
+     * Calculate win rate against a custom opponent team.
+     * Answered from the opponent species index; no battle log is parsed.
      */
     public AnalyticsDTO.CustomMatchupResponse getCustomMatchupAnalysis(
             Long teamId,
             AnalyticsDTO.CustomMatchupRequest request) {
+        return getCustomMatchupAnalysis(teamId, request, null);
+    }
+
+    /**
+     * Calculate win rate against a custom opponent team over the replays matching {@code filter}.
+     */
+    public AnalyticsDTO.CustomMatchupResponse getCustomMatchupAnalysis(
+            Long teamId,
+            AnalyticsDTO.CustomMatchupRequest request,
+            AnalyticsDTO.Filter filter) {
+        ReplayRepository.ReplayFilter replayFilter = toReplayFilter(filter);
+        return timed("custom-matchup", () -> computeCustomMatchupAnalysis(teamId, request, replayFilter));
+    }
+
+    private AnalyticsDTO.CustomMatchupResponse computeCustomMatchupAnalysis(
+            Long teamId,
+            AnalyticsDTO.CustomMatchupRequest request,
+            ReplayRepository.ReplayFilter filter) {
 
         log.info("Calculating custom matchup analysis for team: {} against: {}",
                 teamId, request.getOpponentPokemon());
 
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+        if (!teamRepository.existsById(teamId)) {
+            throw new IllegalArgumentException("Team not found with ID: " + teamId);
+        }
 
-        List<Replay> replays = replayRepository.findByTeamId(teamId);
+        long replayCount = replayRepository.countForAnalytics(teamId, filter);
+        recordReplayCount("custom-matchup", (int) replayCount);
 
-        if (replays.isEmpty()) {
+        if (replayCount == 0) {
             return new AnalyticsDTO.CustomMatchupResponse(new ArrayList<>(), 0, 0, 0);
         }
 
-        // Normalize opponent Pokemon names
-        Set<String> opponentCore = request.getOpponentPokemon().stream()
-                .map(this::normalizeForAnalytics)
-                .collect(Collectors.toSet());
-
-        // Parse battle logs
-        List<ParsedReplay> parsedReplays = parseBattleLogs(replays, team);
+        // Normalize opponent Pokemon names; counter rows are positions in the core
+        List<String> opponentCore = opponentIndexService.normalizeCore(request.getOpponentPokemon());
+        List<ReplayRepository.SpeciesHit> hits = opponentIndexService.findHits(teamId, opponentCore, filter);
 
-        // Track stats for each Pokemon
-        Map<String, CustomMatchupTracker> pokemonTrackers = new HashMap<>();
+        // Track stats for each Pokemon, plus how many core species each replay's opponent had
+        CounterTable pokemonTrackers = new CounterTable(CUSTOM_COLUMNS, opponentCore.size());
+        pokemonTrackers.ensureRow(opponentCore.size() - 1);
+        LongIntMap coreHitsByReplay = new LongIntMap();
         int exactMatchCount = 0;
-        int exactMatchWins = 0;
         int anyMatchCount = 0;
         int anyMatchWins = 0;
 
-        for (ParsedReplay pr : parsedReplays) {
-            if (pr == null || pr.battleData == null) continue;
-
-            Replay replay = pr.replay;
-            BattleLogParser.BattleData battleData = pr.battleData;
-
-            String playerName = identifyPlayer(team, battleData);
-            if (playerName == null) continue;
-
-            List<String> opponentTeam = BattleLogParser.getOpponentTeam(battleData, playerName);
-            Set<String> opponentTeamSet = opponentTeam.stream()
-                    .map(this::normalizeForAnalytics)
-                    .collect(Collectors.toSet());
-
-            boolean hadAnyPokemon = false;
-
-            // Check if opponent had each Pokemon from the custom team
-            for (String pokemon : opponentCore) {
-                if (opponentTeamSet.contains(pokemon)) {
-                    hadAnyPokemon = true;
-
-                    CustomMatchupTracker tracker = pokemonTrackers.computeIfAbsent(
-                            pokemon,
-                            k -> new CustomMatchupTracker()
-                    );
-
-                    tracker.gamesAgainst++;
-                    if (replay.isWin()) {
-                        tracker.winsAgainst++;
-                    }
-                }
+        for (ReplayRepository.SpeciesHit hit : hits) {
+            int pokemon = opponentCore.indexOf(hit.species());
+            pokemonTrackers.increment(pokemon, CUSTOM_GAMES_AGAINST);
+            if (hit.isWin()) {
+                pokemonTrackers.increment(pokemon, CUSTOM_WINS_AGAINST);
             }
 
-            // Track games where opponent had ANY of the requested Pokemon
-            if (hadAnyPokemon) {
+            int seen = coreHitsByReplay.get(hit.replayId());
+            if (seen == LongIntMap.MISSING) {
+                // First hit: opponent had ANY of the requested Pokemon
+                seen = 0;
                 anyMatchCount++;
-                if (replay.isWin()) {
+                if (hit.isWin()) {
                     anyMatchWins++;
                 }
             }
+            coreHitsByReplay.put(hit.replayId(), ++seen);
 
-            // Check for exact match (opponent had exactly this core)
-            if (opponentTeamSet.containsAll(opponentCore)) {
+            // Exact match: opponent had the whole core
+            if (seen == opponentCore.size()) {
                 exactMatchCount++;
-                if (replay.isWin()) {
-                    exactMatchWins++;
-                }
             }
         }
+        if (opponentCore.isEmpty()) {
+            // Every attributed game trivially contains an empty core
+            exactMatchCount = (int) replayRepository.countWithOpponentSpecies(teamId, filter);
+        }
 
         // Convert to response DTOs
-        List<AnalyticsDTO.CustomPokemonAnalysis> pokemonAnalysis = pokemonTrackers.entrySet().stream()
-                .map(entry -> {
-                    CustomMatchupTracker tracker = entry.getValue();
-                    int winRate = tracker.gamesAgainst > 0
-                            ? (int) Math.round((tracker.winsAgainst * 100.0) / tracker.gamesAgainst)
-                            : 0;
-
-                    return new AnalyticsDTO.CustomPokemonAnalysis(
-                            entry.getKey(),
-                            tracker.gamesAgainst,
-                            tracker.winsAgainst,
-                            winRate
-                    );
-                })
-                .sorted(Comparator.comparingInt(AnalyticsDTO.CustomPokemonAnalysis::getGamesAgainst).reversed())
-                .collect(Collectors.toList());
+        List<AnalyticsDTO.CustomPokemonAnalysis> pokemonAnalysis = new ArrayList<>();
+        for (int pokemon = 0; pokemon < opponentCore.size(); pokemon++) {
+            int gamesAgainst = pokemonTrackers.get(pokemon, CUSTOM_GAMES_AGAINST);
+            if (gamesAgainst == 0) continue;
+
+            int winsAgainst = pokemonTrackers.get(pokemon, CUSTOM_WINS_AGAINST);
+            pokemonAnalysis.add(new AnalyticsDTO.CustomPokemonAnalysis(
+                    opponentCore.get(pokemon),
+                    gamesAgainst,
+                    winsAgainst,
+                    (int) Math.round((winsAgainst * 100.0) / gamesAgainst)
+            ));
+        }
+        pokemonAnalysis.sort(Comparator.comparingInt(AnalyticsDTO.CustomPokemonAnalysis::getGamesAgainst).reversed()
+                .thenComparing(AnalyticsDTO.CustomPokemonAnalysis::getPokemon));
 
         // Team win rate = win rate in games where opponent had ANY of the requested Pokemon
         int teamWinRate = anyMatchCount > 0
@@ -322,12 +448,25 @@ public class AnalyticsService {
      * Get move usage statistics
      */
     public AnalyticsDTO.MoveUsageResponse getMoveUsageStats(Long teamId) {
+        return getMoveUsageStats(teamId, null);
+    }
+
+    /**
+     * Get move usage statistics for the team's replays matching {@code filter}
+     */
+    public AnalyticsDTO.MoveUsageResponse getMoveUsageStats(Long teamId, AnalyticsDTO.Filter filter) {
+        ReplayRepository.ReplayFilter replayFilter = toReplayFilter(filter);
+        return timed("moves", () -> computeMoveUsageStats(teamId, replayFilter));
+    }
+
+    private AnalyticsDTO.MoveUsageResponse computeMoveUsageStats(Long teamId, ReplayRepository.ReplayFilter filter) {
         log.info("Calculating move usage stats for team: {}", teamId);
 
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
 
-        List<Replay> replays = replayRepository.findByTeamId(teamId);
+        List<Replay> replays = replayRepository.findForAnalytics(teamId, filter);
+        recordReplayCount("moves", replays.size());
 
         if (replays.isEmpty()) {
             return new AnalyticsDTO.MoveUsageResponse(new ArrayList<>());
@@ -336,16 +475,19 @@ public class AnalyticsService {
         // Parse battle logs
         List<ParsedReplay> parsedReplays = parseBattleLogs(replays, team);
 
-        // Track move usage per Pokemon
-        Map<String, Map<String, MoveUsageTracker>> pokemonMoveUsage = new HashMap<>();
+        // Track move usage per Pokemon: one counter row per (species id, move id) pair
+        NameIds species = newSpeciesIds();
+        NameIds moveIds = new NameIds();
+        LongIntMap moveRows = new LongIntMap();
+        CounterTable moveUsage = new CounterTable(MOVE_COLUMNS);
+        CounterTable totalMovesUsed = new CounterTable(1);
 
         for (ParsedReplay pr : parsedReplays) {
             if (pr == null || pr.battleData == null) continue;
 
-            Replay replay = pr.replay;
             BattleLogParser.BattleData battleData = pr.battleData;
 
-            String playerName = identifyPlayer(team, battleData);
+            String playerName = PlayerIdentifier.identifyUserPlayer(team, battleData, pokemonService);
             if (playerName == null) continue;
 
             String playerSide = playerName.equalsIgnoreCase(battleData.getPlayer1()) ? "p1" : "p2";
@@ -354,100 +496,339 @@ public class AnalyticsService {
             // Process each Pokemon that was brought
             for (String pokemon : playerPicks) {
                 Map<String, Integer> moves = BattleLogParser.getPokemonMoves(battleData, pokemon, playerSide);
-                String normalizedPokemon = normalizeForAnalytics(pokemon);
-
-                Map<String, MoveUsageTracker> moveTrackers = pokemonMoveUsage.computeIfAbsent(
-                        normalizedPokemon,
-                        k -> new HashMap<>()
-                );
+                int pokemonId = species.idOf(pokemon);
+                totalMovesUsed.ensureRow(pokemonId);
 
                 // Track each move used (with counts)
                 for (Map.Entry<String, Integer> moveEntry : moves.entrySet()) {
-                    String move = moveEntry.getKey();
+                    int moveId = moveIds.idOf(moveEntry.getKey());
                     int count = moveEntry.getValue();
 
-                    MoveUsageTracker tracker = moveTrackers.computeIfAbsent(
-                            move,
-                            k -> new MoveUsageTracker()
-                    );
-
-                    tracker.timesUsed += count;  // Add the count from this game
-                    tracker.gamesWithPokemon++;
-
-                    if (replay.isWin()) {
-                        tracker.winsWithMove++;
+                    long key = LongIntMap.pack(pokemonId, moveId);
+                    int row = moveRows.get(key);
+                    if (row == LongIntMap.MISSING) {
+                        row = moveUsage.addRow();
+                        moveUsage.set(row, MOVE_POKEMON, pokemonId);
+                        moveUsage.set(row, MOVE_MOVE, moveId);
+                        moveRows.put(key, row);
                     }
-                }
 
-                // Increment games count for all moves of this Pokemon
-                for (MoveUsageTracker tracker : moveTrackers.values()) {
-                    if (!moves.containsKey(tracker.getMoveName())) {
-                        // Increment games where Pokemon was brought but move wasn't used
-                        tracker.gamesWithPokemon++;
-                    }
+                    moveUsage.add(row, MOVE_TIMES_USED, count);  // Add the count from this game
+                    totalMovesUsed.add(pokemonId, 0, count);
                 }
             }
         }
 
-        // Convert to response DTOs
-        List<AnalyticsDTO.PokemonMoveStats> pokemonMoves = pokemonMoveUsage.entrySet().stream()
-                .map(entry -> {
-                    String pokemon = entry.getKey();
-                    Map<String, MoveUsageTracker> moveTrackers = entry.getValue();
-
-                    // Calculate total moves used by this Pokemon across all games
-                    int totalMovesUsed = moveTrackers.values().stream()
-                            .mapToInt(tracker -> tracker.timesUsed)
-                            .sum();
-
-                    List<AnalyticsDTO.MoveStats> moves = moveTrackers.entrySet().stream()
-                            .map(moveEntry -> {
-                                MoveUsageTracker tracker = moveEntry.getValue();
-
-                                // Usage rate = percentage of total moves used by this Pokemon
-                                int usageRate = totalMovesUsed > 0
-                                        ? (int) Math.round((tracker.timesUsed * 100.0) / totalMovesUsed)
-                                        : 0;
-
-                                // Win rate = games won when this move was used
-                                int winRate = tracker.gamesWithPokemon > 0
-                                        ? (int) Math.round((tracker.winsWithMove * 100.0) / tracker.gamesWithPokemon)
-                                        : 0;
-
-                                return new AnalyticsDTO.MoveStats(
-                                        moveEntry.getKey(),
-                                        tracker.timesUsed,
-                                        usageRate
-                                );
-                            })
-                            .sorted(Comparator.comparingInt(AnalyticsDTO.MoveStats::getTimesUsed).reversed())
-                            .collect(Collectors.toList());
-
-                    return new AnalyticsDTO.PokemonMoveStats(pokemon, moves);
-                })
-                .sorted(Comparator.comparing(AnalyticsDTO.PokemonMoveStats::getPokemon))
-                .collect(Collectors.toList());
+        // Group counter rows by species (counting sort, so each group keeps row order)
+        int[] groupStart = new int[species.size() + 1];
+        for (int row = 0; row < moveUsage.rows(); row++) {
+            groupStart[moveUsage.get(row, MOVE_POKEMON) + 1]++;
+        }
+        for (int id = 0; id < species.size(); id++) {
+            groupStart[id + 1] += groupStart[id];
+        }
+        int[] groupedRows = new int[moveUsage.rows()];
+        int[] nextSlot = Arrays.copyOf(groupStart, species.size());
+        for (int row = 0; row < moveUsage.rows(); row++) {
+            groupedRows[nextSlot[moveUsage.get(row, MOVE_POKEMON)]++] = row;
+        }
+
+        // Rank each species' moves on primitive keys, then build DTOs in their final order; equal
+        // counts go alphabetically
+        int[] moveRanks = nameRanks(moveIds.size(), moveIds::nameOf);
+        List<AnalyticsDTO.PokemonMoveStats> pokemonMoves = new ArrayList<>();
+        for (int id = 0; id < species.size(); id++) {
+            int start = groupStart[id];
+            int count = groupStart[id + 1] - start;
+            TopK ranking = new TopK(count);
+            for (int i = start; i < start + count; i++) {
+                int row = groupedRows[i];
+                int move = moveUsage.get(row, MOVE_MOVE);
+                ranking.offer(moveUsage.get(row, MOVE_TIMES_USED), moveRanks[move], row);
+            }
+
+            int total = totalMovesUsed.get(id, 0);
+            List<AnalyticsDTO.MoveStats> moves = new ArrayList<>(count);
+            for (int row : ranking.drain()) {
+                int timesUsed = moveUsage.get(row, MOVE_TIMES_USED);
+
+                // Usage rate = percentage of total moves used by this Pokemon
+                int usageRate = total > 0 ? (int) Math.round((timesUsed * 100.0) / total) : 0;
+
+                moves.add(new AnalyticsDTO.MoveStats(
+                        moveIds.nameOf(moveUsage.get(row, MOVE_MOVE)),
+                        timesUsed,
+                        usageRate
+                ));
+            }
+            pokemonMoves.add(new AnalyticsDTO.PokemonMoveStats(species.nameOf(id), moves));
+        }
+        pokemonMoves.sort(Comparator.comparing(AnalyticsDTO.PokemonMoveStats::getPokemon));
 
         return new AnalyticsDTO.MoveUsageResponse(pokemonMoves);
     }
 
     /**
-     * Normalize Pokemon name for analytics grouping.
-     * Uses PokemonService to resolve base species, which handles cosmetic vs competitive forms.
-     * Returns the Showdown name format (e.g., "Ogerpon-Hearthflame", "Raging Bolt").
+     * Win-rate and usage trends for a team, read from the day/week rollups. Replays waiting for the
+     * index backfill count in their buckets once {@link OpponentIndexBackfill} reaches them.
+     *
+     * @param granularity "day" or "week"
+     * @param from first day (inclusive), or null
+     * @param to last day (inclusive), or null
+     * @param limit max species and lead pair series
      */
-    private String normalizeForAnalytics(String pokemonName) {
-        String baseSpecies = pokemonService.resolveBaseSpecies(pokemonName);
-        PokemonEntry entry = pokemonService.getEntry(baseSpecies);
-        if (entry != null) {
-            return entry.name();
+    public AnalyticsDTO.TrendResponse getTrends(Long teamId, String granularity,
+                                                LocalDate from, LocalDate to, int limit) {
+        TrendRollup.Granularity buckets = switch (granularity == null ? "" : granularity.toLowerCase(Locale.ROOT)) {
+            case "day" -> TrendRollup.Granularity.DAY;
+            case "week" -> TrendRollup.Granularity.WEEK;
+            default -> throw new IllegalArgumentException("granularity must be 'day' or 'week'");
+        };
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
         }
-        // Fallback: return the base species display name
-        return pokemonService.getDisplayName(baseSpecies);
+
+        return timed("trends", () -> {
+            if (!teamRepository.existsById(teamId)) {
+                throw new IllegalArgumentException("Team not found with ID: " + teamId);
+            }
+            return trendRollupService.getTrends(teamId, buckets, from, to, limit);
+        });
+    }
+
+    /**
+     * Species ids for one computation. Each distinct raw name is normalized once; after that the
+     * accumulators work on small ints and only turn them back into names when building DTOs.
+     */
+    private NameIds newSpeciesIds() {
+        return new NameIds(pokemonService::resolveAnalyticsName);
+    }
+
+    private static int[] toIds(NameIds ids, List<String> names) {
+        int[] result = new int[names.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.idOf(names.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Alphabetical position of each id's (or row's) name in {@code [0, count)}, used as the
+     * {@link TopK} tiebreak so equal counts always rank by name. Names must be distinct.
+     */
+    private static int[] nameRanks(int count, IntFunction<String> name) {
+        String[] names = new String[count];
+        for (int id = 0; id < count; id++) {
+            names[id] = name.apply(id);
+        }
+        String[] sorted = names.clone();
+        Arrays.sort(sorted);
+        int[] ranks = new int[count];
+        for (int id = 0; id < count; id++) {
+            ranks[id] = Arrays.binarySearch(sorted, names[id]);
+        }
+        return ranks;
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int candidate : ids) {
+            if (candidate == id) return true;
+        }
+        return false;
     }
 
     // ==================== Helper Methods ====================
 
+    /**
+     * Validate and normalize request filters into the form the repository queries compare against.
+     *
+     * @throws IllegalArgumentException for an unknown bestOf/result or an inverted date range
+     */
+    static ReplayRepository.ReplayFilter toReplayFilter(AnalyticsDTO.Filter filter) {
+        if (filter == null) {
+            return ReplayRepository.ReplayFilter.NONE;
+        }
+        LocalDate from = filter.getFrom();
+        LocalDate to = filter.getTo();
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        Boolean bo3 = null;
+        String bestOf = normalize(filter.getBestOf());
+        if (bestOf != null) {
+            switch (bestOf) {
+                case "bo1" -> bo3 = false;
+                case "bo3" -> bo3 = true;
+                default -> throw new IllegalArgumentException("bestOf must be 'bo1' or 'bo3'");
+            }
+        }
+        String result = normalize(filter.getResult());
+        if (result != null && !result.equals("win") && !result.equals("loss")) {
+            throw new IllegalArgumentException("result must be 'win' or 'loss'");
+        }
+
+        return new ReplayRepository.ReplayFilter(
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                bo3,
+                result,
+                normalize(filter.getOpponent()),
+                normalize(filter.getTag()),
+                normalize(filter.getExcludeTag()));
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Time one analytics view as {@code analytics.compute{view=...}}.
+     */
+    private <T> T timed(String view, Supplier<T> compute) {
+        return Timer.builder("analytics.compute")
+                .description("Analytics view compute time, including replay load and parse")
+                .tag("view", view)
+                .register(meterRegistry)
+                .record(compute);
+    }
+
+    /**
+     * Replays fed into one analytics view, as {@code analytics.replays{view=...}}.
+     */
+    private void recordReplayCount(String view, int replays) {
+        DistributionSummary.builder("analytics.replays")
+                .description("Replays analyzed per analytics request")
+                .tag("view", view)
+                .register(meterRegistry)
+                .record(replays);
+    }
+
+    /**
+     * Validate a {@code rank} parameter.
+     *
+     * @return whether lists are ranked by confidence bounds rather than raw rates
+     * @throws IllegalArgumentException for anything but "raw" (or null) and "confidence"
+     */
+    static boolean rankByConfidence(String rank) {
+        if (rank == null || RANK_RAW.equals(rank)) {
+            return false;
+        }
+        if (RANK_CONFIDENCE.equals(rank)) {
+            return true;
+        }
+        throw new IllegalArgumentException("rank must be 'raw' or 'confidence'");
+    }
+
+    private static String rankName(boolean byConfidence) {
+        return byConfidence ? RANK_CONFIDENCE : RANK_RAW;
+    }
+
+    /**
+     * Prior that win rates are smoothed toward: the team's overall win rate in the analyzed
+     * replays, weighted as {@code games} pseudo-games.
+     */
+    private record Prior(double rate, double games) {
+
+        AnalyticsDTO.WinRateConfidence confidence(int wins, int played) {
+            return new AnalyticsDTO.WinRateConfidence(
+                    WinRateScore.percent(WinRateScore.smoothed(wins, played, rate, games)),
+                    WinRateScore.percent(WinRateScore.lower(wins, played)),
+                    WinRateScore.percent(WinRateScore.upper(wins, played)));
+        }
+    }
+
+    /**
+     * Opponent species counters for the matchup views, with each id's alphabetical tiebreak
+     */
+    private static final class MatchupTable {
+        private final NameIds species;
+        private final CounterTable stats;
+        private final int[] nameRanks;
+        private final Prior prior;
+
+        private MatchupTable(NameIds species, CounterTable stats, int[] nameRanks, Prior prior) {
+            this.species = species;
+            this.stats = stats;
+            this.nameRanks = nameRanks;
+            this.prior = prior;
+        }
+
+        int gamesAgainst(int id) {
+            return stats.get(id, MATCHUP_GAMES_AGAINST);
+        }
+
+        int timesOnTeam(int id) {
+            return stats.get(id, MATCHUP_TIMES_ON_TEAM);
+        }
+
+        int winRate(int id) {
+            return (int) Math.round((stats.get(id, MATCHUP_WINS_AGAINST) * 100.0) / gamesAgainst(id));
+        }
+
+        /**
+         * Only meaningful when {@link #timesOnTeam(int)} is positive.
+         */
+        int attendanceRate(int id) {
+            return (int) Math.round((stats.get(id, MATCHUP_TIMES_BROUGHT) * 100.0) / timesOnTeam(id));
+        }
+
+        double winRateLower(int id) {
+            return WinRateScore.lower(stats.get(id, MATCHUP_WINS_AGAINST), gamesAgainst(id));
+        }
+
+        double winRateUpper(int id) {
+            return WinRateScore.upper(stats.get(id, MATCHUP_WINS_AGAINST), gamesAgainst(id));
+        }
+
+        double attendanceLower(int id) {
+            return WinRateScore.lower(stats.get(id, MATCHUP_TIMES_BROUGHT), timesOnTeam(id));
+        }
+
+        double attendanceUpper(int id) {
+            return WinRateScore.upper(stats.get(id, MATCHUP_TIMES_BROUGHT), timesOnTeam(id));
+        }
+
+        /**
+         * The {@code k} best-ranked ids accepted by {@code include}, as DTOs.
+         */
+        List<AnalyticsDTO.MatchupStats> top(int k, IntPredicate include, IntToLongFunction key) {
+            TopK top = new TopK(k);
+            offer(top, include, key);
+            return toDtos(top.drain());
+        }
+
+        /**
+         * Offer every id accepted by {@code include}; species only ever seen as a pick, never on a
+         * team sheet, have no games against and are skipped.
+         */
+        void offer(TopK top, IntPredicate include, IntToLongFunction key) {
+            for (int id = 0; id < stats.rows(); id++) {
+                if (gamesAgainst(id) > 0 && include.test(id)) {
+                    top.offer(key.applyAsLong(id), nameRanks[id], id);
+                }
+            }
+        }
+
+        List<AnalyticsDTO.MatchupStats> toDtos(int[] ids) {
+            List<AnalyticsDTO.MatchupStats> matchups = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                int timesOnTeam = timesOnTeam(id);
+                matchups.add(new AnalyticsDTO.MatchupStats(
+                        species.nameOf(id),
+                        gamesAgainst(id),
+                        stats.get(id, MATCHUP_WINS_AGAINST),
+                        winRate(id),
+                        timesOnTeam,
+                        stats.get(id, MATCHUP_TIMES_BROUGHT),
+                        timesOnTeam > 0 ? attendanceRate(id) : null,
+                        prior.confidence(stats.get(id, MATCHUP_WINS_AGAINST), gamesAgainst(id))
+                ));
+            }
+            return matchups;
+        }
+    }
+
     /**
      * Helper class for parsed battle data with associated replay
      */
@@ -479,48 +860,17 @@ public class AnalyticsService {
     }
 
     /**
-     * Identify which player in the battle data corresponds to the team owner.
-     * Delegates to {@link PlayerIdentifier} so all four call sites share the same
-     * cascading match.
-     */
-    private String identifyPlayer(Team team, BattleLogParser.BattleData battleData) {
-        if (battleData.getPlayer1() == null || battleData.getPlayer2() == null) {
-            return null;
-        }
-
-        Map<String, String> players = new HashMap<>();
-        players.put("p1", battleData.getPlayer1());
-        players.put("p2", battleData.getPlayer2());
-
-        Map<String, List<String>> teams = new HashMap<>();
-        teams.put("p1", battleData.getP1Team() != null ? battleData.getP1Team() : Collections.emptyList());
-        teams.put("p2", battleData.getP2Team() != null ? battleData.getP2Team() : Collections.emptyList());
-
-        List<String> roster = team.getTeamMembers() == null
-                ? Collections.emptyList()
-                : team.getTeamMembers().stream()
-                    .map(TeamMember::getPokemonName)
-                    .collect(Collectors.toList());
-
-        PlayerIdentifier.Identification id = PlayerIdentifier.identify(
-                team.getShowdownUsernames(),
-                roster,
-                players,
-                teams,
-                pokemonService);
-
-        String userUsername = id.userUsername();
-        return (userUsername == null || userUsername.isBlank()) ? battleData.getPlayer1() : userUsername;
-    }
-
-    /**
-     * Calculate Pokemon usage statistics
+     * Calculate Pokemon usage statistics, most used first (or surest winners first by confidence)
      */
     private List<AnalyticsDTO.PokemonUsageStats> calculatePokemonUsage(
             List<ParsedReplay> parsedReplays,
-            List<Replay> replays) {
+            List<Replay> replays,
+            NameIds species,
+            Prior prior,
+            boolean byConfidence) {
 
-        Map<String, PokemonUsageTracker> usageTrackers = new HashMap<>();
+        CounterTable usageTrackers = new CounterTable(USAGE_COLUMNS);
+        boolean[] seen = new boolean[0];
 
         for (ParsedReplay pr : parsedReplays) {
             if (pr == null || pr.battleData == null) continue;
@@ -528,7 +878,7 @@ public class AnalyticsService {
             Replay replay = pr.replay;
             BattleLogParser.BattleData battleData = pr.battleData;
             Team team = replay.getTeam();
-            String playerName = identifyPlayer(team, battleData);
+            String playerName = PlayerIdentifier.identifyUserPlayer(team, battleData, pokemonService);
             if (playerName == null) continue;
 
             String playerSide = playerName.equalsIgnoreCase(battleData.getPlayer1()) ? "p1" : "p2";
@@ -536,90 +886,104 @@ public class AnalyticsService {
 
             for (String pokemon : picks) {
                 // Normalize for grouping (e.g., Ogerpon-Hearthflame-Tera → Ogerpon-Hearthflame)
-                String normalizedPokemon = normalizeForAnalytics(pokemon);
-
-                PokemonUsageTracker tracker = usageTrackers.computeIfAbsent(
-                        normalizedPokemon,
-                        k -> new PokemonUsageTracker()
-                );
+                int id = species.idOf(pokemon);
+                if (id >= seen.length) {
+                    seen = Arrays.copyOf(seen, Math.max(id + 1, seen.length * 2));
+                }
+                seen[id] = true;
 
-                tracker.usage++;
+                usageTrackers.increment(id, USAGE_GAMES);
                 if (replay.isWin()) {
-                    tracker.wins++;
+                    usageTrackers.increment(id, USAGE_WINS);
                 }
 
                 // Check if lead
                 if (BattleLogParser.wasLead(battleData, pokemon, playerSide)) {
-                    tracker.leadUsage++;
+                    usageTrackers.increment(id, USAGE_LEAD);
                     if (replay.isWin()) {
-                        tracker.leadWins++;
+                        usageTrackers.increment(id, USAGE_LEAD_WINS);
                     }
                 }
 
                 // Check if Tera
                 if (BattleLogParser.didTerastallize(battleData, pokemon, playerSide)) {
-                    tracker.teraUsage++;
+                    usageTrackers.increment(id, USAGE_TERA);
                     if (replay.isWin()) {
-                        tracker.teraWins++;
+                        usageTrackers.increment(id, USAGE_TERA_WINS);
                     }
                 }
 
                 // Check if Mega Evolved
                 if (BattleLogParser.didMegaEvolve(battleData, pokemon, playerSide)) {
-                    tracker.megaUsage++;
+                    usageTrackers.increment(id, USAGE_MEGA);
                     if (replay.isWin()) {
-                        tracker.megaWins++;
+                        usageTrackers.increment(id, USAGE_MEGA_WINS);
                     }
                 }
             }
         }
 
-        return usageTrackers.entrySet().stream()
-                .map(entry -> {
-                    PokemonUsageTracker tracker = entry.getValue();
-                    int overallWinRate = (int) Math.round((tracker.wins * 100.0) / tracker.usage);
-                    Integer leadWinRate = tracker.leadUsage > 0
-                            ? (int) Math.round((tracker.leadWins * 100.0) / tracker.leadUsage)
-                            : null;
-                    Integer teraWinRate = tracker.teraUsage > 0
-                            ? (int) Math.round((tracker.teraWins * 100.0) / tracker.teraUsage)
-                            : null;
-                    Integer megaWinRate = tracker.megaUsage > 0
-                            ? (int) Math.round((tracker.megaWins * 100.0) / tracker.megaUsage)
-                            : null;
-                    int usageRate = (int) Math.round((tracker.usage * 100.0) / replays.size());
-
-                    return new AnalyticsDTO.PokemonUsageStats(
-                            entry.getKey(),
-                            tracker.usage,
-                            usageRate,
-                            overallWinRate,
-                            tracker.leadUsage,
-                            leadWinRate,
-                            tracker.teraUsage,
-                            teraWinRate,
-                            tracker.megaUsage,
-                            megaWinRate
-                    );
-                })
-                .sorted(Comparator.comparingInt(AnalyticsDTO.PokemonUsageStats::getUsage).reversed())
-                .collect(Collectors.toList());
+        // Rank ids before building any DTOs
+        int[] ranks = nameRanks(species.size(), species::nameOf);
+        TopK ranking = new TopK(seen.length);
+        for (int id = 0; id < seen.length; id++) {
+            if (!seen[id]) continue;
+            int usage = usageTrackers.get(id, USAGE_GAMES);
+            ranking.offer(byConfidence
+                    ? TopK.key(WinRateScore.rankKey(WinRateScore.lower(usageTrackers.get(id, USAGE_WINS), usage)), usage)
+                    : usage, ranks[id], id);
+        }
+
+        List<AnalyticsDTO.PokemonUsageStats> stats = new ArrayList<>(ranking.offered());
+        for (int id : ranking.drain()) {
+            int usage = usageTrackers.get(id, USAGE_GAMES);
+            int leadUsage = usageTrackers.get(id, USAGE_LEAD);
+            int teraUsage = usageTrackers.get(id, USAGE_TERA);
+            int megaUsage = usageTrackers.get(id, USAGE_MEGA);
+
+            stats.add(new AnalyticsDTO.PokemonUsageStats(
+                    species.nameOf(id),
+                    usage,
+                    (int) Math.round((usage * 100.0) / replays.size()),
+                    (int) Math.round((usageTrackers.get(id, USAGE_WINS) * 100.0) / usage),
+                    leadUsage,
+                    rate(usageTrackers.get(id, USAGE_LEAD_WINS), leadUsage),
+                    teraUsage,
+                    rate(usageTrackers.get(id, USAGE_TERA_WINS), teraUsage),
+                    megaUsage,
+                    rate(usageTrackers.get(id, USAGE_MEGA_WINS), megaUsage),
+                    prior.confidence(usageTrackers.get(id, USAGE_WINS), usage)
+            ));
+        }
+        return stats;
+    }
+
+    /**
+     * @return rounded percentage, or null when there were no games
+     */
+    private static Integer rate(int wins, int games) {
+        return games > 0 ? (int) Math.round((wins * 100.0) / games) : null;
     }
 
     /**
-     * Calculate lead pair statistics
+     * Calculate lead pair statistics: the 6 most used pairs (or surest winners by confidence)
      */
     private List<AnalyticsDTO.LeadPairStats> calculateLeadPairStats(
             List<ParsedReplay> parsedReplays,
-            int totalGames) {
+            int totalGames,
+            NameIds species,
+            Prior prior,
+            boolean byConfidence) {
 
-        Map<String, LeadPairTracker> pairTrackers = new HashMap<>();
+        // Lead pairs keyed by both species ids packed into one long (lower id first)
+        LongIntMap pairRows = new LongIntMap();
+        CounterTable pairTrackers = new CounterTable(LEAD_COLUMNS);
 
         for (ParsedReplay pr : parsedReplays) {
             if (pr == null || pr.battleData == null || pr.replay == null) continue;
 
             Team team = pr.replay.getTeam();
-            String playerName = identifyPlayer(team, pr.battleData);
+            String playerName = PlayerIdentifier.identifyUserPlayer(team, pr.battleData, pokemonService);
             if (playerName == null) continue;
 
             List<String> leads = playerName.equalsIgnoreCase(pr.battleData.getPlayer1())
@@ -628,92 +992,104 @@ public class AnalyticsService {
 
             if (leads.size() == 2) {
                 // Normalize both leads for grouping
-                String lead1 = normalizeForAnalytics(leads.get(0));
-                String lead2 = normalizeForAnalytics(leads.get(1));
-
-                // Sort to ensure consistent pairing
-                List<String> sortedLeads = new ArrayList<>(List.of(lead1, lead2));
-                Collections.sort(sortedLeads);
-                String pairKey = sortedLeads.get(0) + " + " + sortedLeads.get(1);
-
-                LeadPairTracker tracker = pairTrackers.computeIfAbsent(
-                        pairKey,
-                        k -> new LeadPairTracker(sortedLeads.get(0), sortedLeads.get(1))
-                );
+                int lead1 = species.idOf(leads.get(0));
+                int lead2 = species.idOf(leads.get(1));
+
+                long pairKey = LongIntMap.pack(Math.min(lead1, lead2), Math.max(lead1, lead2));
+                int row = pairRows.get(pairKey);
+                if (row == LongIntMap.MISSING) {
+                    row = pairTrackers.addRow();
+                    pairTrackers.set(row, LEAD_POKEMON_1, Math.min(lead1, lead2));
+                    pairTrackers.set(row, LEAD_POKEMON_2, Math.max(lead1, lead2));
+                    pairRows.put(pairKey, row);
+                }
 
-                tracker.usage++;
+                pairTrackers.increment(row, LEAD_GAMES);
                 if (pr.replay.isWin()) {
-                    tracker.wins++;
+                    pairTrackers.increment(row, LEAD_WINS);
                 }
             }
         }
 
-        return pairTrackers.entrySet().stream()
-                .map(entry -> {
-                    LeadPairTracker tracker = entry.getValue();
-                    int winRate = (int) Math.round((tracker.wins * 100.0) / tracker.usage);
-                    int usageRate = (int) Math.round((tracker.usage * 100.0) / totalGames);
-
-                    return new AnalyticsDTO.LeadPairStats(
-                            entry.getKey(),
-                            tracker.pokemon1,
-                            tracker.pokemon2,
-                            tracker.usage,
-                            usageRate,
-                            tracker.wins,
-                            winRate
-                    );
-                })
-                .sorted(Comparator.comparingInt(AnalyticsDTO.LeadPairStats::getUsage).reversed())
-                .limit(6)
-                .collect(Collectors.toList());
-    }
-
-    // ==================== Tracker Classes ====================
-
-    private static class PokemonUsageTracker {
-        int usage = 0;
-        int wins = 0;
-        int leadUsage = 0;
-        int leadWins = 0;
-        int teraUsage = 0;
-        int teraWins = 0;
-        int megaUsage = 0;
-        int megaWins = 0;
-    }
-
-    private static class LeadPairTracker {
-        String pokemon1;
-        String pokemon2;
-        int usage = 0;
-        int wins = 0;
+        // Sort names to ensure consistent pairing
+        String[][] pairNames = new String[pairTrackers.rows()][];
+        for (int row = 0; row < pairTrackers.rows(); row++) {
+            String name1 = species.nameOf(pairTrackers.get(row, LEAD_POKEMON_1));
+            String name2 = species.nameOf(pairTrackers.get(row, LEAD_POKEMON_2));
+            pairNames[row] = name1.compareTo(name2) > 0
+                    ? new String[]{name2, name1}
+                    : new String[]{name1, name2};
+        }
 
-        LeadPairTracker(String p1, String p2) {
-            this.pokemon1 = p1;
-            this.pokemon2 = p2;
+        // Keep the top 6 pairs; only those become DTOs
+        int[] ranks = nameRanks(pairTrackers.rows(), row -> pairNames[row][0] + " + " + pairNames[row][1]);
+        TopK top = new TopK(6);
+        for (int row = 0; row < pairTrackers.rows(); row++) {
+            int usage = pairTrackers.get(row, LEAD_GAMES);
+            top.offer(byConfidence
+                    ? TopK.key(WinRateScore.rankKey(WinRateScore.lower(pairTrackers.get(row, LEAD_WINS), usage)), usage)
+                    : usage, ranks[row], row);
         }
-    }
 
-    private static class MatchupTracker {
-        int gamesAgainst = 0;
-        int winsAgainst = 0;
-        int timesOnTeam = 0;
-        int timesBrought = 0;
-    }
+        List<AnalyticsDTO.LeadPairStats> stats = new ArrayList<>();
+        for (int row : top.drain()) {
+            String name1 = pairNames[row][0];
+            String name2 = pairNames[row][1];
+
+            int usage = pairTrackers.get(row, LEAD_GAMES);
+            int wins = pairTrackers.get(row, LEAD_WINS);
+
+            stats.add(new AnalyticsDTO.LeadPairStats(
+                    name1 + " + " + name2,
+                    name1,
+                    name2,
+                    usage,
+                    (int) Math.round((usage * 100.0) / totalGames),
+                    wins,
+                    (int) Math.round((wins * 100.0) / usage),
+                    prior.confidence(wins, usage)
+            ));
+        }
 
-    private static class CustomMatchupTracker {
-        int gamesAgainst = 0;
-        int winsAgainst = 0;
+        return stats;
     }
 
-    private static class MoveUsageTracker {
-        String moveName;
-        int timesUsed = 0;
-        int gamesWithPokemon = 0;
-        int winsWithMove = 0;
-
-        public String getMoveName() {
-            return moveName;
-        }
-    }
-}
\ No newline at end of file
+    private static final Set<String> MATCHUP_RANKING_SORTS = Set.of("winRate", "confidence", "games", "attendance");
+
+    private static final String RANK_RAW = "raw";
+    private static final String RANK_CONFIDENCE = "confidence";
+    private static final int DEFAULT_MIN_ENCOUNTERS = 3;
+
+    // ==================== Counter Columns ====================
+
+    private static final int USAGE_GAMES = 0;
+    private static final int USAGE_WINS = 1;
+    private static final int USAGE_LEAD = 2;
+    private static final int USAGE_LEAD_WINS = 3;
+    private static final int USAGE_TERA = 4;
+    private static final int USAGE_TERA_WINS = 5;
+    private static final int USAGE_MEGA = 6;
+    private static final int USAGE_MEGA_WINS = 7;
+    private static final int USAGE_COLUMNS = 8;
+
+    private static final int LEAD_POKEMON_1 = 0;
+    private static final int LEAD_POKEMON_2 = 1;
+    private static final int LEAD_GAMES = 2;
+    private static final int LEAD_WINS = 3;
+    private static final int LEAD_COLUMNS = 4;
+
+    private static final int MATCHUP_GAMES_AGAINST = 0;
+    private static final int MATCHUP_WINS_AGAINST = 1;
+    private static final int MATCHUP_TIMES_ON_TEAM = 2;
+    private static final int MATCHUP_TIMES_BROUGHT = 3;
+    private static final int MATCHUP_COLUMNS = 4;
+
+    private static final int CUSTOM_GAMES_AGAINST = 0;
+    private static final int CUSTOM_WINS_AGAINST = 1;
+    private static final int CUSTOM_COLUMNS = 2;
+
+    private static final int MOVE_POKEMON = 0;
+    private static final int MOVE_MOVE = 1;
+    private static final int MOVE_TIMES_USED = 2;
+    private static final int MOVE_COLUMNS = 3;
+}
@@ -0,0 +1,121 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes teams and users with set-based bulk statements instead of JPA cascades.
+ *
+ * <p>Cascading through {@code User.teams -> Team.replays/matches/teamMembers} makes Hibernate
+ * load every child (battle logs included) and delete it row by row; for a user with thousands
+ * of replays that is slow and can exhaust the heap. Here each table, element collections
+ * included, is cleared with one {@code DELETE ... WHERE ... IN (subquery)} in foreign-key order,
+ * so memory use doesn't grow with the amount of data.
+ *
+ * <p>The statements bypass the persistence context: pending changes are flushed first and the
+ * context is cleared afterwards, so callers must not reuse entities loaded before the call.
+ *
+ * <p>The team rows are locked before any child is deleted, the same order imports and
+ * {@link OpponentIndexBackfill} use (team row, then replays), so a delete can't deadlock with them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CascadeDeleteService {
+
+    private static final String TEAMS_OF_TEAM = "SELECT t.id FROM teams t WHERE t.id = :id";
+    private static final String TEAMS_OF_USER = "SELECT t.id FROM teams t WHERE t.user_id = :id";
+
+    /**
+     * Everything hanging off a set of teams, children before parents. {@code %s} is the
+     * subquery selecting the team ids.
+     */
+    private static final List<String> TEAM_CHILDREN = List.of(
+            "DELETE FROM replay_opponent_species WHERE replay_id IN (SELECT r.id FROM replays r WHERE r.team_id IN (%s))",
+            "DELETE FROM replay_opponent_facts WHERE replay_id IN (SELECT r.id FROM replays r WHERE r.team_id IN (%s))",
+            "DELETE FROM replay_team_picks WHERE replay_id IN (SELECT r.id FROM replays r WHERE r.team_id IN (%s))",
+            "DELETE FROM replays WHERE team_id IN (%s)",
+            "DELETE FROM match_tags WHERE match_id IN (SELECT m.id FROM matches m WHERE m.team_id IN (%s))",
+            "DELETE FROM matches WHERE team_id IN (%s)",
+            "DELETE FROM team_member_calcs WHERE team_member_id IN (SELECT tm.id FROM team_members tm WHERE tm.team_id IN (%s))",
+            "DELETE FROM team_members WHERE team_id IN (%s)",
+            "DELETE FROM team_showdown_usernames WHERE team_id IN (%s)",
+            "DELETE FROM team_folders WHERE team_id IN (%s)",
+            "DELETE FROM team_collaborators WHERE team_id IN (%s)",
+            "DELETE FROM trend_rollups WHERE team_id IN (%s)");
+
+    /**
+     * Rows owned directly by a user, run after the user's teams are gone.
+     */
+    private static final List<String> USER_CHILDREN = List.of(
+            "DELETE FROM team_collaborators WHERE user_id = :id",
+            "DELETE FROM password_reset_tokens WHERE user_id = :id",
+            "DELETE FROM game_plan_teams WHERE game_plan_id IN (SELECT gp.id FROM game_plans gp WHERE gp.user_id = :id)",
+            "DELETE FROM game_plans WHERE user_id = :id",
+            "DELETE FROM team_folders WHERE folder_id IN (SELECT f.id FROM folders f WHERE f.user_id = :id)",
+            "DELETE FROM folders WHERE user_id = :id",
+            "DELETE FROM team_exports WHERE user_id = :id",
+            "DELETE FROM email_outbox WHERE to_email = (SELECT u.email FROM users u WHERE u.id = :id)");
+
+    private final EntityManager entityManager;
+
+    /**
+     * Delete a team with its replays, matches, members and everything stored alongside them.
+     *
+     * @return rows deleted per table
+     */
+    public Map<String, Integer> deleteTeam(Long teamId) {
+        entityManager.flush();
+        lockTeams(TEAMS_OF_TEAM, teamId);
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        for (String statement : TEAM_CHILDREN) {
+            execute(statement.formatted(TEAMS_OF_TEAM), teamId, deleted);
+        }
+        execute("DELETE FROM teams WHERE id = :id", teamId, deleted);
+        entityManager.clear();
+        log.info("Bulk-deleted team {}: {}", teamId, deleted);
+        return deleted;
+    }
+
+    /**
+     * Delete a user, all of their teams (as {@link #deleteTeam}) and the folders, game plans,
+     * reset tokens, collaborations and exports they own, and any email queued or kept for their address.
+     *
+     * @return rows deleted per table
+     */
+    public Map<String, Integer> deleteUser(Long userId) {
+        entityManager.flush();
+        lockTeams(TEAMS_OF_USER, userId);
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        for (String statement : TEAM_CHILDREN) {
+            execute(statement.formatted(TEAMS_OF_USER), userId, deleted);
+        }
+        execute("DELETE FROM teams WHERE user_id = :id", userId, deleted);
+        for (String statement : USER_CHILDREN) {
+            execute(statement, userId, deleted);
+        }
+        execute("DELETE FROM users WHERE id = :id", userId, deleted);
+        entityManager.clear();
+        log.info("Bulk-deleted user {}: {}", userId, deleted);
+        return deleted;
+    }
+
+    private void lockTeams(String teams, Long id) {
+        entityManager.createNativeQuery(teams + " FOR UPDATE").setParameter("id", id).getResultList();
+    }
+
+    private void execute(String sql, Long id, Map<String, Integer> deleted) {
+        int rows = entityManager.createNativeQuery(sql).setParameter("id", id).executeUpdate();
+        // "DELETE FROM <table> ..." -> table name
+        String table = sql.substring("DELETE FROM ".length(), sql.indexOf(' ', "DELETE FROM ".length()));
+        deleted.merge(table, rows, Integer::sum);
+    }
+}
@@ -0,0 +1,223 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
+import com.yeskatronics.vs_recorder_backend.dto.GamePlanDTO;
+import com.yeskatronics.vs_recorder_backend.entities.GamePlanTeam;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.utils.LookupCache;
+import com.yeskatronics.vs_recorder_backend.utils.WinRateScore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Real records for the compositions saved on a game plan team
+ * (GET /api/game-plans/{id}/teams/{teamId}/compositions/records).
+ *
+ * <p>Every replay's lead pair and back pair are stored when it is indexed
+ * ({@link OpponentIndexService}), so a composition's record is a grouped count over
+ * {@code idx_replay_team_composition} rather than a pass over battle logs. "Against this opponent"
+ * reuses the opponent species index: a replay counts when the opponent's team sheet shares at least
+ * {@code app.game-plans.archetype-overlap} species with the plan team's paste.
+ *
+ * <p>The paste's species are resolved once, when the paste is saved ({@link #resolveSpecies}), and
+ * stored on the plan team. Pastes given as URLs are fetched there, before any transaction opens,
+ * so reading records never waits on pokepast.es while holding a database connection.
+ */
+@Service
+@Slf4j
+public class CompositionRecordService {
+
+    private final ReplayRepository replayRepository;
+    private final OpponentIndexService opponentIndexService;
+    private final PokepasteService pokepasteService;
+    private final int archetypeOverlap;
+    private final double priorGames;
+    private final LookupCache<String, List<String>> pasteSpecies;
+
+    public CompositionRecordService(
+            ReplayRepository replayRepository,
+            OpponentIndexService opponentIndexService,
+            PokepasteService pokepasteService,
+            MeterRegistry meterRegistry,
+            @Value("${app.game-plans.archetype-overlap:4}") int archetypeOverlap,
+            @Value("${app.game-plans.paste-ttl:10m}") Duration pasteTtl,
+            @Value("${app.analytics.prior-games:5}") double priorGames) {
+        this.replayRepository = replayRepository;
+        this.opponentIndexService = opponentIndexService;
+        this.pokepasteService = pokepasteService;
+        this.archetypeOverlap = Math.max(1, archetypeOverlap);
+        this.priorGames = priorGames;
+        this.pasteSpecies = LookupCache.<String, List<String>>create(
+                        "gameplans.paste-species", 1000, pasteTtl, Duration.ofMinutes(1))
+                .withMetrics(meterRegistry);
+    }
+
+    /**
+     * Record of each composition on the plan team, played by {@code team}.
+     *
+     * @param team the team the game plan belongs to
+     * @param planTeam the opponent team whose compositions are scored
+     * @return one record per composition, in saved order
+     */
+    @Transactional(readOnly = true)
+    public GamePlanDTO.CompositionRecordsResponse getRecords(Team team, GamePlanTeam planTeam) {
+        List<GamePlanTeam.TeamComposition> compositions =
+                planTeam.getCompositions() != null ? planTeam.getCompositions() : List.of();
+        List<String> leadPairs = new ArrayList<>(compositions.size());
+        List<String> backPairs = new ArrayList<>(compositions.size());
+        Set<String> distinctLeads = new LinkedHashSet<>();
+        for (GamePlanTeam.TeamComposition composition : compositions) {
+            String lead = opponentIndexService.pairKey(composition.getLead1(), composition.getLead2());
+            leadPairs.add(lead);
+            backPairs.add(opponentIndexService.pairKey(composition.getBack1(), composition.getBack2()));
+            if (lead != null) {
+                distinctLeads.add(lead);
+            }
+        }
+
+        List<String> species = planTeam.getPasteSpecies();
+        int overlap = species == null || species.isEmpty() ? 0 : Math.min(archetypeOverlap, species.size());
+
+        Map<String, Map<String, long[]>> overall = Map.of();
+        Map<String, Map<String, long[]>> against = Map.of();
+        if (!distinctLeads.isEmpty()) {
+            overall = byComposition(replayRepository.countCompositions(team.getId(), distinctLeads));
+            if (overlap > 0) {
+                against = byComposition(replayRepository.countCompositionsAgainst(
+                        team.getId(), distinctLeads, species, overlap));
+            }
+        }
+        Prior prior = prior(team.getId());
+
+        List<GamePlanDTO.CompositionRecord> records = new ArrayList<>(compositions.size());
+        for (int i = 0; i < compositions.size(); i++) {
+            String lead = leadPairs.get(i);
+            String back = backPairs.get(i);
+            GamePlanDTO.CompositionOutcome vsOpponent = overlap > 0
+                    ? prior.outcome(counts(against, lead, back))
+                    : null;
+            records.add(new GamePlanDTO.CompositionRecord(
+                    i,
+                    GamePlanDTO.TeamCompositionDTO.fromEntity(compositions.get(i)),
+                    lead,
+                    back,
+                    prior.outcome(leadTotal(overall, lead)),
+                    prior.outcome(counts(overall, lead, back)),
+                    vsOpponent));
+        }
+
+        return new GamePlanDTO.CompositionRecordsResponse(
+                planTeam.getId(),
+                species == null ? List.of() : List.copyOf(species),
+                overlap,
+                records);
+    }
+
+    /**
+     * Analytics names of the species in a plan team's paste (raw text or a paste URL), or null if
+     * it can't be read. Fetched pastes are cached; failures are cached briefly. Call it outside
+     * any transaction: a URL is fetched over the network.
+     */
+    public List<String> resolveSpecies(String pokepaste) {
+        if (pokepaste == null || pokepaste.isBlank()) {
+            return null;
+        }
+        String trimmed = pokepaste.trim();
+        if (pokepasteService.isValidPokepasteUrl(trimmed)) {
+            return pasteSpecies.get(trimmed, this::fetchSpecies).orElse(null);
+        }
+        try {
+            return speciesOf(pokepasteService.extractSpeciesNames(pokepasteService.parsePaste(trimmed)));
+        } catch (RuntimeException e) {
+            log.debug("Could not parse game plan paste: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> fetchSpecies(String url) {
+        try {
+            return speciesOf(pokepasteService.extractSpeciesNames(pokepasteService.fetchPasteData(url)));
+        } catch (RuntimeException e) {
+            log.warn("Could not fetch game plan paste {}: {}", url, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<String> speciesOf(List<String> names) {
+        List<String> species = opponentIndexService.normalizeCore(names);
+        return species.isEmpty() ? null : species;
+    }
+
+    /**
+     * Lead pair -> back pair -> {games, wins}. Unknown back pairs are keyed by "".
+     */
+    private static Map<String, Map<String, long[]>> byComposition(List<ReplayRepository.CompositionCount> rows) {
+        Map<String, Map<String, long[]>> counts = new HashMap<>();
+        for (ReplayRepository.CompositionCount row : rows) {
+            long wins = row.wins() == null ? 0 : row.wins();
+            counts.computeIfAbsent(row.leadPair(), k -> new HashMap<>())
+                    .put(row.backPair() == null ? "" : row.backPair(), new long[]{row.games(), wins});
+        }
+        return counts;
+    }
+
+    private static long[] counts(Map<String, Map<String, long[]>> counts, String lead, String back) {
+        if (lead == null || back == null) {
+            return new long[2];
+        }
+        long[] row = counts.getOrDefault(lead, Map.of()).get(back);
+        return row == null ? new long[2] : row;
+    }
+
+    private static long[] leadTotal(Map<String, Map<String, long[]>> counts, String lead) {
+        long[] total = new long[2];
+        if (lead != null) {
+            for (long[] row : counts.getOrDefault(lead, Map.of()).values()) {
+                total[0] += row[0];
+                total[1] += row[1];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * The team's overall win rate, so small samples are smoothed the same way analytics does.
+     */
+    private Prior prior(Long teamId) {
+        List<ReplayRepository.TeamCount> totals = replayRepository.countGamesByTeam(List.of(teamId));
+        if (totals.isEmpty() || totals.get(0).games() == 0) {
+            return new Prior(0.5, priorGames);
+        }
+        ReplayRepository.TeamCount total = totals.get(0);
+        long wins = total.wins() == null ? 0 : total.wins();
+        return new Prior((double) wins / total.games(), priorGames);
+    }
+
+    private record Prior(double rate, double games) {
+
+        GamePlanDTO.CompositionOutcome outcome(long[] counts) {
+            int played = (int) counts[0];
+            int wins = (int) counts[1];
+            return new GamePlanDTO.CompositionOutcome(
+                    played,
+                    wins,
+                    played > 0 ? WinRateScore.percent((double) wins / played) : 0,
+                    new AnalyticsDTO.WinRateConfidence(
+                            WinRateScore.percent(WinRateScore.smoothed(wins, played, rate, games)),
+                            WinRateScore.percent(WinRateScore.lower(wins, played)),
+                            WinRateScore.percent(WinRateScore.upper(wins, played))));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.entities.EmailOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background worker that drains the email outbox.
+ *
+ * <ul>
+ *   <li>Every {@code app.email.dispatch.interval} it leases a batch of due emails in a short
+ *       transaction, then sends them one by one with no transaction or connection held.</li>
+ *   <li>A failed send is retried with exponential backoff ({@code initial-backoff}, doubling,
+ *       capped at {@code max-backoff}) until {@code max-attempts}, then marked FAILED.</li>
+ *   <li>Delivery is at least once: a crash between sending and marking SENT resends after the
+ *       lease expires.</li>
+ * </ul>
+ * Meter: {@code email.outbox.dispatched}, tagged {@code outcome} (sent, retry, failed).
+ */
+@Component
+@Slf4j
+public class EmailDispatcher {
+
+    private final EmailService emailService;
+    private final EmailTransport transport;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailDispatcher(
+            EmailService emailService,
+            EmailTransport transport,
+            MeterRegistry meterRegistry,
+            @Value("${app.email.dispatch.batch-size:20}") int batchSize,
+            @Value("${app.email.dispatch.max-attempts:8}") int maxAttempts,
+            @Value("${app.email.dispatch.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${app.email.dispatch.max-backoff:1h}") Duration maxBackoff,
+            @Value("${app.email.dispatch.lease:5m}") Duration lease,
+            @Value("${app.email.dispatch.retention:7d}") Duration retention) {
+        this.emailService = emailService;
+        this.transport = transport;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.retention = retention;
+        this.sent = dispatched(meterRegistry, "sent");
+        this.retried = dispatched(meterRegistry, "retry");
+        this.failed = dispatched(meterRegistry, "failed");
+    }
+
+    private static Counter dispatched(MeterRegistry registry, String outcome) {
+        return Counter.builder("email.outbox.dispatched")
+                .description("Outbox emails handed to the transport, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${app.email.dispatch.initial-delay:10s}",
+            fixedDelayString = "${app.email.dispatch.interval:5s}")
+    public void scheduledDispatch() {
+        try {
+            dispatchDue();
+        } catch (RuntimeException e) {
+            log.error("Email dispatch run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drain due emails, batch after batch, until none are left.
+     *
+     * @return number of emails delivered
+     */
+    public int dispatchDue() {
+        int delivered = 0;
+        List<EmailOutbox> batch;
+        do {
+            batch = emailService.claimDue(batchSize, lease);
+            for (EmailOutbox email : batch) {
+                if (deliver(email)) {
+                    delivered++;
+                }
+            }
+        } while (batch.size() == batchSize);
+        return delivered;
+    }
+
+    private boolean deliver(EmailOutbox email) {
+        try {
+            transport.send(email.getToEmail(), email.getSubject(), email.getHtmlBody());
+        } catch (RuntimeException e) {
+            EmailOutbox.Status status = emailService.markFailed(
+                    email.getId(), e.getMessage(), maxAttempts, backoff(email.getAttempts()));
+            (status == EmailOutbox.Status.FAILED ? failed : retried).increment();
+            log.warn("Email {} attempt {} failed: {}", email.getId(), email.getAttempts() + 1, e.getMessage());
+            return false;
+        }
+        emailService.markSent(email.getId());
+        sent.increment();
+        return true;
+    }
+
+    /**
+     * Delay before the next attempt, given the attempts already made before this one.
+     */
+    Duration backoff(int previousAttempts) {
+        Duration delay = initialBackoff;
+        for (int i = 0; i < previousAttempts && delay.compareTo(maxBackoff) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * Daily cleanup of delivered emails past the retention window.
+     */
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeSent() {
+        int deleted = emailService.purgeSentBefore(LocalDateTime.now().minus(retention));
+        log.info("Purged {} sent emails from the outbox", deleted);
+    }
+}
@@ -1,84 +1,158 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
-import com.resend.Resend;
-import com.resend.core.exception.ResendException;
-import com.resend.services.emails.model.CreateEmailOptions;
-import com.resend.services.emails.model.CreateEmailResponse;
+import com.yeskatronics.vs_recorder_backend.entities.EmailOutbox;
+import com.yeskatronics.vs_recorder_backend.repositories.EmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Service class for sending emails via Resend.
+ * Service class for outgoing emails.
+ *
+ * <p>The send methods don't talk to the mail provider: they render the email and insert it into
+ * the outbox, joining the caller's transaction, so the email exists exactly when the change that
+ * triggered it commits. {@link EmailDispatcher} delivers it in the background through the
+ * configured {@link EmailTransport}; the claim/mark methods below are its bookkeeping.
+ *
+ * <p>Bodies carry live links (password reset, invite accept), so a row keeps its body only while
+ * it is PENDING: marking it SENT or FAILED blanks {@code html_body}, and the retained row holds
+ * just the recipient, subject and delivery history.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final Resend resend;
+    private static final int MAX_ERROR_LENGTH = 500;
 
-    @Value("${app.email.from:noreply@vsrecorder.app}")
-    private String fromEmail;
+    /** Body left on a row once it is SENT or FAILED; the column stays NOT NULL. */
+    private static final String CLEARED_BODY = "";
 
-    @Value("${app.email.from-name:VS Recorder}")
-    private String fromName;
+    private final EmailOutboxRepository outboxRepository;
 
     @Value("${app.name:VS Recorder}")
     private String appName;
 
     /**
-     * Send password reset email with reset link.
+     * Queue password reset email with reset link.
      */
+    @Transactional
     public void sendPasswordResetEmail(String toEmail, String username, String resetUrl) {
         String subject = appName + " - Password Reset Request";
         String htmlBody = buildPasswordResetHtmlEmail(username, resetUrl);
 
-        sendEmail(toEmail, subject, htmlBody);
-        log.info("Password reset email sent to: {}***", maskEmail(toEmail));
+        enqueue(toEmail, subject, htmlBody);
+        log.info("Password reset email queued for: {}***", maskEmail(toEmail));
     }
 
     /**
-     * Send confirmation that password was changed.
+     * Queue confirmation that password was changed.
      */
+    @Transactional
     public void sendPasswordChangedConfirmation(String toEmail, String username) {
         String subject = appName + " - Password Changed";
         String htmlBody = buildPasswordChangedHtmlEmail(username);
 
-        sendEmail(toEmail, subject, htmlBody);
-        log.info("Password changed confirmation sent to: {}***", maskEmail(toEmail));
+        enqueue(toEmail, subject, htmlBody);
+        log.info("Password changed confirmation queued for: {}***", maskEmail(toEmail));
     }
 
     /**
-     * Send a team collaboration invite. {@code acceptUrl} is the deep link to the accept
+     * Queue a team collaboration invite. {@code acceptUrl} is the deep link to the accept
      * page (e.g. {frontend-url}/invites/{token}); the page lets the recipient sign in or
      * create an account before accepting.
      */
+    @Transactional
     public void sendCollaborationInvite(String toEmail, String ownerUsername, String teamName,
                                         String acceptUrl) {
         String subject = appName + " - " + ownerUsername + " invited you to collaborate on " + teamName;
         String htmlBody = buildCollaborationInviteHtmlEmail(ownerUsername, teamName, acceptUrl);
 
-        sendEmail(toEmail, subject, htmlBody);
-        log.info("Collaboration invite for team '{}' sent to: {}***", teamName, maskEmail(toEmail));
+        enqueue(toEmail, subject, htmlBody);
+        log.info("Collaboration invite for team '{}' queued for: {}***", teamName, maskEmail(toEmail));
+    }
+
+    private void enqueue(String toEmail, String subject, String htmlBody) {
+        EmailOutbox email = new EmailOutbox();
+        email.setToEmail(toEmail);
+        email.setSubject(subject);
+        email.setHtmlBody(htmlBody);
+        email.setNextAttemptAt(LocalDateTime.now());
+        outboxRepository.save(email);
+    }
+
+    /**
+     * Lease up to {@code batchSize} due emails for {@code lease}. A dispatcher that dies
+     * mid-send leaves the row pending, and it becomes due again when the lease runs out.
+     *
+     * @return the claimed emails, detached once this transaction commits
+     */
+    @Transactional
+    public List<EmailOutbox> claimDue(int batchSize, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(lease);
+        List<Long> dueIds = outboxRepository.findDueIds(EmailOutbox.Status.PENDING, now, PageRequest.of(0, batchSize));
+
+        List<EmailOutbox> claimed = new ArrayList<>();
+        for (Long id : dueIds) {
+            if (outboxRepository.claim(id, EmailOutbox.Status.PENDING, now, leaseUntil) == 1) {
+                outboxRepository.findById(id).ifPresent(claimed::add);
+            }
+        }
+        return claimed;
+    }
+
+    @Transactional
+    public void markSent(Long id) {
+        outboxRepository.findById(id).ifPresent(email -> {
+            email.setStatus(EmailOutbox.Status.SENT);
+            email.setAttempts(email.getAttempts() + 1);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+            email.setHtmlBody(CLEARED_BODY);
+        });
     }
 
-    private void sendEmail(String toEmail, String subject, String htmlBody) {
-        try {
-            CreateEmailOptions options = CreateEmailOptions.builder()
-                .from(fromName + " <" + fromEmail + ">")
-                .to(toEmail)
-                .subject(subject)
-                .html(htmlBody)
-                .build();
-
-            CreateEmailResponse response = resend.emails().send(options);
-            log.debug("Email sent successfully. ID: {}", response.getId());
-        } catch (ResendException e) {
-            log.error("Failed to send email via Resend: {}", e.getMessage());
-            throw new RuntimeException("Failed to send email", e);
+    /**
+     * Record a failed attempt: retry after {@code backoff}, or give up once
+     * {@code maxAttempts} is reached.
+     *
+     * @return the row's status after this attempt
+     */
+    @Transactional
+    public EmailOutbox.Status markFailed(Long id, String error, int maxAttempts, Duration backoff) {
+        EmailOutbox email = outboxRepository.findById(id).orElse(null);
+        if (email == null) {
+            return EmailOutbox.Status.FAILED;
+        }
+        email.setAttempts(email.getAttempts() + 1);
+        email.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.FAILED);
+            email.setHtmlBody(CLEARED_BODY);
+            log.error("Giving up on email {} to {}*** after {} attempts: {}",
+                    id, maskEmail(email.getToEmail()), email.getAttempts(), error);
+        } else {
+            email.setNextAttemptAt(LocalDateTime.now().plus(backoff));
         }
+        return email.getStatus();
+    }
+
+    /**
+     * Delete delivered emails sent before {@code cutoff}; failed ones are kept for inspection.
+     */
+    @Transactional
+    public int purgeSentBefore(LocalDateTime cutoff) {
+        return outboxRepository.deleteSentBefore(EmailOutbox.Status.SENT, cutoff);
     }
 
     private String maskEmail(String email) {
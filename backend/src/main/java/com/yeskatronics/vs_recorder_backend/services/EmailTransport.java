@@ -0,0 +1,13 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+/**
+ * Delivers one email to the outside world. Called by {@link EmailDispatcher} outside any
+ * transaction; throw a RuntimeException on failure and the outbox row is retried with backoff.
+ *
+ * <p>Selected by {@code app.email.transport}: {@code resend} ({@link ResendEmailTransport}) or
+ * {@code log} ({@link LoggingEmailTransport}, the default for dev and tests).
+ */
+public interface EmailTransport {
+
+    void send(String toEmail, String subject, String htmlBody);
+}
@@ -1,10 +1,8 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
 import com.yeskatronics.vs_recorder_backend.entities.Folder;
-import com.yeskatronics.vs_recorder_backend.entities.Team;
 import com.yeskatronics.vs_recorder_backend.entities.User;
 import com.yeskatronics.vs_recorder_backend.repositories.FolderRepository;
-import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +20,6 @@ import java.util.stream.Collectors;
 public class FolderService {
 
     private final FolderRepository folderRepository;
-    private final TeamRepository teamRepository;
     private final UserRepository userRepository;
 
     public Folder createFolder(String name, Long userId) {
@@ -63,11 +60,8 @@ public class FolderService {
                         "Folder not found with ID: " + id + " for user: " + userId));
 
         // Remove folder from all teams (clears team_folders join table rows)
-        List<Team> teams = teamRepository.findByFolderId(id);
-        for (Team team : teams) {
-            team.removeFolder(folder);
-        }
-        teamRepository.saveAll(teams);
+        int unlinked = folderRepository.unlinkTeams(id);
+        log.debug("Removed folder {} from {} teams", id, unlinked);
 
         folderRepository.delete(folder);
 
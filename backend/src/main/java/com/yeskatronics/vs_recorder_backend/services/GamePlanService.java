@@ -1,5 +1,6 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
+import com.yeskatronics.vs_recorder_backend.dto.GamePlanDTO;
 import com.yeskatronics.vs_recorder_backend.entities.GamePlan;
 import com.yeskatronics.vs_recorder_backend.entities.GamePlanTeam;
 import com.yeskatronics.vs_recorder_backend.entities.User;
@@ -33,6 +34,7 @@ public class GamePlanService {
     private final UserRepository userRepository;
     private final TeamService teamService;
     private final TeamAccessService teamAccessService;
+    private final CompositionRecordService compositionRecordService;
 
     /**
      * Resolve a game plan and verify the caller can access it.
@@ -251,7 +253,8 @@ public class GamePlanService {
      *
      * @param gamePlanId the game plan ID
      * @param userId the user ID (for ownership verification)
-     * @param team the team to add
+     * @param team the team to add, with {@code pasteSpecies} already resolved
+     *             ({@link CompositionRecordService#resolveSpecies})
      * @return the created game plan team
      * @throws IllegalArgumentException if game plan not found or not owned by user
      */
@@ -345,7 +348,7 @@ public class GamePlanService {
      * @param id the team ID
      * @param gamePlanId the game plan ID (for verification)
      * @param userId the user ID (for ownership verification)
-     * @param updates the updates to apply
+     * @param updates the updates to apply; a new pokepaste comes with its resolved {@code pasteSpecies}
      * @return the updated team
      * @throws IllegalArgumentException if team not found or not in specified game plan
      */
@@ -360,6 +363,7 @@ public class GamePlanService {
         // Update fields
         if (updates.getPokepaste() != null) {
             existingTeam.setPokepaste(updates.getPokepaste());
+            existingTeam.setPasteSpecies(updates.getPasteSpecies());
         }
         if (updates.getNotes() != null) {
             existingTeam.setNotes(updates.getNotes());
@@ -489,4 +493,27 @@ public class GamePlanService {
 
         return savedTeam;
     }
+
+    /**
+     * Records of a game plan team's compositions from the linked team's replays
+     *
+     * @param teamId the game plan team ID
+     * @param gamePlanId the game plan ID (for verification)
+     * @param userId the user ID (for access verification)
+     * @return each composition with its record overall and against this opponent
+     * @throws IllegalArgumentException if the plan or team is not found, or the plan has no team
+     */
+    @Transactional(readOnly = true)
+    public GamePlanDTO.CompositionRecordsResponse getCompositionRecords(Long teamId, Long gamePlanId, Long userId) {
+        GamePlan plan = requirePlanAccess(gamePlanId, userId, false);
+        if (plan.getTeamId() == null) {
+            throw new IllegalArgumentException("Game plan is not linked to a team");
+        }
+
+        GamePlanTeam planTeam = gamePlanTeamRepository.findByIdAndGamePlanId(teamId, gamePlanId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found in this game plan"));
+
+        return compositionRecordService.getRecords(
+                teamAccessService.resolve(plan.getTeamId(), userId).getTeam(), planTeam);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Local transport for dev and tests: logs each email instead of sending it and keeps the most
+ * recent ones in memory so tests can inspect what would have gone out.
+ */
+@Component
+@ConditionalOnProperty(name = "app.email.transport", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingEmailTransport implements EmailTransport {
+
+    private static final int MAX_RETAINED = 100;
+
+    private final Deque<SentEmail> sent = new ConcurrentLinkedDeque<>();
+
+    public record SentEmail(String toEmail, String subject, String htmlBody) {}
+
+    @Override
+    public void send(String toEmail, String subject, String htmlBody) {
+        log.info("[email:log] to={} subject=\"{}\" ({} chars)", toEmail, subject, htmlBody.length());
+        sent.addLast(new SentEmail(toEmail, subject, htmlBody));
+        while (sent.size() > MAX_RETAINED) {
+            sent.pollFirst();
+        }
+    }
+
+    /**
+     * Emails "sent" so far, oldest first (at most the last {@value #MAX_RETAINED}).
+     */
+    public List<SentEmail> getSent() {
+        return new ArrayList<>(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+}
@@ -25,6 +25,7 @@ public class MatchService {
 
     private final MatchRepository matchRepository;
     private final TeamRepository teamRepository;
+    private final TeamService teamService;
 
     /**
      * Create a new match
@@ -43,6 +44,7 @@ public class MatchService {
         match.setTeam(team);
 
         Match savedMatch = matchRepository.save(match);
+        teamService.touchTeam(teamId);
         log.info("Match created successfully with ID: {}", savedMatch.getId());
 
         return savedMatch;
@@ -165,6 +167,7 @@ public class MatchService {
         }
 
         Match savedMatch = matchRepository.save(existingMatch);
+        teamService.touchTeam(teamId);
         log.info("Match updated successfully: {}", savedMatch.getId());
 
         return savedMatch;
@@ -186,6 +189,7 @@ public class MatchService {
                         "Match not found with ID: " + matchId + " for team: " + teamId));
 
         match.addTag(tag);
+        teamService.touchTeam(teamId);
         return matchRepository.save(match);
     }
 
@@ -205,6 +209,7 @@ public class MatchService {
                         "Match not found with ID: " + matchId + " for team: " + teamId));
 
         match.removeTag(tag);
+        teamService.touchTeam(teamId);
         return matchRepository.save(match);
     }
 
@@ -224,6 +229,7 @@ public class MatchService {
         }
 
         matchRepository.deleteById(id);
+        teamService.touchTeam(teamId);
         log.info("Match deleted successfully: {}", id);
     }
 
@@ -0,0 +1,142 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
+import com.yeskatronics.vs_recorder_backend.entities.OpponentFact;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.utils.LookupCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Opponent metagame per regulation ({@code Team.regulation}): most common opponent species, lead
+ * pairs, Tera and Mega picks, with our win rate against each.
+ *
+ * <p>Aggregates are GROUP BY queries over the per-replay opponent index maintained by
+ * {@link OpponentIndexService}, which is written on ingest and removed with the replay, so no
+ * battle log is parsed here. Only replays indexed by the current
+ * {@link OpponentIndexService#INDEX_VERSION} count; the rest join once {@link OpponentIndexBackfill}
+ * reaches them.
+ *
+ * <ul>
+ *   <li>User scope: every team of the calling user in the regulation.</li>
+ *   <li>Global scope: every user with {@code shareMetagameStats} enabled. Only counts are returned,
+ *       never users or teams, and nothing is returned until {@code app.metagame.global-min-users}
+ *       users contribute. Cached for {@code app.metagame.global-ttl}.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class MetagameService {
+
+    public static final String SCOPE_USER = "user";
+    public static final String SCOPE_GLOBAL = "global";
+
+    private final ReplayRepository replayRepository;
+    private final TeamRepository teamRepository;
+    private final LookupCache<String, AnalyticsDTO.MetagameResponse> globalCache;
+    private final int globalMinUsers;
+
+    public MetagameService(
+            ReplayRepository replayRepository,
+            TeamRepository teamRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.metagame.global-ttl:15m}") Duration globalTtl,
+            @Value("${app.metagame.global-min-users:3}") int globalMinUsers) {
+        this.replayRepository = replayRepository;
+        this.teamRepository = teamRepository;
+        this.globalCache = LookupCache.<String, AnalyticsDTO.MetagameResponse>create(
+                        "metagame.global", 100, globalTtl, globalTtl)
+                .withMetrics(meterRegistry);
+        this.globalMinUsers = globalMinUsers;
+    }
+
+    /**
+     * Metagame across all of {@code userId}'s teams in the given team's regulation.
+     *
+     * @param limit max entries per list
+     */
+    public AnalyticsDTO.MetagameResponse getUserMetagame(Long teamId, Long userId, int limit) {
+        String regulation = regulationOf(teamId);
+        log.info("Calculating metagame for user: {} regulation: {}", userId, regulation);
+
+        return aggregate(userId, regulation, limit, SCOPE_USER, null);
+    }
+
+    /**
+     * Anonymized metagame across every user who opted in, for the given team's regulation.
+     *
+     * @param limit max entries per list
+     */
+    public AnalyticsDTO.MetagameResponse getGlobalMetagame(Long teamId, int limit) {
+        String regulation = regulationOf(teamId);
+        return globalCache.get(regulation + "|" + limit, key -> {
+            log.info("Calculating global metagame for regulation: {}", regulation);
+            int contributors = (int) replayRepository.countSharingContributors(regulation, OpponentIndexService.INDEX_VERSION);
+            if (contributors < globalMinUsers) {
+                return new AnalyticsDTO.MetagameResponse(regulation, SCOPE_GLOBAL, 0, 0, contributors,
+                        List.of(), List.of(), List.of(), List.of());
+            }
+            return aggregate(null, regulation, limit, SCOPE_GLOBAL, contributors);
+        }).orElseThrow();
+    }
+
+    private AnalyticsDTO.MetagameResponse aggregate(Long userId, String regulation, int limit,
+                                                    String scope, Integer contributors) {
+        int version = OpponentIndexService.INDEX_VERSION;
+        ReplayRepository.FactCount totals = replayRepository.countIndexedGames(userId, regulation, version);
+        int totalGames = totals.gamesInt();
+
+        return new AnalyticsDTO.MetagameResponse(
+                regulation,
+                scope,
+                totalGames,
+                percent(totals.winsInt(), totalGames),
+                contributors,
+                toEntries(replayRepository.countOpponentSpecies(userId, regulation, version), totalGames, limit),
+                toEntries(replayRepository.countOpponentFacts(userId, regulation, OpponentFact.Category.LEAD_PAIR, version), totalGames, limit),
+                toEntries(replayRepository.countOpponentFacts(userId, regulation, OpponentFact.Category.TERA, version), totalGames, limit),
+                toEntries(replayRepository.countOpponentFacts(userId, regulation, OpponentFact.Category.MEGA, version), totalGames, limit)
+        );
+    }
+
+    private String regulationOf(Long teamId) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+        if (team.getRegulation() == null || team.getRegulation().isBlank()) {
+            throw new IllegalArgumentException("Team has no regulation set: " + teamId);
+        }
+        return team.getRegulation();
+    }
+
+    /**
+     * Most common first, ties by name so the order is stable across requests.
+     */
+    private static List<AnalyticsDTO.MetagameEntry> toEntries(
+            List<ReplayRepository.FactCount> counts, int totalGames, int limit) {
+        List<AnalyticsDTO.MetagameEntry> entries = new ArrayList<>(counts.size());
+        for (ReplayRepository.FactCount count : counts) {
+            int games = count.gamesInt();
+            int wins = count.winsInt();
+            entries.add(new AnalyticsDTO.MetagameEntry(
+                    count.value(), games, percent(games, totalGames), wins, percent(wins, games)));
+        }
+        entries.sort(Comparator.comparingInt(AnalyticsDTO.MetagameEntry::getGames).reversed()
+                .thenComparing(AnalyticsDTO.MetagameEntry::getName));
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    private static int percent(int part, int whole) {
+        return whole > 0 ? (int) Math.round((part * 100.0) / whole) : 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background worker that brings the opponent index up to {@link OpponentIndexService#INDEX_VERSION}.
+ *
+ * <ul>
+ *   <li>Shortly after startup, and every {@code app.opponent-index.backfill.interval} after that,
+ *       it (re)indexes every replay that predates the current version or was invalidated by a
+ *       username or roster change, and rebuilds the trend buckets they fall in.</li>
+ *   <li>Work is done per team in transactions of at most {@code batch-size} replays, each holding
+ *       the team row lock, so GET requests stay read-only and never wait on a re-parse.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class OpponentIndexBackfill {
+
+    private final OpponentIndexService opponentIndexService;
+    private final int batchSize;
+
+    public OpponentIndexBackfill(
+            OpponentIndexService opponentIndexService,
+            @Value("${app.opponent-index.backfill.batch-size:200}") int batchSize) {
+        this.opponentIndexService = opponentIndexService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${app.opponent-index.backfill.initial-delay:5s}",
+            fixedDelayString = "${app.opponent-index.backfill.interval:15s}")
+    public void scheduledBackfill() {
+        try {
+            backfill();
+        } catch (RuntimeException e) {
+            log.error("Opponent index backfill run failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Index every stale replay, team by team, batch after batch, until none are left.
+     *
+     * @return number of replays indexed
+     */
+    public int backfill() {
+        int indexed = 0;
+        for (Long teamId : opponentIndexService.findTeamsToIndex()) {
+            try {
+                int batch;
+                do {
+                    batch = opponentIndexService.indexStale(teamId, batchSize);
+                    indexed += batch;
+                } while (batch == batchSize);
+            } catch (RuntimeException e) {
+                log.warn("Opponent index backfill for team {} failed: {}", teamId, e.getMessage());
+            }
+        }
+        if (indexed > 0) {
+            log.info("Opponent index backfill indexed {} replays", indexed);
+        }
+        return indexed;
+    }
+}
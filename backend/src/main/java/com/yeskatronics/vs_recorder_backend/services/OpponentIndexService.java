@@ -0,0 +1,229 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.entities.OpponentFact;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.utils.BattleLogParser;
+import com.yeskatronics.vs_recorder_backend.utils.PlayerIdentifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maintains the per-team inverted index from opponent species to replays
+ * ({@link Replay#getOpponentSpecies()}), plus the opponent's lead pair, Tera and Mega choices
+ * ({@link Replay#getOpponentFacts()}) that metagame stats roll up, the team's own picks and
+ * lead pair ({@link Replay#getTeamPicks()}, {@link Replay#getLeadPair()}) behind trend rollups,
+ * and its back pair ({@link Replay#getBackPair()}) that game plan compositions are scored on.
+ *
+ * <p>Species are stored as analytics names ({@link PokemonService#resolveAnalyticsName}), so
+ * "Ogerpon-Wellspring" and "ogerpon-wellspring-tera" hit the same rows. New replays are indexed when
+ * saved; older ones, and replays invalidated because the team's usernames or roster changed, are
+ * indexed in the background by {@link OpponentIndexBackfill} ({@link #indexStale}). Reads never
+ * index: until the backfill reaches a replay, queries see its previous entry.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OpponentIndexService {
+
+    /** Bump when indexReplay starts storing something new; older replays get re-indexed in the background. */
+    public static final int INDEX_VERSION = 4;
+
+    private final ReplayRepository replayRepository;
+    private final TeamRepository teamRepository;
+    private final PokemonService pokemonService;
+    private final TrendRollupService trendRollupService;
+
+    /**
+     * (Re)build the index entry for one replay. Replays that can't be parsed or attributed are
+     * marked indexed with no species, matching how analytics skips them.
+     */
+    public void indexReplay(Replay replay, Team team) {
+        Set<String> species = new HashSet<>();
+        Set<OpponentFact> facts = new HashSet<>();
+        Set<String> picks = new HashSet<>();
+        String leadPair = null;
+        String backPair = null;
+        try {
+            BattleLogParser.BattleData battleData =
+                    BattleLogParser.parseBattleLog(replay.getBattleLog(), pokemonService);
+            String playerName = PlayerIdentifier.identifyUserPlayer(team, battleData, pokemonService);
+            if (playerName != null) {
+                for (String pokemon : BattleLogParser.getOpponentTeam(battleData, playerName)) {
+                    species.add(pokemonService.resolveAnalyticsName(pokemon));
+                }
+                collectFacts(battleData, playerName, facts);
+
+                boolean userIsP1 = playerName.equalsIgnoreCase(battleData.getPlayer1());
+                for (String pokemon : BattleLogParser.getPlayerPicks(battleData, userIsP1 ? "p1" : "p2")) {
+                    picks.add(pokemonService.resolveAnalyticsName(pokemon));
+                }
+                List<String> leads = userIsP1 ? battleData.getP1Leads() : battleData.getP2Leads();
+                leadPair = leadPair(leads);
+                backPair = backPair(picks, leads);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to index opponent species for replay {}: {}", replay.getId(), e.getMessage());
+        }
+
+        replay.getOpponentSpecies().clear();
+        replay.getOpponentSpecies().addAll(species);
+        replay.getOpponentFacts().clear();
+        replay.getOpponentFacts().addAll(facts);
+        replay.getTeamPicks().clear();
+        replay.getTeamPicks().addAll(picks);
+        replay.setLeadPair(leadPair);
+        replay.setBackPair(backPair);
+        replay.setOpponentIndexVersion(INDEX_VERSION);
+    }
+
+    /**
+     * Teams with replays that are missing from the index or were indexed by an older
+     * {@link #INDEX_VERSION}.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findTeamsToIndex() {
+        return replayRepository.findTeamIdsWithUnindexedReplays(INDEX_VERSION);
+    }
+
+    /**
+     * Index up to {@code limit} of the team's missing or stale replays and rebuild the trend
+     * buckets they fall in. The team row is locked first, so this never interleaves with an
+     * import or another backfill of the same team. Bumps the team's {@code updatedAt} when
+     * anything was indexed, since team ETags are derived from it.
+     *
+     * @return number of replays indexed
+     */
+    public int indexStale(Long teamId, int limit) {
+        Team team = teamRepository.lockById(teamId).orElse(null);
+        if (team == null) {
+            return 0;
+        }
+        List<Replay> pending = replayRepository.findUnindexedByTeamId(
+                teamId, INDEX_VERSION, PageRequest.of(0, limit));
+        List<LocalDateTime> dates = new ArrayList<>();
+        for (Replay replay : pending) {
+            indexReplay(replay, team);
+            dates.add(replay.getDate());
+        }
+        if (!pending.isEmpty()) {
+            trendRollupService.refresh(teamId, dates);
+            team.setUpdatedAt(LocalDateTime.now());
+            log.info("Indexed opponent species for {} replays of team {}", pending.size(), teamId);
+        }
+        return pending.size();
+    }
+
+    /**
+     * Mark the team's replays for re-indexing. Call when anything
+     * {@link PlayerIdentifier#identifyUserPlayer} depends on changes.
+     */
+    public void invalidateTeam(Long teamId) {
+        int marked = replayRepository.invalidateOpponentIndex(teamId);
+        log.debug("Invalidated opponent index for {} replays of team {}", marked, teamId);
+    }
+
+    /**
+     * Normalize requested species to the names stored in the index, dropping duplicates.
+     */
+    public List<String> normalizeCore(List<String> pokemon) {
+        Set<String> core = new LinkedHashSet<>();
+        for (String name : pokemon) {
+            if (name != null && !name.isBlank()) {
+                core.add(pokemonService.resolveAnalyticsName(name));
+            }
+        }
+        return new ArrayList<>(core);
+    }
+
+    /**
+     * Replays of the team whose opponent brought every species in {@code pokemon}.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findReplayIdsWithCore(Long teamId, List<String> pokemon) {
+        List<String> core = normalizeCore(pokemon);
+        if (core.isEmpty()) {
+            return List.of();
+        }
+        return replayRepository.findIdsWithOpponentCore(teamId, core, core.size());
+    }
+
+    /**
+     * Per-species hits for the team against the given (already normalized) core, limited to
+     * replays matching {@code filter}.
+     */
+    @Transactional(readOnly = true)
+    public List<ReplayRepository.SpeciesHit> findHits(Long teamId, List<String> core,
+                                                      ReplayRepository.ReplayFilter filter) {
+        return core.isEmpty() ? List.of() : replayRepository.findOpponentSpeciesHits(teamId, core, filter);
+    }
+
+    private void collectFacts(BattleLogParser.BattleData battleData, String playerName,
+                              Set<OpponentFact> facts) {
+        boolean opponentIsP1 = playerName.equalsIgnoreCase(battleData.getPlayer2());
+        List<String> leads = opponentIsP1 ? battleData.getP1Leads() : battleData.getP2Leads();
+        String tera = opponentIsP1 ? battleData.getP1Tera() : battleData.getP2Tera();
+        String mega = opponentIsP1 ? battleData.getP1Mega() : battleData.getP2Mega();
+
+        String pair = leadPair(leads);
+        if (pair != null) {
+            facts.add(new OpponentFact(OpponentFact.Category.LEAD_PAIR, pair));
+        }
+        if (tera != null && !tera.isBlank()) {
+            facts.add(new OpponentFact(OpponentFact.Category.TERA, pokemonService.resolveAnalyticsName(tera)));
+        }
+        if (mega != null && !mega.isBlank()) {
+            facts.add(new OpponentFact(OpponentFact.Category.MEGA, pokemonService.resolveAnalyticsName(mega)));
+        }
+    }
+
+    /**
+     * "A + B" with analytics names sorted, as stored in {@link Replay#getLeadPair()} and
+     * {@link Replay#getBackPair()}; null if either name is missing.
+     */
+    public String pairKey(String first, String second) {
+        if (first == null || first.isBlank() || second == null || second.isBlank()) {
+            return null;
+        }
+        String name1 = pokemonService.resolveAnalyticsName(first);
+        String name2 = pokemonService.resolveAnalyticsName(second);
+        return name1.compareTo(name2) <= 0 ? name1 + " + " + name2 : name2 + " + " + name1;
+    }
+
+    /**
+     * "A + B" with analytics names sorted, or null without two leads.
+     */
+    private String leadPair(List<String> leads) {
+        if (leads == null || leads.size() < 2) {
+            return null;
+        }
+        return pairKey(leads.get(0), leads.get(1));
+    }
+
+    /**
+     * The picks (analytics names) that weren't leads, as a pair; null unless exactly two.
+     */
+    private String backPair(Set<String> picks, List<String> leads) {
+        if (leads == null || leads.size() < 2) {
+            return null;
+        }
+        List<String> back = new ArrayList<>(picks);
+        for (String lead : leads) {
+            back.remove(pokemonService.resolveAnalyticsName(lead));
+        }
+        return back.size() == 2 ? pairKey(back.get(0), back.get(1)) : null;
+    }
+}
@@ -36,10 +36,9 @@ public class PasswordResetService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final EmailService emailService;
+    private final RateLimitService rateLimitService;
 
     private static final int TOKEN_EXPIRATION_HOURS = 1;
-    private static final int MAX_REQUESTS_PER_USER_PER_HOUR = 3;
-    private static final int MAX_REQUESTS_PER_IP_PER_HOUR = 10;
     private static final int TOKEN_LENGTH_BYTES = 32;
 
     @Value("${app.frontend-url:https://vsrecorder.app}")
@@ -54,12 +53,10 @@ public class PasswordResetService {
      * @throws RateLimitExceededException if rate limit exceeded
      */
     public void initiatePasswordReset(String email, String clientIp) {
-        // Rate limiting check by IP first
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        long ipRequestCount = tokenRepository.countRecentTokensByIp(clientIp, oneHourAgo);
-        if (ipRequestCount >= MAX_REQUESTS_PER_IP_PER_HOUR) {
-            throw new RateLimitExceededException("Too many password reset requests");
-        }
+        // Rate limiting check by IP first (every request counts, not just ones that issue a token).
+        // The token table is only counted to seed a bucket that isn't in memory yet.
+        rateLimitService.acquire(RateLimitService.Policy.PASSWORD_RESET_IP, clientIp,
+                () -> (int) tokenRepository.countRecentTokensByIp(clientIp, LocalDateTime.now().minusHours(1)));
 
         // Find user by email (silently return if not found - prevents enumeration)
         Optional<User> userOpt = userRepository.findByEmail(email.toLowerCase().trim());
@@ -77,10 +74,8 @@ public class PasswordResetService {
         User user = userOpt.get();
 
         // Rate limiting check by user
-        long userRequestCount = tokenRepository.countRecentTokensByUser(user, oneHourAgo);
-        if (userRequestCount >= MAX_REQUESTS_PER_USER_PER_HOUR) {
-            throw new RateLimitExceededException("Too many password reset requests");
-        }
+        rateLimitService.acquire(RateLimitService.Policy.PASSWORD_RESET_USER, String.valueOf(user.getId()),
+                () -> (int) tokenRepository.countRecentTokensByUser(user, LocalDateTime.now().minusHours(1)));
 
         // Generate secure random token
         String plainToken = generateSecureToken();
@@ -98,7 +93,7 @@ public class PasswordResetService {
         String resetUrl = buildResetUrl(plainToken);
         emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), resetUrl);
 
-        log.info("Password reset email sent to user ID: {}", user.getId());
+        log.info("Password reset email queued for user ID: {}", user.getId());
     }
 
     /**
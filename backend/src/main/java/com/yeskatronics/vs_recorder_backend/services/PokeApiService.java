@@ -0,0 +1,98 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.utils.LookupCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Fallback sprite lookups against PokeAPI for Pokemon missing from the local registry.
+ *
+ * Results are held in a bounded {@link LookupCache}: found sprites for {@code app.cache.sprites.ttl},
+ * unknown names (PokeAPI 404 / no default sprite) for the shorter {@code negative-ttl}, and concurrent
+ * requests for the same name share a single outbound call.
+ */
+@Service
+@Slf4j
+public class PokeApiService {
+
+    private static final String POKEAPI_BASE = "https://pokeapi.co/api/v2/pokemon/";
+
+    private final RestTemplate restTemplate;
+    private final LookupCache<String, String> spriteCache;
+
+    public PokeApiService(
+            RestTemplate restTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.sprites.max-size:2000}") long maxSize,
+            @Value("${app.cache.sprites.ttl:7d}") Duration ttl,
+            @Value("${app.cache.sprites.negative-ttl:1h}") Duration negativeTtl) {
+        this.restTemplate = restTemplate;
+        this.spriteCache = LookupCache.<String, String>create("pokeapi.sprites", maxSize, ttl, negativeTtl)
+                .withMetrics(meterRegistry);
+    }
+
+    /**
+     * Look up the default front sprite URL for a Pokemon on PokeAPI.
+     *
+     * @param name Pokemon name in any casing/spacing
+     * @return sprite URL, or empty if PokeAPI doesn't know the Pokemon or has no default sprite
+     * @throws IllegalArgumentException if PokeAPI could not be reached (not cached)
+     */
+    public Optional<String> getSpriteUrl(String name) {
+        return spriteCache.get(normalizeName(name), this::fetchSpriteUrl);
+    }
+
+    /**
+     * PokeAPI identifiers are lowercase, hyphenated, with punctuation and accents stripped.
+     */
+    static String normalizeName(String name) {
+        return name.toLowerCase().trim()
+                .replace(" ", "-").replace("'", "")
+                .replace(".", "").replace("\u00e9", "e");
+    }
+
+    /**
+     * Single outbound call. Returns null for a definitive miss so it gets negatively cached;
+     * throws for anything that might succeed on retry.
+     */
+    @SuppressWarnings("unchecked")
+    private String fetchSpriteUrl(String normalizedName) {
+        log.debug("Fetching sprite from PokeAPI: {}", normalizedName);
+        try {
+            Map<String, Object> response = restTemplate.getForObject(POKEAPI_BASE + normalizedName, Map.class);
+            if (response == null) {
+                throw new IllegalArgumentException("Failed to fetch Pokemon data from PokeAPI");
+            }
+
+            Map<String, Object> sprites = (Map<String, Object>) response.get("sprites");
+            if (sprites == null) {
+                log.info("No sprite data on PokeAPI for: {}", normalizedName);
+                return null;
+            }
+
+            String spriteUrl = (String) sprites.get("front_default");
+            if (spriteUrl == null || spriteUrl.isEmpty()) {
+                log.info("No default sprite on PokeAPI for: {}", normalizedName);
+                return null;
+            }
+            return spriteUrl;
+
+        } catch (HttpClientErrorException.NotFound e) {
+            log.info("Pokemon not found on PokeAPI: {}", normalizedName);
+            return null;
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error fetching Pokemon sprite: {}", e.getMessage(), e);
+            throw new IllegalArgumentException("Failed to fetch Pokemon sprite: " + e.getMessage());
+        }
+    }
+}
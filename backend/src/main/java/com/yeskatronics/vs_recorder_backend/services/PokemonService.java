@@ -1,93 +1,52 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yeskatronics.vs_recorder_backend.dto.PokemonEntry;
+import com.yeskatronics.vs_recorder_backend.utils.PokemonRegistry;
+import com.yeskatronics.vs_recorder_backend.utils.PokemonRegistryCompiler;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
 import java.io.InputStream;
 import java.util.*;
 
 /**
  * Authoritative service for Pokemon name resolution, sprite info, types, and display names.
- * Loaded from generated pokemon-data.json at startup.
+ * Backed by an immutable {@link PokemonRegistry} compiled from pokemon-data.json at build time
+ * (pokemon-registry.bin); compiled in memory at startup if the binary is missing.
  */
 @Service
 @Slf4j
 public class PokemonService {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
-    /** canonical key -> PokemonEntry */
-    private final Map<String, PokemonEntry> registry = new LinkedHashMap<>();
-
-    /** any alias (lowercased, normalized) -> canonical key */
-    private final Map<String, String> aliasIndex = new HashMap<>();
-
-    private String registryVersion;
+    /** Immutable registry: entries plus sorted key/alias tables and the pre-serialized registry body */
+    private PokemonRegistry registry = PokemonRegistry.empty();
 
     @PostConstruct
     public void init() {
+        long start = System.currentTimeMillis();
         try {
-            ClassPathResource resource = new ClassPathResource("pokemon-data.json");
-            try (InputStream is = resource.getInputStream()) {
-                JsonNode root = objectMapper.readTree(is);
-                registryVersion = root.path("version").asText("unknown");
-
-                JsonNode pokemonNode = root.path("pokemon");
-                Iterator<Map.Entry<String, JsonNode>> fields = pokemonNode.fields();
-
-                while (fields.hasNext()) {
-                    Map.Entry<String, JsonNode> field = fields.next();
-                    String key = field.getKey();
-                    JsonNode node = field.getValue();
-
-                    List<String> types = new ArrayList<>();
-                    node.path("types").forEach(t -> types.add(t.asText()));
-
-                    List<String> aliases = new ArrayList<>();
-                    node.path("aliases").forEach(a -> aliases.add(a.asText()));
-
-                    PokemonEntry entry = new PokemonEntry(
-                            key,
-                            node.path("num").asInt(),
-                            node.path("form").asInt(),
-                            node.path("name").asText(),
-                            node.path("displayName").asText(),
-                            node.path("baseSpecies").asText(key),
-                            types,
-                            aliases
-                    );
-
-                    registry.put(key, entry);
-
-                    // Index the canonical name
-                    aliasIndex.put(key, key);
-                    aliasIndex.put(key.replace("-", ""), key);
-
-                    // Index all aliases
-                    for (String alias : aliases) {
-                        String normalized = normalizeForLookup(alias);
-                        aliasIndex.putIfAbsent(normalized, key);
-                        // Also add without hyphens
-                        String noHyphens = normalized.replace("-", "");
-                        aliasIndex.putIfAbsent(noHyphens, key);
-                    }
-
-                    // Index the Showdown name
-                    String showdownNormalized = normalizeForLookup(node.path("name").asText());
-                    aliasIndex.putIfAbsent(showdownNormalized, key);
+            ClassPathResource compiled = new ClassPathResource(PokemonRegistry.COMPILED_RESOURCE);
+            if (compiled.exists()) {
+                try (InputStream is = new BufferedInputStream(compiled.getInputStream())) {
+                    registry = PokemonRegistry.read(is);
+                }
+            } else {
+                log.warn("{} not found on classpath, compiling pokemon-data.json at startup",
+                        PokemonRegistry.COMPILED_RESOURCE);
+                try (InputStream is = new ClassPathResource("pokemon-data.json").getInputStream()) {
+                    registry = PokemonRegistryCompiler.compile(is);
                 }
             }
 
-            log.info("Loaded {} Pokemon entries with {} aliases (version {})",
-                    registry.size(), aliasIndex.size(), registryVersion);
+            log.info("Loaded {} Pokemon entries with {} aliases (version {}) in {}ms",
+                    registry.size(), registry.aliasCount(), registry.getVersion(),
+                    System.currentTimeMillis() - start);
 
         } catch (Exception e) {
-            log.error("Failed to load pokemon-data.json: {}", e.getMessage(), e);
+            log.error("Failed to load Pokemon registry: {}", e.getMessage(), e);
         }
     }
 
@@ -117,16 +76,16 @@ public class PokemonService {
         // Step 3: Strip (M), (F) gender markers
         cleaned = cleaned.replaceAll("\\s*\\(M\\)|\\s*\\(F\\)", "").trim();
 
-        // Step 4: Look up in aliasIndex (case-insensitive)
+        // Step 4: Look up in the alias table (case-insensitive)
         String normalized = normalizeForLookup(cleaned);
-        String canonical = aliasIndex.get(normalized);
+        String canonical = registry.resolveAlias(normalized);
         if (canonical != null) {
             return canonical;
         }
 
         // Step 5: Try without hyphens
         String noHyphens = normalized.replace("-", "");
-        canonical = aliasIndex.get(noHyphens);
+        canonical = registry.resolveAlias(noHyphens);
         if (canonical != null) {
             return canonical;
         }
@@ -140,7 +99,7 @@ public class PokemonService {
                 .replaceAll("[^a-z0-9-]", "")
                 .replaceAll("-{2,}", "-")
                 .replaceAll("^-|-$", "");
-        canonical = aliasIndex.get(kebab);
+        canonical = registry.resolveAlias(kebab);
         if (canonical != null) {
             return canonical;
         }
@@ -165,6 +124,24 @@ public class PokemonService {
         return canonical;
     }
 
+    /**
+     * Resolve any name variant to the name analytics groups by: the base species in Showdown
+     * name format (e.g., "Ogerpon-Hearthflame", "Raging Bolt"), so cosmetic forms collapse while
+     * competitive forms stay distinct.
+     *
+     * @param anyName any Pokemon name variant
+     * @return Showdown-format base species name, or its display name if unknown
+     */
+    public String resolveAnalyticsName(String anyName) {
+        String baseSpecies = resolveBaseSpecies(anyName);
+        PokemonEntry entry = getEntry(baseSpecies);
+        if (entry != null) {
+            return entry.name();
+        }
+        // Fallback: return the base species display name
+        return getDisplayName(baseSpecies);
+    }
+
     /**
      * Get human-friendly display name for any Pokemon name variant.
      *
@@ -244,14 +221,21 @@ public class PokemonService {
      * Get the full registry for the /registry endpoint.
      */
     public Map<String, PokemonEntry> getFullRegistry() {
-        return Collections.unmodifiableMap(registry);
+        return registry.asMap();
+    }
+
+    /**
+     * Get the compiled registry (pre-serialized body and ETag for the /registry endpoint).
+     */
+    public PokemonRegistry getRegistry() {
+        return registry;
     }
 
     /**
      * Get the registry version for cache invalidation.
      */
     public String getRegistryVersion() {
-        return registryVersion;
+        return registry.getVersion();
     }
 
     /**
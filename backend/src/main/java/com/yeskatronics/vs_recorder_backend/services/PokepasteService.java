@@ -2,7 +2,8 @@ package com.yeskatronics.vs_recorder_backend.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
-import lombok.RequiredArgsConstructor;
+import com.yeskatronics.vs_recorder_backend.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -10,6 +11,8 @@ import org.springframework.web.client.RestTemplate;
 import java.util.ArrayList;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,7 +21,6 @@ import java.util.regex.Pattern;
  * Handles communication with Pokepaste to retrieve team compositions.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PokepasteService {
 
@@ -26,6 +28,16 @@ public class PokepasteService {
 
     private final ObjectMapper objectMapper;
 
+    // Concurrent fetches of the same paste share one request and parse, keyed "site:pasteId"
+    private final SingleFlight<String, PokepasteDTO.PasteData> pasteFetches;
+
+    public PokepasteService(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.pasteFetches = SingleFlight.<String, PokepasteDTO.PasteData>create("pastes")
+                .withMetrics(meterRegistry);
+    }
+
     private static final String POKEPASTE_BASE = "https://pokepast.es";
 
     private static final String POKEBIN_BASE = "https://pokebin.com";
@@ -56,19 +68,22 @@ public class PokepasteService {
         // Check if it's a VR Pastes URL
         Matcher vrpastesMatcher = VRPASTES_URL_PATTERN.matcher(url);
         if (vrpastesMatcher.find()) {
-            return fetchVRPastesData(url, vrpastesMatcher.group(1));
+            String pasteId = vrpastesMatcher.group(1);
+            return pasteFetches.execute("vrpastes:" + pasteId, () -> fetchVRPastesData(url, pasteId));
         }
 
         // Check if it's a Pokebin URL
         Matcher pokebinMatcher = POKEBIN_URL_PATTERN.matcher(url);
         if (pokebinMatcher.find()) {
-            return fetchPokebinData(url, pokebinMatcher.group(1));
+            String pasteId = pokebinMatcher.group(1);
+            return pasteFetches.execute("pokebin:" + pasteId, () -> fetchPokebinData(url, pasteId));
         }
 
         // Check if it's a Pokepaste URL
         Matcher pokepasteMatcher = POKEPASTE_URL_PATTERN.matcher(url);
         if (pokepasteMatcher.find()) {
-            return fetchPokepasteData(url, pokepasteMatcher.group(1));
+            String pasteId = pokepasteMatcher.group(1);
+            return pasteFetches.execute("pokepaste:" + pasteId, () -> fetchPokepasteData(url, pasteId));
         }
 
         throw new IllegalArgumentException("Invalid URL - must be a Pokepaste, Pokebin, or VR Pastes URL");
@@ -81,12 +96,14 @@ public class PokepasteService {
      * Rillaboom @ Assault Vest
      * Ability: Grassy Surge
      * Tera Type: Fire
+     * EVs: 252 HP / 4 Atk / 252 Spe
+     * Adamant Nature
      * - Fake Out
      * - Grassy Glide
      * - Wood Hammer
      * - U-turn
      */
-    private PokepasteDTO.PasteData parsePaste(String rawText) {
+    public PokepasteDTO.PasteData parsePaste(String rawText) {
         PokepasteDTO.PasteData pasteData = new PokepasteDTO.PasteData();
 
         // Normalize line endings to Unix format to handle Windows/Mac line endings
@@ -319,6 +336,14 @@ public class PokepasteService {
                 pokemon.setAbility(line.substring(8).trim());
             } else if (line.startsWith("Tera Type:")) {
                 pokemon.setTeraType(line.substring(10).trim());
+            } else if (line.startsWith("Level:")) {
+                parseInt(line.substring(6)).ifPresent(pokemon::setLevel);
+            } else if (line.startsWith("EVs:")) {
+                parseStatSpread(line.substring(4), pokemon.getEvs());
+            } else if (line.startsWith("IVs:")) {
+                parseStatSpread(line.substring(4), pokemon.getIvs());
+            } else if (line.endsWith(" Nature") && !line.startsWith("-")) {
+                pokemon.setNature(line.substring(0, line.length() - 7).trim());
             } else if (line.startsWith("-")) {
                 // Move
                 String move = line.substring(1).trim();
@@ -329,6 +354,26 @@ public class PokepasteService {
         return pokemon;
     }
 
+    /**
+     * Parse a spread line body like "4 HP / 252 Atk / 252 Spe" into {@code stats}.
+     */
+    private void parseStatSpread(String spread, Map<String, Integer> stats) {
+        for (String part : spread.split("/")) {
+            String[] valueAndStat = part.trim().split("\\s+", 2);
+            if (valueAndStat.length == 2) {
+                parseInt(valueAndStat[0]).ifPresent(value -> stats.put(valueAndStat[1].trim(), value));
+            }
+        }
+    }
+
+    private static Optional<Integer> parseInt(String value) {
+        try {
+            return Optional.of(Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Parse Pokemon name and item from first line
      * Handles formats:
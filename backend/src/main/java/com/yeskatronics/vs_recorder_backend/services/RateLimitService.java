@@ -0,0 +1,146 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yeskatronics.vs_recorder_backend.exceptions.RateLimitExceededException;
+import com.yeskatronics.vs_recorder_backend.utils.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * In-memory rate limiting with one {@link TokenBucket} per (policy, caller) pair.
+ *
+ * <p>Buckets live in a bounded Caffeine cache per policy and are dropped after a full period
+ * without use, by which point they would be full anyway. Callers whose limit is also recorded
+ * in the database (export codes, password reset tokens) pass a cold-start count; it is only
+ * queried when a bucket is first built, e.g. after a restart, never on the steady-state path.
+ *
+ * <p>Every rejection increments {@code rate.limit.throttled}, tagged by policy.
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    /**
+     * Rate limit policies. Capacity tokens refill evenly over the period.
+     */
+    public enum Policy {
+        EXPORT_CODE("export-code", 10, Duration.ofDays(1),
+                "Rate limit exceeded. You can create up to 10 export codes per day. Try again later."),
+        PASSWORD_RESET_USER("password-reset-user", 3, Duration.ofHours(1), "Too many password reset requests"),
+        PASSWORD_RESET_IP("password-reset-ip", 10, Duration.ofHours(1), "Too many password reset requests"),
+        REPLAY_IMPORT("replay-import", 30, Duration.ofMinutes(1), "Too many replay imports. Slow down and try again shortly."),
+        ANALYTICS("analytics", 120, Duration.ofMinutes(1), "Too many analytics requests. Try again shortly."),
+        PASTE_FETCH("paste-fetch", 30, Duration.ofMinutes(1), "Too many paste fetches. Try again shortly.");
+
+        private final String tag;
+        private final int capacity;
+        private final Duration period;
+        private final String message;
+
+        Policy(String tag, int capacity, Duration period, String message) {
+            this.tag = tag;
+            this.capacity = capacity;
+            this.period = period;
+            this.message = message;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+    }
+
+    /**
+     * Snapshot of one caller's bucket.
+     */
+    public record Status(int remaining, int capacity, Duration untilFull) {
+    }
+
+    private final boolean enabled;
+    private final Map<Policy, Cache<String, TokenBucket>> buckets = new EnumMap<>(Policy.class);
+    private final Map<Policy, Counter> throttled = new EnumMap<>(Policy.class);
+
+    public RateLimitService(
+            MeterRegistry meterRegistry,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.max-keys:100000}") long maxKeys) {
+        this.enabled = enabled;
+        for (Policy policy : Policy.values()) {
+            buckets.put(policy, Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(policy.period)
+                    .build());
+            throttled.put(policy, Counter.builder("rate.limit.throttled")
+                    .description("Requests rejected by a rate limit")
+                    .tag("policy", policy.tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Take one token for {@code key}, starting from a full bucket if none exists yet.
+     *
+     * @throws RateLimitExceededException if the bucket is empty
+     */
+    public void acquire(Policy policy, String key) {
+        acquire(policy, key, () -> 0);
+    }
+
+    /**
+     * Take one token for {@code key}.
+     *
+     * @param coldStartCount how many tokens the caller already used in the last period, consulted
+     *                       only when the bucket isn't in memory
+     * @throws RateLimitExceededException if the bucket is empty
+     */
+    public void acquire(Policy policy, String key, IntSupplier coldStartCount) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long waitNanos = bucket(policy, key, coldStartCount, now).tryAcquire(now);
+        if (waitNanos > 0) {
+            throttled.get(policy).increment();
+            log.debug("Rate limit {} hit for {}", policy.tag, key);
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            throw new RateLimitExceededException(policy.message, retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Return a token taken by {@link #acquire} when the limited action didn't happen after all.
+     */
+    public void refund(Policy policy, String key) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket bucket = buckets.get(policy).getIfPresent(key);
+        if (bucket != null) {
+            bucket.refund(System.nanoTime());
+        }
+    }
+
+    public Status status(Policy policy, String key, IntSupplier coldStartCount) {
+        long now = System.nanoTime();
+        TokenBucket bucket = bucket(policy, key, coldStartCount, now);
+        return new Status(bucket.remaining(now), policy.capacity, Duration.ofNanos(bucket.nanosUntilFull(now)));
+    }
+
+    private TokenBucket bucket(Policy policy, String key, IntSupplier coldStartCount, long now) {
+        return buckets.get(policy).get(key,
+                k -> new TokenBucket(policy.capacity, policy.period, coldStartCount.getAsInt(), now));
+    }
+}
@@ -0,0 +1,262 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.yeskatronics.vs_recorder_backend.dto.ReplayDTO;
+import com.yeskatronics.vs_recorder_backend.dto.ShowdownDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.exceptions.IngestQueueFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests replays from Showdown URLs without holding a DB connection during the network call.
+ *
+ * <p>Each ingest runs in three steps: a short read-only transaction to validate and load the team
+ * ({@link ReplayService#prepareReplayIngest}), the Showdown fetch and parse with no transaction,
+ * then one short write transaction ({@link ReplayService#saveFetchedReplay}).
+ *
+ * <p>{@link #ingest} runs the steps on the caller's thread (the synchronous endpoint).
+ * {@link #submit} queues them on a bounded worker pool and returns a job id right away. Callers
+ * poll {@link #getJob} or subscribe to {@link #subscribe} (server-sent events) for the outcome.
+ * A full queue is rejected with {@link IngestQueueFullException} instead of piling up work.
+ * Finished jobs are kept for {@code app.ingest.job-ttl}.
+ */
+@Service
+@Slf4j
+public class ReplayIngestService {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final ReplayService replayService;
+    private final ShowdownService showdownService;
+    private final ThreadPoolExecutor workers;
+    private final Cache<String, IngestJob> jobs;
+    private final long sseTimeoutMillis;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter rejected;
+
+    public ReplayIngestService(
+            ReplayService replayService,
+            ShowdownService showdownService,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${app.ingest.workers:4}") int workerCount,
+            @Value("${app.ingest.queue-capacity:200}") int queueCapacity,
+            @Value("${app.ingest.job-ttl:1h}") Duration jobTtl,
+            @Value("${app.ingest.sse-timeout:2m}") Duration sseTimeout) {
+        this.replayService = replayService;
+        this.showdownService = showdownService;
+        // Worker count still bounds concurrent Showdown fetches; in virtual-thread mode the workers
+        // just stop pinning a platform thread while they wait on the network
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("replay-ingest-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("replay-ingest-");
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        this.workers.allowCoreThreadTimeOut(true);
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobTtl)
+                .maximumSize(10_000)
+                .build();
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+
+        meterRegistry.gauge("replay.ingest.queued", workers, w -> w.getQueue().size());
+        meterRegistry.gauge("replay.ingest.active", workers, ThreadPoolExecutor::getActiveCount);
+        this.succeeded = meterRegistry.counter("replay.ingest.jobs", "outcome", "succeeded");
+        this.failed = meterRegistry.counter("replay.ingest.jobs", "outcome", "failed");
+        this.rejected = meterRegistry.counter("replay.ingest.jobs", "outcome", "rejected");
+    }
+
+    /**
+     * Ingest a replay on the calling thread.
+     *
+     * @return the created replay (with notes/reviewed applied if given)
+     * @throws IllegalArgumentException if the URL is a duplicate, the team is missing, or the fetch fails
+     */
+    public Replay ingest(Long teamId, String url, String notes, Boolean reviewed) {
+        String normalizedUrl = ReplayService.normalizeReplayUrl(url);
+        log.info("Creating replay from URL for team ID: {}", teamId);
+
+        Team team = replayService.prepareReplayIngest(teamId, normalizedUrl);
+        ShowdownDTO.ReplayData replayData = showdownService.fetchReplayData(normalizedUrl, team);
+        return replayService.saveFetchedReplay(teamId, normalizedUrl, replayData, notes, reviewed);
+    }
+
+    /**
+     * Preview a replay from URL WITHOUT persisting it. Used by the bulk-import flow to detect the
+     * team-of-six the owner ran in each replay so the UI can group them. Like {@link #ingest}, the
+     * team is loaded in a short read-only transaction and the Showdown fetch runs with none.
+     *
+     * @throws IllegalArgumentException if the team is missing or the fetch fails
+     */
+    public ShowdownDTO.ReplayPreview preview(Long teamId, String url) {
+        Team team = replayService.loadTeamForFetch(teamId);
+        return showdownService.previewReplay(ReplayService.normalizeReplayUrl(url), team);
+    }
+
+    /**
+     * Queue a replay for background ingest.
+     *
+     * @param userId the submitting user; only they can read the job
+     * @return the queued job
+     * @throws IngestQueueFullException if the worker queue is at capacity
+     */
+    public ReplayDTO.IngestJobResponse submit(Long teamId, Long userId, String url, String notes, Boolean reviewed) {
+        IngestJob job = new IngestJob(UUID.randomUUID().toString(), teamId, userId,
+                ReplayService.normalizeReplayUrl(url));
+        jobs.put(job.id, job);
+
+        try {
+            workers.execute(() -> run(job, notes, reviewed));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            rejected.increment();
+            log.warn("Replay ingest queue full, rejecting {} for team {}", job.url, teamId);
+            throw new IngestQueueFullException("Too many replays are being imported right now, please retry shortly");
+        }
+
+        log.info("Queued replay ingest job {} for team {}: {}", job.id, teamId, job.url);
+        return job.toResponse();
+    }
+
+    /**
+     * @return the job if it exists and belongs to {@code userId}
+     */
+    public Optional<ReplayDTO.IngestJobResponse> getJob(String jobId, Long userId) {
+        return findJob(jobId, userId).map(IngestJob::toResponse);
+    }
+
+    /**
+     * Stream status changes for a job as server-sent {@code status} events. The current status is
+     * sent immediately; the stream completes once the job succeeds or fails.
+     *
+     * @throws IllegalArgumentException if the job doesn't exist or belongs to another user
+     */
+    public SseEmitter subscribe(String jobId, Long userId) {
+        IngestJob job = findJob(jobId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Ingest job not found: " + jobId));
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+
+        job.emitters.add(emitter);
+        send(emitter, job.toResponse());
+        if (job.isDone()) {
+            job.emitters.remove(emitter);
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private Optional<IngestJob> findJob(String jobId, Long userId) {
+        IngestJob job = jobs.getIfPresent(jobId);
+        return job != null && job.userId.equals(userId) ? Optional.of(job) : Optional.empty();
+    }
+
+    private void run(IngestJob job, String notes, Boolean reviewed) {
+        update(job, Status.RUNNING, null, null);
+        try {
+            Replay replay = ingest(job.teamId, job.url, notes, reviewed);
+            update(job, Status.SUCCEEDED, replay.getId(), null);
+            succeeded.increment();
+        } catch (Exception e) {
+            log.warn("Replay ingest job {} failed: {}", job.id, e.getMessage());
+            update(job, Status.FAILED, null, e.getMessage());
+            failed.increment();
+        }
+    }
+
+    private void update(IngestJob job, Status status, Long replayId, String error) {
+        synchronized (job) {
+            job.status = status;
+            job.replayId = replayId;
+            job.error = error;
+            if (job.isDone()) {
+                job.completedAt = LocalDateTime.now();
+            }
+        }
+        // Refresh expiry so finished jobs stay readable for the full TTL
+        jobs.put(job.id, job);
+
+        ReplayDTO.IngestJobResponse snapshot = job.toResponse();
+        for (SseEmitter emitter : job.emitters) {
+            send(emitter, snapshot);
+            if (job.isDone()) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, ReplayDTO.IngestJobResponse snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(snapshot));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; onError/onCompletion drop the emitter
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Mutable job state, guarded by the job's monitor.
+     */
+    private static final class IngestJob {
+        final String id;
+        final Long teamId;
+        final Long userId;
+        final String url;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        Status status = Status.QUEUED;
+        Long replayId;
+        String error;
+        LocalDateTime completedAt;
+
+        IngestJob(String id, Long teamId, Long userId, String url) {
+            this.id = id;
+            this.teamId = teamId;
+            this.userId = userId;
+            this.url = url;
+        }
+
+        synchronized boolean isDone() {
+            return status == Status.SUCCEEDED || status == Status.FAILED;
+        }
+
+        synchronized ReplayDTO.IngestJobResponse toResponse() {
+            return new ReplayDTO.IngestJobResponse(id, teamId, url, status.name(), replayId, error,
+                    submittedAt, completedAt, null);
+        }
+    }
+}
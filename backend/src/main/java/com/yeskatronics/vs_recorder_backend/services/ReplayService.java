@@ -13,6 +13,7 @@ import com.yeskatronics.vs_recorder_backend.utils.PlayerIdentifier;
 import com.yeskatronics.vs_recorder_backend.utils.ReplayMatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,7 +25,9 @@ import java.util.stream.Collectors;
  * Service class for Replay entity business logic.
  * Handles replay creation, management, and battle log processing.
  *
- * Note: Battle log fetching from Pokemon Showdown will be added in a future phase.
+ * Replays created from a Showdown URL go through {@link ReplayIngestService}, which fetches
+ * between {@link #prepareReplayIngest} and {@link #saveFetchedReplay} so no transaction is
+ * held open during the network call.
  */
 @Service
 @RequiredArgsConstructor
@@ -38,6 +41,8 @@ public class ReplayService {
     private final ShowdownService showdownService;
     private final ObjectMapper objectMapper;
     private final PokemonService pokemonService;
+    private final OpponentIndexService opponentIndexService;
+    private final TrendRollupService trendRollupService;
 
     /**
      * Create a new replay
@@ -50,8 +55,8 @@ public class ReplayService {
     public Replay createReplay(Replay replay, Long teamId) {
         log.info("Creating new replay for team ID: {}", teamId);
 
-        // Verify team exists
-        Team team = teamRepository.findById(teamId)
+        // Verify team exists; locked first so its trend rebuild waits for concurrent imports
+        Team team = teamRepository.lockById(teamId)
                 .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
 
         // Check for duplicate URL within the same team
@@ -69,6 +74,7 @@ public class ReplayService {
             }
         }
 
+        opponentIndexService.indexReplay(replay, team);
         Replay savedReplay = replayRepository.save(replay);
 
         // Handle Bo3 match association if applicable
@@ -78,6 +84,7 @@ public class ReplayService {
         }
 
         touchTeam(team.getId());
+        trendRollupService.refresh(team.getId(), savedReplay.getDate());
 
         log.info("Replay created successfully with ID: {}", savedReplay.getId());
 
@@ -85,29 +92,73 @@ public class ReplayService {
     }
 
     /**
-     * Create a replay from a URL (fetches and parses battle log, auto-detects Bo3)
+     * Strip query parameters so the same replay always maps to the same URL.
+     */
+    public static String normalizeReplayUrl(String url) {
+        return url.split("\\?")[0];
+    }
+
+    /**
+     * First step of URL ingest: validate and load the team so the Showdown fetch can run
+     * outside any transaction. The team's usernames and roster (needed for player
+     * identification) are initialized before the session closes.
      *
      * @param teamId the team ID
-     * @param url the Pokemon Showdown replay URL
-     * @return the created replay
+     * @param url the normalized replay URL
+     * @return the team, detached, with usernames and members loaded
      * @throws IllegalArgumentException if URL already exists or team not found
      */
-    public Replay createReplayFromUrl(Long teamId, String url) {
-        log.info("Creating replay from URL for team ID: {}", teamId);
-
-        // Strip query parameters to normalize the URL
-        url = url.split("\\?")[0];
-
+    @Transactional(readOnly = true)
+    public Team prepareReplayIngest(Long teamId, String url) {
         // Check for duplicate URL within the same team
         if (replayRepository.existsByUrlAndTeamId(url, teamId)) {
             throw new IllegalArgumentException("Replay URL already exists in this team: " + url);
         }
 
+        return loadTeamForFetch(teamId);
+    }
+
+    /**
+     * Load a team with everything player identification needs (usernames and roster), so a
+     * Showdown fetch for it can run outside any transaction.
+     *
+     * @param teamId the team ID
+     * @return the team, detached, with usernames and members loaded
+     * @throws IllegalArgumentException if team not found
+     */
+    @Transactional(readOnly = true)
+    public Team loadTeamForFetch(Long teamId) {
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
+        Hibernate.initialize(team.getShowdownUsernames());
+        Hibernate.initialize(team.getTeamMembers());
+        return team;
+    }
 
-        // Fetch battle log from Showdown
-        ShowdownDTO.ReplayData replayData = showdownService.fetchReplayData(url, team);
+    /**
+     * Last step of URL ingest: persist an already-fetched replay (auto-detects Bo3) in one
+     * short write transaction.
+     *
+     * @param teamId the team ID
+     * @param url the normalized replay URL
+     * @param replayData battle log and result fetched from Showdown
+     * @param notes optional notes (ignored if null or empty)
+     * @param reviewed whether to mark the replay reviewed (ignored unless true)
+     * @return the created replay
+     * @throws IllegalArgumentException if URL was added meanwhile or team not found
+     */
+    public Replay saveFetchedReplay(Long teamId, String url, ShowdownDTO.ReplayData replayData,
+                                    String notes, Boolean reviewed) {
+        log.info("Saving fetched replay for team ID: {}", teamId);
+
+        // Re-check: another request may have added the same URL while we were fetching
+        if (replayRepository.existsByUrlAndTeamId(url, teamId)) {
+            throw new IllegalArgumentException("Replay URL already exists in this team: " + url);
+        }
+
+        // Locked before the insert so concurrent imports rebuild the team's trend buckets in turn
+        Team team = teamRepository.lockById(teamId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
 
         // Parse Bo3 information from battle log
         ReplayMatcher.Bo3MatchInfo matchInfo = ReplayMatcher.parseBattleLog(replayData.getBattleLog());
@@ -120,6 +171,12 @@ public class ReplayService {
         replay.setOpponent(replayData.getOpponent());
         replay.setResult(replayData.getResult());
         replay.setDate(replayData.getDate() != null ? replayData.getDate() : LocalDateTime.now());
+        if (notes != null && !notes.isEmpty()) {
+            replay.setNotes(notes);
+        }
+        if (Boolean.TRUE.equals(reviewed)) {
+            replay.setReviewed(true);
+        }
 
         // Set game number if Bo3
         if (matchInfo.isBo3()) {
@@ -129,6 +186,7 @@ public class ReplayService {
         }
 
         // Save replay first
+        opponentIndexService.indexReplay(replay, team);
         Replay savedReplay = replayRepository.save(replay);
 
         // Handle Bo3 match association
@@ -137,24 +195,12 @@ public class ReplayService {
         }
 
         touchTeam(team.getId());
+        trendRollupService.refresh(team.getId(), savedReplay.getDate());
 
         log.info("Replay created from URL with ID: {}", savedReplay.getId());
         return savedReplay;
     }
 
-    /**
-     * Preview a replay from URL WITHOUT persisting it. Used by the bulk-import flow to
-     * detect the team-of-six the owner ran in each replay so the UI can group them.
-     */
-    public ShowdownDTO.ReplayPreview previewReplayFromUrl(Long teamId, String url) {
-        url = url.split("\\?")[0];
-
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
-
-        return showdownService.previewReplay(url, team);
-    }
-
     /**
      * Get a replay by ID
      *
@@ -167,6 +213,17 @@ public class ReplayService {
         return replayRepository.findById(id);
     }
 
+    /**
+     * Get the team a replay belongs to, without loading the replay
+     *
+     * @param id the replay ID
+     * @return Optional containing the team ID if the replay exists
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getReplayTeamId(Long id) {
+        return replayRepository.findTeamIdById(id);
+    }
+
     /**
      * Get a replay by URL
      *
@@ -203,6 +260,28 @@ public class ReplayService {
         return replayRepository.findByTeamIdOrderByDateDesc(teamId);
     }
 
+    /**
+     * Get replays where the opponent brought every Pokemon in {@code opponentPokemon},
+     * ordered by date descending. Answered from the opponent species index.
+     *
+     * @param teamId the team ID
+     * @param opponentPokemon species names in any form (e.g., "incineroar", "Urshifu-Rapid-Strike")
+     * @return matching replays
+     */
+    @Transactional(readOnly = true)
+    public List<Replay> getReplaysByOpponentCore(Long teamId, List<String> opponentPokemon) {
+        log.debug("Fetching replays for team ID: {} against core: {}", teamId, opponentPokemon);
+
+        if (!teamRepository.existsById(teamId)) {
+            throw new IllegalArgumentException("Team not found with ID: " + teamId);
+        }
+
+        List<Long> ids = opponentIndexService.findReplayIdsWithCore(teamId, opponentPokemon);
+        List<Replay> replays = new ArrayList<>(replayRepository.findAllById(ids));
+        replays.sort(Comparator.comparing(Replay::getDate, Comparator.nullsLast(Comparator.reverseOrder())));
+        return replays;
+    }
+
     /**
      * Get all replays for a match
      *
@@ -292,6 +371,7 @@ public class ReplayService {
 
         Replay existingReplay = replayRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Replay not found with ID: " + id));
+        LocalDateTime previousDate = existingReplay.getDate();
 
         // Update notes if provided
         if (updates.getNotes() != null) {
@@ -324,6 +404,9 @@ public class ReplayService {
 
         if (savedReplay.getTeam() != null) {
             touchTeam(savedReplay.getTeam().getId());
+            if (updates.getResult() != null || updates.getDate() != null) {
+                trendRollupService.refresh(savedReplay.getTeam().getId(), previousDate, savedReplay.getDate());
+            }
         }
 
         log.info("Replay updated successfully: {}", savedReplay.getId());
@@ -354,6 +437,7 @@ public class ReplayService {
         }
 
         replay.setMatch(match);
+        touchTeam(replay.getTeam().getId());
         return replayRepository.save(replay);
     }
 
@@ -371,6 +455,9 @@ public class ReplayService {
                 .orElseThrow(() -> new IllegalArgumentException("Replay not found with ID: " + replayId));
 
         replay.setMatch(null);
+        if (replay.getTeam() != null) {
+            touchTeam(replay.getTeam().getId());
+        }
         return replayRepository.save(replay);
     }
 
@@ -387,11 +474,13 @@ public class ReplayService {
                 .orElseThrow(() -> new IllegalArgumentException("Replay not found with ID: " + id));
 
         Long teamId = replay.getTeam() != null ? replay.getTeam().getId() : null;
+        LocalDateTime date = replay.getDate();
 
         replayRepository.delete(replay);
 
         if (teamId != null) {
             touchTeam(teamId);
+            trendRollupService.refresh(teamId, date);
         }
 
         log.info("Replay deleted successfully: {}", id);
@@ -489,6 +578,13 @@ public class ReplayService {
         int modifiedCount = 0;
         Set<Long> affectedMatchIds = new HashSet<>();
 
+        // Same team for every replay: build the roster once
+        List<String> roster = replays.isEmpty() || replays.get(0).getTeam().getTeamMembers() == null
+                ? Collections.emptyList()
+                : replays.get(0).getTeam().getTeamMembers().stream()
+                    .map(TeamMember::getPokemonName)
+                    .collect(Collectors.toList());
+
         for (Replay replay : replays) {
             if (replay.getBattleLog() == null || replay.getBattleLog().isEmpty()) {
                 continue;
@@ -500,12 +596,6 @@ public class ReplayService {
                 ReplayMatcher.BattleData parsed = ReplayMatcher.extractBattleData(
                         replay.getBattleLog(), newUsernames);
 
-                List<String> roster = replay.getTeam().getTeamMembers() == null
-                        ? Collections.emptyList()
-                        : replay.getTeam().getTeamMembers().stream()
-                            .map(TeamMember::getPokemonName)
-                            .collect(Collectors.toList());
-
                 PlayerIdentifier.Identification id = PlayerIdentifier.identify(
                         newUsernames, roster, parsed.getPlayers(), parsed.getTeams(), pokemonService);
 
@@ -534,21 +624,22 @@ public class ReplayService {
             }
         }
 
-        // Update opponent on affected matches from their first replay
-        for (Long matchId : affectedMatchIds) {
-            try {
-                List<Replay> matchReplays = replayRepository.findByMatchId(matchId);
-                if (!matchReplays.isEmpty()) {
-                    Match match = matchRepository.findById(matchId).orElse(null);
-                    if (match != null) {
-                        match.setOpponent(matchReplays.get(0).getOpponent());
-                        matchRepository.save(match);
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("Failed to update match ID: {} opponent, skipping: {}", matchId, e.getMessage());
+        // Update opponent on affected matches from their first replay. A match's replays all
+        // belong to this team, so they're already loaded; changes are flushed as one batch.
+        Map<Long, Replay> firstReplayByMatch = new HashMap<>();
+        for (Replay replay : replays) {
+            if (replay.getMatch() != null && affectedMatchIds.contains(replay.getMatch().getId())) {
+                firstReplayByMatch.merge(replay.getMatch().getId(), replay,
+                        (a, b) -> a.getId() <= b.getId() ? a : b);
             }
         }
+        for (Replay first : firstReplayByMatch.values()) {
+            first.getMatch().setOpponent(first.getOpponent());
+        }
+
+        // Usernames decide which side is the opponent; the backfill rebuilds the species index
+        opponentIndexService.invalidateTeam(teamId);
+        touchTeam(teamId);
 
         log.info("Reprocessed {} replays for team ID: {}, {} modified", replays.size(), teamId, modifiedCount);
         return modifiedCount;
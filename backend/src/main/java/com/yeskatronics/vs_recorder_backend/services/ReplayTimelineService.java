@@ -0,0 +1,85 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.ReplayDTO;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.utils.BattleLogParser;
+import com.yeskatronics.vs_recorder_backend.utils.LookupCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Compact turn-by-turn timelines for the replay view (GET /api/replays/{id}/timeline).
+ *
+ * A replay's battle log never changes, so each timeline is parsed once with
+ * {@link BattleLogParser#parseTimeline} and kept in a bounded {@link LookupCache} keyed by replay
+ * id. Callers can project the cached timeline down to the event kinds they render.
+ */
+@Service
+@Slf4j
+public class ReplayTimelineService {
+
+    /** Event kinds emitted by {@link BattleLogParser#parseTimeline}. */
+    public static final Set<String> KINDS = Set.of(
+            "switch", "move", "damage", "heal", "faint", "tera", "mega", "weather", "field", "side", "status");
+
+    private final ReplayRepository replayRepository;
+    private final LookupCache<Long, ReplayDTO.Timeline> timelines;
+
+    public ReplayTimelineService(
+            ReplayRepository replayRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.replay-timeline.cache-size:1000}") long cacheSize,
+            @Value("${app.replay-timeline.ttl:1h}") Duration ttl) {
+        this.replayRepository = replayRepository;
+        this.timelines = LookupCache.<Long, ReplayDTO.Timeline>create("replays.timelines", cacheSize, ttl, Duration.ofMinutes(1))
+                .withMetrics(meterRegistry);
+    }
+
+    /**
+     * Timeline of a replay, parsed on first request and then served from the cache.
+     *
+     * @param replayId the replay ID
+     * @param kinds event kinds to keep (see {@link #KINDS}); null or empty keeps all
+     * @return the timeline, or empty if the replay doesn't exist
+     * @throws IllegalArgumentException if {@code kinds} names an unknown event kind
+     */
+    public Optional<ReplayDTO.Timeline> getTimeline(Long replayId, Set<String> kinds) {
+        if (kinds != null && !KINDS.containsAll(kinds)) {
+            throw new IllegalArgumentException("Unknown timeline event kind; expected any of " + KINDS);
+        }
+        return timelines.get(replayId, this::buildTimeline)
+                .map(timeline -> kinds == null || kinds.isEmpty() ? timeline : project(timeline, kinds));
+    }
+
+    private ReplayDTO.Timeline buildTimeline(Long replayId) {
+        return replayRepository.findBattleLogById(replayId)
+                .map(battleLog -> {
+                    ReplayDTO.Timeline timeline = BattleLogParser.parseTimeline(battleLog);
+                    timeline.setReplayId(replayId);
+                    log.debug("Built timeline for replay {}: {} turns", replayId, timeline.getTurns().size());
+                    return timeline;
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Copy of the timeline keeping only events of the given kinds (the cached one is shared).
+     */
+    private static ReplayDTO.Timeline project(ReplayDTO.Timeline timeline, Set<String> kinds) {
+        List<ReplayDTO.TimelineTurn> turns = timeline.getTurns().stream()
+                .map(turn -> new ReplayDTO.TimelineTurn(turn.getTurn(), turn.getEvents().stream()
+                        .filter(event -> kinds.contains(event.getKind()))
+                        .collect(Collectors.toList())))
+                .collect(Collectors.toList());
+        return new ReplayDTO.Timeline(timeline.getReplayId(), timeline.getPlayers(), timeline.getWinner(),
+                timeline.getTurnCount(), turns);
+    }
+}
@@ -0,0 +1,46 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.resend.Resend;
+import com.resend.core.exception.ResendException;
+import com.resend.services.emails.model.CreateEmailOptions;
+import com.resend.services.emails.model.CreateEmailResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends email through the Resend API.
+ */
+@Component
+@ConditionalOnProperty(name = "app.email.transport", havingValue = "resend")
+@RequiredArgsConstructor
+@Slf4j
+public class ResendEmailTransport implements EmailTransport {
+
+    private final Resend resend;
+
+    @Value("${app.email.from:noreply@vsrecorder.app}")
+    private String fromEmail;
+
+    @Value("${app.email.from-name:VS Recorder}")
+    private String fromName;
+
+    @Override
+    public void send(String toEmail, String subject, String htmlBody) {
+        try {
+            CreateEmailOptions options = CreateEmailOptions.builder()
+                .from(fromName + " <" + fromEmail + ">")
+                .to(toEmail)
+                .subject(subject)
+                .html(htmlBody)
+                .build();
+
+            CreateEmailResponse response = resend.emails().send(options);
+            log.debug("Email sent successfully. ID: {}", response.getId());
+        } catch (ResendException e) {
+            throw new RuntimeException("Failed to send email via Resend: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yeskatronics.vs_recorder_backend.dto.ShowdownDTO;
@@ -7,7 +8,8 @@ import com.yeskatronics.vs_recorder_backend.entities.Team;
 import com.yeskatronics.vs_recorder_backend.entities.TeamMember;
 import com.yeskatronics.vs_recorder_backend.utils.PlayerIdentifier;
 import com.yeskatronics.vs_recorder_backend.utils.ReplayMatcher;
-import lombok.RequiredArgsConstructor;
+import com.yeskatronics.vs_recorder_backend.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -24,13 +26,22 @@ import java.util.stream.Collectors;
  * Handles communication with Pokemon Showdown API to retrieve battle logs.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ShowdownService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final PokemonService pokemonService;
+    private final SingleFlight<String, FetchedReplay> replayFetches;
+
+    public ShowdownService(RestTemplate restTemplate, ObjectMapper objectMapper,
+                           PokemonService pokemonService, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.pokemonService = pokemonService;
+        this.replayFetches = SingleFlight.<String, FetchedReplay>create("showdown.replays")
+                .withMetrics(meterRegistry);
+    }
 
     private static final String SHOWDOWN_REPLAY_BASE = "https://replay.pokemonshowdown.com";
     private static final Pattern REPLAY_URL_PATTERN = Pattern.compile(
@@ -153,35 +164,24 @@ public class ShowdownService {
         }
     }
 
+    /**
+     * The team-independent part of a replay: raw JSON plus the header fields read from it.
+     * Shared by every caller that fetched the same battle concurrently.
+     */
+    private record FetchedReplay(String battleLog, String player1, String player2, String format,
+                                 String winner, LocalDateTime date) {
+    }
+
     private ParsedReplay fetchAndParse(String replayUrl, Team team) throws Exception {
         Matcher matcher = REPLAY_URL_PATTERN.matcher(replayUrl);
         if (!matcher.find()) {
             throw new IllegalArgumentException("Invalid Pokemon Showdown replay URL");
         }
 
+        // Collaborators importing the same battle at once share one Showdown request and parse
         String battleId = matcher.group(1);
-        String jsonUrl = SHOWDOWN_REPLAY_BASE + "/" + battleId + ".json";
-
-        long startTime = System.currentTimeMillis();
-        log.debug("Fetching from: {}", jsonUrl);
-        String jsonResponse = restTemplate.getForObject(jsonUrl, String.class);
-        long fetchDuration = System.currentTimeMillis() - startTime;
-        log.info("Fetched replay JSON from Showdown in {}ms", fetchDuration);
-
-        if (jsonResponse == null || jsonResponse.isEmpty()) {
-            throw new IllegalArgumentException("Failed to fetch replay data");
-        }
-
-        JsonNode root = objectMapper.readTree(jsonResponse);
-        String battleLog = jsonResponse;
-
-        String player1 = root.get("players").get(0).asText();
-        String player2 = root.get("players").get(1).asText();
-        String format = root.path("format").asText();
-
-        String logText = root.path("log").asText();
-        String winner = extractWinner(logText);
-        LocalDateTime date = extractTimestamp(root);
+        FetchedReplay fetched = replayFetches.execute(battleId, () -> fetchReplay(battleId));
+        String battleLog = fetched.battleLog();
 
         List<String> registeredUsernames = team.getShowdownUsernames() == null
                 ? Collections.emptyList()
@@ -203,8 +203,39 @@ public class ShowdownService {
                 pokemonService
         );
 
-        return new ParsedReplay(battleLog, player1, player2, format, winner, date,
-                parsed, id, registeredUsernames, registeredRoster);
+        return new ParsedReplay(battleLog, fetched.player1(), fetched.player2(), fetched.format(),
+                fetched.winner(), fetched.date(), parsed, id, registeredUsernames, registeredRoster);
+    }
+
+    private FetchedReplay fetchReplay(String battleId) {
+        String jsonUrl = SHOWDOWN_REPLAY_BASE + "/" + battleId + ".json";
+
+        long startTime = System.currentTimeMillis();
+        log.debug("Fetching from: {}", jsonUrl);
+        String jsonResponse = restTemplate.getForObject(jsonUrl, String.class);
+        long fetchDuration = System.currentTimeMillis() - startTime;
+        log.info("Fetched replay JSON from Showdown in {}ms", fetchDuration);
+
+        if (jsonResponse == null || jsonResponse.isEmpty()) {
+            throw new IllegalArgumentException("Failed to fetch replay data");
+        }
+
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(jsonResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid replay JSON: " + e.getOriginalMessage(), e);
+        }
+
+        String player1 = root.get("players").get(0).asText();
+        String player2 = root.get("players").get(1).asText();
+        String format = root.path("format").asText();
+
+        String logText = root.path("log").asText();
+        String winner = extractWinner(logText);
+        LocalDateTime date = extractTimestamp(root);
+
+        return new FetchedReplay(jsonResponse, player1, player2, format, winner, date);
     }
 
     /**
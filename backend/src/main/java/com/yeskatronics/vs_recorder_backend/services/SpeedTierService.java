@@ -0,0 +1,505 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeskatronics.vs_recorder_backend.dto.PokemonEntry;
+import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
+import com.yeskatronics.vs_recorder_backend.dto.SpeedTierDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.utils.LookupCache;
+import com.yeskatronics.vs_recorder_backend.utils.PokemonRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Level 50 speed tiers per regulation, and where a team's actual speeds land in them.
+ *
+ * <p>Tables are built at startup from {@code regulation-species/reg*.json} (the same species lists
+ * {@code scripts/generate-speed-tiers.js} reads) and base speeds from the Pokemon registry. Like the
+ * script, listing a base species pulls in its Mega formes, and every species gets four benchmark
+ * spreads: max +Spe, max neutral, 0 neutral and 0 -Spe. Each table is three parallel primitive
+ * arrays sorted fastest first, so "how many rows outspeed X" under Tailwind, Choice Scarf or
+ * Trick Room is one binary search.
+ *
+ * <p>Team overlays follow the Speed Tiers page: speeds come from the team paste's speed EVs (read
+ * as Stat Points when no value exceeds 32), IVs and nature, times the held item's speed modifier,
+ * plus a second row for the Mega forme when the paste holds a Mega Stone. Overlays are cached by
+ * regulation and paste content hash.
+ */
+@Service
+@Slf4j
+public class SpeedTierService {
+
+    public enum Scenario { NEUTRAL, TAILWIND, SCARF, TRICK_ROOM }
+
+    private static final String SPECIES_RESOURCES = "classpath:regulation-species/reg*.json";
+    private static final Pattern REGULATION_CODE = Pattern.compile("([A-Z]-[A-Z])$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MEGA_SUFFIX = Pattern.compile("-Mega(-[XYZ])?$");
+    private static final Pattern MEGA_STONE = Pattern.compile(".+ite( [XYZ])?$");
+
+    private static final int LEVEL = 50;
+    private static final int MAX_EVS = 252;
+    private static final int MAX_SPS = 32;
+
+    private static final Set<String> PLUS_SPEED_NATURES = Set.of("Timid", "Hasty", "Jolly", "Naive");
+    private static final Set<String> MINUS_SPEED_NATURES = Set.of("Brave", "Relaxed", "Quiet", "Sassy");
+
+    /** Benchmark spreads as (EVs, nature direction), in the order the script emits them. */
+    private static final int[][] SPREADS = {{MAX_EVS, 1}, {MAX_EVS, 0}, {0, 0}, {0, -1}};
+
+    private static final Map<String, Double> ITEM_SPEED_MULTIPLIER = Map.of(
+            "Choice Scarf", 1.5,
+            "Iron Ball", 0.5,
+            "Macho Brace", 0.5,
+            "Power Anklet", 0.5,
+            "Power Band", 0.5,
+            "Power Belt", 0.5,
+            "Power Bracer", 0.5,
+            "Power Lens", 0.5,
+            "Power Weight", 0.5);
+
+    private final PokemonService pokemonService;
+    private final PokepasteService pokepasteService;
+    private final ObjectMapper objectMapper;
+    private final LookupCache<String, PokepasteDTO.PasteData> pasteCache;
+    private final LookupCache<String, List<SpeedTierDTO.OverlayRow>> overlayCache;
+
+    private volatile Map<String, SpeedTable> tables = Map.of();
+
+    public SpeedTierService(
+            PokemonService pokemonService,
+            PokepasteService pokepasteService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.speed-tiers.paste-ttl:10m}") Duration pasteTtl,
+            @Value("${app.speed-tiers.overlay-ttl:1d}") Duration overlayTtl) {
+        this.pokemonService = pokemonService;
+        this.pokepasteService = pokepasteService;
+        this.objectMapper = objectMapper;
+        this.pasteCache = LookupCache.<String, PokepasteDTO.PasteData>create(
+                        "speedtiers.pastes", 1000, pasteTtl, pasteTtl)
+                .withMetrics(meterRegistry);
+        this.overlayCache = LookupCache.<String, List<SpeedTierDTO.OverlayRow>>create(
+                        "speedtiers.overlays", 2000, overlayTtl, overlayTtl)
+                .withMetrics(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        long start = System.currentTimeMillis();
+        Map<String, List<Mega>> megasByBase = megasByBase(pokemonService.getRegistry());
+        Map<String, SpeedTable> built = new TreeMap<>();
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SPECIES_RESOURCES);
+            for (Resource resource : resources) {
+                String filename = resource.getFilename();
+                String regulation = filename.substring(3, filename.length() - ".json".length());
+                try (InputStream in = resource.getInputStream()) {
+                    built.put(regulation, buildTable(regulation, objectMapper.readTree(in), megasByBase));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to load regulation species lists: {}", e.getMessage(), e);
+        }
+        tables = Map.copyOf(built);
+        log.info("Built speed tiers for {} regulations in {}ms", built.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return regulation codes with a speed tier table, e.g. ["M-A", "M-B"]
+     */
+    public List<String> getRegulations() {
+        return tables.keySet().stream().sorted().toList();
+    }
+
+    /**
+     * The full table for a regulation, fastest first.
+     *
+     * @param regulation a code ("M-A") or team regulation ("VGC 2026 Regulation M-A")
+     * @throws IllegalArgumentException if there is no table for it
+     */
+    public SpeedTierDTO.TierTable getTable(String regulation) {
+        SpeedTable table = table(regulation);
+        List<SpeedTierDTO.TierEntry> entries = new ArrayList<>(table.size());
+        for (int row = 0; row < table.size(); row++) {
+            entries.add(table.entry(row));
+        }
+        return new SpeedTierDTO.TierTable(table.regulation, table.species.length, table.statUnit, entries);
+    }
+
+    /**
+     * Which rows act before a Pokemon with {@code speed} in each scenario. Scenarios apply to the
+     * opponent's side (their Tailwind, their Scarf); fold your own modifiers into {@code speed}.
+     *
+     * @param limit max rows listed per scenario, nearest to {@code speed} first
+     */
+    public SpeedTierDTO.SpeedCheckResponse checkSpeed(String regulation, int speed, int limit) {
+        SpeedTable table = table(regulation);
+        List<SpeedTierDTO.SpeedCheck> checks = new ArrayList<>();
+        for (Scenario scenario : Scenario.values()) {
+            checks.add(check(table, scenario, speed, limit));
+        }
+        return new SpeedTierDTO.SpeedCheckResponse(table.regulation, speed, table.size(), checks);
+    }
+
+    /**
+     * The team's paste speeds placed against the regulation's table.
+     *
+     * @param regulation table to use; defaults to the team's regulation
+     * @throws IllegalArgumentException if the team has no pokepaste or no table matches
+     */
+    public SpeedTierDTO.TeamOverlayResponse getTeamOverlay(Team team, String regulation) {
+        SpeedTable table = table(regulation != null && !regulation.isBlank() ? regulation : team.getRegulation());
+        if (team.getPokepaste() == null || team.getPokepaste().isEmpty()) {
+            throw new IllegalArgumentException("Team has no pokepaste URL");
+        }
+
+        PokepasteDTO.PasteData paste = pasteCache.get(team.getPokepaste(), pokepasteService::fetchPasteData)
+                .orElseThrow(() -> new IllegalArgumentException("Pokepaste not found: " + team.getPokepaste()));
+        String key = table.regulation + "|" + contentHash(paste);
+        List<SpeedTierDTO.OverlayRow> rows = overlayCache.get(key, k -> overlayRows(table, paste)).orElseThrow();
+
+        return new SpeedTierDTO.TeamOverlayResponse(team.getId(), table.regulation, table.statUnit,
+                table.size(), rows);
+    }
+
+    /**
+     * SHA-256 of the parsed team, so overlays are shared by identical pastes and never by two
+     * different ones.
+     */
+    private String contentHash(PokepasteDTO.PasteData paste) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(paste.getPokemon())));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash pokepaste", e);
+        }
+    }
+
+    /**
+     * Level 50 speed stat (the @smogon/calc formula: floors after the level and nature steps).
+     *
+     * @param natureDirection 1 for +Spe, -1 for -Spe, 0 for neutral
+     */
+    static int speedStat(int baseSpeed, int iv, int evs, int natureDirection) {
+        int stat = (2 * baseSpeed + iv + evs / 4) * LEVEL / 100 + 5;
+        if (natureDirection > 0) {
+            return stat * 110 / 100;
+        }
+        return natureDirection < 0 ? stat * 90 / 100 : stat;
+    }
+
+    private SpeedTable table(String regulation) {
+        if (regulation != null) {
+            SpeedTable table = tables.get(regulation);
+            if (table != null) {
+                return table;
+            }
+            Matcher code = REGULATION_CODE.matcher(regulation.trim());
+            if (code.find() && (table = tables.get(code.group(1).toUpperCase())) != null) {
+                return table;
+            }
+        }
+        throw new IllegalArgumentException("No speed tiers for regulation: " + regulation);
+    }
+
+    // ==================== Checks ====================
+
+    private static SpeedTierDTO.SpeedCheck check(SpeedTable table, Scenario scenario, int speed, int limit) {
+        int[] speeds = table.speed;
+        IntPredicate faster;
+        IntPredicate fasterOrTied;
+        switch (scenario) {
+            case TAILWIND -> {
+                faster = row -> speeds[row] * 2 > speed;
+                fasterOrTied = row -> speeds[row] * 2 >= speed;
+            }
+            case SCARF -> {
+                faster = row -> speeds[row] * 3 / 2 > speed;
+                fasterOrTied = row -> speeds[row] * 3 / 2 >= speed;
+            }
+            default -> {
+                faster = row -> speeds[row] > speed;
+                fasterOrTied = row -> speeds[row] >= speed;
+            }
+        }
+        int fasterEnd = table.prefixLength(faster);
+        int tiedEnd = table.prefixLength(fasterOrTied);
+
+        List<SpeedTierDTO.TierEntry> listed = new ArrayList<>();
+        int outspeedCount;
+        if (scenario == Scenario.TRICK_ROOM) {
+            // Slower rows move first; the nearest are right after the ties
+            outspeedCount = table.size() - tiedEnd;
+            for (int row = tiedEnd; row < table.size() && listed.size() < limit; row++) {
+                listed.add(table.entry(row));
+            }
+        } else {
+            outspeedCount = fasterEnd;
+            for (int row = fasterEnd - 1; row >= 0 && listed.size() < limit; row--) {
+                listed.add(table.entry(row));
+            }
+        }
+        return new SpeedTierDTO.SpeedCheck(scenario.name(), outspeedCount, tiedEnd - fasterEnd, listed);
+    }
+
+    // ==================== Team overlay ====================
+
+    private List<SpeedTierDTO.OverlayRow> overlayRows(SpeedTable table, PokepasteDTO.PasteData paste) {
+        boolean statPoints = paste.getPokemon().stream()
+                .flatMap(p -> p.getEvs().values().stream())
+                .allMatch(v -> v <= MAX_SPS);
+        String unit = statPoints ? "SPs" : "EVs";
+
+        List<SpeedTierDTO.OverlayRow> rows = new ArrayList<>();
+        for (PokepasteDTO.PokemonData pokemon : paste.getPokemon()) {
+            PokemonEntry entry = pokemonService.getEntry(pokemon.getSpecies());
+            if (entry == null) {
+                continue;
+            }
+            int invested = pokemon.getEvs().getOrDefault("Spe", 0);
+            int evs = statPoints ? Math.max(0, invested * 8 - 4) : invested;
+            int iv = statPoints ? 31 : pokemon.getIvs().getOrDefault("Spe", 31);
+            int nature = natureDirection(pokemon.getNature());
+            String spread = invested + " " + unit + " / " + polarity(nature);
+
+            PokemonEntry preMega = entry;
+            PokemonEntry mega = null;
+            Matcher megaSuffix = MEGA_SUFFIX.matcher(entry.name());
+            if (megaSuffix.find()) {
+                preMega = pokemonService.getEntry(entry.name().substring(0, megaSuffix.start()));
+                mega = entry;
+            } else {
+                mega = megaForStone(entry, pokemon.getItem());
+            }
+
+            if (preMega != null && preMega.baseSpeed() != null) {
+                double multiplier = itemSpeedMultiplier(pokemon.getItem(), preMega.name());
+                int speed = (int) Math.floor(speedStat(preMega.baseSpeed(), iv, evs, nature) * multiplier);
+                rows.add(overlayRow(table, preMega, multiplier != 1.0 ? spread + " / " + pokemon.getItem() : spread, speed));
+            }
+            if (mega != null && mega.baseSpeed() != null) {
+                rows.add(overlayRow(table, mega, spread, speedStat(mega.baseSpeed(), iv, evs, nature)));
+            }
+        }
+        return List.copyOf(rows);
+    }
+
+    private static SpeedTierDTO.OverlayRow overlayRow(SpeedTable table, PokemonEntry entry, String spread, int speed) {
+        int faster = table.prefixLength(row -> table.speed[row] > speed);
+        int fasterOrTied = table.prefixLength(row -> table.speed[row] >= speed);
+        return new SpeedTierDTO.OverlayRow(entry.name(), entry.baseSpeed(), spread, speed,
+                faster, fasterOrTied - faster);
+    }
+
+    /**
+     * The Mega forme a held stone evolves into, e.g. "Charizardite Y" on Charizard. Stones are
+     * recognized by name ("-ite", optionally followed by X/Y/Z), since the registry has no items.
+     */
+    private PokemonEntry megaForStone(PokemonEntry entry, String item) {
+        if (item == null || item.equals("Eviolite") || !MEGA_STONE.matcher(item).matches()) {
+            return null;
+        }
+        char last = item.charAt(item.length() - 1);
+        String suffix = item.charAt(item.length() - 2) == ' ' ? "-Mega-" + last : "-Mega";
+        PokemonEntry mega = pokemonService.getEntry(entry.name() + suffix);
+        return mega != null && MEGA_SUFFIX.matcher(mega.name()).find() ? mega : null;
+    }
+
+    private static double itemSpeedMultiplier(String item, String species) {
+        if (item == null) {
+            return 1.0;
+        }
+        if (item.equals("Quick Powder") && species.equals("Ditto")) {
+            return 2.0;
+        }
+        return ITEM_SPEED_MULTIPLIER.getOrDefault(item, 1.0);
+    }
+
+    private static int natureDirection(String nature) {
+        if (nature == null) {
+            return 0;
+        }
+        return PLUS_SPEED_NATURES.contains(nature) ? 1 : MINUS_SPEED_NATURES.contains(nature) ? -1 : 0;
+    }
+
+    private static String polarity(int natureDirection) {
+        return natureDirection > 0 ? "+Spe" : natureDirection < 0 ? "-Spe" : "Neutral";
+    }
+
+    // ==================== Table build ====================
+
+    private SpeedTable buildTable(String regulation, JsonNode speciesList, Map<String, List<Mega>> megasByBase) {
+        // Champions-era regulations (M-A onward) label investment as Stat Points; the math is the same
+        boolean statPoints = regulation.startsWith("M-");
+        String unit = statPoints ? "SPs" : "EVs";
+        int maxInvest = statPoints ? MAX_SPS : MAX_EVS;
+
+        Map<String, Integer> baseSpeeds = new LinkedHashMap<>();
+        for (JsonNode item : speciesList) {
+            String name = item.isTextual() ? item.asText() : item.path("species").asText(null);
+            if (name == null) {
+                continue;
+            }
+            Integer baseSpeed = item.path("baseSpeed").isInt() ? Integer.valueOf(item.get("baseSpeed").asInt()) : lookupBaseSpeed(name);
+            if (baseSpeed == null) {
+                log.warn("[{}] Skipping {}: no base speed in the registry", regulation, name);
+                continue;
+            }
+            baseSpeeds.putIfAbsent(name, baseSpeed);
+            for (Mega mega : megasByBase.getOrDefault(name, List.of())) {
+                baseSpeeds.putIfAbsent(mega.name, mega.baseSpeed);
+            }
+        }
+
+        String[] species = baseSpeeds.keySet().toArray(new String[0]);
+        short[] speciesBaseSpeed = new short[species.length];
+        for (int i = 0; i < species.length; i++) {
+            speciesBaseSpeed[i] = baseSpeeds.get(species[i]).shortValue();
+        }
+        String[] spreadLabels = new String[SPREADS.length];
+        for (int s = 0; s < SPREADS.length; s++) {
+            spreadLabels[s] = (SPREADS[s][0] > 0 ? maxInvest : 0) + " " + unit + " / " + polarity(SPREADS[s][1]);
+        }
+
+        int rows = species.length * SPREADS.length;
+        int[] rowSpeeds = new int[rows];
+        Integer[] order = new Integer[rows];
+        for (int i = 0; i < species.length; i++) {
+            for (int s = 0; s < SPREADS.length; s++) {
+                int row = i * SPREADS.length + s;
+                rowSpeeds[row] = speedStat(speciesBaseSpeed[i], 31, SPREADS[s][0], SPREADS[s][1]);
+                order[row] = row;
+            }
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(row -> -rowSpeeds[row])
+                .thenComparing(row -> species[row / SPREADS.length]));
+
+        int[] speed = new int[rows];
+        short[] rowSpecies = new short[rows];
+        byte[] rowSpread = new byte[rows];
+        for (int i = 0; i < rows; i++) {
+            speed[i] = rowSpeeds[order[i]];
+            rowSpecies[i] = (short) (order[i] / SPREADS.length);
+            rowSpread[i] = (byte) (order[i] % SPREADS.length);
+        }
+        return new SpeedTable(regulation, unit, species, speciesBaseSpeed, spreadLabels, speed, rowSpecies, rowSpread);
+    }
+
+    /**
+     * Base speed for a species list name. In-battle formes the registry doesn't list separately
+     * (e.g. "Aegislash-Shield") fall back to the base forme.
+     */
+    private Integer lookupBaseSpeed(String name) {
+        String candidate = name;
+        while (true) {
+            PokemonEntry entry = pokemonService.getEntry(candidate);
+            if (entry != null && entry.baseSpeed() != null) {
+                return entry.baseSpeed();
+            }
+            int hyphen = candidate.lastIndexOf('-');
+            if (hyphen <= 0) {
+                return null;
+            }
+            candidate = candidate.substring(0, hyphen);
+        }
+    }
+
+    /**
+     * Mega formes keyed by the species name they evolve from ("Charizard" → Mega X and Y).
+     * "-Mega-Z" formes aren't available yet and are left out, as in the generator script.
+     */
+    private static Map<String, List<Mega>> megasByBase(PokemonRegistry registry) {
+        Map<String, List<Mega>> megas = new HashMap<>();
+        for (int i = 0; i < registry.size(); i++) {
+            PokemonEntry entry = registry.entryAt(i);
+            int idx = entry.name().indexOf("-Mega");
+            if (idx > 0 && !entry.name().endsWith("-Mega-Z") && entry.baseSpeed() != null) {
+                megas.computeIfAbsent(entry.name().substring(0, idx), k -> new ArrayList<>())
+                        .add(new Mega(entry.name(), entry.baseSpeed()));
+            }
+        }
+        return megas;
+    }
+
+    private record Mega(String name, int baseSpeed) {}
+
+    /**
+     * One regulation's rows as parallel arrays, sorted by speed descending then species name.
+     * A row's species and spread are indices into {@code species} and {@code spreadLabels}.
+     */
+    private static final class SpeedTable {
+        final String regulation;
+        final String statUnit;
+        final String[] species;
+        final short[] baseSpeed;
+        final String[] spreadLabels;
+        final int[] speed;
+        final short[] rowSpecies;
+        final byte[] rowSpread;
+
+        SpeedTable(String regulation, String statUnit, String[] species, short[] baseSpeed,
+                   String[] spreadLabels, int[] speed, short[] rowSpecies, byte[] rowSpread) {
+            this.regulation = regulation;
+            this.statUnit = statUnit;
+            this.species = species;
+            this.baseSpeed = baseSpeed;
+            this.spreadLabels = spreadLabels;
+            this.speed = speed;
+            this.rowSpecies = rowSpecies;
+            this.rowSpread = rowSpread;
+        }
+
+        int size() {
+            return speed.length;
+        }
+
+        SpeedTierDTO.TierEntry entry(int row) {
+            int s = rowSpecies[row];
+            return new SpeedTierDTO.TierEntry(species[s], baseSpeed[s], spreadLabels[rowSpread[row]], speed[row]);
+        }
+
+        /**
+         * Length of the leading run of rows matching {@code predicate}, which must hold for a
+         * prefix of the table (true for faster rows, false once rows get too slow).
+         */
+        int prefixLength(IntPredicate predicate) {
+            int lo = 0;
+            int hi = speed.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (predicate.test(mid)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
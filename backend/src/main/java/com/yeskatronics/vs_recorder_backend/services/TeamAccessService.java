@@ -12,6 +12,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Central authority for "can this user do X on this team?"
  *
@@ -64,6 +69,57 @@ public class TeamAccessService {
         return new TeamAccess(team, Role.COLLABORATOR, membership);
     }
 
+    /**
+     * The team's {@code updatedAt} with the caller's role and permissions, read with one projection
+     * query instead of loading the team and membership ({@link #resolve}). Empty when the team
+     * doesn't exist or the user has no access.
+     */
+    public Optional<AccessVersion> resolveVersion(Long teamId, Long userId) {
+        return toVersion(teamRepository.findAccessStamp(teamId, userId, Status.ACCEPTED), userId);
+    }
+
+    /**
+     * {@link #resolveVersion} for the team that owns a replay, in the same single query.
+     */
+    public Optional<AccessVersion> resolveVersionByReplay(Long replayId, Long userId) {
+        return toVersion(teamRepository.findAccessStampByReplayId(replayId, userId, Status.ACCEPTED), userId);
+    }
+
+    /**
+     * {@link #resolveVersion} for the team that owns a match, in the same single query.
+     */
+    public Optional<AccessVersion> resolveVersionByMatch(Long matchId, Long userId) {
+        return toVersion(teamRepository.findAccessStampByMatchId(matchId, userId, Status.ACCEPTED), userId);
+    }
+
+    private static Optional<AccessVersion> toVersion(Optional<TeamRepository.AccessStamp> found, Long userId) {
+        return found.flatMap(stamp -> {
+            if (userId.equals(stamp.ownerId())) {
+                return Optional.of(new AccessVersion(
+                        stamp.teamId(), stamp.updatedAt(), Role.OWNER, EnumSet.allOf(Permission.class)));
+            }
+            if (stamp.collaboratorId() == null) {
+                return Optional.empty();
+            }
+            Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+            for (Permission permission : Permission.values()) {
+                Boolean granted = switch (permission) {
+                    case ADD_REPLAYS -> stamp.canAddReplays();
+                    case DELETE_REPLAYS -> stamp.canDeleteReplays();
+                    case EDIT_REPLAY_NOTES -> stamp.canEditReplayNotes();
+                    case EDIT_TEAM_MEMBER_NOTES -> stamp.canEditTeamMemberNotes();
+                    case EDIT_TEAM_MEMBER_CALCS -> stamp.canEditTeamMemberCalcs();
+                    case EDIT_TEAM_DETAILS -> stamp.canEditTeamDetails();
+                    case EDIT_GAME_PLANS -> stamp.canEditGamePlans();
+                };
+                if (Boolean.TRUE.equals(granted)) {
+                    permissions.add(permission);
+                }
+            }
+            return Optional.of(new AccessVersion(stamp.teamId(), stamp.updatedAt(), Role.COLLABORATOR, permissions));
+        });
+    }
+
     /**
      * Owner-only gate. Throws if the caller is not the team owner.
      */
@@ -124,4 +180,15 @@ public class TeamAccessService {
             return role == Role.OWNER;
         }
     }
+
+    /**
+     * Result of {@link #resolveVersion}: what a team read's response depends on for one caller.
+     */
+    @Value
+    public static class AccessVersion {
+        Long teamId;
+        LocalDateTime updatedAt;
+        Role role;
+        Set<Permission> permissions;
+    }
 }
@@ -261,11 +261,7 @@ public class TeamCollaboratorService {
     private void sendInviteEmail(TeamCollaborator invite, Team team, User owner) {
         String acceptUrl = frontendUrl + "/invites/" + invite.getInviteToken();
         String ownerName = owner != null ? owner.getUsername() : "Someone";
-        try {
-            emailService.sendCollaborationInvite(invite.getInviteEmail(), ownerName, team.getName(), acceptUrl);
-        } catch (RuntimeException e) {
-            // We don't want a flaky mail provider to roll back the invite row.
-            log.error("Failed to send collaboration invite email for invite {}: {}", invite.getId(), e.getMessage());
-        }
+        // Queued in the outbox with the invite row; delivery failures are retried by the dispatcher
+        emailService.sendCollaborationInvite(invite.getInviteEmail(), ownerName, team.getName(), acceptUrl);
     }
 }
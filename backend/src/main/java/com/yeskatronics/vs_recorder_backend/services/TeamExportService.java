@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yeskatronics.vs_recorder_backend.dto.ExportDTO;
 import com.yeskatronics.vs_recorder_backend.entities.*;
 import com.yeskatronics.vs_recorder_backend.repositories.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -37,9 +39,8 @@ public class TeamExportService {
     private final TeamMemberRepository teamMemberRepository;
     private final TeamAccessService teamAccessService;
     private final ObjectMapper objectMapper;
-
-    // Rate limiting: 10 codes per user per day
-    private static final int DAILY_CODE_LIMIT = 10;
+    private final MeterRegistry meterRegistry;
+    private final RateLimitService rateLimitService;
 
     // Characters for code generation (excluding ambiguous: 0,1,I,O)
     private static final String CODE_CHARACTERS = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
@@ -155,9 +156,22 @@ public class TeamExportService {
     public ExportDTO.ExportCodeResponse generateExportCode(Long teamId, Long userId, ExportDTO.ExportOptions options) {
         log.info("Generating export code for team ID: {}", teamId);
 
-        // Check rate limit
-        checkRateLimit(userId);
+        // Take a token from the user's daily bucket; given back below unless a new code is stored
+        rateLimitService.acquire(RateLimitService.Policy.EXPORT_CODE, String.valueOf(userId),
+                () -> countCodesInLastDay(userId));
+        boolean created = false;
+        try {
+            ExportDTO.ExportCodeResponse response = createExportCode(teamId, userId, options);
+            created = !response.isExisting();
+            return response;
+        } finally {
+            if (!created) {
+                rateLimitService.refund(RateLimitService.Policy.EXPORT_CODE, String.valueOf(userId));
+            }
+        }
+    }
 
+    private ExportDTO.ExportCodeResponse createExportCode(Long teamId, Long userId, ExportDTO.ExportOptions options) {
         // Compile export data
         ExportDTO.ExportData exportData = compileExportData(teamId, userId, options);
 
@@ -169,6 +183,16 @@ public class TeamExportService {
             throw new RuntimeException("Failed to serialize export data", e);
         }
 
+        DistributionSummary.builder("team.export.size")
+                .description("Size of serialized team exports")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(jsonData.length());
+        DistributionSummary.builder("team.export.replays")
+                .description("Replays included per team export")
+                .register(meterRegistry)
+                .record(exportData.getReplays() != null ? exportData.getReplays().size() : 0);
+
         // Calculate checksum
         String checksum = calculateChecksum(jsonData);
 
@@ -220,11 +244,34 @@ public class TeamExportService {
                 .build();
     }
 
+    /**
+     * ETag for an export's payload, read without loading it (for If-None-Match). Fails like
+     * {@link #getExportByCode} for unknown or expired codes.
+     */
+    @Transactional(readOnly = true)
+    public String getExportEtag(String code) {
+        TeamExportRepository.ExportVersion version = teamExportRepository.findVersionByCode(code.toUpperCase().trim())
+                .orElseThrow(() -> new IllegalArgumentException("Export not found with code: " + code));
+
+        if (version.expiresAt() != null && version.expiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Export code has expired");
+        }
+        return etag(version.id(), version.dataChecksum());
+    }
+
     /**
      * Get export data by share code
      */
     @Transactional(readOnly = true)
     public ExportDTO.ExportData getExportByCode(String code) {
+        return getVersionedExport(code).data();
+    }
+
+    /**
+     * Get export data by share code together with its ETag, from the same row
+     */
+    @Transactional(readOnly = true)
+    public VersionedExport getVersionedExport(String code) {
         log.info("Fetching export by code: {}", code);
 
         String normalizedCode = code.toUpperCase().trim();
@@ -238,25 +285,42 @@ public class TeamExportService {
         }
 
         try {
-            return objectMapper.readValue(export.getExportData(), ExportDTO.ExportData.class);
+            return new VersionedExport(
+                    etag(export.getId(), export.getDataChecksum()),
+                    objectMapper.readValue(export.getExportData(), ExportDTO.ExportData.class));
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Failed to parse export data", e);
         }
     }
 
     /**
-     * Get rate limit status for a user
+     * Exports are never modified once created, so the id and content checksum identify the body;
+     * weak, so the response can still be gzipped.
+     */
+    private static String etag(Long id, String dataChecksum) {
+        return "W/\"" + id + (dataChecksum != null ? "-" + dataChecksum : "") + "\"";
+    }
+
+    /**
+     * An export's payload and the ETag it is served with.
+     */
+    public record VersionedExport(String etag, ExportDTO.ExportData data) {
+    }
+
+    /**
+     * Get rate limit status for a user. The limit is a rolling 24 hours, so {@code resetsAt} is
+     * when every code slot is free again.
      */
     @Transactional(readOnly = true)
     public ExportDTO.RateLimitStatus getRateLimitStatus(Long userId) {
-        LocalDateTime dayStart = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        int codesCreatedToday = teamExportRepository.countByUserIdAndCreatedAtAfter(userId, dayStart);
+        RateLimitService.Status status = rateLimitService.status(RateLimitService.Policy.EXPORT_CODE,
+                String.valueOf(userId), () -> countCodesInLastDay(userId));
 
         return ExportDTO.RateLimitStatus.builder()
-                .codesCreatedToday(codesCreatedToday)
-                .dailyLimit(DAILY_CODE_LIMIT)
-                .remaining(Math.max(0, DAILY_CODE_LIMIT - codesCreatedToday))
-                .resetsAt(dayStart.plusDays(1))
+                .codesCreatedToday(status.capacity() - status.remaining())
+                .dailyLimit(status.capacity())
+                .remaining(status.remaining())
+                .resetsAt(LocalDateTime.now().plus(status.untilFull()))
                 .build();
     }
 
@@ -294,15 +358,11 @@ public class TeamExportService {
 
     // ==================== Private Helper Methods ====================
 
-    private void checkRateLimit(Long userId) {
-        LocalDateTime dayStart = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        int codesCreatedToday = teamExportRepository.countByUserIdAndCreatedAtAfter(userId, dayStart);
-
-        if (codesCreatedToday >= DAILY_CODE_LIMIT) {
-            throw new IllegalStateException(
-                    String.format("Rate limit exceeded. You can create up to %d export codes per day. Try again tomorrow.",
-                            DAILY_CODE_LIMIT));
-        }
+    /**
+     * Cold-start seed for the export code bucket, only queried when the bucket isn't in memory.
+     */
+    private int countCodesInLastDay(Long userId) {
+        return teamExportRepository.countByUserIdAndCreatedAtAfter(userId, LocalDateTime.now().minusDays(1));
     }
 
     private String generateUniqueCode() {
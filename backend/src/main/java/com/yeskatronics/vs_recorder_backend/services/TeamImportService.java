@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yeskatronics.vs_recorder_backend.dto.ExportDTO;
 import com.yeskatronics.vs_recorder_backend.entities.*;
 import com.yeskatronics.vs_recorder_backend.repositories.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,7 @@ public class TeamImportService {
     private final TeamMemberRepository teamMemberRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     // Validation patterns
     private static final Pattern POKEPASTE_URL_PATTERN = Pattern.compile(
@@ -64,6 +67,12 @@ public class TeamImportService {
     public ExportDTO.ImportResult importFromJson(String jsonData, Long userId) {
         log.info("Importing team from JSON for user: {}", userId);
 
+        DistributionSummary.builder("team.import.size")
+                .description("Size of team JSON imports")
+                .baseUnit("bytes")
+                .register(meterRegistry)
+                .record(jsonData != null ? jsonData.length() : 0);
+
         // Parse JSON
         ExportDTO.ExportData exportData;
         try {
@@ -118,6 +127,10 @@ public class TeamImportService {
             }
 
             long duration = System.currentTimeMillis() - startTime;
+            DistributionSummary.builder("team.import.replays")
+                    .description("Replays imported per team import")
+                    .register(meterRegistry)
+                    .record(replaysImported);
             log.info("Completed replay import in {}ms: {} succeeded out of {}",
                      duration, replaysImported, exportData.getReplays().size());
         }
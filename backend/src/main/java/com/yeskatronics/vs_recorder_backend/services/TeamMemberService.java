@@ -24,6 +24,7 @@ public class TeamMemberService {
     private final TeamMemberRepository teamMemberRepository;
     private final TeamRepository teamRepository;
     private final TeamService teamService;
+    private final OpponentIndexService opponentIndexService;
 
     public TeamMember createTeamMember(TeamMember teamMember, Long teamId) {
         log.info("Creating team member for team ID: {}", teamId);
@@ -34,6 +35,8 @@ public class TeamMemberService {
         teamMember.setTeam(team);
 
         TeamMember saved = teamMemberRepository.save(teamMember);
+        opponentIndexService.invalidateTeam(teamId);
+        teamService.touchTeam(teamId);
         log.info("Team member created with ID: {}", saved.getId());
         return saved;
     }
@@ -74,15 +77,18 @@ public class TeamMemberService {
     public void deleteTeamMember(Long id) {
         log.info("Deleting team member ID: {}", id);
 
-        if (!teamMemberRepository.existsById(id)) {
-            throw new IllegalArgumentException("Team member not found with ID: " + id);
-        }
+        TeamMember existing = teamMemberRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Team member not found with ID: " + id));
 
-        teamMemberRepository.deleteById(id);
+        teamMemberRepository.delete(existing);
+        opponentIndexService.invalidateTeam(existing.getTeam().getId());
+        teamService.touchTeam(existing.getTeam().getId());
     }
 
     public void deleteByTeamId(Long teamId) {
         log.info("Deleting all team members for team ID: {}", teamId);
         teamMemberRepository.deleteByTeamId(teamId);
+        opponentIndexService.invalidateTeam(teamId);
+        teamService.touchTeam(teamId);
     }
 }
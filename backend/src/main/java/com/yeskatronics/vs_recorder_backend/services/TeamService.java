@@ -7,6 +7,8 @@ import com.yeskatronics.vs_recorder_backend.entities.Team;
 import com.yeskatronics.vs_recorder_backend.entities.TeamMember;
 import com.yeskatronics.vs_recorder_backend.entities.User;
 import com.yeskatronics.vs_recorder_backend.repositories.FolderRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.MatchRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.TeamMemberRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
@@ -33,9 +35,13 @@ public class TeamService {
     private final TeamRepository teamRepository;
     private final TeamMemberRepository teamMemberRepository;
     private final FolderRepository folderRepository;
+    private final MatchRepository matchRepository;
+    private final ReplayRepository replayRepository;
     private final UserRepository userRepository;
     private final ReplayService replayService;
+    private final OpponentIndexService opponentIndexService;
     private final PokepasteService pokepasteService;
+    private final CascadeDeleteService cascadeDeleteService;
     private final EntityManager entityManager;
 
     /**
@@ -250,7 +256,7 @@ public class TeamService {
     }
 
     /**
-     * Delete a team (cascades to replays and matches)
+     * Delete a team with bulk statements (replays, matches, members, etc.)
      *
      * @param id the team ID
      * @param userId the user ID (for ownership verification)
@@ -263,7 +269,7 @@ public class TeamService {
             throw new IllegalArgumentException("Team not found with ID: " + id);
         }
 
-        teamRepository.deleteById(id);
+        cascadeDeleteService.deleteTeam(id);
         log.info("Team deleted successfully: {}", id);
     }
 
@@ -296,6 +302,40 @@ public class TeamService {
         return new TeamStats(teamId, totalGames, (int) wins, (int) losses, winRate);
     }
 
+    /**
+     * Replay count, match count and win rate for each team, in two grouped queries instead of
+     * loading every team's replays. Used by team list views.
+     *
+     * @param teams the teams to summarize
+     * @return counts by team ID (zeros for teams with no games)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, SummaryCounts> getSummaryCounts(Collection<Team> teams) {
+        Map<Long, SummaryCounts> counts = new HashMap<>();
+        if (teams.isEmpty()) {
+            return counts;
+        }
+        List<Long> teamIds = teams.stream().map(Team::getId).toList();
+
+        Map<Long, Long> matches = new HashMap<>();
+        for (MatchRepository.TeamMatchCount row : matchRepository.countByTeamIds(teamIds)) {
+            matches.put(row.teamId(), row.matches());
+        }
+        Map<Long, ReplayRepository.TeamCount> games = new HashMap<>();
+        for (ReplayRepository.TeamCount row : replayRepository.countGamesByTeam(teamIds)) {
+            games.put(row.teamId(), row);
+        }
+
+        for (Long teamId : teamIds) {
+            ReplayRepository.TeamCount game = games.get(teamId);
+            long total = game != null ? game.games() : 0;
+            long wins = game != null && game.wins() != null ? game.wins() : 0;
+            double winRate = total > 0 ? (double) wins / total * 100 : 0.0;
+            counts.put(teamId, new SummaryCounts((int) total, matches.getOrDefault(teamId, 0L).intValue(), winRate));
+        }
+        return counts;
+    }
+
     /**
      * Count teams for a user
      *
@@ -309,8 +349,9 @@ public class TeamService {
 
     /**
      * Bump the team's updatedAt timestamp to reflect activity on a child entity
-     * (replay, team member notes, matchup planner). Silently no-ops if the team
-     * does not exist.
+     * (replay, match, team member, matchup planner). Silently no-ops if the team
+     * does not exist. ETags of team-scoped reads are derived from it (see
+     * TeamETagInterceptor), so every write to a team's data must end up here.
      */
     public void touchTeam(Long teamId) {
         teamRepository.findById(teamId).ifPresent(team -> {
@@ -410,6 +451,12 @@ public class TeamService {
             }
         }
 
+        // The roster helps identify which replay side is the owner's
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            opponentIndexService.invalidateTeam(teamId);
+        }
+        team.setUpdatedAt(LocalDateTime.now());
+
         log.info("Sync complete for team {}: kept={}, added={}, removed={}", teamId, kept, added, removed);
         return new SyncResult(resultMembers, kept, added, removed);
     }
@@ -448,6 +495,12 @@ public class TeamService {
         return teamRepository.save(team);
     }
 
+    /**
+     * Totals shown on a team list entry
+     */
+    public record SummaryCounts(int replayCount, int matchCount, double winRate) {
+    }
+
     /**
      * Inner class to hold team statistics
      */
@@ -0,0 +1,474 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
+import com.yeskatronics.vs_recorder_backend.dto.TournamentTeamDTO;
+import com.yeskatronics.vs_recorder_backend.exceptions.UpstreamUnavailableException;
+import com.yeskatronics.vs_recorder_backend.utils.LookupCache;
+import com.yeskatronics.vs_recorder_backend.utils.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Recent tournament top teams from LabMaus ({@code GET /api/top_teams}), cached in memory for the
+ * Matchup Planner.
+ *
+ * <p>The upstream answer is ~2 MB per regulation and takes over a second, so it is never fetched
+ * per request. A scheduled refresh ({@code app.labmaus.refresh-interval}) fetches each configured
+ * regulation over the last {@code app.labmaus.window-days} days and trims it the same way
+ * {@code scripts/generate-tournament-teams.js} does: pokepast.es teams only, at most
+ * {@code app.labmaus.max-teams-per-cluster} per cluster, gender symbols mapped to "-M"/"-F".
+ * Each snapshot is kept as gzipped JSON with an ETag, plus a species → cluster index for searches.
+ * A failed refresh keeps serving the previous snapshot.
+ *
+ * <p>Pastes behind a team's {@code pokepasteUrl} are only fetched when asked for
+ * ({@link #resolvePaste}) and cached by URL.
+ */
+@Service
+@Slf4j
+public class TournamentTeamService {
+
+    private static final Pattern POKEPASTE_URL = Pattern.compile("^https?://(www\\.)?pokepast\\.es/.*");
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final PokemonService pokemonService;
+    private final PokepasteService pokepasteService;
+    private final LookupCache<String, PokepasteDTO.PasteData> pasteCache;
+
+    private final String baseUrl;
+    private final String token;
+    private final List<String> regulations;
+    private final int windowDays;
+    private final int maxTeamsPerCluster;
+    private final boolean refreshEnabled;
+    private final Duration retryBackoff;
+
+    private final Map<String, CachedSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastFailure = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Boolean> refreshes;
+
+    public TournamentTeamService(
+            RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            PokemonService pokemonService,
+            PokepasteService pokepasteService,
+            MeterRegistry meterRegistry,
+            @Value("${app.labmaus.base-url:https://labmaus.net}") String baseUrl,
+            @Value("${app.labmaus.token:}") String token,
+            @Value("${app.labmaus.regulations:M-A,M-B}") List<String> regulations,
+            @Value("${app.labmaus.window-days:60}") int windowDays,
+            @Value("${app.labmaus.max-teams-per-cluster:20}") int maxTeamsPerCluster,
+            @Value("${app.labmaus.refresh-enabled:true}") boolean refreshEnabled,
+            @Value("${app.labmaus.retry-backoff:1m}") Duration retryBackoff,
+            @Value("${app.labmaus.paste-ttl:1d}") Duration pasteTtl) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.pokemonService = pokemonService;
+        this.pokepasteService = pokepasteService;
+        this.pasteCache = LookupCache.<String, PokepasteDTO.PasteData>create(
+                        "labmaus.pastes", 2000, pasteTtl, pasteTtl)
+                .withMetrics(meterRegistry);
+        this.refreshes = SingleFlight.<String, Boolean>create("labmaus.top-teams").withMetrics(meterRegistry);
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.regulations = List.copyOf(regulations);
+        this.windowDays = windowDays;
+        this.maxTeamsPerCluster = maxTeamsPerCluster;
+        this.refreshEnabled = refreshEnabled;
+        this.retryBackoff = retryBackoff;
+
+        meterRegistry.gauge("labmaus.snapshots", snapshots, Map::size);
+        if (refreshEnabled && token.isBlank()) {
+            log.warn("No LabMaus token configured (LABMAUS_TOKEN); scheduled tournament team refresh is disabled");
+        }
+    }
+
+    /**
+     * Re-fetch every configured regulation. Failures are logged and the old snapshot kept.
+     * Skipped without a LabMaus token.
+     */
+    @Scheduled(initialDelayString = "${app.labmaus.initial-delay:30s}",
+            fixedDelayString = "${app.labmaus.refresh-interval:6h}")
+    public void refreshAll() {
+        if (!refreshEnabled || token.isBlank()) {
+            return;
+        }
+        for (String regulation : regulations) {
+            refresh(regulation);
+        }
+    }
+
+    /**
+     * Fetch one regulation from LabMaus and replace its snapshot.
+     *
+     * @return true if the snapshot was replaced
+     */
+    public boolean refresh(String regulation) {
+        String code = requireRegulation(regulation);
+        // A scheduled refresh and first-request loads for the same regulation share one fetch
+        return refreshes.execute(code, () -> fetchAndStore(code));
+    }
+
+    private boolean fetchAndStore(String code) {
+        try {
+            CachedSnapshot snapshot = build(fetch(code));
+            snapshots.put(code, snapshot);
+            lastFailure.remove(code);
+            log.info("Cached LabMaus top teams for {}: {} clusters, {} teams, {} bytes gzipped",
+                    code, snapshot.clusterCount, snapshot.teamCount, snapshot.jsonGzip.length);
+            return true;
+        } catch (RestClientException | IllegalStateException e) {
+            lastFailure.put(code, Instant.now());
+            log.warn("Failed to refresh LabMaus top teams for {}: {}", code, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Summaries of the regulations currently cached.
+     */
+    public List<TournamentTeamDTO.RegulationSummary> getRegulations() {
+        List<TournamentTeamDTO.RegulationSummary> summaries = new ArrayList<>();
+        for (String code : regulations) {
+            CachedSnapshot cached = snapshots.get(code);
+            if (cached != null) {
+                TournamentTeamDTO.Snapshot snapshot = cached.snapshot;
+                summaries.add(new TournamentTeamDTO.RegulationSummary(snapshot.getRegulation(),
+                        snapshot.getLabmausRegulation(), snapshot.getDateRange(), snapshot.getGeneratedAt(),
+                        cached.clusterCount, cached.teamCount));
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * The serialized snapshot for a regulation, fetching it first if it isn't cached yet.
+     *
+     * @throws IllegalArgumentException if the regulation isn't configured
+     * @throws UpstreamUnavailableException if nothing is cached and LabMaus can't be reached
+     */
+    public CachedSnapshot getSnapshot(String regulation) {
+        return current(requireRegulation(regulation));
+    }
+
+    /**
+     * Clusters whose core contains every requested species, in snapshot order.
+     */
+    public List<TournamentTeamDTO.ClusterMatch> findClusters(String regulation, List<String> species) {
+        CachedSnapshot cached = getSnapshot(regulation);
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : species) {
+            if (name != null && !name.isBlank()) {
+                wanted.add(pokemonService.resolveAnalyticsName(normalizePokemonName(name.trim())));
+            }
+        }
+        if (wanted.isEmpty()) {
+            return List.of();
+        }
+
+        // Intersect the (sorted) posting lists, smallest first
+        List<int[]> postings = new ArrayList<>(wanted.size());
+        for (String name : wanted) {
+            postings.add(cached.speciesIndex.getOrDefault(name, new int[0]));
+        }
+        postings.sort(Comparator.comparingInt(p -> p.length));
+        int[] refs = postings.get(0);
+        for (int i = 1; i < postings.size() && refs.length > 0; i++) {
+            refs = intersect(refs, postings.get(i));
+        }
+
+        List<TournamentTeamDTO.ClusterMatch> matches = new ArrayList<>(refs.length);
+        for (int ref : refs) {
+            TournamentTeamDTO.Composition composition =
+                    cached.snapshot.getCompositions().get(ref >>> 16);
+            int clusterIndex = ref & 0xFFFF;
+            matches.add(new TournamentTeamDTO.ClusterMatch(composition.getSize(), clusterIndex,
+                    composition.getClusters().get(clusterIndex)));
+        }
+        return matches;
+    }
+
+    /**
+     * Fetch (or reuse) the paste behind one tournament team.
+     *
+     * @param size         composition size of the cluster
+     * @param clusterIndex index of the cluster within that composition
+     * @param teamIndex    index of the team within the cluster
+     * @throws IllegalArgumentException if the team doesn't exist or the paste can't be fetched
+     */
+    public PokepasteDTO.PasteData resolvePaste(String regulation, int size, int clusterIndex, int teamIndex) {
+        CachedSnapshot cached = getSnapshot(regulation);
+        TournamentTeamDTO.Composition composition = cached.snapshot.getCompositions().stream()
+                .filter(c -> c.getSize() == size)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No composition of size " + size));
+        List<TournamentTeamDTO.Cluster> clusters = composition.getClusters();
+        if (clusterIndex < 0 || clusterIndex >= clusters.size()) {
+            throw new IllegalArgumentException("Cluster not found: " + clusterIndex);
+        }
+        List<TournamentTeamDTO.Team> teams = clusters.get(clusterIndex).getTeams();
+        if (teamIndex < 0 || teamIndex >= teams.size()) {
+            throw new IllegalArgumentException("Team not found: " + teamIndex);
+        }
+
+        String url = teams.get(teamIndex).getPokepasteUrl();
+        return pasteCache.get(url, pokepasteService::fetchPasteData)
+                .orElseThrow(() -> new IllegalArgumentException("Paste not found: " + url));
+    }
+
+    private CachedSnapshot current(String code) {
+        CachedSnapshot cached = snapshots.get(code);
+        if (cached != null) {
+            return cached;
+        }
+        if (!recentlyFailed(code) && refresh(code)) {
+            cached = snapshots.get(code);
+        }
+        if (cached == null) {
+            throw new UpstreamUnavailableException(
+                    "Couldn't reach LabMaus for " + code + " tournament teams, please try again later");
+        }
+        return cached;
+    }
+
+    private boolean recentlyFailed(String code) {
+        Instant failedAt = lastFailure.get(code);
+        return failedAt != null && failedAt.plus(retryBackoff).isAfter(Instant.now());
+    }
+
+    private String requireRegulation(String regulation) {
+        if (regulation == null || !regulations.contains(regulation)) {
+            throw new IllegalArgumentException("Unsupported regulation: " + regulation);
+        }
+        return regulation;
+    }
+
+    // ==================== Upstream ====================
+
+    private TournamentTeamDTO.Snapshot fetch(String code) {
+        String labmausRegulation = "Regulation Set " + code;
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+        TournamentTeamDTO.DateRange dateRange =
+                new TournamentTeamDTO.DateRange(to.minusDays(windowDays).toString(), to.toString());
+
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/api/top_teams")
+                .queryParam("regulation", labmausRegulation)
+                .queryParam("date_range", dateRange.getFrom() + " to " + dateRange.getTo())
+                .queryParam("language", "en")
+                .encode()
+                .build()
+                .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (!token.isBlank()) {
+            headers.setBearerAuth(token);
+        }
+        log.info("Fetching LabMaus top teams for {} ({} to {})", code, dateRange.getFrom(), dateRange.getTo());
+        JsonNode raw = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), JsonNode.class)
+                .getBody();
+        if (raw == null || !raw.isArray()) {
+            throw new IllegalStateException("Unexpected LabMaus response for " + code + ": expected an array");
+        }
+
+        List<TournamentTeamDTO.Composition> compositions = new ArrayList<>();
+        for (JsonNode bucket : raw) {
+            if (!bucket.path("composition").isNumber()) {
+                continue;
+            }
+            List<TournamentTeamDTO.Cluster> clusters = new ArrayList<>();
+            for (JsonNode cluster : bucket.path("teams")) {
+                clusters.add(trimCluster(cluster));
+            }
+            compositions.add(new TournamentTeamDTO.Composition(bucket.get("composition").asInt(), clusters));
+        }
+        compositions.sort(Comparator.comparingInt(TournamentTeamDTO.Composition::getSize));
+
+        return new TournamentTeamDTO.Snapshot(code, labmausRegulation, dateRange, to.toString(), compositions);
+    }
+
+    private TournamentTeamDTO.Cluster trimCluster(JsonNode cluster) {
+        List<TournamentTeamDTO.Team> teams = new ArrayList<>();
+        for (JsonNode team : cluster.path("teams")) {
+            if (teams.size() >= maxTeamsPerCluster) {
+                break;
+            }
+            String url = team.path("team_url").asText("");
+            if (!POKEPASTE_URL.matcher(url).matches()) {
+                continue;
+            }
+            JsonNode placement = team.path("placement");
+            teams.add(new TournamentTeamDTO.Team(
+                    team.path("name").asText(""),
+                    placement.canConvertToInt() || placement.isTextual() && placement.asText().matches("\\d+")
+                            ? placement.asInt() : null,
+                    team.path("record").asText(""),
+                    names(team.path("pokemon_names")),
+                    url,
+                    team.path("tournament_name").asText("")));
+        }
+
+        List<String> pokemon = new ArrayList<>();
+        for (JsonNode id : cluster.path("pokemon")) {
+            pokemon.add(id.asText());
+        }
+        return new TournamentTeamDTO.Cluster(pokemon, names(cluster.path("pokemon_names")),
+                cluster.path("wins").asInt(0), cluster.path("losses").asInt(0), teams);
+    }
+
+    private static List<String> names(JsonNode array) {
+        List<String> names = new ArrayList<>(array.size());
+        for (JsonNode name : array) {
+            names.add(normalizePokemonName(name.asText()));
+        }
+        return names;
+    }
+
+    /**
+     * LabMaus writes gender forms as "Basculegion ♂"; the registry knows "Basculegion-M".
+     */
+    static String normalizePokemonName(String name) {
+        return name.replaceFirst("\\s*♂$", "-M").replaceFirst("\\s*♀$", "-F");
+    }
+
+    // ==================== Snapshot ====================
+
+    private CachedSnapshot build(TournamentTeamDTO.Snapshot snapshot) {
+        Map<String, List<Integer>> postings = new HashMap<>();
+        int clusterCount = 0;
+        int teamCount = 0;
+        List<TournamentTeamDTO.Composition> compositions = snapshot.getCompositions();
+        for (int c = 0; c < compositions.size(); c++) {
+            List<TournamentTeamDTO.Cluster> clusters = compositions.get(c).getClusters();
+            for (int k = 0; k < clusters.size(); k++) {
+                TournamentTeamDTO.Cluster cluster = clusters.get(k);
+                int ref = (c << 16) | k;
+                for (String name : new LinkedHashSet<>(cluster.getPokemonNames())) {
+                    postings.computeIfAbsent(pokemonService.resolveAnalyticsName(name), n -> new ArrayList<>())
+                            .add(ref);
+                }
+                clusterCount++;
+                teamCount += cluster.getTeams().size();
+            }
+        }
+
+        Map<String, int[]> speciesIndex = new HashMap<>(postings.size() * 2);
+        postings.forEach((name, refs) -> speciesIndex.put(name,
+                refs.stream().mapToInt(Integer::intValue).distinct().toArray()));
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String etag = snapshot.getRegulation() + "-" + snapshot.getGeneratedAt() + "-"
+                + Integer.toHexString(Arrays.hashCode(json));
+        return new CachedSnapshot(snapshot, gzip(json), etag, Map.copyOf(speciesIndex), clusterCount, teamCount);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                out[n++] = a[i];
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * One regulation's snapshot: the parsed data, its gzipped JSON body and ETag, and a
+     * species → cluster index. Cluster refs pack (composition index &lt;&lt; 16 | cluster index)
+     * and are sorted, so searches are merge intersections. Immutable once built.
+     */
+    public static final class CachedSnapshot {
+        private final TournamentTeamDTO.Snapshot snapshot;
+        private final byte[] jsonGzip;
+        private final String etag;
+        private final Map<String, int[]> speciesIndex;
+        private final int clusterCount;
+        private final int teamCount;
+
+        private CachedSnapshot(TournamentTeamDTO.Snapshot snapshot, byte[] jsonGzip, String etag,
+                               Map<String, int[]> speciesIndex, int clusterCount, int teamCount) {
+            this.snapshot = snapshot;
+            this.jsonGzip = jsonGzip;
+            this.etag = etag;
+            this.speciesIndex = speciesIndex;
+            this.clusterCount = clusterCount;
+            this.teamCount = teamCount;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Serialized {@link TournamentTeamDTO.Snapshot}, gzip-compressed. Shared; do not modify.
+         */
+        public byte[] getJsonGzip() {
+            return jsonGzip;
+        }
+
+        /**
+         * Decompress the body for clients that don't accept gzip.
+         */
+        public InputStream openJson() throws IOException {
+            return new GZIPInputStream(new ByteArrayInputStream(jsonGzip));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
+import com.yeskatronics.vs_recorder_backend.entities.TrendRollup;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TrendRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Maintains per-team day and week rollups ({@link TrendRollup}) and serves trend series from them.
+ *
+ * <p>A bucket is rebuilt from the replays inside it whenever one of them is saved, updated,
+ * deleted or re-indexed: a handful of grouped queries over stored replay columns
+ * ({@link com.yeskatronics.vs_recorder_backend.entities.Replay#getTeamPicks()},
+ * {@link com.yeskatronics.vs_recorder_backend.entities.Replay#getLeadPair()}), no log parsing.
+ * Reading a trend touches only rollup rows, so cost scales with the number of buckets, not games.
+ *
+ * <p>Rebuilds of one team are serialized on its row lock ({@link TeamRepository#lockById}): each
+ * rebuild then counts every replay committed before it, and two rebuilds never delete and
+ * re-insert the same bucket at once. Writers that insert replays take the lock before the insert.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TrendRollupService {
+
+    private final ReplayRepository replayRepository;
+    private final TrendRollupRepository rollupRepository;
+    private final TeamRepository teamRepository;
+
+    /**
+     * Rebuild the day and week buckets containing each date. Null dates are skipped.
+     */
+    public void refresh(Long teamId, LocalDateTime... dates) {
+        refresh(teamId, Arrays.asList(dates));
+    }
+
+    /**
+     * Rebuild the day and week buckets containing each date. Null dates are skipped.
+     */
+    public void refresh(Long teamId, Collection<LocalDateTime> dates) {
+        if (dates.stream().allMatch(Objects::isNull)) {
+            return;
+        }
+        teamRepository.lockById(teamId);
+
+        for (TrendRollup.Granularity granularity : TrendRollup.Granularity.values()) {
+            Set<LocalDate> starts = new TreeSet<>();
+            for (LocalDateTime date : dates) {
+                if (date != null) {
+                    starts.add(granularity.start(date.toLocalDate()));
+                }
+            }
+            for (LocalDate start : starts) {
+                refreshPeriod(teamId, granularity, start);
+            }
+        }
+    }
+
+    /**
+     * Trend series for a team over an optional date range.
+     *
+     * @param teamId the team ID
+     * @param granularity day or week buckets
+     * @param from first day (inclusive), or null for the first bucket with games
+     * @param to last day (inclusive), or null for the latest bucket with games
+     * @param limit max species and lead pair series, by games in the range
+     */
+    @Transactional(readOnly = true)
+    public AnalyticsDTO.TrendResponse getTrends(Long teamId, TrendRollup.Granularity granularity,
+                                                LocalDate from, LocalDate to, int limit) {
+        List<TrendRollup> rows = rollupRepository.findSeries(teamId, granularity,
+                from != null ? granularity.start(from) : null, to);
+
+        List<AnalyticsDTO.TrendPoint> points = new ArrayList<>();
+        Map<String, List<AnalyticsDTO.TrendPoint>> species = new HashMap<>();
+        Map<String, List<AnalyticsDTO.TrendPoint>> leadPairs = new HashMap<>();
+        for (TrendRollup row : rows) {
+            AnalyticsDTO.TrendPoint point = new AnalyticsDTO.TrendPoint(
+                    row.getPeriodStart(), row.getGames(), row.getWins(), rate(row.getWins(), row.getGames()));
+            switch (row.getCategory()) {
+                case TOTAL -> points.add(point);
+                case SPECIES -> species.computeIfAbsent(row.getValue(), k -> new ArrayList<>()).add(point);
+                case LEAD_PAIR -> leadPairs.computeIfAbsent(row.getValue(), k -> new ArrayList<>()).add(point);
+            }
+        }
+
+        return new AnalyticsDTO.TrendResponse(
+                granularity.name().toLowerCase(Locale.ROOT),
+                points,
+                topSeries(species, limit),
+                topSeries(leadPairs, limit));
+    }
+
+    private void refreshPeriod(Long teamId, TrendRollup.Granularity granularity, LocalDate start) {
+        rollupRepository.deletePeriod(teamId, granularity, start);
+
+        LocalDateTime from = start.atStartOfDay();
+        LocalDateTime until = granularity.next(start).atStartOfDay();
+        ReplayRepository.FactCount total = replayRepository.countGamesBetween(teamId, from, until);
+        if (total.gamesInt() == 0) {
+            return;
+        }
+
+        List<TrendRollup> rows = new ArrayList<>();
+        rows.add(row(teamId, granularity, start, TrendRollup.Category.TOTAL, total));
+        for (ReplayRepository.FactCount count : replayRepository.countTeamPicksBetween(teamId, from, until)) {
+            rows.add(row(teamId, granularity, start, TrendRollup.Category.SPECIES, count));
+        }
+        for (ReplayRepository.FactCount count : replayRepository.countLeadPairsBetween(teamId, from, until)) {
+            rows.add(row(teamId, granularity, start, TrendRollup.Category.LEAD_PAIR, count));
+        }
+        rollupRepository.saveAll(rows);
+    }
+
+    private static TrendRollup row(Long teamId, TrendRollup.Granularity granularity, LocalDate start,
+                                   TrendRollup.Category category, ReplayRepository.FactCount count) {
+        return new TrendRollup(null, teamId, granularity, start, category, count.value(),
+                count.gamesInt(), count.winsInt());
+    }
+
+    private static List<AnalyticsDTO.TrendSeries> topSeries(Map<String, List<AnalyticsDTO.TrendPoint>> byName,
+                                                            int limit) {
+        List<AnalyticsDTO.TrendSeries> series = new ArrayList<>();
+        for (Map.Entry<String, List<AnalyticsDTO.TrendPoint>> entry : byName.entrySet()) {
+            int games = 0;
+            int wins = 0;
+            for (AnalyticsDTO.TrendPoint point : entry.getValue()) {
+                games += point.getGames();
+                wins += point.getWins();
+            }
+            series.add(new AnalyticsDTO.TrendSeries(entry.getKey(), games, rate(wins, games), entry.getValue()));
+        }
+        series.sort(Comparator.comparingInt(AnalyticsDTO.TrendSeries::getGames).reversed()
+                .thenComparing(AnalyticsDTO.TrendSeries::getName));
+        return series.size() > limit ? new ArrayList<>(series.subList(0, limit)) : series;
+    }
+
+    private static int rate(int wins, int games) {
+        return games > 0 ? (int) Math.round((wins * 100.0) / games) : 0;
+    }
+}
@@ -24,6 +24,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CascadeDeleteService cascadeDeleteService;
 
     /**
      * Create a new user with hashed password
@@ -128,6 +129,12 @@ public class UserService {
             existingUser.setPasswordHash(passwordEncoder.encode(updates.getPasswordHash()));
         }
 
+        // Opt in/out of the anonymized global metagame rollup; replays not yet indexed join it
+        // once OpponentIndexBackfill reaches them
+        if (updates.getShareMetagameStats() != null) {
+            existingUser.setShareMetagameStats(updates.getShareMetagameStats());
+        }
+
         User savedUser = userRepository.save(existingUser);
         log.info("User updated successfully: {}", savedUser.getId());
 
@@ -150,7 +157,7 @@ public class UserService {
     }
 
     /**
-     * Delete a user (cascades to teams, replays, etc.)
+     * Delete a user with bulk statements (teams, replays, folders, game plans, etc.)
      *
      * @param id the user ID
      * @throws IllegalArgumentException if user not found
@@ -162,7 +169,7 @@ public class UserService {
             throw new IllegalArgumentException("User not found with ID: " + id);
         }
 
-        userRepository.deleteById(id);
+        cascadeDeleteService.deleteUser(id);
         log.info("User deleted successfully: {}", id);
     }
 
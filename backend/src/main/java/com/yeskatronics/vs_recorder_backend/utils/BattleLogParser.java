@@ -2,6 +2,7 @@ package com.yeskatronics.vs_recorder_backend.utils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeskatronics.vs_recorder_backend.dto.ReplayDTO;
 import com.yeskatronics.vs_recorder_backend.services.PokemonService;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -79,6 +80,10 @@ public class BattleLogParser {
      * mid-battle forme reveals (Zamazenta-Crowned, Mega evolutions, OTS reveals).
      */
     public static BattleData parseBattleLog(String battleLogJson, PokemonService pokemonService) {
+        return ParseMetrics.timed("battle-log", battleLogJson, () -> doParseBattleLog(battleLogJson, pokemonService));
+    }
+
+    private static BattleData doParseBattleLog(String battleLogJson, PokemonService pokemonService) {
         try {
             JsonNode root = objectMapper.readTree(battleLogJson);
             BattleData data = new BattleData();
@@ -112,14 +117,48 @@ public class BattleLogParser {
         }
     }
 
+    /**
+     * Build the turn-by-turn {@link ReplayDTO.Timeline} of a battle log: switches, moves, HP
+     * changes, faints, Tera and Mega events, weather, field and side conditions, and statuses.
+     * Species are the switch-in formes, so no registry lookups are needed. Returns an empty
+     * timeline (no turns) when the log can't be read.
+     */
+    public static ReplayDTO.Timeline parseTimeline(String battleLogJson) {
+        return ParseMetrics.timed("battle-timeline", battleLogJson, () -> doParseTimeline(battleLogJson));
+    }
+
+    private static ReplayDTO.Timeline doParseTimeline(String battleLogJson) {
+        ReplayDTO.Timeline timeline = new ReplayDTO.Timeline();
+        timeline.setPlayers(new LinkedHashMap<>());
+        timeline.setTurns(new ArrayList<>());
+        try {
+            JsonNode root = objectMapper.readTree(battleLogJson);
+            JsonNode playersNode = root.path("players");
+            for (int i = 0; playersNode.isArray() && i < playersNode.size() && i < 2; i++) {
+                timeline.getPlayers().put("p" + (i + 1), playersNode.get(i).asText());
+            }
+
+            String logText = root.path("log").asText();
+            TimelineBuilder builder = new TimelineBuilder(timeline);
+            for (String line : logText.split("\n")) {
+                builder.accept(line.trim());
+            }
+            timeline.setWinner(extractWinner(logText));
+        } catch (Exception e) {
+            log.error("Failed to build battle timeline: {}", e.getMessage(), e);
+        }
+        return timeline;
+    }
+
     /**
      * Parse all log lines to extract battle data.
      */
     private static void parseLogLines(String[] lines, BattleData data, PokemonService pokemonService) {
+        SpeciesKeys keys = pokemonService != null ? new SpeciesKeys(pokemonService) : null;
+        Roster p1Roster = new Roster(data.getP1Team(), keys);
+        Roster p2Roster = new Roster(data.getP2Team(), keys);
         Set<String> p1Switched = new HashSet<>();
         Set<String> p2Switched = new HashSet<>();
-        Map<String, String> p1NicknameMap = new HashMap<>();
-        Map<String, String> p2NicknameMap = new HashMap<>();
         int leadCount1 = 0;
         int leadCount2 = 0;
 
@@ -132,11 +171,7 @@ public class BattleLogParser {
                 String player = pokeMatcher.group(1);
                 String pokemon = pokeMatcher.group(2); // Keep full name with forme
 
-                if ("1".equals(player)) {
-                    data.getP1Team().add(pokemon);
-                } else {
-                    data.getP2Team().add(pokemon);
-                }
+                ("1".equals(player) ? p1Roster : p2Roster).add(pokemon);
                 continue;
             }
 
@@ -145,13 +180,13 @@ public class BattleLogParser {
             if (showteamMatcher.find()) {
                 String player = showteamMatcher.group(1);
                 String teamData = showteamMatcher.group(2);
-                List<String> team = "1".equals(player) ? data.getP1Team() : data.getP2Team();
+                Roster roster = "1".equals(player) ? p1Roster : p2Roster;
 
                 // Format: Pokemon||Item|Ability|Move1,Move2,...]Pokemon||...
                 for (String pokeData : teamData.split("\\]")) {
                     String revealedName = pokeData.split("\\|")[0].trim();
                     if (revealedName.isEmpty()) continue;
-                    revealTeamForme(team, revealedName, pokemonService);
+                    roster.reveal(revealedName);
                 }
                 continue;
             }
@@ -164,26 +199,20 @@ public class BattleLogParser {
                 String switchedRaw = switchMatcher.group(4);
                 String switchedSpecies = switchedRaw.split(",")[0].trim();
 
-                List<String> team = "1".equals(player) ? data.getP1Team() : data.getP2Team();
+                Roster roster = "1".equals(player) ? p1Roster : p2Roster;
 
                 // Reveal hidden formes (e.g. Urshifu-* → Urshifu-Rapid-Strike, or |poke| had base
                 // Zamazenta but switch reveals Zamazenta-Crowned).
                 if (!switchedSpecies.contains("*")) {
-                    revealTeamForme(team, switchedSpecies, pokemonService);
+                    roster.reveal(switchedSpecies);
                 }
 
-                // Map switch species to team entry
-                String fullTeamEntry = findTeamEntry(team, switchedSpecies, pokemonService);
-
-                // Store nickname -> species mapping
-                String resolvedName = fullTeamEntry != null ? fullTeamEntry : switchedRaw;
-                if ("1".equals(player)) {
-                    p1NicknameMap.put(nickname, resolvedName);
-                } else {
-                    p2NicknameMap.put(nickname, resolvedName);
-                }
+                // Map switch species to team slot, and remember the nickname's slot for later lines
+                int slot = roster.indexOf(switchedSpecies);
+                roster.bindNickname(nickname, slot);
 
-                if (fullTeamEntry != null) {
+                if (slot >= 0) {
+                    String fullTeamEntry = roster.get(slot);
                     if ("1".equals(player)) {
                         if (!p1Switched.contains(fullTeamEntry)) {
                             p1Switched.add(fullTeamEntry);
@@ -221,25 +250,21 @@ public class BattleLogParser {
                 String newSpecies = detailsMatcher.group(4).trim();
 
                 if (isMegaOrPrimalForme(newSpecies)) {
-                    List<String> team = "1".equals(player) ? data.getP1Team() : data.getP2Team();
-                    Map<String, String> nicknameMap = "1".equals(player) ? p1NicknameMap : p2NicknameMap;
-
-                    // Find the team slot for this nickname's current species and overwrite it.
-                    String currentSpecies = nicknameMap.getOrDefault(nickname, null);
-                    if (currentSpecies != null) {
-                        int slot = findTeamIndex(team, currentSpecies, pokemonService);
-                        if (slot >= 0) {
-                            team.set(slot, newSpecies);
-                            nicknameMap.put(nickname, newSpecies);
-
-                            // Carry pick/lead/move tracking from the old name to the new one.
-                            renamePickEntries(data, player, currentSpecies, newSpecies);
-
-                            if ("1".equals(player)) {
-                                data.setP1Mega(newSpecies);
-                            } else {
-                                data.setP2Mega(newSpecies);
-                            }
+                    Roster roster = "1".equals(player) ? p1Roster : p2Roster;
+
+                    // Overwrite the team slot this nickname switched in as.
+                    Integer slot = roster.slotOfNickname(nickname);
+                    if (slot != null && slot >= 0) {
+                        String currentSpecies = roster.get(slot);
+                        roster.set(slot, newSpecies);
+
+                        // Carry pick/lead/move tracking from the old name to the new one.
+                        renamePickEntries(data, player, currentSpecies, newSpecies);
+
+                        if ("1".equals(player)) {
+                            data.setP1Mega(newSpecies);
+                        } else {
+                            data.setP2Mega(newSpecies);
                         }
                     }
                 }
@@ -253,15 +278,12 @@ public class BattleLogParser {
                 String moveNickname = moveMatcher.group(3).trim();
                 String move = moveMatcher.group(4);
 
-                // Resolve nickname to species
-                Map<String, String> nicknameMap = "1".equals(player) ? p1NicknameMap : p2NicknameMap;
-                String moveSpecies = nicknameMap.getOrDefault(moveNickname, moveNickname);
+                // Resolve nickname to team slot
+                Roster roster = "1".equals(player) ? p1Roster : p2Roster;
+                int slot = roster.slotOf(moveNickname);
 
-                // Map to full team entry
-                List<String> team = "1".equals(player) ? data.getP1Team() : data.getP2Team();
-                String fullTeamEntry = findTeamEntry(team, moveSpecies, pokemonService);
-
-                if (fullTeamEntry != null) {
+                if (slot >= 0) {
+                    String fullTeamEntry = roster.get(slot);
                     if ("1".equals(player)) {
                         data.getP1MoveUsage()
                                 .computeIfAbsent(fullTeamEntry, k -> new HashMap<>())
@@ -281,19 +303,15 @@ public class BattleLogParser {
                 String player = teraMatcher.group(1);
                 String teraNickname = teraMatcher.group(3).trim();
 
-                // Resolve nickname to species
-                Map<String, String> nicknameMap = "1".equals(player) ? p1NicknameMap : p2NicknameMap;
-                String teraSpecies = nicknameMap.getOrDefault(teraNickname, teraNickname);
-
-                // Map to full team entry
-                List<String> team = "1".equals(player) ? data.getP1Team() : data.getP2Team();
-                String fullTeamEntry = findTeamEntry(team, teraSpecies, pokemonService);
+                // Resolve nickname to team slot
+                Roster roster = "1".equals(player) ? p1Roster : p2Roster;
+                int slot = roster.slotOf(teraNickname);
 
-                if (fullTeamEntry != null) {
+                if (slot >= 0) {
                     if ("1".equals(player)) {
-                        data.setP1Tera(fullTeamEntry);
+                        data.setP1Tera(roster.get(slot));
                     } else {
-                        data.setP2Tera(fullTeamEntry);
+                        data.setP2Tera(roster.get(slot));
                     }
                 }
                 continue;
@@ -312,109 +330,181 @@ public class BattleLogParser {
     }
 
     /**
-     * If {@code revealedName} shares a Pokedex number with an existing team-list entry that
-     * is either a wildcard ({@code Urshifu-*}) or differs from the reveal (paste had
-     * {@code Zamazenta} but battle reveals {@code Zamazenta-Crowned}), overwrite the slot.
-     * Matching on dex number rather than {@code baseSpecies} is intentional — formes like
-     * Zamazenta-Crowned have their own {@code baseSpecies} for analytics grouping, so they
-     * wouldn't otherwise match their hero/wildcard slot.
-     * Without {@link PokemonService} this only handles the legacy {@code Urshifu-*} case.
+     * Canonical name and dex number of a species string, as resolved by {@link PokemonService}.
+     * {@code dex} is -1 when the registry doesn't know the species.
      */
-    private static void revealTeamForme(List<String> team, String revealedName, PokemonService pokemonService) {
-        if (revealedName == null || revealedName.isEmpty()) return;
-
-        // Legacy path: only handle Urshifu wildcard.
-        if (pokemonService == null) {
-            if (revealedName.startsWith("Urshifu-")) {
-                for (int i = 0; i < team.size(); i++) {
-                    if (team.get(i).startsWith("Urshifu-*")) {
-                        team.set(i, revealedName);
-                        return;
-                    }
-                }
-            }
-            return;
-        }
-
-        int[] revealedInfo = pokemonService.getSpriteInfo(revealedName);
-        if (revealedInfo == null) return;
-        int revealedNum = revealedInfo[0];
-        String revealedCanonical = pokemonService.resolveCanonical(revealedName);
-
-        // First pass: prefer wildcard slots ({@code X-*}) so we don't accidentally rewrite
-        // a different team member who happens to share a dex number.
-        for (int i = 0; i < team.size(); i++) {
-            String entry = team.get(i);
-            if (entry.contains("-*")) {
-                int[] entryInfo = pokemonService.getSpriteInfo(entry);
-                if (entryInfo != null && entryInfo[0] == revealedNum) {
-                    team.set(i, revealedName);
-                    return;
-                }
-            }
+    private record SpeciesKey(String canonical, int dex) {
+    }
+
+    /**
+     * Per-battle memo of {@link SpeciesKey}s. A log repeats the same few dozen species strings
+     * hundreds of times; each distinct string goes through the alias normalization once.
+     */
+    private static final class SpeciesKeys {
+        private final PokemonService pokemonService;
+        private final Map<String, SpeciesKey> byName = new HashMap<>();
+
+        SpeciesKeys(PokemonService pokemonService) {
+            this.pokemonService = pokemonService;
         }
 
-        // Second pass: rewrite a same-dex entry whose canonical differs from the reveal.
-        // Skip if the slot is already exactly the revealed name.
-        for (int i = 0; i < team.size(); i++) {
-            String entry = team.get(i);
-            if (entry.equals(revealedName)) return;
-            int[] entryInfo = pokemonService.getSpriteInfo(entry);
-            if (entryInfo != null && entryInfo[0] == revealedNum
-                    && !pokemonService.resolveCanonical(entry).equals(revealedCanonical)) {
-                team.set(i, revealedName);
-                return;
+        SpeciesKey of(String name) {
+            SpeciesKey key = byName.get(name);
+            if (key == null) {
+                int[] info = pokemonService.getSpriteInfo(name);
+                key = new SpeciesKey(pokemonService.resolveCanonical(name), info != null ? info[0] : -1);
+                byName.put(name, key);
             }
+            return key;
         }
     }
 
     /**
-     * Find the team list entry that matches the given species. Uses canonical name resolution
-     * when {@link PokemonService} is available; falls back to the legacy prefix/contains match.
+     * One side's team list with each slot's {@link SpeciesKey} resolved when the slot is added or
+     * rewritten by a forme reveal, plus which slot each nickname switched in as. Slot lookups
+     * compare cached keys instead of re-normalizing the six team names on every line.
+     *
+     * <p>Wraps the {@link BattleData} team list; all writes must go through the roster to keep
+     * the keys in sync. Without {@link PokemonService} ({@code keys == null}) matching falls back
+     * to the legacy prefix/contains rules.
      */
-    private static String findTeamEntry(List<String> team, String species, PokemonService pokemonService) {
-        int idx = findTeamIndex(team, species, pokemonService);
-        return idx >= 0 ? team.get(idx) : null;
-    }
+    private static final class Roster {
+        private final List<String> names;
+        private final List<SpeciesKey> slotKeys = new ArrayList<>();
+        private final Map<String, Integer> slotByNickname = new HashMap<>();
+        private final SpeciesKeys keys;
+
+        Roster(List<String> names, SpeciesKeys keys) {
+            this.names = names;
+            this.keys = keys;
+        }
 
-    private static int findTeamIndex(List<String> team, String species, PokemonService pokemonService) {
-        if (species == null || species.isEmpty()) return -1;
+        String get(int slot) {
+            return names.get(slot);
+        }
 
-        if (pokemonService != null) {
-            String targetCanonical = pokemonService.resolveCanonical(species);
-            int[] targetInfo = pokemonService.getSpriteInfo(species);
-            int targetNum = targetInfo != null ? targetInfo[0] : -1;
+        void add(String name) {
+            names.add(name);
+            slotKeys.add(keys != null ? keys.of(name) : null);
+        }
 
-            // Prefer an exact canonical match (handles teams that contain both base and forme,
-            // even though species clause makes that rare).
-            for (int i = 0; i < team.size(); i++) {
-                if (pokemonService.resolveCanonical(team.get(i)).equals(targetCanonical)) {
-                    return i;
-                }
-            }
-            // Fall back to dex number match (covers an unrevealed wildcard slot or a base/forme
-            // split where revealTeamForme didn't fire — e.g., paste has plain Zamazenta and
-            // battle never reveals the Crowned form, or vice versa).
-            if (targetNum > 0) {
-                for (int i = 0; i < team.size(); i++) {
-                    int[] entryInfo = pokemonService.getSpriteInfo(team.get(i));
-                    if (entryInfo != null && entryInfo[0] == targetNum) {
+        void set(int slot, String name) {
+            names.set(slot, name);
+            slotKeys.set(slot, keys != null ? keys.of(name) : null);
+        }
+
+        /**
+         * Remember the slot a nickname switched in as; -1 if the switch matched no slot.
+         */
+        void bindNickname(String nickname, int slot) {
+            slotByNickname.put(nickname, slot);
+        }
+
+        /**
+         * Slot bound to {@code nickname}, or null if it never switched in.
+         */
+        Integer slotOfNickname(String nickname) {
+            return slotByNickname.get(nickname);
+        }
+
+        /**
+         * Slot for a move/Tera actor: its nickname's slot, or (before any switch) the slot
+         * matching the name as a species.
+         */
+        int slotOf(String nickname) {
+            Integer slot = slotByNickname.get(nickname);
+            return slot != null ? slot : indexOf(nickname);
+        }
+
+        /**
+         * Find the team slot that matches the given species. Uses canonical name resolution
+         * when {@link PokemonService} is available; falls back to the legacy prefix/contains match.
+         */
+        int indexOf(String species) {
+            if (species == null || species.isEmpty()) return -1;
+
+            if (keys != null) {
+                SpeciesKey target = keys.of(species);
+
+                // Prefer an exact canonical match (handles teams that contain both base and forme,
+                // even though species clause makes that rare).
+                for (int i = 0; i < slotKeys.size(); i++) {
+                    if (slotKeys.get(i).canonical().equals(target.canonical())) {
                         return i;
                     }
                 }
+                // Fall back to dex number match (covers an unrevealed wildcard slot or a base/forme
+                // split where reveal didn't fire — e.g., paste has plain Zamazenta and
+                // battle never reveals the Crowned form, or vice versa).
+                if (target.dex() > 0) {
+                    for (int i = 0; i < slotKeys.size(); i++) {
+                        if (slotKeys.get(i).dex() == target.dex()) {
+                            return i;
+                        }
+                    }
+                }
+                return -1;
+            }
+
+            // Legacy fallback: prefix match on the chunk before the first hyphen.
+            String legacyBase = species.split("-")[0];
+            for (int i = 0; i < names.size(); i++) {
+                String teamEntry = names.get(i);
+                if (teamEntry.startsWith(legacyBase) || teamEntry.contains(legacyBase)) {
+                    return i;
+                }
             }
             return -1;
         }
 
-        // Legacy fallback: prefix match on the chunk before the first hyphen.
-        String legacyBase = species.split("-")[0];
-        for (int i = 0; i < team.size(); i++) {
-            String teamEntry = team.get(i);
-            if (teamEntry.startsWith(legacyBase) || teamEntry.contains(legacyBase)) {
-                return i;
+        /**
+         * If {@code revealedName} shares a Pokedex number with an existing team-list entry that
+         * is either a wildcard ({@code Urshifu-*}) or differs from the reveal (paste had
+         * {@code Zamazenta} but battle reveals {@code Zamazenta-Crowned}), overwrite the slot.
+         * Matching on dex number rather than {@code baseSpecies} is intentional — formes like
+         * Zamazenta-Crowned have their own {@code baseSpecies} for analytics grouping, so they
+         * wouldn't otherwise match their hero/wildcard slot.
+         * Without {@link PokemonService} this only handles the legacy {@code Urshifu-*} case.
+         */
+        void reveal(String revealedName) {
+            if (revealedName == null || revealedName.isEmpty()) return;
+
+            // Legacy path: only handle Urshifu wildcard.
+            if (keys == null) {
+                if (revealedName.startsWith("Urshifu-")) {
+                    for (int i = 0; i < names.size(); i++) {
+                        if (names.get(i).startsWith("Urshifu-*")) {
+                            set(i, revealedName);
+                            return;
+                        }
+                    }
+                }
+                return;
+            }
+
+            SpeciesKey revealed = keys.of(revealedName);
+            if (revealed.dex() < 0) return;
+
+            // First pass: prefer wildcard slots ({@code X-*}) so we don't accidentally rewrite
+            // a different team member who happens to share a dex number.
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).contains("-*") && slotKeys.get(i).dex() == revealed.dex()) {
+                    set(i, revealedName);
+                    return;
+                }
+            }
+
+            // Second pass: rewrite a same-dex entry whose canonical differs from the reveal.
+            // Skip if the slot is already exactly the revealed name.
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).equals(revealedName)) return;
+                SpeciesKey entry = slotKeys.get(i);
+                if (entry.dex() == revealed.dex() && !entry.canonical().equals(revealed.canonical())) {
+                    set(i, revealedName);
+                    return;
+                }
             }
         }
-        return -1;
     }
 
     /**
@@ -465,6 +555,173 @@ public class BattleLogParser {
         }
     }
 
+    /**
+     * Walks protocol lines in order, tracking the species and HP at each position so events can
+     * carry the acting Pokemon and HP deltas. Lines before {@code |start|} (team preview) and
+     * lines that don't affect the board (chat, timers, ability reveals) are skipped.
+     */
+    private static final class TimelineBuilder {
+        private final ReplayDTO.Timeline timeline;
+        private final Map<String, String> speciesAt = new HashMap<>();
+        private final Map<String, Integer> hpAt = new HashMap<>();
+        private List<ReplayDTO.TimelineEvent> events;
+
+        TimelineBuilder(ReplayDTO.Timeline timeline) {
+            this.timeline = timeline;
+        }
+
+        void accept(String line) {
+            if (!line.startsWith("|")) return;
+            String[] parts = line.split("\\|", -1);
+            if (parts.length == 2 && parts[1].equals("start")) {
+                startTurn(0);
+                return;
+            }
+            if (parts.length < 3) return;
+
+            switch (parts[1]) {
+                case "player" -> {
+                    if (parts.length > 3 && !parts[3].isEmpty()) {
+                        timeline.getPlayers().put(parts[2], parts[3]);
+                    }
+                }
+                case "turn" -> {
+                    try {
+                        int turn = Integer.parseInt(parts[2].trim());
+                        startTurn(turn);
+                        timeline.setTurnCount(Math.max(timeline.getTurnCount(), turn));
+                    } catch (NumberFormatException e) {
+                        // Ignore invalid turn numbers
+                    }
+                }
+                case "switch", "drag", "replace" -> {
+                    if (parts.length < 4) return;
+                    String pos = position(parts[2]);
+                    String species = parts[3].split(",")[0].trim();
+                    Integer hp = parts.length > 4 ? hpPercent(parts[4]) : null;
+                    speciesAt.put(pos, species);
+                    if (hp != null) hpAt.put(pos, hp);
+                    add(event("switch", pos).hp(hp));
+                }
+                case "move" -> {
+                    if (parts.length < 4) return;
+                    ReplayDTO.TimelineEvent.TimelineEventBuilder event = event("move", position(parts[2])).move(parts[3]);
+                    if (parts.length > 4 && !parts[4].isEmpty()) {
+                        event.target(position(parts[4]));
+                    }
+                    for (int i = 5; i < parts.length; i++) {
+                        if (parts[i].equals("[miss]")) {
+                            event.detail("miss");
+                        } else if (parts[i].startsWith("[spread]") && !parts[i].substring(8).isBlank()) {
+                            event.target(parts[i].substring(8).trim());
+                        }
+                    }
+                    add(event);
+                }
+                case "-damage", "-heal" -> {
+                    if (parts.length < 4) return;
+                    String pos = position(parts[2]);
+                    Integer hp = hpPercent(parts[3]);
+                    if (hp == null) return;
+                    Integer before = hpAt.put(pos, hp);
+                    ReplayDTO.TimelineEvent.TimelineEventBuilder event =
+                            event(parts[1].substring(1), pos).hp(hp).delta(hp - (before != null ? before : 100));
+                    if (parts.length > 4 && parts[4].startsWith("[from]")) {
+                        event.from(parts[4].substring(6).trim());
+                    }
+                    add(event);
+                }
+                case "faint" -> {
+                    String pos = position(parts[2]);
+                    hpAt.put(pos, 0);
+                    add(event("faint", pos));
+                }
+                case "-terastallize" -> {
+                    if (parts.length < 4) return;
+                    add(event("tera", position(parts[2])).detail(parts[3]));
+                }
+                case "detailschange" -> {
+                    if (parts.length < 4) return;
+                    String pos = position(parts[2]);
+                    String species = parts[3].split(",")[0].trim();
+                    if (isMegaOrPrimalForme(species)) {
+                        add(event("mega", pos).detail(species));
+                    }
+                    speciesAt.put(pos, species);
+                }
+                case "-weather" -> {
+                    if (parts.length > 3 && parts[3].equals("[upkeep]")) return;
+                    boolean end = parts[2].equals("none");
+                    add(ReplayDTO.TimelineEvent.builder().kind("weather")
+                            .detail(end ? null : parts[2]).end(end ? true : null));
+                }
+                case "-fieldstart", "-fieldend" -> add(ReplayDTO.TimelineEvent.builder().kind("field")
+                        .detail(condition(parts[2])).end(parts[1].equals("-fieldend") ? true : null));
+                case "-sidestart", "-sideend" -> {
+                    if (parts.length < 4) return;
+                    add(ReplayDTO.TimelineEvent.builder().kind("side").pos(position(parts[2]))
+                            .detail(condition(parts[3])).end(parts[1].equals("-sideend") ? true : null));
+                }
+                case "-status", "-curestatus" -> {
+                    if (parts.length < 4) return;
+                    add(event("status", position(parts[2])).detail(parts[3])
+                            .end(parts[1].equals("-curestatus") ? true : null));
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void startTurn(int turn) {
+            events = new ArrayList<>();
+            timeline.getTurns().add(new ReplayDTO.TimelineTurn(turn, events));
+        }
+
+        private ReplayDTO.TimelineEvent.TimelineEventBuilder event(String kind, String pos) {
+            return ReplayDTO.TimelineEvent.builder().kind(kind).pos(pos).species(speciesAt.get(pos));
+        }
+
+        private void add(ReplayDTO.TimelineEvent.TimelineEventBuilder event) {
+            // Nothing before |start| (team preview) belongs to a turn
+            if (events != null) {
+                events.add(event.build());
+            }
+        }
+
+        /** "p1a: Calyrex" -> "p1a", "p1: larry ayuso" -> "p1" */
+        private static String position(String ident) {
+            int colon = ident.indexOf(':');
+            return (colon >= 0 ? ident.substring(0, colon) : ident).trim();
+        }
+
+        /** "move: Light Screen" -> "Light Screen" */
+        private static String condition(String effect) {
+            int colon = effect.indexOf(':');
+            return (colon >= 0 ? effect.substring(colon + 1) : effect).trim();
+        }
+
+        /**
+         * "95/100 brn" -> 95, "0 fnt" -> 0, "150/200" -> 75; a Pokemon still standing never
+         * rounds down to 0. Null when the value can't be read.
+         */
+        private static Integer hpPercent(String condition) {
+            String value = condition.trim().split(" ")[0];
+            int slash = value.indexOf('/');
+            try {
+                if (slash < 0) {
+                    return Integer.parseInt(value) == 0 ? 0 : null;
+                }
+                int current = Integer.parseInt(value.substring(0, slash));
+                int max = Integer.parseInt(value.substring(slash + 1));
+                if (max <= 0) return null;
+                int percent = (int) Math.round(current * 100.0 / max);
+                return current > 0 ? Math.max(1, percent) : 0;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
     /**
      * Extract winner from battle log
      */
@@ -0,0 +1,21 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The caller's address for per-IP rate limits and audit fields.
+ *
+ * <p>Forwarding headers are never read here: a client can put anything in {@code X-Forwarded-For}.
+ * Behind the proxy, Tomcat rewrites the remote address from the proxy's header
+ * ({@code server.forward-headers-strategy}, see application-prod.properties), and only for
+ * requests that actually arrive from a trusted internal proxy.
+ */
+public final class ClientIp {
+
+    private ClientIp() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,71 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import java.util.Arrays;
+
+/**
+ * Growable table of {@code int} counters stored row-major in one flat array.
+ *
+ * <p>Rows are typically ids from {@link NameIds} (or row handles from a {@link LongIntMap}),
+ * columns are the individual counters (usage, wins, ...). Replaces per-key tracker objects so
+ * accumulation is plain array arithmetic.
+ */
+public final class CounterTable {
+
+    private final int columns;
+    private int[] data;
+    private int rows;
+
+    public CounterTable(int columns) {
+        this(columns, 16);
+    }
+
+    public CounterTable(int columns, int expectedRows) {
+        this.columns = columns;
+        this.data = new int[columns * Math.max(1, expectedRows)];
+    }
+
+    /**
+     * Make sure {@code row} exists (new rows start at zero).
+     */
+    public void ensureRow(int row) {
+        if (row >= rows) {
+            int needed = (row + 1) * columns;
+            if (needed > data.length) {
+                data = Arrays.copyOf(data, Math.max(needed, data.length * 2));
+            }
+            rows = row + 1;
+        }
+    }
+
+    /**
+     * Append a zeroed row.
+     *
+     * @return its index
+     */
+    public int addRow() {
+        ensureRow(rows);
+        return rows - 1;
+    }
+
+    public void increment(int row, int column) {
+        add(row, column, 1);
+    }
+
+    public void add(int row, int column, int amount) {
+        ensureRow(row);
+        data[row * columns + column] += amount;
+    }
+
+    public void set(int row, int column, int value) {
+        ensureRow(row);
+        data[row * columns + column] = value;
+    }
+
+    public int get(int row, int column) {
+        return row < rows ? data[row * columns + column] : 0;
+    }
+
+    public int rows() {
+        return rows;
+    }
+}
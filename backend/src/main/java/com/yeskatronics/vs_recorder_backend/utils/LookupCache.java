@@ -0,0 +1,141 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, size-evicting cache for expensive lookups (upstream HTTP calls, parses).
+ *
+ * <ul>
+ *   <li>Capacity is capped and evicted with Caffeine's W-TinyLFU policy, so arbitrary keys
+ *       sent by clients can't grow the heap without limit.</li>
+ *   <li>Misses (loader returned {@code null}) are cached too, with their own shorter TTL,
+ *       so a bogus key costs one upstream call per {@code negativeTtl} instead of one per request.</li>
+ *   <li>Concurrent callers asking for the same absent key share a single loader invocation;
+ *       the others block until it finishes and reuse the result.</li>
+ *   <li>Exceptions thrown by the loader are NOT cached — transient upstream failures are retried
+ *       on the next call.</li>
+ * </ul>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LookupCache<K, V> {
+
+    private final String name;
+    private final Cache<K, Optional<V>> cache;
+
+    private LookupCache(String name, long maximumSize, Duration ttl, Duration negativeTtl) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PresenceAwareExpiry<K, V>(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param name        metric/cache name (e.g. "pokeapi.sprites")
+     * @param maximumSize maximum number of entries (hits and misses combined)
+     * @param ttl         lifetime of a found value
+     * @param negativeTtl lifetime of a cached miss
+     */
+    public static <K, V> LookupCache<K, V> create(String name, long maximumSize, Duration ttl, Duration negativeTtl) {
+        return new LookupCache<>(name, maximumSize, ttl, negativeTtl);
+    }
+
+    /**
+     * Register hit/miss/eviction/size gauges under {@code cache.*} with the given registry.
+     *
+     * @return this, for chaining at construction time
+     */
+    public LookupCache<K, V> withMetrics(MeterRegistry registry) {
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, name);
+        }
+        return this;
+    }
+
+    /**
+     * Return the cached value for {@code key}, invoking {@code loader} at most once across all
+     * concurrent callers if it isn't cached. A {@code null} from the loader is cached as a miss.
+     *
+     * @return the value, or empty if the key is a (possibly cached) miss
+     */
+    public Optional<V> get(K key, Function<? super K, ? extends V> loader) {
+        return cache.get(key, k -> Optional.ofNullable(loader.apply(k)));
+    }
+
+    /**
+     * Peek without loading.
+     *
+     * @return null if nothing is cached, otherwise the cached presence/absence
+     */
+    public Optional<V> getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(K key, V value) {
+        cache.put(key, Optional.ofNullable(value));
+    }
+
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Run pending evictions/expirations now (normally amortized across reads and writes).
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Found values live for {@code ttl}; cached misses for {@code negativeTtl}. Reads don't extend lifetime.
+     */
+    private static final class PresenceAwareExpiry<K, V> implements Expiry<K, Optional<V>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        PresenceAwareExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Assigns small dense integer ids (0, 1, 2, ...) to names, for use as array indexes in
+ * accumulation loops.
+ *
+ * <p>An optional normalizer maps raw names onto a canonical name first (e.g.
+ * "Ogerpon-Hearthflame-Tera" and "Ogerpon-Hearthflame" share one id). The normalizer runs once per
+ * distinct raw name; repeated lookups are a single hash probe with no allocation. Strings are only
+ * needed again via {@link #nameOf(int)} when building the response.
+ *
+ * <p>Not thread-safe: create one per computation.
+ */
+public final class NameIds {
+
+    private final UnaryOperator<String> normalizer;
+    private final Map<String, Integer> rawToId = new HashMap<>();
+    private final Map<String, Integer> nameToId = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public NameIds() {
+        this(null);
+    }
+
+    public NameIds(UnaryOperator<String> normalizer) {
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * @return the id for {@code rawName}, assigning the next free id if its canonical name is new
+     */
+    public int idOf(String rawName) {
+        Integer id = rawToId.get(rawName);
+        if (id != null) {
+            return id;
+        }
+        String name = normalizer != null ? normalizer.apply(rawName) : rawName;
+        id = nameToId.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameToId.put(name, id);
+        }
+        rawToId.put(rawName, id);
+        return id;
+    }
+
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
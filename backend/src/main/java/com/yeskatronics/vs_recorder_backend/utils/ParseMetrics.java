@@ -0,0 +1,38 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * Parse time and input size for the static replay parsers ({@link BattleLogParser}, {@link ReplayMatcher}).
+ *
+ * <p>The parsers are static utilities, so meters go to Micrometer's global registry, which Spring
+ * Boot links to the application's registry. Outside Spring (plain unit tests) they are no-ops.
+ *
+ * <p>Meters: {@code replay.parse} (timer) and {@code replay.parse.size} (bytes), tagged by {@code parser}.
+ */
+public final class ParseMetrics {
+
+    private ParseMetrics() {
+    }
+
+    public static <T> T timed(String parser, String input, Supplier<T> parse) {
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        try {
+            return parse.get();
+        } finally {
+            sample.stop(Timer.builder("replay.parse")
+                    .description("Battle log parse time")
+                    .tag("parser", parser)
+                    .register(Metrics.globalRegistry));
+            DistributionSummary.builder("replay.parse.size")
+                    .baseUnit("bytes")
+                    .tag("parser", parser)
+                    .register(Metrics.globalRegistry)
+                    .record(input != null ? input.length() : 0);
+        }
+    }
+}
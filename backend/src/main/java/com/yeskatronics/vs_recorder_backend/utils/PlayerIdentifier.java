@@ -1,7 +1,11 @@
 package com.yeskatronics.vs_recorder_backend.utils;
 
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.entities.TeamMember;
 import com.yeskatronics.vs_recorder_backend.services.PokemonService;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -72,6 +76,43 @@ public final class PlayerIdentifier {
         return result("p1", p1User, p2User);
     }
 
+    /**
+     * Identify the team owner's player name in a parsed battle log, using the team's registered
+     * usernames and roster. Falls back to player 1 when there's no usable signal.
+     *
+     * @return the owner's Showdown name, or null if the log is missing a player
+     */
+    public static String identifyUserPlayer(Team team, BattleLogParser.BattleData battleData,
+                                            PokemonService pokemonService) {
+        if (battleData.getPlayer1() == null || battleData.getPlayer2() == null) {
+            return null;
+        }
+
+        Map<String, String> players = new HashMap<>();
+        players.put("p1", battleData.getPlayer1());
+        players.put("p2", battleData.getPlayer2());
+
+        Map<String, List<String>> teams = new HashMap<>();
+        teams.put("p1", battleData.getP1Team() != null ? battleData.getP1Team() : Collections.emptyList());
+        teams.put("p2", battleData.getP2Team() != null ? battleData.getP2Team() : Collections.emptyList());
+
+        List<String> roster = team.getTeamMembers() == null
+                ? Collections.emptyList()
+                : team.getTeamMembers().stream()
+                    .map(TeamMember::getPokemonName)
+                    .collect(Collectors.toList());
+
+        Identification id = identify(
+                team.getShowdownUsernames(),
+                roster,
+                players,
+                teams,
+                pokemonService);
+
+        String userUsername = id.userUsername();
+        return (userUsername == null || userUsername.isBlank()) ? battleData.getPlayer1() : userUsername;
+    }
+
     private static Identification result(String userSide, String userName, String oppName) {
         String opp = "p1".equals(userSide) ? "p2" : "p1";
         return new Identification(userSide, opp, userName, oppName);
@@ -0,0 +1,322 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import com.yeskatronics.vs_recorder_backend.dto.PokemonEntry;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Immutable, array-backed Pokemon registry produced by {@link PokemonRegistryCompiler}.
+ *
+ * <p>Layout is flat to keep the heap footprint small and lookups allocation-free:
+ * <ul>
+ *   <li>{@code entries} — {@link PokemonEntry} records in registry (dex) order. Every string they
+ *       hold comes from one de-duplicated string table, so repeated types/base species are shared.</li>
+ *   <li>{@code sortedKeys}/{@code keyEntry} — canonical keys sorted for binary search.</li>
+ *   <li>{@code sortedAliases}/{@code aliasEntry} — every normalized alias (including canonical keys
+ *       and their hyphen-less forms) sorted for binary search.</li>
+ *   <li>{@code registryJsonGzip} — the {@code GET /api/pokemon/registry} body, serialized and
+ *       gzip-compressed once at build time.</li>
+ * </ul>
+ *
+ * <p>Binary format (big-endian, {@link DataOutputStream}):
+ * <pre>
+ * int magic, int formatVersion, UTF registryVersion, int payloadHash
+ * int stringCount, UTF[stringCount]
+ * int entryCount, entry[entryCount]:
+ *     int key, int num, int form, int name, int displayName, int baseSpecies,
+ *     byte typeCount, int[typeCount], short baseSpeed (-1 = unknown),
+ *     short aliasCount, int[aliasCount]                                      (ints = string ids)
+ * int[entryCount] entry ids ordered by key
+ * int aliasCount, (int aliasString, int entryId)[aliasCount] ordered by alias
+ * int gzipLength, byte[gzipLength]
+ * </pre>
+ */
+public final class PokemonRegistry {
+
+    static final int MAGIC = 0x504B5247; // "PKRG"
+    static final int FORMAT_VERSION = 2;
+
+    /** Classpath location of the compiled registry written by the build. */
+    public static final String COMPILED_RESOURCE = "pokemon-registry.bin";
+
+    private final String version;
+    private final int payloadHash;
+    private final PokemonEntry[] entries;
+    private final String[] sortedKeys;
+    private final int[] keyEntry;
+    private final String[] sortedAliases;
+    private final int[] aliasEntry;
+    private final byte[] registryJsonGzip;
+
+    PokemonRegistry(String version, int payloadHash, PokemonEntry[] entries,
+                    String[] sortedKeys, int[] keyEntry,
+                    String[] sortedAliases, int[] aliasEntry,
+                    byte[] registryJsonGzip) {
+        this.version = version;
+        this.payloadHash = payloadHash;
+        this.entries = entries;
+        this.sortedKeys = sortedKeys;
+        this.keyEntry = keyEntry;
+        this.sortedAliases = sortedAliases;
+        this.aliasEntry = aliasEntry;
+        this.registryJsonGzip = registryJsonGzip;
+    }
+
+    /**
+     * Registry with no entries, used until (or if) the compiled registry fails to load.
+     */
+    public static PokemonRegistry empty() {
+        try {
+            return PokemonRegistryCompiler.compile(
+                    new ByteArrayInputStream("{\"version\":\"unknown\",\"pokemon\":{}}".getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== Lookups ====================
+
+    /**
+     * @return the entry whose canonical key is exactly {@code key}, or null
+     */
+    public PokemonEntry get(String key) {
+        int idx = indexOfKey(key);
+        return idx >= 0 ? entries[idx] : null;
+    }
+
+    /**
+     * @return entry index (0..size-1) for a canonical key, or -1
+     */
+    public int indexOfKey(String key) {
+        if (key == null) return -1;
+        int pos = Arrays.binarySearch(sortedKeys, key);
+        return pos >= 0 ? keyEntry[pos] : -1;
+    }
+
+    /**
+     * @return canonical key an already-normalized alias maps to, or null
+     */
+    public String resolveAlias(String normalizedAlias) {
+        if (normalizedAlias == null) return null;
+        int pos = Arrays.binarySearch(sortedAliases, normalizedAlias);
+        return pos >= 0 ? entries[aliasEntry[pos]].canonicalName() : null;
+    }
+
+    public PokemonEntry entryAt(int index) {
+        return entries[index];
+    }
+
+    public int size() {
+        return entries.length;
+    }
+
+    public int aliasCount() {
+        return sortedAliases.length;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Stable identifier for the registry payload: changes whenever the version or the data does.
+     */
+    public String getEtag() {
+        return version + "-" + Integer.toHexString(payloadHash);
+    }
+
+    /**
+     * Pre-serialized {@code {"version":..,"pokemon":{..}}} body, gzip-compressed. Shared; do not modify.
+     */
+    public byte[] getRegistryJsonGzip() {
+        return registryJsonGzip;
+    }
+
+    /**
+     * Decompress the registry body for clients that don't accept gzip.
+     */
+    public InputStream openRegistryJson() throws IOException {
+        return new GZIPInputStream(new ByteArrayInputStream(registryJsonGzip));
+    }
+
+    /**
+     * Read-only {@code canonical key -> entry} view in registry order. No copy is made.
+     */
+    public Map<String, PokemonEntry> asMap() {
+        return new RegistryMapView();
+    }
+
+    // ==================== Serialization ====================
+
+    public static PokemonRegistry read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a compiled Pokemon registry");
+        }
+        int format = data.readInt();
+        if (format != FORMAT_VERSION) {
+            throw new IOException("Unsupported registry format " + format + " (expected " + FORMAT_VERSION + ")");
+        }
+        String version = data.readUTF();
+        int payloadHash = data.readInt();
+
+        String[] strings = new String[data.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = data.readUTF();
+        }
+
+        PokemonEntry[] entries = new PokemonEntry[data.readInt()];
+        for (int i = 0; i < entries.length; i++) {
+            String key = strings[data.readInt()];
+            int num = data.readInt();
+            int form = data.readInt();
+            String name = strings[data.readInt()];
+            String displayName = strings[data.readInt()];
+            String baseSpecies = strings[data.readInt()];
+            String[] types = new String[data.readUnsignedByte()];
+            for (int t = 0; t < types.length; t++) {
+                types[t] = strings[data.readInt()];
+            }
+            short baseSpeed = data.readShort();
+            String[] aliases = new String[data.readUnsignedShort()];
+            for (int a = 0; a < aliases.length; a++) {
+                aliases[a] = strings[data.readInt()];
+            }
+            entries[i] = new PokemonEntry(key, num, form, name, displayName, baseSpecies,
+                    List.of(types), baseSpeed >= 0 ? (int) baseSpeed : null, List.of(aliases));
+        }
+
+        String[] sortedKeys = new String[entries.length];
+        int[] keyEntry = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keyEntry[i] = data.readInt();
+            sortedKeys[i] = entries[keyEntry[i]].canonicalName();
+        }
+
+        int aliasCount = data.readInt();
+        String[] sortedAliases = new String[aliasCount];
+        int[] aliasEntry = new int[aliasCount];
+        for (int i = 0; i < aliasCount; i++) {
+            sortedAliases[i] = strings[data.readInt()];
+            aliasEntry[i] = data.readInt();
+        }
+
+        byte[] gzip = new byte[data.readInt()];
+        data.readFully(gzip);
+
+        return new PokemonRegistry(version, payloadHash, entries, sortedKeys, keyEntry,
+                sortedAliases, aliasEntry, gzip);
+    }
+
+    void write(OutputStream out, String[] strings, ToIntFunction<String> stringId) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeUTF(version);
+        data.writeInt(payloadHash);
+
+        data.writeInt(strings.length);
+        for (String s : strings) {
+            data.writeUTF(s);
+        }
+
+        data.writeInt(entries.length);
+        for (PokemonEntry e : entries) {
+            data.writeInt(stringId.applyAsInt(e.canonicalName()));
+            data.writeInt(e.num());
+            data.writeInt(e.form());
+            data.writeInt(stringId.applyAsInt(e.name()));
+            data.writeInt(stringId.applyAsInt(e.displayName()));
+            data.writeInt(stringId.applyAsInt(e.baseSpecies()));
+            data.writeByte(e.types().size());
+            for (String t : e.types()) {
+                data.writeInt(stringId.applyAsInt(t));
+            }
+            data.writeShort(e.baseSpeed() != null ? e.baseSpeed() : -1);
+            data.writeShort(e.aliases().size());
+            for (String a : e.aliases()) {
+                data.writeInt(stringId.applyAsInt(a));
+            }
+        }
+
+        for (int idx : keyEntry) {
+            data.writeInt(idx);
+        }
+
+        data.writeInt(sortedAliases.length);
+        for (int i = 0; i < sortedAliases.length; i++) {
+            data.writeInt(stringId.applyAsInt(sortedAliases[i]));
+            data.writeInt(aliasEntry[i]);
+        }
+
+        data.writeInt(registryJsonGzip.length);
+        data.write(registryJsonGzip);
+        data.flush();
+    }
+
+    /**
+     * Map view over the entry array; iteration follows registry order, get() binary-searches.
+     */
+    private final class RegistryMapView extends AbstractMap<String, PokemonEntry> {
+        @Override
+        public PokemonEntry get(Object key) {
+            return key instanceof String s ? PokemonRegistry.this.get(s) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return entries.length;
+        }
+
+        @Override
+        public Set<Map.Entry<String, PokemonEntry>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, PokemonEntry>> iterator() {
+                    return new Iterator<>() {
+                        private int next = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < entries.length;
+                        }
+
+                        @Override
+                        public Map.Entry<String, PokemonEntry> next() {
+                            if (next >= entries.length) throw new NoSuchElementException();
+                            PokemonEntry e = entries[next++];
+                            return new SimpleImmutableEntry<>(e.canonicalName(), e);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return entries.length;
+                }
+            };
+        }
+    }
+}
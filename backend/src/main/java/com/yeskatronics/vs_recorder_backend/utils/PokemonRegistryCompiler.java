@@ -0,0 +1,190 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeskatronics.vs_recorder_backend.dto.PokemonEntry;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compiles {@code pokemon-data.json} into an immutable {@link PokemonRegistry}.
+ *
+ * <p>Runs at build time ({@code process-classes}, see pom.xml) to write
+ * {@code target/classes/pokemon-registry.bin}, so startup only has to read a flat binary instead of
+ * walking a ~1 MB JSON tree. {@link com.yeskatronics.vs_recorder_backend.services.PokemonService}
+ * falls back to compiling in memory if the binary is missing (e.g. running from an IDE without the
+ * Maven lifecycle).
+ *
+ * <p>Usage: {@code PokemonRegistryCompiler <pokemon-data.json> <pokemon-registry.bin>}
+ */
+public final class PokemonRegistryCompiler {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+
+    private PokemonRegistryCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PokemonRegistryCompiler <pokemon-data.json> <pokemon-registry.bin>");
+            System.exit(2);
+        }
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]);
+
+        PokemonRegistryCompiler compiler = new PokemonRegistryCompiler();
+        PokemonRegistry registry;
+        try (InputStream in = Files.newInputStream(source)) {
+            registry = compiler.compileInternal(in);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+            compiler.write(registry, out);
+        }
+
+        System.out.printf("Compiled %d Pokemon entries, %d aliases, %d strings (version %s) -> %s (%d bytes, registry body %d bytes gzipped)%n",
+                registry.size(), registry.aliasCount(), compiler.strings.size(), registry.getVersion(),
+                target, Files.size(target), registry.getRegistryJsonGzip().length);
+    }
+
+    /**
+     * Compile registry JSON into an in-memory registry.
+     */
+    public static PokemonRegistry compile(InputStream json) throws IOException {
+        return new PokemonRegistryCompiler().compileInternal(json);
+    }
+
+    /**
+     * Compile registry JSON straight to the binary format.
+     */
+    public static void compile(InputStream json, OutputStream out) throws IOException {
+        PokemonRegistryCompiler compiler = new PokemonRegistryCompiler();
+        compiler.write(compiler.compileInternal(json), out);
+    }
+
+    private void write(PokemonRegistry registry, OutputStream out) throws IOException {
+        registry.write(out, strings.toArray(new String[0]), stringIds::get);
+    }
+
+    private PokemonRegistry compileInternal(InputStream json) throws IOException {
+        JsonNode root = objectMapper.readTree(json);
+        String version = intern(root.path("version").asText("unknown"));
+
+        // Insertion semantics must match the historical alias index exactly: the canonical key
+        // (and its hyphen-less form) always overwrites, aliases and Showdown names only fill gaps.
+        Map<String, PokemonEntry> registry = new LinkedHashMap<>();
+        Map<String, String> aliasIndex = new HashMap<>();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = root.path("pokemon").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = intern(field.getKey());
+            JsonNode node = field.getValue();
+
+            List<String> types = new ArrayList<>();
+            node.path("types").forEach(t -> types.add(intern(t.asText())));
+
+            List<String> aliases = new ArrayList<>();
+            node.path("aliases").forEach(a -> aliases.add(intern(a.asText())));
+
+            PokemonEntry entry = new PokemonEntry(
+                    key,
+                    node.path("num").asInt(),
+                    node.path("form").asInt(),
+                    intern(node.path("name").asText()),
+                    intern(node.path("displayName").asText()),
+                    intern(node.path("baseSpecies").asText(key)),
+                    List.copyOf(types),
+                    node.hasNonNull("baseSpeed") ? node.get("baseSpeed").asInt() : null,
+                    List.copyOf(aliases)
+            );
+            registry.put(key, entry);
+
+            aliasIndex.put(key, key);
+            aliasIndex.put(key.replace("-", ""), key);
+
+            for (String alias : aliases) {
+                String normalized = normalizeForLookup(alias);
+                aliasIndex.putIfAbsent(normalized, key);
+                aliasIndex.putIfAbsent(normalized.replace("-", ""), key);
+            }
+
+            aliasIndex.putIfAbsent(normalizeForLookup(entry.name()), key);
+        }
+
+        PokemonEntry[] entries = registry.values().toArray(new PokemonEntry[0]);
+        Map<String, Integer> entryIndex = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            entryIndex.put(entries[i].canonicalName(), i);
+        }
+
+        String[] sortedKeys = registry.keySet().toArray(new String[0]);
+        Arrays.sort(sortedKeys);
+        int[] keyEntry = new int[sortedKeys.length];
+        for (int i = 0; i < sortedKeys.length; i++) {
+            keyEntry[i] = entryIndex.get(sortedKeys[i]);
+        }
+
+        String[] sortedAliases = aliasIndex.keySet().stream().map(this::intern).sorted().toArray(String[]::new);
+        int[] aliasEntry = new int[sortedAliases.length];
+        for (int i = 0; i < sortedAliases.length; i++) {
+            aliasEntry[i] = entryIndex.get(aliasIndex.get(sortedAliases[i]));
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", version);
+        body.put("pokemon", registry);
+        byte[] bodyJson = objectMapper.writeValueAsBytes(body);
+
+        CRC32 crc = new CRC32();
+        crc.update(bodyJson);
+
+        return new PokemonRegistry(version, (int) crc.getValue(), entries, sortedKeys, keyEntry,
+                sortedAliases, aliasEntry, gzip(bodyJson));
+    }
+
+    /**
+     * Return the shared instance of {@code s}, registering it in the string table.
+     */
+    private String intern(String s) {
+        Integer id = stringIds.get(s);
+        if (id != null) {
+            return strings.get(id);
+        }
+        stringIds.put(s, strings.size());
+        strings.add(s);
+        return s;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            gz.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Normalize a string for alias lookup: lowercase, trim. Must match PokemonService.
+     */
+    static String normalizeForLookup(String input) {
+        return input.toLowerCase().trim();
+    }
+}
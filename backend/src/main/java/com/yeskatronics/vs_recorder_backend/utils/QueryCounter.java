@@ -0,0 +1,42 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} that counts the SQL statements prepared on the current thread.
+ *
+ * <p>Registered through {@code hibernate.session_factory.statement_inspector}. The counter is
+ * per-thread, so a request (or test) resets it, does its work, and reads how many statements ran.
+ * The SQL itself is passed through untouched.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Start counting from zero on this thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return statements prepared on this thread since the last {@link #reset()}
+     */
+    public static int current() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Drop this thread's counter (pooled threads outlive the request).
+     */
+    public static void clear() {
+        COUNT.remove();
+    }
+}
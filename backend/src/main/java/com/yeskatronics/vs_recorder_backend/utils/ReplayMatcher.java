@@ -69,6 +69,10 @@ public class ReplayMatcher {
      * @return Bo3 match info, or Bo1 info if not a Bo3 replay
      */
     public static Bo3MatchInfo parseBattleLog(String battleLogJson) {
+        return ParseMetrics.timed("bo3-info", battleLogJson, () -> doParseBattleLog(battleLogJson));
+    }
+
+    private static Bo3MatchInfo doParseBattleLog(String battleLogJson) {
         if (battleLogJson == null || battleLogJson.isEmpty()) {
             log.debug("Empty battle log, treating as Bo1");
             return Bo3MatchInfo.createBo1();
@@ -220,6 +224,10 @@ public class ReplayMatcher {
      * @return BattleData with winner, players, and teams
      */
     public static BattleData extractBattleData(String battleLogJson, List<String> userShowdownUsernames) {
+        return ParseMetrics.timed("battle-data", battleLogJson, () -> doExtractBattleData(battleLogJson, userShowdownUsernames));
+    }
+
+    private static BattleData doExtractBattleData(String battleLogJson, List<String> userShowdownUsernames) {
         BattleData data = new BattleData();
         data.setPlayers(new HashMap<>());
         data.setTeams(new HashMap<>());
@@ -0,0 +1,107 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution ("single flight").
+ *
+ * <ul>
+ *   <li>The first caller for a key runs the loader on its own thread; callers arriving while it
+ *       is in flight wait on the same {@link CompletableFuture} and get the same result (or the
+ *       same exception).</li>
+ *   <li>Nothing is cached: once the flight lands the key is forgotten, and the next caller starts
+ *       a fresh one. Combine with {@link LookupCache} when results should also be reused later.</li>
+ * </ul>
+ * Used for upstream fetches (Showdown battles, pastes, LabMaus queries) where a burst of identical
+ * requests, e.g. when a tournament ends, should cost one HTTP call and one parse.
+ *
+ * @param <K> key type, the canonical upstream resource
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private Counter coalesced;
+
+    private SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name metric name suffix (e.g. "showdown.replays")
+     */
+    public static <K, V> SingleFlight<K, V> create(String name) {
+        return new SingleFlight<>(name);
+    }
+
+    /**
+     * Count callers that joined an existing flight under {@code upstream.coalesced}, tagged by name.
+     *
+     * @return this, for chaining at construction time
+     */
+    public SingleFlight<K, V> withMetrics(MeterRegistry registry) {
+        if (registry != null) {
+            coalesced = Counter.builder("upstream.coalesced")
+                    .description("Calls that shared an in-flight upstream fetch instead of making their own")
+                    .tag("name", name)
+                    .register(registry);
+        }
+        return this;
+    }
+
+    /**
+     * Run {@code loader} for {@code key}, or wait for the run already in flight.
+     * Runtime exceptions from the loader are rethrown as-is to every waiting caller.
+     */
+    public V execute(K key, Supplier<? extends V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (coalesced != null) {
+                coalesced.increment();
+            }
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Number of keys with a flight in progress.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
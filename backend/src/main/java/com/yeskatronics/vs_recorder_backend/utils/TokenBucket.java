@@ -0,0 +1,79 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding {@code capacity} tokens that refill evenly over {@code period}.
+ *
+ * <p>Implemented as a generic cell rate algorithm: the whole state is one {@link AtomicLong}
+ * holding the theoretical arrival time ("TAT") — the instant at which the bucket would be full
+ * again. Taking a token pushes the TAT one refill interval forward; the request is allowed as long
+ * as the TAT stays within one period of now. A compare-and-set retry loop replaces any lock, so
+ * concurrent callers on the same key never block each other.
+ *
+ * <p>All methods take the current {@link System#nanoTime()} so tests can drive the clock.
+ */
+public final class TokenBucket {
+
+    private final int capacity;
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param consumed tokens already spent in the current period, e.g. counted from the database
+     *                 when the bucket is rebuilt after a restart
+     */
+    public TokenBucket(int capacity, Duration period, int consumed, long now) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.intervalNanos = period.toNanos() / capacity;
+        this.periodNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(now + intervalNanos * Math.min(Math.max(consumed, 0), capacity));
+    }
+
+    /**
+     * Take one token if available.
+     *
+     * @return 0 if the token was taken, otherwise nanoseconds until the next token frees up
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long overshoot = next - now - periodNanos;
+            if (overshoot > 0) {
+                return overshoot;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a token taken by {@link #tryAcquire} whose work didn't happen.
+     */
+    public void refund(long now) {
+        fullAt.updateAndGet(current -> Math.max(current - intervalNanos, now));
+    }
+
+    public int remaining(long now) {
+        long used = Math.max(fullAt.get() - now, 0);
+        return (int) Math.max(capacity - (used + intervalNanos - 1) / intervalNanos, 0);
+    }
+
+    /**
+     * Nanoseconds until every token is back.
+     */
+    public long nanosUntilFull(long now) {
+        return Math.max(fullAt.get() - now, 0);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
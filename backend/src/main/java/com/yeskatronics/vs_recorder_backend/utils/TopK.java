@@ -0,0 +1,141 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import java.util.Arrays;
+
+/**
+ * Bounded selection of the {@code k} highest-ranked entries, without sorting or boxing the rest.
+ *
+ * <p>Entries are an {@code int} handle (an id from {@link NameIds} or a {@link CounterTable} row)
+ * with a primitive {@code long} rank key: higher keys rank first. Equal keys fall back to an
+ * {@code int} tiebreak, lowest first: callers pass something deterministic such as a name's
+ * alphabetical rank, or leave it to offer order like a stable sort. Survivors live in a min-heap of at most {@code k} slots, so ranking n entries
+ * costs O(n log k) and callers only build response objects for the handles {@link #drain()} returns.
+ *
+ * <p>Not thread-safe: create one per selection.
+ */
+public final class TopK {
+
+    private final int k;
+    private long[] keys;
+    private int[] handles;
+    private int[] tiebreaks;
+    private int size;
+    private int offered;
+
+    /**
+     * @param k how many entries to keep; {@code Integer.MAX_VALUE} ranks everything offered
+     */
+    public TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        int capacity = Math.min(k, 16);
+        keys = new long[capacity];
+        handles = new int[capacity];
+        tiebreaks = new int[capacity];
+    }
+
+    /**
+     * Rank key ordering by {@code primary}, then {@code secondary} (both higher first). Negate a
+     * component to rank it lower first.
+     */
+    public static long key(int primary, int secondary) {
+        return ((long) primary << 32) + secondary;
+    }
+
+    /**
+     * Offer an entry; equal keys keep offer order.
+     */
+    public void offer(long key, int handle) {
+        offer(key, offered, handle);
+    }
+
+    /**
+     * Offer an entry; equal keys rank the lower {@code tiebreak} first.
+     */
+    public void offer(long key, int tiebreak, int handle) {
+        offered++;
+        if (size < k) {
+            if (size == keys.length) {
+                int capacity = (int) Math.min(k, Math.max(16L, keys.length * 2L));
+                keys = Arrays.copyOf(keys, capacity);
+                handles = Arrays.copyOf(handles, capacity);
+                tiebreaks = Arrays.copyOf(tiebreaks, capacity);
+            }
+            set(size, key, handle, tiebreak);
+            siftUp(size++);
+        } else if (k > 0 && (key > keys[0] || (key == keys[0] && tiebreak < tiebreaks[0]))) {
+            set(0, key, handle, tiebreak);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return number of entries offered so far, kept or not
+     */
+    public int offered() {
+        return offered;
+    }
+
+    /**
+     * The kept handles, best first. Empties the selector.
+     */
+    public int[] drain() {
+        int[] ranked = new int[size];
+        while (size > 0) {
+            ranked[size - 1] = handles[0];
+            size--;
+            set(0, keys[size], handles[size], tiebreaks[size]);
+            siftDown(0);
+        }
+        return ranked;
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!below(slot, parent)) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int lowest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && below(left, lowest)) lowest = left;
+            if (right < size && below(right, lowest)) lowest = right;
+            if (lowest == slot) {
+                return;
+            }
+            swap(slot, lowest);
+            slot = lowest;
+        }
+    }
+
+    /**
+     * Whether slot {@code a} ranks below slot {@code b}: a lower key, or the same key with a higher tiebreak.
+     */
+    private boolean below(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && tiebreaks[a] > tiebreaks[b]);
+    }
+
+    private void set(int slot, long key, int handle, int tiebreak) {
+        keys[slot] = key;
+        handles[slot] = handle;
+        tiebreaks[slot] = tiebreak;
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        int handle = handles[a];
+        int tiebreak = tiebreaks[a];
+        set(a, keys[b], handles[b], tiebreaks[b]);
+        set(b, key, handle, tiebreak);
+    }
+}
@@ -0,0 +1,74 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+/**
+ * Small-sample aware win rates computed straight from win/game counters.
+ *
+ * <p>{@link #lower} and {@link #upper} are the 95% Wilson score interval: 3-0 against a species
+ * gives roughly 44-100%, 30-0 gives 89-100%, so ranking by the lower bound rewards results that
+ * are both good and well sampled without a hard minimum-games cutoff. {@link #smoothed} is the
+ * Beta posterior mean, which shrinks a rate toward a prior (typically the team's overall win rate)
+ * by {@code priorGames} pseudo-games.
+ *
+ * <p>All methods take and return plain numbers, so scoring a counter row allocates nothing.
+ */
+public final class WinRateScore {
+
+    /** Two-sided 95% normal quantile. */
+    private static final double Z = 1.959964;
+    private static final double Z2 = Z * Z;
+
+    private WinRateScore() {
+    }
+
+    /**
+     * @return lower bound of the 95% Wilson interval, in [0, 1]; 0 when there are no games
+     */
+    public static double lower(int wins, int games) {
+        if (games <= 0) return 0.0;
+        return Math.max(0.0, center(wins, games) - margin(wins, games));
+    }
+
+    /**
+     * @return upper bound of the 95% Wilson interval, in [0, 1]; 1 when there are no games
+     */
+    public static double upper(int wins, int games) {
+        if (games <= 0) return 1.0;
+        return Math.min(1.0, center(wins, games) + margin(wins, games));
+    }
+
+    /**
+     * Beta posterior mean with a Beta(priorRate * priorGames, (1 - priorRate) * priorGames) prior.
+     *
+     * @return the smoothed rate in [0, 1]; {@code priorRate} when there are no games
+     */
+    public static double smoothed(int wins, int games, double priorRate, double priorGames) {
+        double weight = Math.max(0.0, priorGames);
+        if (games <= 0 && weight == 0.0) return priorRate;
+        return (wins + priorRate * weight) / (games + weight);
+    }
+
+    /**
+     * @return {@code rate} as a rounded percentage
+     */
+    public static int percent(double rate) {
+        return (int) Math.round(rate * 100.0);
+    }
+
+    /**
+     * Fixed-point form of a rate in [0, 1] for {@link TopK#key(int, int)}, fine enough that
+     * distinct counters never collide.
+     */
+    public static int rankKey(double rate) {
+        return (int) Math.round(rate * 1_000_000_000.0);
+    }
+
+    private static double center(int wins, int games) {
+        double p = (double) wins / games;
+        return (p + Z2 / (2.0 * games)) / (1.0 + Z2 / games);
+    }
+
+    private static double margin(int wins, int games) {
+        double p = (double) wins / games;
+        return Z * Math.sqrt(p * (1.0 - p) / games + Z2 / (4.0 * games * games)) / (1.0 + Z2 / games);
+    }
+}
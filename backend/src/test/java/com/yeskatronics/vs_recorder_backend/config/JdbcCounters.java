@@ -0,0 +1,128 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Test-only JDBC instrumentation: wraps the application DataSource so every statement executed
+ * and every result-set row read is counted on the calling thread.
+ *
+ * <p>Complements {@link com.yeskatronics.vs_recorder_backend.utils.QueryCounter}, which only sees
+ * the SQL Hibernate prepares: this layer sits under Hibernate, so it also sees how many rows
+ * each statement dragged back. Import it into a test with {@code @Import(JdbcCounters.class)}.
+ */
+@TestConfiguration
+public class JdbcCounters {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    /**
+     * Start counting from zero on this thread.
+     */
+    public static void reset() {
+        long[] counts = COUNTS.get();
+        counts[0] = 0;
+        counts[1] = 0;
+    }
+
+    /**
+     * @return statements executed on this thread since the last {@link #reset()}
+     */
+    public static long statements() {
+        return COUNTS.get()[0];
+    }
+
+    /**
+     * @return result-set rows read on this thread since the last {@link #reset()}
+     */
+    public static long rows() {
+        return COUNTS.get()[1];
+    }
+
+    @Bean
+    static BeanPostProcessor countingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)
+                        ? new CountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    /**
+     * Proxy a Connection, Statement or ResultSet; objects handed out by a proxy are proxied in
+     * turn so counting follows the whole chain.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target) {
+        if (target == null) {
+            return null;
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (target instanceof Statement && EXECUTE_METHODS.contains(method.getName())) {
+                COUNTS.get()[0]++;
+            }
+            if (target instanceof ResultSet && method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                COUNTS.get()[1]++;
+            }
+            return wrapResult(method, result);
+        };
+        return (T) Proxy.newProxyInstance(JdbcCounters.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object wrapResult(Method method, Object result) {
+        if (result == null || method.getName().equals("unwrap")) {
+            return result;
+        }
+        Class<?> returnType = method.getReturnType();
+        if (Statement.class.isAssignableFrom(returnType)) {
+            return wrap((Class<Statement>) returnType, (Statement) result);
+        }
+        if (returnType == ResultSet.class && !method.getName().equals("getGeneratedKeys")) {
+            return wrap(ResultSet.class, (ResultSet) result);
+        }
+        return result;
+    }
+}
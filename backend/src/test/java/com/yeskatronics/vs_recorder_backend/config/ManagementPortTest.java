@@ -0,0 +1,55 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Actuator exposure as in the prod profile: metrics and Prometheus are served on a separate
+ * management port, and the app port only answers health and info anonymously.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "management.endpoints.web.exposure.include=health,info,metrics,prometheus"})
+@AutoConfigureObservability
+class ManagementPortTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Value("${local.server.port}")
+    private int serverPort;
+
+    @Value("${local.management.port}")
+    private int managementPort;
+
+    @Test
+    void prometheusIsScrapedOnTheManagementPort() throws Exception {
+        assertEquals(200, get(serverPort, "/api/pokemon/rillaboom/resolve").statusCode());
+
+        HttpResponse<String> scrape = get(managementPort, "/actuator/prometheus");
+        assertEquals(200, scrape.statusCode());
+        assertTrue(scrape.body().contains("http_server_requests_queries"), "query count summary should be scraped");
+        assertTrue(scrape.body().contains("cache_gets"), "sprite cache hit/miss counters should be scraped");
+        assertEquals(200, get(managementPort, "/actuator/health").statusCode());
+    }
+
+    @Test
+    void appPortDoesNotServeMetricsAnonymously() throws Exception {
+        assertEquals(401, get(serverPort, "/actuator/prometheus").statusCode());
+        assertEquals(401, get(serverPort, "/actuator/metrics").statusCode());
+    }
+
+    private HttpResponse<String> get(int port, String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,87 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import com.yeskatronics.vs_recorder_backend.services.PokemonService;
+import com.yeskatronics.vs_recorder_backend.utils.BattleLogParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the hot-path meters. The Prometheus scrape itself is covered by {@link ManagementPortTest}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PokemonService pokemonService;
+
+    @Test
+    void requestQueryCountIsRecordedPerRoute() throws Exception {
+        mockMvc.perform(get("/api/pokemon/rillaboom/resolve")).andExpect(status().isOk());
+
+        assertTrue(meterRegistry.get("http.server.requests.queries")
+                .tag("uri", "/api/pokemon/{name}/resolve")
+                .summary().count() >= 1);
+    }
+
+    @Test
+    void upstreamCallsAreTimedPerHost() {
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://pokeapi.co/api/v2/pokemon/missingno"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(requestTo("https://pokepast.es/abc123/json"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        assertThrows(Exception.class, () -> restTemplate.getForObject("https://pokeapi.co/api/v2/pokemon/missingno", String.class));
+        restTemplate.getForObject("https://pokepast.es/abc123/json", String.class);
+        server.verify();
+
+        assertEquals(1, meterRegistry.get("upstream.requests")
+                .tags("host", "pokeapi.co", "outcome", "CLIENT_ERROR", "status", "404")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("upstream.requests")
+                .tags("host", "pokepast.es", "outcome", "SUCCESS")
+                .timer().count());
+    }
+
+    @Test
+    void parseTimeAndSizeAreRecorded() throws Exception {
+        String log = Files.readString(Paths.get("src/test/resources/replays/bo1/maus.json"));
+        BattleLogParser.parseBattleLog(log, pokemonService);
+
+        assertTrue(meterRegistry.get("replay.parse").tag("parser", "battle-log").timer().count() >= 1);
+        assertTrue(meterRegistry.get("replay.parse.size").tag("parser", "battle-log").summary().max() >= log.length());
+    }
+}
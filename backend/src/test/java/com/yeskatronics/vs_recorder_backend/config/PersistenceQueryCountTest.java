@@ -0,0 +1,173 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import com.yeskatronics.vs_recorder_backend.entities.*;
+import com.yeskatronics.vs_recorder_backend.repositories.MatchRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamMemberRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.security.JwtUtil;
+import com.yeskatronics.vs_recorder_backend.services.CascadeDeleteService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements per request for the list endpoints, read from {@code http.server.requests.queries}
+ * (counted by {@link com.yeskatronics.vs_recorder_backend.utils.QueryCounter}).
+ *
+ * <p>The same requests run against a user with one small team and one with eight larger ones;
+ * with collection batch fetching the count must not grow with the number of rows. Not
+ * transactional, so each request loads its data in its own session as in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PersistenceQueryCountTest {
+
+    private static final int MAX_QUERIES = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private ReplayRepository replayRepository;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    private final List<Long> seededUsers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        seededUsers.forEach(cascadeDeleteService::deleteUser);
+    }
+
+    @Test
+    void listEndpointQueryCountsDontGrowWithRows() throws Exception {
+        Map<String, Double> small = measure(seed("querycountsmall", 1));
+        Map<String, Double> large = measure(seed("querycountlarge", 8));
+
+        for (String route : small.keySet()) {
+            assertEquals(small.get(route), large.get(route), route + " ran more statements for more rows");
+            assertTrue(large.get(route) <= MAX_QUERIES, route + " ran " + large.get(route) + " statements");
+        }
+    }
+
+    private Map<String, Double> measure(User user) throws Exception {
+        String token = "Bearer " + jwtUtil.generateAccessToken(
+                userDetailsService.loadUserByUsername(user.getUsername()), user.getId());
+        Long teamId = teamRepository.findByUserId(user.getId()).get(0).getId();
+
+        Map<String, Double> counts = new LinkedHashMap<>();
+        counts.put("/api/teams", queries("/api/teams", "/api/teams", token));
+        counts.put("/api/teams/{id}", queries("/api/teams/" + teamId, "/api/teams/{id}", token));
+        counts.put("/api/replays", queries("/api/replays?teamId=" + teamId, "/api/replays", token));
+        counts.put("/api/matches", queries("/api/matches?teamId=" + teamId, "/api/matches", token));
+        counts.put("/api/matches/with-replays",
+                queries("/api/matches/with-replays?teamId=" + teamId, "/api/matches/with-replays", token));
+        return counts;
+    }
+
+    private double queries(String url, String route, String token) throws Exception {
+        double before = totalQueries(route);
+        mockMvc.perform(get(url).header("Authorization", token)).andExpect(status().isOk());
+        return totalQueries(route) - before;
+    }
+
+    private double totalQueries(String route) {
+        DistributionSummary summary = meterRegistry.find("http.server.requests.queries")
+                .tag("method", "GET").tag("uri", route).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    /**
+     * A user with {@code size} teams, each with six members (with calcs), two showdown names and
+     * {@code size} tagged Bo3 matches of two replays.
+     */
+    private User seed(String username, int size) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashed_password");
+        user = userRepository.save(user);
+        seededUsers.add(user.getId());
+
+        for (int t = 0; t < size; t++) {
+            Team team = new Team();
+            team.setName("Team " + t);
+            team.setPokepaste("https://pokepast.es/test");
+            team.setRegulation("Reg G");
+            team.setUser(user);
+            team.addShowdownUsername("larry ayuso");
+            team.addShowdownUsername("alt" + t);
+            team = teamRepository.save(team);
+
+            for (int slot = 1; slot <= 6; slot++) {
+                TeamMember member = new TeamMember();
+                member.setTeam(team);
+                member.setPokemonName("Member" + slot);
+                member.setSlot(slot);
+                member.getCalcs().add("252+ Atk vs 252 HP");
+                teamMemberRepository.save(member);
+            }
+
+            for (int m = 0; m < size; m++) {
+                Match match = new Match();
+                match.setTeam(team);
+                match.setOpponent("opponent" + m);
+                match.getTags().add("week" + m);
+                match = matchRepository.save(match);
+
+                for (int game = 0; game < 2; game++) {
+                    Replay replay = new Replay();
+                    replay.setTeam(team);
+                    replay.setMatch(match);
+                    replay.setUrl("https://replay.pokemonshowdown.com/" + username + "-" + t + "-" + m + "-" + game);
+                    replay.setBattleLog("{}");
+                    replay.setResult(game == 0 ? "win" : "loss");
+                    replay.setOpponent("opponent" + m);
+                    replay.setDate(LocalDateTime.now().minusDays(m));
+                    replayRepository.save(replay);
+                }
+            }
+        }
+        return user;
+    }
+}
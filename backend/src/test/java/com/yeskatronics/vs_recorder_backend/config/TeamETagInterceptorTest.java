@@ -0,0 +1,249 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import com.yeskatronics.vs_recorder_backend.dto.ExportDTO;
+import com.yeskatronics.vs_recorder_backend.dto.TeamCollaboratorDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Match;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.entities.TeamCollaborator;
+import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.repositories.MatchRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.security.JwtUtil;
+import com.yeskatronics.vs_recorder_backend.services.CascadeDeleteService;
+import com.yeskatronics.vs_recorder_backend.services.MatchService;
+import com.yeskatronics.vs_recorder_backend.services.OpponentIndexBackfill;
+import com.yeskatronics.vs_recorder_backend.services.OpponentIndexService;
+import com.yeskatronics.vs_recorder_backend.services.ReplayService;
+import com.yeskatronics.vs_recorder_backend.services.TeamCollaboratorService;
+import com.yeskatronics.vs_recorder_backend.services.TeamExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs on team-scoped reads: 304 while the team is unchanged, a new ETag after any
+ * write, per-caller tags, and no 304 once access is gone. Not transactional, so every request
+ * sees committed data as in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TeamETagInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private ReplayRepository replayRepository;
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TeamCollaboratorService collaboratorService;
+
+    @Autowired
+    private TeamExportService teamExportService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    @Autowired
+    private OpponentIndexBackfill opponentIndexBackfill;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private User collaborator;
+    private Team team;
+    private Match match;
+    private Replay replay;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        owner = newUser("etagowner");
+        collaborator = newUser("etagcollab");
+
+        team = new Team();
+        team.setName("ETag Team");
+        team.setPokepaste("https://pokepast.es/test");
+        team.setRegulation("Reg G");
+        team.setUser(owner);
+        team.addShowdownUsername("larry ayuso");
+        team = teamRepository.save(team);
+
+        match = new Match();
+        match.setTeam(team);
+        match.setOpponent("opponent");
+        match = matchRepository.save(match);
+
+        replay = new Replay();
+        replay.setUrl("https://replay.pokemonshowdown.com/etag-" + team.getId());
+        replay.setBattleLog(Files.readString(Paths.get("src/test/resources/replays/bo1/bothtera.json")));
+        replay.setResult("win");
+        replay.setDate(LocalDateTime.of(2026, 3, 2, 10, 0));
+        replay.setMatch(match);
+        replay = replayService.createReplay(replay, team.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String username : List.of("etagowner", "etagcollab")) {
+            userRepository.findByUsername(username).ifPresent(u -> cascadeDeleteService.deleteUser(u.getId()));
+        }
+    }
+
+    @Test
+    void unchangedTeamReadsAreNotModifiedUntilTheTeamChanges() throws Exception {
+        String token = token(owner);
+        List<String> urls = List.of(
+                "/api/replays?teamId=" + team.getId(),
+                "/api/replays/" + replay.getId(),
+                "/api/replays/" + replay.getId() + "/timeline?kinds=move,faint",
+                "/api/matches/" + match.getId(),
+                "/api/team-members?teamId=" + team.getId(),
+                "/api/teams/" + team.getId() + "/analytics/usage");
+
+        for (String url : urls) {
+            MvcResult first = mockMvc.perform(get(url).header("Authorization", token))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andReturn();
+            String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag, url);
+            assertTrue(etag.startsWith("W/\""), url);
+
+            MvcResult revalidated = mockMvc.perform(get(url).header("Authorization", token)
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andReturn();
+            assertEquals(0, revalidated.getResponse().getContentLength());
+        }
+
+        String url = "/api/matches/" + match.getId();
+        String before = etag(url, token);
+        matchService.addTag(match.getId(), team.getId(), "locals");
+
+        String after = mockMvc.perform(get(url).header("Authorization", token)
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void tagsArePerCallerAndRevokedAccessIsNotRevalidated() throws Exception {
+        TeamCollaboratorDTO.InviteRequest invite = new TeamCollaboratorDTO.InviteRequest();
+        invite.setEmail(collaborator.getEmail());
+        TeamCollaborator membership = collaboratorService.accept(
+                collaboratorService.invite(team.getId(), owner.getId(), invite).getInviteToken(), collaborator.getId());
+
+        String url = "/api/replays?teamId=" + team.getId();
+        String collabToken = token(collaborator);
+        String collabEtag = etag(url, collabToken);
+        assertNotEquals(etag(url, token(owner)), collabEtag);
+
+        collaboratorService.remove(membership.getId());
+
+        int status = mockMvc.perform(get(url).header("Authorization", collabToken)
+                        .header(HttpHeaders.IF_NONE_MATCH, collabEtag))
+                .andReturn().getResponse().getStatus();
+        assertTrue(status >= 400, "revoked collaborator got " + status);
+    }
+
+    @Test
+    void backfillingTheOpponentIndexChangesTheTag() throws Exception {
+        // A replay indexed by an older version, before its species were stored
+        transactionTemplate.executeWithoutResult(status -> {
+            Replay stale = replayRepository.findById(replay.getId()).orElseThrow();
+            stale.getOpponentSpecies().clear();
+            stale.setOpponentIndexVersion(OpponentIndexService.INDEX_VERSION - 1);
+        });
+        String url = "/api/replays?teamId=" + team.getId() + "&opponentPokemon=Kyogre";
+        String token = token(owner);
+        String before = etag(url, token);
+
+        assertTrue(opponentIndexBackfill.backfill() > 0);
+
+        MvcResult after = mockMvc.perform(get(url).header("Authorization", token)
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(before, after.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(after.getResponse().getContentAsString().contains(replay.getUrl()));
+    }
+
+    @Test
+    void exportsRevalidateWithoutReloadingThePayload() throws Exception {
+        String code = teamExportService.generateExportCode(team.getId(), owner.getId(),
+                ExportDTO.ExportOptions.builder().build()).getCode();
+        String url = "/api/export/" + code;
+        String token = token(owner);
+
+        String etag = etag(url, token);
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etag(String url, String token) throws Exception {
+        String etag = mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, url);
+        return etag;
+    }
+
+    private String token(User user) {
+        return "Bearer " + jwtUtil.generateAccessToken(
+                userDetailsService.loadUserByUsername(user.getUsername()), user.getId());
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashed_password");
+        return userRepository.save(user);
+    }
+}
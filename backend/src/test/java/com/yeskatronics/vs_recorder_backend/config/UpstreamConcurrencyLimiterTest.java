@@ -0,0 +1,171 @@
+package com.yeskatronics.vs_recorder_backend.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load tests for the per-host upstream limiter against a local stub that answers /slow after
+ * {@value #SLOW_MILLIS}ms. "localhost" and "127.0.0.1" reach the same stub but count as separate
+ * upstream hosts.
+ */
+@Slf4j
+class UpstreamConcurrencyLimiterTest {
+
+    private static final int SLOW_MILLIS = 100;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(0), 512);
+        server.setExecutor(serverThreads);
+        server.createContext("/slow", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SLOW_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            respond(exchange);
+        });
+        server.createContext("/fast", UpstreamConcurrencyLimiterTest::respond);
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void throughputIsCappedPerHost() throws Exception {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(meterRegistry, 4, Duration.ofSeconds(10));
+        RestTemplate restTemplate = restTemplate(limiter);
+        ExecutorService callers = Executors.newFixedThreadPool(32);
+
+        long elapsedMillis = runCalls(restTemplate, url("localhost", "/slow"), 32, callers);
+        callers.shutdown();
+
+        // 32 calls, 4 at a time, 100ms each: at least 8 rounds
+        assertTrue(maxInFlight.get() <= 4, "upstream saw " + maxInFlight.get() + " concurrent calls");
+        assertTrue(elapsedMillis >= 8 * SLOW_MILLIS, "finished in " + elapsedMillis + "ms");
+        assertEquals(0, limiter.inFlight("localhost"));
+        log.info("Limited platform threads: 32 calls in {}ms ({} req/s)",
+                elapsedMillis, Math.round(32 * 1000.0 / elapsedMillis));
+    }
+
+    @Test
+    void saturatedHostFailsFastAndOtherHostsKeepServing() throws Exception {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(meterRegistry, 2, Duration.ofMillis(20));
+        RestTemplate restTemplate = restTemplate(limiter);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        List<CompletableFuture<Boolean>> slowCalls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            slowCalls.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    restTemplate.getForObject(url("localhost", "/slow"), String.class);
+                    return true;
+                } catch (ResourceAccessException e) {
+                    return false;
+                }
+            }, callers));
+        }
+
+        // While localhost is saturated, a different host answers immediately
+        Thread.sleep(SLOW_MILLIS / 4);
+        long start = System.nanoTime();
+        assertEquals("ok", restTemplate.getForObject(url("127.0.0.1", "/fast"), String.class));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < SLOW_MILLIS);
+
+        long succeeded = slowCalls.stream().filter(CompletableFuture::join).count();
+        callers.shutdown();
+        assertEquals(2, succeeded);
+        assertEquals(6, meterRegistry.get("upstream.limiter.rejected").tag("host", "localhost").counter().count());
+    }
+
+    /**
+     * With virtual threads the caller count no longer matters: 1000 concurrent calls park cheaply
+     * and throughput is set by the per-host limit alone (about limit / latency).
+     */
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreadCallersScaleToTheHostLimit() throws Exception {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(meterRegistry, 100, Duration.ofSeconds(30));
+        RestTemplate restTemplate = restTemplate(limiter);
+
+        long elapsedMillis = runCalls(restTemplate, url("localhost", "/slow"), 1000,
+                new VirtualThreadTaskExecutor("load-test-"));
+
+        assertTrue(maxInFlight.get() <= 100);
+        // 10 rounds of 100ms when fully parallel; generous bound for slow CI machines
+        assertTrue(elapsedMillis < 10 * SLOW_MILLIS * 5, "finished in " + elapsedMillis + "ms");
+        log.info("Virtual threads: 1000 calls in {}ms ({} req/s)",
+                elapsedMillis, Math.round(1000 * 1000.0 / elapsedMillis));
+    }
+
+    private RestTemplate restTemplate(UpstreamConcurrencyLimiter limiter) {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(limiter);
+        restTemplate.getInterceptors().add(new UpstreamMetricsInterceptor(meterRegistry));
+        return restTemplate;
+    }
+
+    private static long runCalls(RestTemplate restTemplate, String url, int calls, Executor executor) {
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> restTemplate.getForObject(url, String.class), executor));
+        }
+        futures.forEach(f -> assertEquals("ok", f.join()));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private String url(String host, String path) {
+        return "http://" + host + ":" + server.getAddress().getPort() + path;
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
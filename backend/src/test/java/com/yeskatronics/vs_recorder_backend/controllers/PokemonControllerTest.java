@@ -11,12 +11,18 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -114,6 +120,30 @@ class PokemonControllerTest {
                 .andExpect(jsonPath("$.message").value("Pokemon not found: " + pokemonName));
     }
 
+    @Test
+    void testGetPokemonSprite_NotFound_isNegativelyCached() throws Exception {
+        String pokemonName = "missingno-negative";
+
+        when(restTemplate.getForObject(anyString(), eq(Map.class)))
+                .thenThrow(org.springframework.web.client.HttpClientErrorException.NotFound.create(
+                        org.springframework.http.HttpStatus.NOT_FOUND,
+                        "Not Found",
+                        org.springframework.http.HttpHeaders.EMPTY,
+                        new byte[0],
+                        null));
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/pokemon/" + pokemonName + "/sprite")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Pokemon not found: " + pokemonName));
+        }
+
+        // Only the first miss reaches PokeAPI
+        verify(restTemplate, times(1))
+                .getForObject(eq("https://pokeapi.co/api/v2/pokemon/" + pokemonName), eq(Map.class));
+    }
+
     @Test
     void testGetPokemonSprite_WithSpaces() throws Exception {
         // Flutter Mane is in the Pokemon registry, so it returns a local sprite path
@@ -126,4 +156,41 @@ class PokemonControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.url").value("/sprites/icon0987_f00_s0.png"));
     }
+
+    @Test
+    void testGetRegistry_ReturnsJsonWithEtag() throws Exception {
+        mockMvc.perform(get("/api/pokemon/registry"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.version").isNotEmpty())
+                .andExpect(jsonPath("$.pokemon.rillaboom.num").value(812));
+    }
+
+    @Test
+    void testGetRegistry_GzipWhenAccepted() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/pokemon/registry")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(json.contains("\"rillaboom\""));
+        }
+    }
+
+    @Test
+    void testGetRegistry_NotModifiedForMatchingEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/pokemon/registry"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/pokemon/registry")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
 }
@@ -0,0 +1,405 @@
+package com.yeskatronics.vs_recorder_backend.controllers;
+
+import com.yeskatronics.vs_recorder_backend.config.JdbcCounters;
+import com.yeskatronics.vs_recorder_backend.dto.ExportDTO;
+import com.yeskatronics.vs_recorder_backend.dto.TeamCollaboratorDTO;
+import com.yeskatronics.vs_recorder_backend.entities.*;
+import com.yeskatronics.vs_recorder_backend.repositories.*;
+import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.security.JwtUtil;
+import com.yeskatronics.vs_recorder_backend.services.*;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Query budget for every read endpoint: seeds a fixed, realistic dataset, calls each GET route
+ * once and fails if it executes more SQL statements or reads more rows than recorded in
+ * {@value #BASELINE}.
+ *
+ * <ul>
+ *   <li>Counts come from {@link JdbcCounters} and cover the whole request, security filter and
+ *       open-in-view lazy loads included. Each route is called once, cold, after seeding.</li>
+ *   <li>The baseline is checked in. After an intentional change (a new query, a bigger
+ *       dataset), regenerate it with {@code mvn test -Dtest=QueryBudgetTest -Dquery-budget.update=true}
+ *       and review the diff like any other code. Bump {@link #DATASET_VERSION} whenever the
+ *       seeded data changes, so a stale baseline can't pass by accident.</li>
+ *   <li>Not covered: routes that call upstream services (pokepaste fetch/parse, sprites,
+ *       tournament teams, team speed tiers), import job status/SSE (needs a running job) and
+ *       {@code GET /api/users} (lists every user in the database).</li>
+ * </ul>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(JdbcCounters.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class QueryBudgetTest {
+
+    static final String BASELINE = "query-budget.csv";
+    static final int DATASET_VERSION = 2;
+
+    private static final int TEAMS = 6;
+    private static final int MATCHES_PER_TEAM = 4;
+    private static final int STANDALONE_PER_TEAM = 3;
+    private static final List<String> LOGS = List.of("bothtera.json", "notera.json", "reggshadowvsice.json");
+    private static final LocalDateTime FIRST_GAME = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private FolderService folderService;
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private GamePlanRepository gamePlanRepository;
+
+    @Autowired
+    private GamePlanTeamRepository gamePlanTeamRepository;
+
+    @Autowired
+    private TeamCollaboratorService collaboratorService;
+
+    @Autowired
+    private TeamExportService teamExportService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    private User owner;
+    private User collaborator;
+    private final List<Team> teams = new ArrayList<>();
+    private Replay sampleReplay;
+    private Match sampleMatch;
+    private GamePlan gamePlan;
+    private GamePlanTeam planTeam;
+    private String exportCode;
+    private String pendingInviteToken;
+
+    @BeforeAll
+    void seed() throws IOException {
+        owner = newUser("budgetowner");
+        collaborator = newUser("budgetcollab");
+        User invitee = newUser("budgetinvitee");
+        Folder folder = folderService.createFolder("Season", owner.getId());
+
+        for (int t = 0; t < TEAMS; t++) {
+            Team team = new Team();
+            team.setName("Budget Team " + t);
+            team.setPokepaste("https://pokepast.es/test");
+            team.setRegulation("Reg G");
+            team.setUser(owner);
+            team.addShowdownUsername("larry ayuso");
+            team.addShowdownUsername("budget alt " + t);
+            team.addFolder(folder);
+            team = teamRepository.save(team);
+            teams.add(team);
+
+            for (int slot = 1; slot <= 6; slot++) {
+                TeamMember member = new TeamMember();
+                member.setTeam(team);
+                member.setPokemonName("Member " + slot);
+                member.setSlot(slot);
+                member.getCalcs().add("252+ Atk vs 252 HP");
+                member.getCalcs().add("204 Def vs 252+ Atk");
+                teamMemberRepository.save(member);
+            }
+
+            int game = 0;
+            for (int m = 0; m < MATCHES_PER_TEAM; m++) {
+                Match match = new Match();
+                match.setTeam(team);
+                match.setOpponent("opponent " + m);
+                match.getTags().addAll(List.of("week" + m, "locals"));
+                match = matchRepository.save(match);
+                for (int g = 0; g < 2; g++) {
+                    Replay replay = newReplay(team, game++, match);
+                    sampleReplay = sampleReplay == null ? replay : sampleReplay;
+                }
+                sampleMatch = sampleMatch == null ? match : sampleMatch;
+            }
+            for (int s = 0; s < STANDALONE_PER_TEAM; s++) {
+                newReplay(team, game++, null);
+            }
+        }
+
+        gamePlan = new GamePlan();
+        gamePlan.setUser(owner);
+        gamePlan.setTeamId(teams.get(0).getId());
+        gamePlan.setName("Budget plan");
+        gamePlan = gamePlanRepository.save(gamePlan);
+        for (int i = 0; i < 3; i++) {
+            GamePlanTeam planTeam = new GamePlanTeam();
+            planTeam.setGamePlan(gamePlan);
+            // The first one is pasted as text, with the species saving it would have resolved
+            planTeam.setPokepaste(i == 0
+                    ? "Incineroar @ Sitrus Berry\n- Fake Out\n\nRillaboom @ Miracle Seed\n- Fake Out\n"
+                    : "https://pokepast.es/opponent" + i);
+            if (i == 0) {
+                planTeam.setPasteSpecies(List.of("Incineroar", "Rillaboom"));
+            }
+            planTeam.setPosition(i);
+            planTeam.getCompositions().add(new GamePlanTeam.TeamComposition("A", "B", "C", "D", "notes"));
+            planTeam.getCompositions().add(new GamePlanTeam.TeamComposition("Grimmsnarl", "Calyrex-Ice",
+                    "Raging Bolt", "Landorus", null));
+            planTeam = gamePlanTeamRepository.save(planTeam);
+            if (i == 0) {
+                this.planTeam = planTeam;
+            }
+        }
+
+        for (int t = 0; t < 2; t++) {
+            TeamCollaborator invite = collaboratorService.invite(teams.get(t).getId(), owner.getId(), inviteFor(collaborator));
+            collaboratorService.accept(invite.getInviteToken(), collaborator.getId());
+        }
+        pendingInviteToken = collaboratorService.invite(teams.get(2).getId(), owner.getId(), inviteFor(invitee))
+                .getInviteToken();
+
+        exportCode = teamExportService.generateExportCode(teams.get(0).getId(), owner.getId(),
+                ExportDTO.ExportOptions.builder().build()).getCode();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        for (String username : List.of("budgetowner", "budgetcollab", "budgetinvitee")) {
+            userRepository.findByUsername(username).ifPresent(u -> cascadeDeleteService.deleteUser(u.getId()));
+        }
+    }
+
+    @Test
+    void readEndpointsStayWithinTheirQueryBudget() throws Exception {
+        Map<String, Usage> measured = measureAll();
+        Path baselinePath = Paths.get("src/test/resources", BASELINE);
+
+        if (Boolean.getBoolean("query-budget.update")) {
+            Files.writeString(baselinePath, render(measured), StandardCharsets.UTF_8);
+            log.info("Wrote {} query budgets to {}", measured.size(), baselinePath);
+            return;
+        }
+
+        Map<String, Usage> budget = parse(Files.readAllLines(baselinePath, StandardCharsets.UTF_8));
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, Usage> entry : measured.entrySet()) {
+            Usage allowed = budget.get(entry.getKey());
+            Usage used = entry.getValue();
+            if (allowed == null) {
+                problems.add(entry.getKey() + ": no budget recorded (measured " + used + ")");
+            } else if (used.statements() > allowed.statements() || used.rows() > allowed.rows()) {
+                problems.add(entry.getKey() + ": measured " + used + ", budget " + allowed);
+            }
+        }
+        budget.keySet().stream()
+                .filter(key -> !measured.containsKey(key))
+                .forEach(key -> problems.add(key + ": in the baseline but no longer measured"));
+
+        assertTrue(problems.isEmpty(), "Query budget exceeded (statements/rows):\n  "
+                + String.join("\n  ", problems)
+                + "\nIf intended, regenerate " + BASELINE + " with -Dquery-budget.update=true");
+    }
+
+    private Map<String, Usage> measureAll() throws Exception {
+        String ownerToken = token(owner);
+        String collabToken = token(collaborator);
+        Long teamId = teams.get(0).getId();
+        Long sharedTeamId = teams.get(1).getId();
+        String opponent = sampleReplay.getOpponent();
+
+        Map<String, Usage> measured = new LinkedHashMap<>();
+        // Auth and users
+        measure(measured, "GET /api/auth/me", "/api/auth/me", ownerToken);
+        measure(measured, "GET /api/auth/reset-password/validate", "/api/auth/reset-password/validate?token=unknown", null);
+        measure(measured, "GET /api/users/{id}", "/api/users/" + owner.getId(), ownerToken);
+        measure(measured, "GET /api/users/username/{username}", "/api/users/username/budgetowner", ownerToken);
+        measure(measured, "GET /api/users/check/username/{username}", "/api/users/check/username/budgetowner", null);
+        measure(measured, "GET /api/users/check/email/{email}", "/api/users/check/email/budgetowner@example.com", null);
+
+        // Teams and members
+        measure(measured, "GET /api/teams", "/api/teams", ownerToken);
+        measure(measured, "GET /api/teams (collaborator)", "/api/teams", collabToken);
+        measure(measured, "GET /api/teams/{id}", "/api/teams/" + teamId, ownerToken);
+        measure(measured, "GET /api/teams/{id} (collaborator)", "/api/teams/" + sharedTeamId, collabToken);
+        measure(measured, "GET /api/teams/regulation/{regulation}", "/api/teams/regulation/Reg G", ownerToken);
+        measure(measured, "GET /api/teams/{id}/stats", "/api/teams/" + teamId + "/stats", ownerToken);
+        measure(measured, "GET /api/team-members", "/api/team-members?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/folders", "/api/folders", ownerToken);
+
+        // Replays
+        measure(measured, "GET /api/replays", "/api/replays?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/replays/{id}", "/api/replays/" + sampleReplay.getId(), ownerToken);
+        measure(measured, "GET /api/replays/{id}/timeline", "/api/replays/" + sampleReplay.getId() + "/timeline", ownerToken);
+        measure(measured, "GET /api/replays/standalone", "/api/replays/standalone?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/replays/match/{matchId}", "/api/replays/match/" + sampleMatch.getId(), ownerToken);
+        measure(measured, "GET /api/replays/result/{result}", "/api/replays/result/win?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/replays/opponent/{opponent}",
+                "/api/replays/opponent/" + opponent + "?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/replays/check/url", "/api/replays/check/url?url=" + sampleReplay.getUrl(), ownerToken);
+        measure(measured, "GET /api/replays/stats/win-rate", "/api/replays/stats/win-rate?teamId=" + teamId, ownerToken);
+
+        // Matches
+        measure(measured, "GET /api/matches", "/api/matches?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/matches/{id}", "/api/matches/" + sampleMatch.getId(), ownerToken);
+        measure(measured, "GET /api/matches/with-replays", "/api/matches/with-replays?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/matches/opponent/{opponent}",
+                "/api/matches/opponent/opponent 0?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/matches/tag/{tag}", "/api/matches/tag/locals?teamId=" + teamId, ownerToken);
+        measure(measured, "GET /api/matches/{id}/stats", "/api/matches/" + sampleMatch.getId() + "/stats", ownerToken);
+        measure(measured, "GET /api/matches/stats/team", "/api/matches/stats/team?teamId=" + teamId, ownerToken);
+
+        // Analytics (cold: first call after seeding)
+        String analytics = "/api/teams/" + teamId + "/analytics";
+        measure(measured, "GET /api/teams/{teamId}/analytics/usage", analytics + "/usage", ownerToken);
+        measure(measured, "GET /api/teams/{teamId}/analytics/matchups", analytics + "/matchups", ownerToken);
+        measure(measured, "GET /api/teams/{teamId}/analytics/matchups/ranking", analytics + "/matchups/ranking?sort=games&page=1&size=5", ownerToken);
+        measure(measured, "GET /api/teams/{teamId}/analytics/moves", analytics + "/moves", ownerToken);
+        measure(measured, "GET /api/teams/{teamId}/analytics/trends", analytics + "/trends", ownerToken);
+        measure(measured, "GET /api/teams/{teamId}/analytics/metagame", analytics + "/metagame", ownerToken);
+        measure(measured, "GET /api/teams/{teamId}/analytics/metagame/global", analytics + "/metagame/global", ownerToken);
+
+        // Game plans
+        measure(measured, "GET /api/game-plans", "/api/game-plans", ownerToken);
+        measure(measured, "GET /api/game-plans/{id}", "/api/game-plans/" + gamePlan.getId(), ownerToken);
+        measure(measured, "GET /api/game-plans/for-team/{teamId}", "/api/game-plans/for-team/" + teamId, ownerToken);
+        measure(measured, "GET /api/game-plans/{gamePlanId}/teams",
+                "/api/game-plans/" + gamePlan.getId() + "/teams", ownerToken);
+        measure(measured, "GET /api/game-plans/{gamePlanId}/teams/{teamId}/compositions/records",
+                "/api/game-plans/" + gamePlan.getId() + "/teams/" + planTeam.getId() + "/compositions/records", ownerToken);
+
+        // Exports
+        measure(measured, "GET /api/export/rate-limit", "/api/export/rate-limit", ownerToken);
+        measure(measured, "GET /api/export/my-exports", "/api/export/my-exports", ownerToken);
+        measure(measured, "GET /api/export/{code}", "/api/export/" + exportCode, ownerToken);
+
+        // Collaboration
+        measure(measured, "GET /api/teams/{teamId}/collaborators", "/api/teams/" + teamId + "/collaborators", ownerToken);
+        measure(measured, "GET /api/collaborations/shared-with-me", "/api/collaborations/shared-with-me", collabToken);
+        measure(measured, "GET /api/collaborations/sharing", "/api/collaborations/sharing", ownerToken);
+        measure(measured, "GET /api/collaborations/pending-invites", "/api/collaborations/pending-invites", collabToken);
+        measure(measured, "GET /api/collaborations/invites/{token}",
+                "/api/collaborations/invites/" + pendingInviteToken, null);
+
+        // Reference data
+        measure(measured, "GET /api/pokemon/registry", "/api/pokemon/registry", null);
+        measure(measured, "GET /api/pokemon/{name}/resolve", "/api/pokemon/rillaboom/resolve", null);
+        measure(measured, "GET /api/pokemon/speed-tiers", "/api/pokemon/speed-tiers", null);
+        return measured;
+    }
+
+    private void measure(Map<String, Usage> measured, String endpoint, String url, String token) throws Exception {
+        var request = get(url);
+        if (token != null) {
+            request.header("Authorization", token);
+        }
+        JdbcCounters.reset();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        Usage usage = new Usage(JdbcCounters.statements(), JdbcCounters.rows());
+
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, endpoint + " returned " + status);
+        measured.put(endpoint, usage);
+    }
+
+    private String token(User user) {
+        return "Bearer " + jwtUtil.generateAccessToken(
+                userDetailsService.loadUserByUsername(user.getUsername()), user.getId());
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashed_password");
+        return userRepository.save(user);
+    }
+
+    private static TeamCollaboratorDTO.InviteRequest inviteFor(User user) {
+        TeamCollaboratorDTO.InviteRequest request = new TeamCollaboratorDTO.InviteRequest();
+        request.setEmail(user.getEmail());
+        return request;
+    }
+
+    private Replay newReplay(Team team, int game, Match match) throws IOException {
+        Replay replay = new Replay();
+        replay.setUrl("https://replay.pokemonshowdown.com/budget-" + team.getId() + "-" + game);
+        replay.setBattleLog(Files.readString(Paths.get("src/test/resources/replays/bo1/" + LOGS.get(game % LOGS.size()))));
+        replay.setResult(game % 3 == 0 ? "loss" : "win");
+        replay.setDate(FIRST_GAME.plusDays(game));
+        replay.setMatch(match);
+        return replayService.createReplay(replay, team.getId());
+    }
+
+    record Usage(long statements, long rows) {
+        @Override
+        public String toString() {
+            return statements + "/" + rows;
+        }
+    }
+
+    private static String render(Map<String, Usage> measured) {
+        StringBuilder out = new StringBuilder()
+                .append("# Query budget per endpoint, enforced by QueryBudgetTest against its seeded dataset.\n")
+                .append("# Regenerate with: mvn test -Dtest=QueryBudgetTest -Dquery-budget.update=true\n")
+                .append("dataset-version,").append(DATASET_VERSION).append('\n')
+                .append("# endpoint,statements,rows\n");
+        measured.forEach((endpoint, usage) ->
+                out.append(endpoint).append(',').append(usage.statements()).append(',').append(usage.rows()).append('\n'));
+        return out.toString();
+    }
+
+    private static Map<String, Usage> parse(List<String> lines) {
+        Map<String, Usage> budget = new LinkedHashMap<>();
+        Integer version = null;
+        for (String line : lines) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields[0].equals("dataset-version")) {
+                version = Integer.parseInt(fields[1].trim());
+                continue;
+            }
+            budget.put(fields[0], new Usage(Long.parseLong(fields[1].trim()), Long.parseLong(fields[2].trim())));
+        }
+        assertEquals(DATASET_VERSION, version, BASELINE + " was recorded for another dataset; regenerate it");
+        return budget;
+    }
+}
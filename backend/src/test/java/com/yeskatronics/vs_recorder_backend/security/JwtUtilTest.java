@@ -0,0 +1,63 @@
+package com.yeskatronics.vs_recorder_backend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for JwtUtil's verified-claims cache.
+ */
+@SpringBootTest
+class JwtUtilTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final UserDetails user = new User("jwt-cache-user", "unused", List.of());
+
+    @Test
+    void testClaims_VerifiedOnceThenCached() {
+        String token = jwtUtil.generateAccessToken(user, 42L);
+        double misses = cacheGets("miss");
+        double hits = cacheGets("hit");
+
+        // Same calls the authentication filter makes per request
+        assertEquals("jwt-cache-user", jwtUtil.extractUsername(token));
+        assertTrue(jwtUtil.validateToken(token, user));
+        assertEquals(42L, jwtUtil.extractUserId(token));
+        assertFalse(jwtUtil.isRefreshToken(token));
+
+        assertEquals(misses + 1, cacheGets("miss"));
+        assertTrue(cacheGets("hit") >= hits + 4);
+    }
+
+    @Test
+    void testTamperedToken_RejectedAndNotCached() {
+        String token = jwtUtil.generateAccessToken(user, 42L);
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char flipped = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signatureStart) + flipped + token.substring(signatureStart + 1);
+
+        assertFalse(jwtUtil.validateToken(tampered));
+        assertFalse(jwtUtil.validateToken(tampered, user));
+
+        // The genuine token still verifies; the forged one keeps failing
+        assertTrue(jwtUtil.validateToken(token));
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt.claims").tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -1,9 +1,11 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
 import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Match;
 import com.yeskatronics.vs_recorder_backend.entities.Replay;
 import com.yeskatronics.vs_recorder_backend.entities.Team;
 import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.repositories.MatchRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
@@ -19,6 +21,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -44,6 +47,12 @@ class AnalyticsServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private OpponentIndexBackfill opponentIndexBackfill;
+
     private User testUser;
     private Team testTeam;
 
@@ -499,22 +508,129 @@ class AnalyticsServiceTest {
 
     @Test
     void testGetMatchupStats_shouldSortByWinRateThenEncounters() throws IOException {
-        // Create multiple Pokemon with same win rate
-        // Assert sorted by number of encounters as tiebreaker
         populateAllBo3();
+        createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493790533-fl8jvhcfyt5ro0vlwdvpc9pq4iqxjmfpw.json"));
+        createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493792545-xmgmwjyed586p8xa20jmstvt8lh53frpw.json"));
+        createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493794500-fcg4pydu0hsbws6jxslm8ilb1w72edqpw.json"));
 
         AnalyticsDTO.MatchupStatsResponse response = analyticsService.getMatchupStats(testTeam.getId());
 
-        //Flutter should be the first one
-        assertEquals("Flutter Mane", response.getBestMatchups().get(0).getPokemon());
+        // Best runs from the highest win rate down, worst from the lowest up; more games, then
+        // the name, break ties
+        List<AnalyticsDTO.MatchupStats> best = response.getBestMatchups();
+        List<AnalyticsDTO.MatchupStats> worst = response.getWorstMatchups();
+        assertEquals(5, best.size());
+        assertTrue(best.get(0).getWinRate() > worst.get(0).getWinRate());
+        for (int i = 1; i < best.size(); i++) {
+            AnalyticsDTO.MatchupStats previous = best.get(i - 1);
+            AnalyticsDTO.MatchupStats current = best.get(i);
+            assertTrue(previous.getWinRate() >= current.getWinRate());
+            if (previous.getWinRate() == current.getWinRate()) {
+                assertTrue(previous.getGamesAgainst() >= current.getGamesAgainst());
+                if (previous.getGamesAgainst() == current.getGamesAgainst()) {
+                    assertTrue(previous.getPokemon().compareTo(current.getPokemon()) < 0);
+                }
+            }
+        }
+        for (int i = 1; i < worst.size(); i++) {
+            assertTrue(worst.get(i - 1).getWinRate() <= worst.get(i).getWinRate());
+        }
+        List<AnalyticsDTO.MatchupStats> highest = response.getHighestAttendance();
+        for (int i = 1; i < highest.size(); i++) {
+            assertTrue(highest.get(i - 1).getAttendanceRate() >= highest.get(i).getAttendanceRate());
+        }
+        List<AnalyticsDTO.MatchupStats> lowest = response.getLowestAttendance();
+        for (int i = 1; i < lowest.size(); i++) {
+            assertTrue(lowest.get(i - 1).getAttendanceRate() <= lowest.get(i).getAttendanceRate());
+        }
 
-        createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493790533-fl8jvhcfyt5ro0vlwdvpc9pq4iqxjmfpw.json"));
-        createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493792545-xmgmwjyed586p8xa20jmstvt8lh53frpw.json"));
-        createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493794500-fcg4pydu0hsbws6jxslm8ilb1w72edqpw.json"));
+        // Confidence mode points the same way
+        AnalyticsDTO.MatchupStatsResponse ranked = analyticsService.getMatchupStats(
+                testTeam.getId(), null, "confidence", 3);
+        assertTrue(ranked.getBestMatchups().get(0).getConfidence().getLow()
+                > ranked.getWorstMatchups().get(0).getConfidence().getLow());
+        assertTrue(ranked.getBestMatchups().get(0).getWinRate() >= ranked.getWorstMatchups().get(0).getWinRate());
+    }
+
+    @Test
+    void testGetMatchupRanking_shouldPageThroughTheFullRanking() throws IOException {
+        populateAllBo3();
+
+        AnalyticsDTO.MatchupRankingResponse first = analyticsService.getMatchupRanking(
+                testTeam.getId(), null, "games", "desc", 0, 4);
+        assertEquals(4, first.getMatchups().size());
+        assertTrue(first.getTotal() > 8);
+
+        // Pages are consecutive slices of one ranking
+        List<AnalyticsDTO.MatchupStats> all = analyticsService.getMatchupRanking(
+                testTeam.getId(), null, "games", "desc", 0, 100).getMatchups();
+        assertEquals(first.getTotal(), all.size());
+        assertEquals(all.subList(0, 4), first.getMatchups());
+        assertEquals(all.subList(4, 8), analyticsService.getMatchupRanking(
+                testTeam.getId(), null, "games", "desc", 1, 4).getMatchups());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getGamesAgainst() >= all.get(i).getGamesAgainst());
+        }
 
-        response = analyticsService.getMatchupStats(testTeam.getId());
+        // Past the end is an empty page, not an error
+        AnalyticsDTO.MatchupRankingResponse beyond = analyticsService.getMatchupRanking(
+                testTeam.getId(), null, "winRate", "asc", 50, 20);
+        assertTrue(beyond.getMatchups().isEmpty());
+        assertEquals(first.getTotal(), beyond.getTotal());
+
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getMatchupRanking(
+                testTeam.getId(), null, "name", "desc", 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getMatchupRanking(
+                testTeam.getId(), null, "winRate", "up", 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getMatchupRanking(
+                testTeam.getId(), null, "winRate", "desc", -1, 20));
+    }
+
+    @Test
+    void testGetMatchupStats_rankedByConfidence_shouldPreferWellSampledResults() throws IOException {
+        populateAllBo3();
+
+        AnalyticsDTO.MatchupStatsResponse raw = analyticsService.getMatchupStats(testTeam.getId());
+        AnalyticsDTO.MatchupStatsResponse ranked = analyticsService.getMatchupStats(
+                testTeam.getId(), null, "confidence", 3);
+
+        assertEquals("raw", raw.getRank());
+        assertEquals("confidence", ranked.getRank());
+        assertEquals(5, ranked.getBestMatchups().size());
+
+        // No minimum-games cutoff, but best is ordered by the interval's lower bound
+        List<AnalyticsDTO.MatchupStats> best = ranked.getBestMatchups();
+        for (int i = 1; i < best.size(); i++) {
+            assertTrue(best.get(i - 1).getConfidence().getLow() >= best.get(i).getConfidence().getLow());
+        }
+        List<AnalyticsDTO.MatchupStats> worst = ranked.getWorstMatchups();
+        for (int i = 1; i < worst.size(); i++) {
+            assertTrue(worst.get(i - 1).getConfidence().getHigh() <= worst.get(i).getConfidence().getHigh());
+        }
+
+        // Every stat carries its interval, bracketing the raw rate
+        for (AnalyticsDTO.MatchupStats stats : raw.getBestMatchups()) {
+            AnalyticsDTO.WinRateConfidence confidence = stats.getConfidence();
+            assertTrue(confidence.getLow() <= stats.getWinRate() && stats.getWinRate() <= confidence.getHigh());
+            assertTrue(confidence.getLow() <= confidence.getSmoothed() && confidence.getSmoothed() <= confidence.getHigh());
+        }
 
-        assertEquals("Smeargle", response.getBestMatchups().get(0).getPokemon());
+        // Lowering the cutoff only widens the raw candidate pool
+        assertTrue(analyticsService.getMatchupStats(testTeam.getId(), null, "raw", 1).getBestMatchups().size()
+                >= raw.getBestMatchups().size());
+
+        AnalyticsDTO.UsageStatsResponse usage = analyticsService.getUsageStats(testTeam.getId(), null, "confidence");
+        List<AnalyticsDTO.PokemonUsageStats> pokemon = usage.getPokemonStats();
+        for (int i = 1; i < pokemon.size(); i++) {
+            assertTrue(pokemon.get(i - 1).getConfidence().getLow() >= pokemon.get(i).getConfidence().getLow());
+        }
+        assertFalse(usage.getLeadPairStats().isEmpty());
+        assertNotNull(usage.getLeadPairStats().get(0).getConfidence());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.getUsageStats(testTeam.getId(), null, "bayes"));
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.getMatchupStats(testTeam.getId(), null, "raw", -1));
     }
 
     @Test
@@ -524,6 +640,7 @@ class AnalyticsServiceTest {
         // Assert all stats are 0
 
         populateAllBo3();
+        opponentIndexBackfill.backfill();
 
         AnalyticsDTO.CustomMatchupRequest request = AnalyticsDTO.CustomMatchupRequest
                 .builder()
@@ -594,6 +711,7 @@ class AnalyticsServiceTest {
         createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493790533-fl8jvhcfyt5ro0vlwdvpc9pq4iqxjmfpw.json"));
         createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493792545-xmgmwjyed586p8xa20jmstvt8lh53frpw.json"));
         createReplayFromJson(loadTestReplay("raohed/gen9vgc2026regfbo3-2493794500-fcg4pydu0hsbws6jxslm8ilb1w72edqpw.json"));
+        opponentIndexBackfill.backfill();
 
         AnalyticsDTO.CustomMatchupRequest request = AnalyticsDTO.CustomMatchupRequest
                 .builder()
@@ -606,6 +724,7 @@ class AnalyticsServiceTest {
 
         createReplayFromJson(loadTestReplay("kuronisa/gen9vgc2026regfbo3-2493189799-ne46kfyk1lr0f9cmnl1gigtosox6ge2pw.json"));
         createReplayFromJson(loadTestReplay("kuronisa/gen9vgc2026regfbo3-2493191775-5bm1cmanmkw9mcmnt9lv8u4txtuhu9upw.json"));
+        opponentIndexBackfill.backfill();
 
         request = AnalyticsDTO.CustomMatchupRequest
                 .builder()
@@ -629,6 +748,7 @@ class AnalyticsServiceTest {
 
         createReplayFromJson(loadTestReplay("mark/gen9vgc2026regfbo3-2495304397-upfy04cncd98v89g6p62bxn2kofb4u7pw.json"));
         createReplayFromJson(loadTestReplay("mark/gen9vgc2026regfbo3-2495306153-fyavxspkwdnwblptf000m1tj3a3j50gpw.json"));
+        opponentIndexBackfill.backfill();
 
         request = AnalyticsDTO.CustomMatchupRequest
                 .builder()
@@ -836,4 +956,64 @@ class AnalyticsServiceTest {
         assertFalse(moves.getPokemonMoves().stream().anyMatch(m -> "Zamazenta-Crowned".equals(m.getPokemon())),
                 "Zamazenta-Crowned should NOT appear as a separate ghost entry");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFilters_pushedDownToStoredReplayColumns() throws IOException {
+        // Bo3 set tagged "Regionals" this week, plus an older Bo1 ladder game
+        Match match = new Match();
+        match.setTeam(testTeam);
+        match.setTags(new java.util.ArrayList<>(List.of("Regionals")));
+        match = matchRepository.save(match);
+
+        String[] games = {"beach/beachg1.json", "beach/beachg2.json", "beach/beachg3.json"};
+        for (int i = 0; i < games.length; i++) {
+            Replay replay = createReplayFromJson(loadTestReplay(games[i]));
+            replay.setMatch(match);
+            replay.setGameNumber(i + 1);
+            replayRepository.save(replay);
+        }
+        Replay ladder = createReplayFromJson(
+                loadTestReplay("raohed/gen9vgc2026regfbo3-2493790533-fl8jvhcfyt5ro0vlwdvpc9pq4iqxjmfpw.json"));
+        ladder.setDate(LocalDateTime.now().minusDays(30));
+        replayRepository.save(ladder);
+
+        assertEquals(4, analyticsService.getUsageStats(testTeam.getId(), new AnalyticsDTO.Filter()).getTotalGames());
+
+        AnalyticsDTO.Filter lastWeek = AnalyticsDTO.Filter.builder().from(LocalDate.now().minusDays(7)).build();
+        assertEquals(3, analyticsService.getUsageStats(testTeam.getId(), lastWeek).getTotalGames());
+
+        AnalyticsDTO.Filter bo1 = AnalyticsDTO.Filter.builder().bestOf("Bo1").build();
+        assertEquals(1, analyticsService.getUsageStats(testTeam.getId(), bo1).getTotalGames());
+
+        AnalyticsDTO.Filter regionals = AnalyticsDTO.Filter.builder().tag("regionals").build();
+        assertEquals(3, analyticsService.getUsageStats(testTeam.getId(), regionals).getTotalGames());
+
+        AnalyticsDTO.Filter notRegionals = AnalyticsDTO.Filter.builder().excludeTag("Regionals").build();
+        assertEquals(1, analyticsService.getUsageStats(testTeam.getId(), notRegionals).getTotalGames());
+
+        // Wins only: every game in the view is a win
+        AnalyticsDTO.Filter wins = AnalyticsDTO.Filter.builder().result("win").build();
+        AnalyticsDTO.UsageStatsResponse winsOnly = analyticsService.getUsageStats(testTeam.getId(), wins);
+        assertTrue(winsOnly.getTotalGames() == 0 || winsOnly.getAverageWinRate() == 100);
+
+        // Custom matchups honour the same filter
+        AnalyticsDTO.CustomMatchupRequest request = new AnalyticsDTO.CustomMatchupRequest(
+                List.of("Incineroar", "Rillaboom", "Flutter Mane", "Raging Bolt"));
+        AnalyticsDTO.CustomMatchupResponse all = analyticsService.getCustomMatchupAnalysis(testTeam.getId(), request);
+        AnalyticsDTO.CustomMatchupResponse none = analyticsService.getCustomMatchupAnalysis(testTeam.getId(), request,
+                AnalyticsDTO.Filter.builder().to(LocalDate.now().minusDays(60)).build());
+        assertTrue(none.getPokemonAnalysis().isEmpty());
+        assertTrue(all.getPokemonAnalysis().size() >= none.getPokemonAnalysis().size());
+    }
+
+    @Test
+    void testFilters_rejectInvalidValues() {
+        Long teamId = testTeam.getId();
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getUsageStats(teamId,
+                AnalyticsDTO.Filter.builder().bestOf("bo5").build()));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getMatchupStats(teamId,
+                AnalyticsDTO.Filter.builder().result("draw").build()));
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.getMoveUsageStats(teamId,
+                AnalyticsDTO.Filter.builder().from(LocalDate.now()).to(LocalDate.now().minusDays(1)).build()));
+    }
+}
@@ -0,0 +1,212 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.entities.*;
+import com.yeskatronics.vs_recorder_backend.repositories.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for bulk team/user deletion: every table hanging off the deleted rows is emptied,
+ * element collections included, and other users' data is left alone.
+ */
+@SpringBootTest
+@Transactional
+class CascadeDeleteServiceTest {
+
+    private static final List<String> TEAM_TABLES = List.of(
+            "replays", "replay_opponent_species", "replay_team_picks", "matches", "match_tags",
+            "team_members", "team_member_calcs", "team_showdown_usernames", "team_folders", "trend_rollups");
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private FolderService folderService;
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private FolderRepository folderRepository;
+
+    @Autowired
+    private GamePlanRepository gamePlanRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User bystander;
+    private Team bystanderTeam;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        owner = newUser("cascadeowner");
+        bystander = newUser("cascadebystander");
+        bystanderTeam = populatedTeam(bystander, "Bystander Team");
+    }
+
+    @Test
+    void deleteUserRemovesEverythingTheyOwn() throws IOException {
+        populatedTeam(owner, "First");
+        populatedTeam(owner, "Second");
+
+        GamePlan plan = new GamePlan();
+        plan.setUser(owner);
+        plan.setName("Plan");
+        gamePlanRepository.save(plan);
+        entityManager.flush();
+
+        Map<String, Long> before = counts();
+        userService.deleteUser(owner.getId());
+
+        assertFalse(userRepository.existsById(owner.getId()));
+        assertTrue(teamRepository.findByUserId(owner.getId()).isEmpty());
+        assertTrue(folderRepository.findByUserIdOrderByPositionAsc(owner.getId()).isEmpty());
+        assertTrue(gamePlanRepository.findAll().stream().noneMatch(p -> p.getUser().getId().equals(owner.getId())));
+
+        // The owner had two populated teams and the bystander one, so a third of each table remains
+        Map<String, Long> after = counts();
+        for (String table : TEAM_TABLES) {
+            assertEquals(before.get(table) / 3, after.get(table), table);
+            assertTrue(after.get(table) > 0, table);
+        }
+        assertEquals(3, replayService.getReplaysByTeamId(bystanderTeam.getId()).size());
+    }
+
+    @Test
+    void deleteUserDropsEmailQueuedForTheirAddress() {
+        emailService.sendPasswordChangedConfirmation(owner.getEmail(), owner.getUsername());
+        emailService.sendPasswordChangedConfirmation(bystander.getEmail(), bystander.getUsername());
+        entityManager.flush();
+
+        userService.deleteUser(owner.getId());
+
+        List<String> recipients = emailOutboxRepository.findAll().stream().map(EmailOutbox::getToEmail).toList();
+        assertFalse(recipients.contains(owner.getEmail()));
+        assertTrue(recipients.contains(bystander.getEmail()));
+    }
+
+    @Test
+    void deleteTeamLeavesTheOwnersOtherData() throws IOException {
+        Team doomed = populatedTeam(owner, "Doomed");
+        Team kept = populatedTeam(owner, "Kept");
+
+        teamService.deleteTeam(doomed.getId(), owner.getId());
+
+        assertFalse(teamRepository.existsById(doomed.getId()));
+        assertTrue(teamRepository.existsById(kept.getId()));
+        assertTrue(userRepository.existsById(owner.getId()));
+        assertEquals(1, folderRepository.findByUserIdOrderByPositionAsc(owner.getId()).size());
+        assertEquals(3, replayService.getReplaysByTeamId(kept.getId()).size());
+        assertTrue(matchRepository.findAll().stream().noneMatch(m -> m.getTeam().getId().equals(doomed.getId())));
+
+        assertThrows(IllegalArgumentException.class, () -> teamService.deleteTeam(doomed.getId(), owner.getId()));
+    }
+
+    @Test
+    void deleteFolderUnlinksTeamsWithoutDeletingThem() throws IOException {
+        Team team = populatedTeam(owner, "Filed");
+        Folder folder = folderRepository.findByUserIdOrderByPositionAsc(owner.getId()).get(0);
+
+        folderService.deleteFolder(folder.getId(), owner.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(teamRepository.findById(team.getId()).orElseThrow().getFolders().isEmpty());
+        assertEquals(3, replayService.getReplaysByTeamId(team.getId()).size());
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hashed_password");
+        return userRepository.save(user);
+    }
+
+    /**
+     * A team with three indexed replays, a tagged match, a member with calcs, a showdown
+     * username and a folder, so every team-owned table has rows.
+     */
+    private Team populatedTeam(User user, String name) throws IOException {
+        Folder folder = folderRepository.findByUserIdOrderByPositionAsc(user.getId()).stream().findFirst()
+                .orElseGet(() -> folderService.createFolder("Folder", user.getId()));
+
+        Team team = new Team();
+        team.setName(name);
+        team.setPokepaste("https://pokepast.es/test");
+        team.setRegulation("Reg G");
+        team.setUser(user);
+        team.addShowdownUsername("larry ayuso");
+        team.addFolder(folder);
+        team = teamRepository.save(team);
+
+        Match match = new Match();
+        match.setTeam(team);
+        match.setOpponent("opponent");
+        match.getTags().add("locals");
+        match = matchRepository.save(match);
+
+        TeamMember member = new TeamMember();
+        member.setTeam(team);
+        member.setPokemonName("Grimmsnarl");
+        member.setSlot(1);
+        member.getCalcs().add("252 Atk vs 4 HP");
+        teamMemberRepository.save(member);
+
+        LocalDateTime date = LocalDateTime.of(2026, 3, 2, 10, 0);
+        for (String file : List.of("bothtera.json", "notera.json", "reggshadowvsice.json")) {
+            Replay replay = new Replay();
+            replay.setUrl("file://" + name + "/" + file);
+            replay.setBattleLog(Files.readString(Paths.get("src/test/resources/replays/bo1/" + file)));
+            replay.setResult("win");
+            replay.setDate(date);
+            replay.setMatch(match);
+            replayService.createReplay(replay, team.getId());
+        }
+        entityManager.flush();
+        return team;
+    }
+
+    private Map<String, Long> counts() {
+        entityManager.flush();
+        return TEAM_TABLES.stream().collect(Collectors.toMap(t -> t, t ->
+                ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM " + t).getSingleResult()).longValue()));
+    }
+}
@@ -0,0 +1,159 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.entities.EmailOutbox;
+import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.repositories.EmailOutboxRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.PasswordResetTokenRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the email outbox: request paths only insert a row, and the dispatcher delivers it
+ * through the transport, retrying failures with backoff until it gives up. Not transactional,
+ * since enqueue, claim and mark each commit on their own as they do in production; the scheduled
+ * run is pushed out so only the test drives dispatch.
+ */
+@SpringBootTest(properties = "app.email.dispatch.initial-delay=1h")
+class EmailDispatcherTest {
+
+    @Autowired
+    private PasswordResetService passwordResetService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private LoggingEmailTransport loggingTransport;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        loggingTransport.clear();
+
+        user = new User();
+        user.setUsername("outboxuser");
+        user.setEmail("outbox@example.com");
+        user.setPasswordHash("hashed_password");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        tokenRepository.deleteAll(tokenRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(user.getId())).toList());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void forgotPasswordQueuesAndDispatcherDelivers() {
+        passwordResetService.initiatePasswordReset("outbox@example.com", "203.0.113.42");
+
+        // The request path wrote one pending row and sent nothing
+        List<EmailOutbox> queued = outboxRepository.findAll();
+        assertEquals(1, queued.size());
+        assertEquals(EmailOutbox.Status.PENDING, queued.get(0).getStatus());
+        assertTrue(queued.get(0).getHtmlBody().contains("/reset-password?token="));
+        assertTrue(loggingTransport.getSent().isEmpty());
+
+        assertEquals(1, emailDispatcher.dispatchDue());
+
+        List<LoggingEmailTransport.SentEmail> sent = loggingTransport.getSent();
+        assertEquals(1, sent.size());
+        assertEquals("outbox@example.com", sent.get(0).toEmail());
+        assertTrue(sent.get(0).subject().contains("Password Reset"));
+
+        EmailOutbox delivered = outboxRepository.findById(queued.get(0).getId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.SENT, delivered.getStatus());
+        assertEquals(1, delivered.getAttempts());
+        assertNotNull(delivered.getSentAt());
+        // The reset link isn't kept once it has been sent
+        assertTrue(sent.get(0).htmlBody().contains("/reset-password?token="));
+        assertEquals("", delivered.getHtmlBody());
+
+        // Nothing left to do
+        assertEquals(0, emailDispatcher.dispatchDue());
+        assertEquals(1, loggingTransport.getSent().size());
+    }
+
+    @Test
+    void failedSendsBackOffAndEventuallyGiveUp() {
+        emailService.sendPasswordChangedConfirmation("outbox@example.com", "outboxuser");
+        Long id = outboxRepository.findAll().get(0).getId();
+
+        AtomicInteger calls = new AtomicInteger();
+        EmailTransport failing = (to, subject, html) -> {
+            calls.incrementAndGet();
+            throw new RuntimeException("provider unavailable");
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // With a real backoff the row is not due again right after a failure
+        EmailDispatcher slow = dispatcher(failing, registry, 3, Duration.ofMinutes(1));
+        assertEquals(0, slow.dispatchDue());
+        EmailOutbox afterFirst = outboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutbox.Status.PENDING, afterFirst.getStatus());
+        assertEquals(1, afterFirst.getAttempts());
+        assertEquals("provider unavailable", afterFirst.getLastError());
+        assertTrue(afterFirst.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(30)));
+        assertEquals(0, slow.dispatchDue());
+        assertEquals(1, calls.get());
+
+        // Make it due again; with no backoff the remaining attempts run back to back
+        afterFirst.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(afterFirst);
+        EmailDispatcher eager = dispatcher(failing, registry, 3, Duration.ZERO);
+        for (int i = 0; i < 5; i++) {
+            eager.dispatchDue();
+        }
+
+        EmailOutbox failed = outboxRepository.findById(id).orElseThrow();
+        assertEquals(EmailOutbox.Status.FAILED, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertEquals("", failed.getHtmlBody());
+        assertEquals(3, calls.get());
+        assertEquals(2, registry.get("email.outbox.dispatched").tag("outcome", "retry").counter().count());
+        assertEquals(1, registry.get("email.outbox.dispatched").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void backoffDoublesUpToTheCap() {
+        EmailDispatcher dispatcher = dispatcher(loggingTransport, new SimpleMeterRegistry(), 8, Duration.ofSeconds(30));
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(0));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(1));
+        assertEquals(Duration.ofMinutes(8), dispatcher.backoff(4));
+        assertEquals(Duration.ofHours(1), dispatcher.backoff(10));
+    }
+
+    private EmailDispatcher dispatcher(EmailTransport transport, SimpleMeterRegistry registry,
+                                       int maxAttempts, Duration initialBackoff) {
+        return new EmailDispatcher(emailService, transport, registry, 20, maxAttempts,
+                initialBackoff, Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofDays(7));
+    }
+}
@@ -1,11 +1,15 @@
 package com.yeskatronics.vs_recorder_backend.services;
 
+import com.yeskatronics.vs_recorder_backend.dto.GamePlanDTO;
 import com.yeskatronics.vs_recorder_backend.entities.GamePlan;
 import com.yeskatronics.vs_recorder_backend.entities.GamePlanTeam;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
 import com.yeskatronics.vs_recorder_backend.entities.User;
 import com.yeskatronics.vs_recorder_backend.exceptions.TeamAccessDeniedException;
 import com.yeskatronics.vs_recorder_backend.repositories.GamePlanRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.GamePlanTeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
 import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,6 +45,15 @@ class GamePlanServiceTest {
     @Autowired
     private GamePlanTeamRepository gamePlanTeamRepository;
 
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private CompositionRecordService compositionRecordService;
+
     private User testUser1;
     private User testUser2;
 
@@ -236,12 +250,15 @@ class GamePlanServiceTest {
 
         GamePlanTeam updates = new GamePlanTeam();
         updates.setPokepaste(updatedPokepaste);
+        updates.setPasteSpecies(compositionRecordService.resolveSpecies(updatedPokepaste));
         updates.setNotes("Updated notes");
 
         GamePlanTeam updated = gamePlanService.updateGamePlanTeam(
                 savedTeam.getId(), savedPlan.getId(), testUser1.getId(), updates);
 
         assertEquals(updatedPokepaste, updated.getPokepaste());
+        assertEquals(updates.getPasteSpecies(), updated.getPasteSpecies());
+        assertNotNull(updated.getPasteSpecies());
         assertEquals("Updated notes", updated.getNotes());
     }
 
@@ -619,4 +636,107 @@ class GamePlanServiceTest {
         assertEquals(0, teams.get(0).getPosition());
         assertEquals(1, teams.get(1).getPosition());
     }
-}
\ No newline at end of file
+
+    // ==================== Composition Record Tests ====================
+
+    private void addReplay(Team team, String file, String result) throws IOException {
+        Replay replay = new Replay();
+        replay.setUrl("file://" + file);
+        replay.setBattleLog(Files.readString(Paths.get("src/test/resources/replays/bo1/" + file)));
+        replay.setResult(result);
+        replay.setDate(LocalDateTime.of(2026, 3, 2, 10, 0));
+        replayService.createReplay(replay, team.getId());
+    }
+
+    @Test
+    void testGetCompositionRecords() throws IOException {
+        Team team = new Team();
+        team.setName("Calyrex Team");
+        team.setPokepaste("https://pokepast.es/test");
+        team.setRegulation("Reg G");
+        team.setUser(testUser1);
+        team.addShowdownUsername("larry ayuso");
+        team = teamRepository.save(team);
+
+        // Leads Calyrex-Ice + Grimmsnarl: back Landorus + Raging Bolt (vs Kyogre) and one unknown back
+        addReplay(team, "bothtera.json", "win");
+        addReplay(team, "notera.json", "win");
+        // Leads Grimmsnarl + Landorus, back Calyrex-Ice + Raging Bolt (vs Calyrex-Shadow)
+        addReplay(team, "reggshadowvsice.json", "loss");
+
+        GamePlan plan = gamePlanService.getOrCreateGamePlanForTeam(team.getId(), testUser1.getId(), "Plan");
+        GamePlanTeam opponent = new GamePlanTeam();
+        opponent.setPokepaste("""
+                Kyogre @ Mystic Water
+                Ability: Drizzle
+                - Water Spout
+
+                Tornadus @ Covert Cloak
+                Ability: Prankster
+                - Tailwind
+
+                Incineroar @ Sitrus Berry
+                Ability: Intimidate
+                - Fake Out
+
+                Urshifu-Rapid-Strike @ Focus Sash
+                Ability: Unseen Fist
+                - Surging Strikes
+                """);
+        // Resolved before saving, as the controller does
+        opponent.setPasteSpecies(compositionRecordService.resolveSpecies(opponent.getPokepaste()));
+        // Pokemon in any order and spelling that resolves to the stored names
+        opponent.addComposition(new GamePlanTeam.TeamComposition(
+                "Grimmsnarl", "Calyrex-Ice", "Raging Bolt", "Landorus", "Standard"));
+        opponent.addComposition(new GamePlanTeam.TeamComposition(
+                "Landorus", "Grimmsnarl", "Raging Bolt", "Calyrex-Ice", null));
+        opponent.addComposition(new GamePlanTeam.TeamComposition("Grimmsnarl", "", "", "", null));
+        opponent = gamePlanService.addTeamToGamePlan(plan.getId(), testUser1.getId(), opponent);
+
+        GamePlanDTO.CompositionRecordsResponse response =
+                gamePlanService.getCompositionRecords(opponent.getId(), plan.getId(), testUser1.getId());
+
+        assertEquals(List.of("Kyogre", "Tornadus", "Incineroar", "Urshifu-Rapid-Strike"), response.getOpponentSpecies());
+        assertEquals(4, response.getArchetypeOverlap());
+        assertEquals(3, response.getCompositions().size());
+
+        GamePlanDTO.CompositionRecord standard = response.getCompositions().get(0);
+        assertEquals("Calyrex-Ice + Grimmsnarl", standard.getLeadPair());
+        assertEquals("Landorus + Raging Bolt", standard.getBackPair());
+        assertEquals("Standard", standard.getComposition().getNotes());
+        assertEquals(2, standard.getWithLead().getGames());
+        assertEquals(2, standard.getWithLead().getWins());
+        assertEquals(1, standard.getOverall().getGames());
+        assertEquals(100, standard.getOverall().getWinRate());
+        assertEquals(1, standard.getVsOpponent().getGames());
+        assertEquals(1, standard.getVsOpponent().getWins());
+        // One win is a small sample: smoothed below 100 and a wide interval
+        assertTrue(standard.getOverall().getConfidence().getSmoothed() < 100);
+        assertTrue(standard.getOverall().getConfidence().getLow() < 50);
+
+        GamePlanDTO.CompositionRecord swapped = response.getCompositions().get(1);
+        assertEquals("Grimmsnarl + Landorus", swapped.getLeadPair());
+        assertEquals(1, swapped.getOverall().getGames());
+        assertEquals(0, swapped.getOverall().getWins());
+        assertEquals(0, swapped.getVsOpponent().getGames());
+
+        GamePlanDTO.CompositionRecord incomplete = response.getCompositions().get(2);
+        assertNull(incomplete.getLeadPair());
+        assertEquals(0, incomplete.getWithLead().getGames());
+        assertEquals(0, incomplete.getOverall().getGames());
+    }
+
+    @Test
+    void testGetCompositionRecords_RequiresLinkedTeam() {
+        GamePlan gamePlan = new GamePlan();
+        gamePlan.setName("Standalone Plan");
+        GamePlan savedPlan = gamePlanService.createGamePlan(gamePlan, testUser1.getId());
+
+        GamePlanTeam team = new GamePlanTeam();
+        team.setPokepaste("Test Pokepaste");
+        GamePlanTeam savedTeam = gamePlanService.addTeamToGamePlan(savedPlan.getId(), testUser1.getId(), team);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                gamePlanService.getCompositionRecords(savedTeam.getId(), savedPlan.getId(), testUser1.getId()));
+    }
+}
@@ -0,0 +1,173 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-regulation metagame rollups built from the opponent index.
+ * Fixtures all have "larry ayuso" on our side.
+ */
+@SpringBootTest
+@Transactional
+class MetagameServiceTest {
+
+    private static final String REGULATION = "Reg G (metagame test)";
+
+    @Autowired
+    private MetagameService metagameService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ReplayRepository replayRepository;
+
+    @Autowired
+    private OpponentIndexBackfill opponentIndexBackfill;
+
+    private User testUser;
+    private Team teamA;
+    private Team teamB;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("metauser");
+        testUser.setEmail("meta@example.com");
+        testUser.setPasswordHash("hashed_password");
+        testUser = userRepository.save(testUser);
+
+        teamA = createTeam("Team A", REGULATION);
+        teamB = createTeam("Team B", REGULATION);
+    }
+
+    private Team createTeam(String name, String regulation) {
+        Team team = new Team();
+        team.setName(name);
+        team.setPokepaste("https://pokepast.es/test");
+        team.setRegulation(regulation);
+        team.setUser(testUser);
+        team.addShowdownUsername("larry ayuso");
+        return teamRepository.save(team);
+    }
+
+    /**
+     * Saved straight through the repository, so the replay is only indexed by the backfill.
+     */
+    private Replay addReplay(Team team, String file, String result) throws IOException {
+        Replay replay = new Replay();
+        replay.setTeam(team);
+        replay.setUrl("file://" + file + "/" + team.getName());
+        replay.setBattleLog(Files.readString(Paths.get("src/test/resources/replays/bo1/" + file)));
+        replay.setResult(result);
+        replay.setDate(LocalDateTime.now());
+        return replayRepository.save(replay);
+    }
+
+    @Test
+    void userMetagame_spansAllTeamsInRegulation() throws IOException {
+        addReplay(teamA, "bothtera.json", "loss");
+        addReplay(teamA, "notera.json", "win");
+        addReplay(teamB, "reggshadowvsice.json", "win");
+
+        // Another regulation is excluded
+        Team other = createTeam("Team F", "Reg F");
+        addReplay(other, "notera.json", "win");
+        opponentIndexBackfill.backfill();
+
+        AnalyticsDTO.MetagameResponse response = metagameService.getUserMetagame(teamA.getId(), testUser.getId(), 20);
+
+        assertEquals(REGULATION, response.getRegulation());
+        assertEquals(MetagameService.SCOPE_USER, response.getScope());
+        assertEquals(3, response.getTotalGames());
+        assertEquals(67, response.getWinRate());
+        assertNull(response.getContributors());
+
+        // Every opponent brought Incineroar; it's the most common species
+        AnalyticsDTO.MetagameEntry top = response.getSpecies().get(0);
+        assertEquals("Incineroar", top.getName());
+        assertEquals(3, top.getGames());
+        assertEquals(100, top.getUsageRate());
+        assertEquals(2, top.getWins());
+
+        // Our own Pokemon never count as opponent species
+        assertTrue(response.getSpecies().stream().noneMatch(e -> e.getName().equals("Grimmsnarl")));
+
+        // Lead pairs are keyed with names sorted; two opponents opened the same way
+        assertEquals(2, response.getLeadPairs().size());
+        AnalyticsDTO.MetagameEntry topLead = response.getLeadPairs().get(0);
+        assertEquals("Incineroar + Urshifu-Rapid-Strike", topLead.getName());
+        assertEquals(2, topLead.getGames());
+        assertEquals(50, topLead.getWinRate());
+
+        // Both sides Terastallized in bothtera.json; only the opponent's Kyogre counts
+        assertEquals(1, response.getTeraPicks().size());
+        assertEquals("Kyogre", response.getTeraPicks().get(0).getName());
+        assertEquals(0, response.getTeraPicks().get(0).getWins());
+    }
+
+    @Test
+    void userMetagame_respectsLimitAndRequiresRegulation() throws IOException {
+        addReplay(teamA, "bothtera.json", "loss");
+        opponentIndexBackfill.backfill();
+
+        AnalyticsDTO.MetagameResponse response = metagameService.getUserMetagame(teamA.getId(), testUser.getId(), 2);
+        assertEquals(2, response.getSpecies().size());
+
+        Team noRegulation = createTeam("No Reg", null);
+        assertThrows(IllegalArgumentException.class,
+                () -> metagameService.getUserMetagame(noRegulation.getId(), testUser.getId(), 20));
+    }
+
+    @Test
+    void metagame_countsOnlyTheCurrentIndexVersion() throws IOException {
+        Replay replay = addReplay(teamA, "bothtera.json", "loss");
+        opponentIndexBackfill.backfill();
+        assertEquals(1, metagameService.getUserMetagame(teamA.getId(), testUser.getId(), 20).getTotalGames());
+
+        // An entry from an older index format is left out until the backfill rebuilds it
+        replay.setOpponentIndexVersion(OpponentIndexService.INDEX_VERSION - 1);
+        replayRepository.save(replay);
+        AnalyticsDTO.MetagameResponse stale = metagameService.getUserMetagame(teamA.getId(), testUser.getId(), 20);
+        assertEquals(0, stale.getTotalGames());
+        assertTrue(stale.getSpecies().isEmpty());
+
+        opponentIndexBackfill.backfill();
+        assertEquals(1, metagameService.getUserMetagame(teamA.getId(), testUser.getId(), 20).getTotalGames());
+    }
+
+    @Test
+    void globalMetagame_emptyUntilEnoughUsersShare() throws IOException {
+        addReplay(teamA, "bothtera.json", "loss");
+        testUser.setShareMetagameStats(true);
+        userRepository.save(testUser);
+        opponentIndexBackfill.backfill();
+
+        AnalyticsDTO.MetagameResponse response = metagameService.getGlobalMetagame(teamA.getId(), 20);
+
+        assertEquals(MetagameService.SCOPE_GLOBAL, response.getScope());
+        assertEquals(1, response.getContributors());
+        assertEquals(0, response.getTotalGames());
+        assertTrue(response.getSpecies().isEmpty());
+    }
+}
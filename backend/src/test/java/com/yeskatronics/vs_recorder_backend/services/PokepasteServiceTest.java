@@ -59,6 +59,11 @@ class PokepasteServiceTest {
         assertEquals("Dazzling Gleam", result.getPokemon().get(0).getMoves().get(1));
         assertEquals("Helping Hand", result.getPokemon().get(0).getMoves().get(2));
         assertEquals("Trick Room", result.getPokemon().get(0).getMoves().get(3));
+        assertEquals(50, result.getPokemon().get(0).getLevel());
+        assertEquals("Bold", result.getPokemon().get(0).getNature());
+        assertEquals(212, result.getPokemon().get(0).getEvs().get("HP"));
+        assertEquals(116, result.getPokemon().get(0).getEvs().get("SpD"));
+        assertEquals(0, result.getPokemon().get(0).getIvs().get("Atk"));
 
         assertEquals("Ogerpon-Wellspring", result.getPokemon().get(1).getSpecies());
         assertEquals("Wellspring Mask", result.getPokemon().get(1).getItem());
@@ -68,6 +73,8 @@ class PokepasteServiceTest {
         assertEquals("Horn Leech", result.getPokemon().get(1).getMoves().get(1));
         assertEquals("Follow Me", result.getPokemon().get(1).getMoves().get(2));
         assertEquals("Spiky Shield", result.getPokemon().get(1).getMoves().get(3));
+        assertEquals(76, result.getPokemon().get(1).getEvs().get("Spe"));
+        assertEquals("Adamant", result.getPokemon().get(1).getNature());
 
         assertEquals("Ursaluna-Bloodmoon", result.getPokemon().get(2).getSpecies());
         assertEquals("Life Orb", result.getPokemon().get(2).getItem());
@@ -0,0 +1,149 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.ExportDTO;
+import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
+import com.yeskatronics.vs_recorder_backend.entities.PasswordResetToken;
+import com.yeskatronics.vs_recorder_backend.entities.TeamExport;
+import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.exceptions.RateLimitExceededException;
+import com.yeskatronics.vs_recorder_backend.exceptions.TeamAccessDeniedException;
+import com.yeskatronics.vs_recorder_backend.repositories.PasswordResetTokenRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamExportRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for the in-memory rate limits: endpoint throttling via {@code @RateLimited} and the
+ * database-seeded buckets for export codes and password resets.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class RateLimitServiceTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private TeamExportService teamExportService;
+    @Autowired private PasswordResetService passwordResetService;
+    @Autowired private TeamExportRepository teamExportRepository;
+    @Autowired private PasswordResetTokenRepository tokenRepository;
+    @Autowired private UserRepository userRepository;
+
+    @MockitoBean
+    private PokepasteService pokepasteService;
+
+    @Test
+    void testPasteFetch_ThrottledPerClientIp() throws Exception {
+        when(pokepasteService.fetchPasteData(anyString())).thenReturn(new PokepasteDTO.PasteData());
+        String ip = randomIp();
+        int capacity = RateLimitService.Policy.PASTE_FETCH.getCapacity();
+        double throttledBefore = throttledCount("paste-fetch");
+
+        for (int i = 0; i < capacity; i++) {
+            mockMvc.perform(pasteFetch(ip))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(pasteFetch(ip))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertEquals(throttledBefore + 1, throttledCount("paste-fetch"));
+
+        // A made-up X-Forwarded-For doesn't buy a fresh bucket
+        mockMvc.perform(pasteFetch(ip).header("X-Forwarded-For", randomIp()))
+                .andExpect(status().isTooManyRequests());
+
+        // Other clients have their own bucket
+        mockMvc.perform(pasteFetch(randomIp()))
+                .andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder pasteFetch(String remoteAddr) {
+        return get("/api/pokemon/pokepaste/fetch").param("url", "https://pokepast.es/abc")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+
+    @Test
+    void testExportCodes_BucketSeededFromDatabase() {
+        long userId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+        for (int i = 0; i < 9; i++) {
+            TeamExport export = new TeamExport();
+            export.setCode(randomExportCode());
+            export.setUserId(userId);
+            export.setTeamId(-1L);
+            export.setExportData("{}");
+            teamExportRepository.save(export);
+        }
+
+        ExportDTO.RateLimitStatus status = teamExportService.getRateLimitStatus(userId);
+        assertEquals(10, status.getDailyLimit());
+        assertEquals(9, status.getCodesCreatedToday());
+        assertEquals(1, status.getRemaining());
+
+        // A failed export (no access to the team) gives its token back
+        assertThrows(TeamAccessDeniedException.class,
+                () -> teamExportService.generateExportCode(-1L, userId, new ExportDTO.ExportOptions()));
+        assertEquals(1, teamExportService.getRateLimitStatus(userId).getRemaining());
+    }
+
+    @Test
+    void testPasswordReset_UserBucketSeededFromTokens() {
+        String name = "rl-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPasswordHash("hash");
+        user = userRepository.save(user);
+
+        for (int i = 0; i < 3; i++) {
+            PasswordResetToken token = new PasswordResetToken();
+            token.setUser(user);
+            token.setTokenHash(UUID.randomUUID().toString().replace("-", ""));
+            token.setExpiresAt(LocalDateTime.now().plusHours(1));
+            token.setRequestIp(randomIp());
+            tokenRepository.save(token);
+        }
+
+        String email = user.getEmail();
+        assertThrows(RateLimitExceededException.class,
+                () -> passwordResetService.initiatePasswordReset(email, randomIp()));
+    }
+
+    private double throttledCount(String policy) {
+        return meterRegistry.get("rate.limit.throttled").tag("policy", policy).counter().count();
+    }
+
+    private static String randomExportCode() {
+        String alphabet = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+        StringBuilder code = new StringBuilder();
+        for (int i = 0; i < 6; i++) {
+            code.append(alphabet.charAt(ThreadLocalRandom.current().nextInt(alphabet.length())));
+        }
+        return code.toString();
+    }
+
+    private static String randomIp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+    }
+}
@@ -0,0 +1,196 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.ReplayDTO;
+import com.yeskatronics.vs_recorder_backend.dto.ShowdownDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.entities.TrendRollup;
+import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TrendRollupRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for background replay ingest. Not @Transactional: workers run on their own threads and
+ * must see committed data, so fixtures are cleaned up explicitly.
+ */
+@SpringBootTest
+class ReplayIngestServiceTest {
+
+    private static final String URL = "https://replay.pokemonshowdown.com/gen9vgc2025regg-ingest-test";
+
+    @Autowired
+    private ReplayIngestService replayIngestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ReplayRepository replayRepository;
+
+    @Autowired
+    private TrendRollupRepository trendRollupRepository;
+
+    @MockitoBean
+    private ShowdownService showdownService;
+
+    private User testUser;
+    private Team testTeam;
+
+    @BeforeEach
+    void setUp() {
+        // Unique per run: this test commits, so rows outlive a failed teardown
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        testUser = new User();
+        testUser.setUsername("ingest_" + suffix);
+        testUser.setEmail("ingest_" + suffix + "@example.com");
+        testUser.setPasswordHash("hashed_password");
+        testUser = userRepository.save(testUser);
+
+        testTeam = new Team();
+        testTeam.setName("Ingest Team");
+        testTeam.setPokepaste("https://pokepast.es/test");
+        testTeam.setRegulation("Reg G");
+        testTeam.setUser(testUser);
+        testTeam = teamRepository.save(testTeam);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayRepository.deleteAll(replayRepository.findByTeamIdOrderByDateDesc(testTeam.getId()));
+        for (TrendRollup.Granularity granularity : TrendRollup.Granularity.values()) {
+            trendRollupRepository.deleteAll(
+                    trendRollupRepository.findSeries(testTeam.getId(), granularity, null, null));
+        }
+        teamRepository.deleteById(testTeam.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void submit_fetchesOnWorkerAndSavesReplay() throws Exception {
+        ShowdownDTO.ReplayData data = new ShowdownDTO.ReplayData(
+                "|player|p1|ingestuser|\n|win|ingestuser\n", "opponent", "win",
+                LocalDateTime.now(), "gen9vgc2025regg", "ingestuser", "opponent");
+        when(showdownService.fetchReplayData(eq(URL), any(Team.class))).thenReturn(data);
+
+        ReplayDTO.IngestJobResponse queued = replayIngestService.submit(
+                testTeam.getId(), testUser.getId(), URL + "?p2", "scouted", true);
+        assertEquals(URL, queued.getUrl());
+
+        ReplayDTO.IngestJobResponse done = awaitDone(queued.getJobId());
+        assertEquals("SUCCEEDED", done.getStatus());
+        assertNotNull(done.getReplayId());
+        assertNotNull(done.getCompletedAt());
+
+        Replay saved = replayRepository.findById(done.getReplayId()).orElseThrow();
+        assertEquals(URL, saved.getUrl());
+        assertEquals("opponent", saved.getOpponent());
+        assertEquals("scouted", saved.getNotes());
+        assertTrue(saved.getReviewed());
+    }
+
+    @Test
+    void submit_recordsFailure() throws Exception {
+        when(showdownService.fetchReplayData(eq(URL), any(Team.class)))
+                .thenThrow(new IllegalArgumentException("Failed to fetch replay data"));
+
+        ReplayDTO.IngestJobResponse queued = replayIngestService.submit(
+                testTeam.getId(), testUser.getId(), URL, null, null);
+
+        ReplayDTO.IngestJobResponse done = awaitDone(queued.getJobId());
+        assertEquals("FAILED", done.getStatus());
+        assertEquals("Failed to fetch replay data", done.getError());
+        assertNull(done.getReplayId());
+    }
+
+    @Test
+    void submit_concurrentImportsIntoOneBucketKeepEveryGame() throws Exception {
+        LocalDateTime date = LocalDateTime.now();
+        when(showdownService.fetchReplayData(anyString(), any(Team.class))).thenAnswer(invocation ->
+                new ShowdownDTO.ReplayData("|player|p1|ingestuser|\n|win|ingestuser\n", "opponent", "win",
+                        date, "gen9vgc2025regg", "ingestuser", "opponent"));
+
+        List<String> jobIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            jobIds.add(replayIngestService.submit(testTeam.getId(), testUser.getId(), URL + "-" + i,
+                    null, null).getJobId());
+        }
+        for (String jobId : jobIds) {
+            assertEquals("SUCCEEDED", awaitDone(jobId).getStatus());
+        }
+
+        // Every worker rebuilt the same day and week bucket; the last rebuild must see all 8 games
+        for (TrendRollup.Granularity granularity : TrendRollup.Granularity.values()) {
+            TrendRollup total = trendRollupRepository.findSeries(testTeam.getId(), granularity, null, null)
+                    .stream()
+                    .filter(row -> row.getCategory() == TrendRollup.Category.TOTAL)
+                    .findFirst().orElseThrow();
+            assertEquals(8, total.getGames(), granularity + " rollup");
+            assertEquals(8, total.getWins(), granularity + " rollup");
+        }
+    }
+
+    @Test
+    void preview_fetchesWithoutTransaction() {
+        ShowdownDTO.ReplayPreview preview = new ShowdownDTO.ReplayPreview();
+        when(showdownService.previewReplay(eq(URL), any(Team.class))).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive(),
+                    "Showdown fetch must not hold a transaction");
+            // Identification data was loaded before the transaction ended
+            Team team = invocation.getArgument(1);
+            assertTrue(team.getShowdownUsernames().isEmpty());
+            return preview;
+        });
+
+        assertSame(preview, replayIngestService.preview(testTeam.getId(), URL + "?p2"));
+    }
+
+    @Test
+    void getJob_hiddenFromOtherUsers() {
+        when(showdownService.fetchReplayData(eq(URL), any(Team.class)))
+                .thenThrow(new IllegalArgumentException("unused"));
+
+        ReplayDTO.IngestJobResponse queued = replayIngestService.submit(
+                testTeam.getId(), testUser.getId(), URL, null, null);
+
+        assertTrue(replayIngestService.getJob(queued.getJobId(), testUser.getId() + 1).isEmpty());
+        assertTrue(replayIngestService.getJob("no-such-job", testUser.getId()).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> replayIngestService.subscribe(queued.getJobId(), testUser.getId() + 1));
+    }
+
+    private ReplayDTO.IngestJobResponse awaitDone(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            ReplayDTO.IngestJobResponse job = replayIngestService.getJob(jobId, testUser.getId()).orElseThrow();
+            if (job.getCompletedAt() != null) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        fail("Ingest job did not finish: " + jobId);
+        return null;
+    }
+}
@@ -48,6 +48,9 @@ class ReplayServiceTest {
     @Autowired
     private MatchRepository matchRepository;
 
+    @Autowired
+    private OpponentIndexBackfill opponentIndexBackfill;
+
     private User testUser;
     private Team testTeam;
 
@@ -353,6 +356,35 @@ class ReplayServiceTest {
 
     // ==================== Replay Reprocessing Tests ====================
 
+    @Test
+    void testGetReplaysByOpponentCore_UsesOpponentSide() throws IOException {
+        // bothtera.json: p1 "larry ayuso" brings Grimmsnarl/Raging Bolt, p2 "surgevgc" brings Kyogre/Rillaboom
+        testTeam.addShowdownUsername("larry ayuso");
+        testTeam = teamRepository.save(testTeam);
+
+        Replay replay = createReplayFromJson("bo1/bothtera.json");
+
+        List<Replay> found = replayService.getReplaysByOpponentCore(
+                testTeam.getId(), List.of("kyogre", "Rillaboom", "Incineroar"));
+        assertEquals(List.of(replay.getId()), found.stream().map(Replay::getId).toList());
+
+        // Our own side's Pokemon never match, nor does a core the opponent only partly brought
+        assertTrue(replayService.getReplaysByOpponentCore(testTeam.getId(), List.of("Grimmsnarl")).isEmpty());
+        assertTrue(replayService.getReplaysByOpponentCore(testTeam.getId(), List.of("Kyogre", "Amoonguss")).isEmpty());
+
+        // Switching the username flips sides; the backfill rebuilds the index, reads never do
+        replayService.reprocessReplaysForTeam(testTeam.getId(), List.of("surgevgc"));
+        testTeam.getShowdownUsernames().clear();
+        testTeam.addShowdownUsername("surgevgc");
+        teamRepository.save(testTeam);
+        assertEquals(1, replayService.getReplaysByOpponentCore(testTeam.getId(), List.of("Kyogre")).size());
+        opponentIndexBackfill.backfill();
+
+        assertEquals(1, replayService.getReplaysByOpponentCore(
+                testTeam.getId(), List.of("Grimmsnarl", "Raging Bolt")).size());
+        assertTrue(replayService.getReplaysByOpponentCore(testTeam.getId(), List.of("Kyogre")).isEmpty());
+    }
+
     @Test
     void testReprocessReplays_WrongUsername_FixesToCorrect() throws IOException {
         // bothtera.json has players "larry ayuso" and "surgevgc", winner is "surgevgc"
@@ -0,0 +1,170 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.ReplayDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import com.yeskatronics.vs_recorder_backend.security.CustomUserDetailsService;
+import com.yeskatronics.vs_recorder_backend.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests for ReplayTimelineService: timelines are parsed once and cached, misses are cached too,
+ * and kind filters project a copy without touching the cached timeline. Not transactional, so the
+ * controller sees the committed replay.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReplayTimelineServiceTest {
+
+    @Autowired
+    private ReplayTimelineService replayTimelineService;
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    private User user;
+    private Replay replay;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        user = new User();
+        user.setUsername("timelineuser");
+        user.setEmail("timeline@example.com");
+        user.setPasswordHash("hashed_password");
+        user = userRepository.save(user);
+
+        Team team = new Team();
+        team.setName("Timeline Team");
+        team.setPokepaste("https://pokepast.es/test");
+        team.setRegulation("Reg G");
+        team.setUser(user);
+        team.addShowdownUsername("larry ayuso");
+        team = teamRepository.save(team);
+
+        replay = new Replay();
+        replay.setUrl("https://replay.pokemonshowdown.com/timeline-" + team.getId());
+        replay.setBattleLog(Files.readString(Paths.get("src/test/resources/replays/bo1/bothtera.json")));
+        replay.setResult("win");
+        replay.setDate(LocalDateTime.of(2026, 3, 2, 10, 0));
+        replay = replayService.createReplay(replay, team.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cascadeDeleteService.deleteUser(user.getId());
+    }
+
+    @Test
+    void timelineIsParsedOnceAndServedFromTheCache() {
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+
+        ReplayDTO.Timeline first = replayTimelineService.getTimeline(replay.getId(), null).orElseThrow();
+        ReplayDTO.Timeline second = replayTimelineService.getTimeline(replay.getId(), Set.of()).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(replay.getId(), first.getReplayId());
+        assertFalse(first.getTurns().isEmpty());
+        assertEquals(misses + 1, cacheGets("miss"));
+        assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    void missingReplayIsEmptyAndTheMissIsCached() {
+        Long missingId = replay.getId() + 100_000;
+        double hits = cacheGets("hit");
+
+        assertEquals(Optional.empty(), replayTimelineService.getTimeline(missingId, null));
+        assertEquals(Optional.empty(), replayTimelineService.getTimeline(missingId, Set.of("move")));
+
+        // The second lookup is answered by the cached miss, without another query
+        assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    void kindsProjectACopyAndLeaveTheCachedTimelineWhole() {
+        ReplayDTO.Timeline full = replayTimelineService.getTimeline(replay.getId(), null).orElseThrow();
+        List<String> kindsBefore = kinds(full);
+        assertTrue(kindsBefore.stream().anyMatch(kind -> !kind.equals("move")));
+
+        ReplayDTO.Timeline moves = replayTimelineService.getTimeline(replay.getId(), Set.of("move")).orElseThrow();
+        assertNotSame(full, moves);
+        assertFalse(kinds(moves).isEmpty());
+        assertTrue(kinds(moves).stream().allMatch(kind -> kind.equals("move")));
+        assertEquals(full.getTurns().size(), moves.getTurns().size());
+
+        ReplayDTO.Timeline again = replayTimelineService.getTimeline(replay.getId(), null).orElseThrow();
+        assertSame(full, again);
+        assertEquals(kindsBefore, kinds(again));
+    }
+
+    @Test
+    void unknownKindsAreRejected() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> replayTimelineService.getTimeline(replay.getId(), Set.of("move", "chat")));
+
+        String token = "Bearer " + jwtUtil.generateAccessToken(
+                userDetailsService.loadUserByUsername(user.getUsername()), user.getId());
+        mockMvc.perform(get("/api/replays/" + replay.getId() + "/timeline?kinds=move,chat")
+                        .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/replays/" + replay.getId() + "/timeline?kinds=move,faint")
+                        .header("Authorization", token))
+                .andExpect(status().isOk());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "replays.timelines").tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static List<String> kinds(ReplayDTO.Timeline timeline) {
+        return timeline.getTurns().stream()
+                .flatMap(turn -> turn.getEvents().stream())
+                .map(ReplayDTO.TimelineEvent::getKind)
+                .toList();
+    }
+}
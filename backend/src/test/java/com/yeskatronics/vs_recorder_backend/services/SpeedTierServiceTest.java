@@ -0,0 +1,161 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
+import com.yeskatronics.vs_recorder_backend.dto.SpeedTierDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for SpeedTierService. Expected counts match frontend/src/data/speedTiers-regM-A.json,
+ * which scripts/generate-speed-tiers.js builds from the same species list.
+ */
+@SpringBootTest
+class SpeedTierServiceTest {
+
+    private static final String PASTE_URL = "https://pokepast.es/speedtiertest";
+
+    @Autowired
+    private SpeedTierService speedTierService;
+
+    @MockitoBean
+    private PokepasteService pokepasteService;
+
+    @Test
+    void testSpeedStat_Level50() {
+        assertEquals(213, SpeedTierService.speedStat(142, 31, 252, 1));   // Jolly Dragapult
+        assertEquals(194, SpeedTierService.speedStat(142, 31, 252, 0));
+        assertEquals(80, SpeedTierService.speedStat(60, 31, 0, 0));
+        assertEquals(72, SpeedTierService.speedStat(60, 31, 0, -1));
+        assertEquals(31, SpeedTierService.speedStat(30, 0, 0, -1));       // Min speed Trick Room setter
+    }
+
+    @Test
+    void testTable_MatchesGeneratedTiers() {
+        assertTrue(speedTierService.getRegulations().containsAll(List.of("M-A", "M-B")));
+
+        SpeedTierDTO.TierTable table = speedTierService.getTable("M-A");
+        assertEquals(262, table.getSpeciesCount());
+        assertEquals(262 * 4, table.getEntries().size());
+        assertEquals("SPs", table.getStatUnit());
+
+        SpeedTierDTO.TierEntry fastest = table.getEntries().get(0);
+        assertEquals("Aerodactyl-Mega", fastest.getPokemon());
+        assertEquals(150, fastest.getBaseSpeed());
+        assertEquals("32 SPs / +Spe", fastest.getSpread());
+        assertEquals(222, fastest.getSpeedStat());
+
+        // Megas are expanded from the base species; -Mega-Z formes are left out
+        assertTrue(table.getEntries().stream().anyMatch(e -> e.getPokemon().equals("Charizard-Mega-Y")));
+        assertTrue(table.getEntries().stream().noneMatch(e -> e.getPokemon().endsWith("-Mega-Z")));
+
+        for (int i = 1; i < table.getEntries().size(); i++) {
+            assertTrue(table.getEntries().get(i - 1).getSpeedStat() >= table.getEntries().get(i).getSpeedStat());
+        }
+
+        // Team regulation strings resolve to the same table
+        assertEquals("M-B", speedTierService.getTable("VGC 2026 Regulation M-B").getRegulation());
+        assertEquals(298, speedTierService.getTable("M-B").getSpeciesCount());
+        assertThrows(IllegalArgumentException.class, () -> speedTierService.getTable("Regulation H"));
+    }
+
+    @Test
+    void testCheckSpeed_Scenarios() {
+        SpeedTierDTO.SpeedCheckResponse response = speedTierService.checkSpeed("M-A", 150, 5);
+        Map<String, SpeedTierDTO.SpeedCheck> checks = response.getChecks().stream()
+                .collect(Collectors.toMap(SpeedTierDTO.SpeedCheck::getScenario, c -> c));
+
+        assertEquals(197, checks.get("NEUTRAL").getOutspeedCount());
+        assertEquals(14, checks.get("NEUTRAL").getTieCount());
+        assertEquals(914, checks.get("TAILWIND").getOutspeedCount());
+        assertEquals(661, checks.get("SCARF").getOutspeedCount());
+        assertEquals(837, checks.get("TRICK_ROOM").getOutspeedCount());
+
+        // Nearest rows first: just above 150 normally, just below it under Trick Room
+        List<SpeedTierDTO.TierEntry> neutral = checks.get("NEUTRAL").getOutspeeds();
+        assertEquals(5, neutral.size());
+        assertTrue(neutral.get(0).getSpeedStat() > 150);
+        assertTrue(neutral.get(0).getSpeedStat() <= neutral.get(4).getSpeedStat());
+        List<SpeedTierDTO.TierEntry> trickRoom = checks.get("TRICK_ROOM").getOutspeeds();
+        assertTrue(trickRoom.get(0).getSpeedStat() < 150);
+        assertTrue(trickRoom.get(0).getSpeedStat() >= trickRoom.get(4).getSpeedStat());
+    }
+
+    @Test
+    void testTeamOverlay_FromPaste() {
+        PokepasteDTO.PasteData paste = new PokepasteDTO.PasteData();
+        paste.getPokemon().add(pokemon("Dragapult", "Choice Scarf", "Jolly", 32));
+        paste.getPokemon().add(pokemon("Charizard", "Charizardite Y", "Timid", 0));
+        paste.setRawText("Dragapult @ Choice Scarf\n\nCharizard @ Charizardite Y");
+        when(pokepasteService.fetchPasteData(PASTE_URL)).thenReturn(paste);
+
+        Team team = new Team();
+        team.setId(-1L);
+        team.setPokepaste(PASTE_URL);
+        team.setRegulation("VGC 2026 Regulation M-A");
+
+        SpeedTierDTO.TeamOverlayResponse overlay = speedTierService.getTeamOverlay(team, null);
+        assertEquals("M-A", overlay.getRegulation());
+        assertEquals(3, overlay.getRows().size());
+
+        SpeedTierDTO.OverlayRow dragapult = overlay.getRows().get(0);
+        assertEquals("Dragapult", dragapult.getPokemon());
+        assertEquals(319, dragapult.getSpeedStat());     // 213 * 1.5
+        assertEquals("32 SPs / +Spe / Choice Scarf", dragapult.getSpread());
+        assertEquals(0, dragapult.getOutspeedCount());
+
+        SpeedTierDTO.OverlayRow charizard = overlay.getRows().get(1);
+        assertEquals("Charizard", charizard.getPokemon());
+        assertEquals(132, charizard.getSpeedStat());
+        assertEquals(333, charizard.getOutspeedCount());
+        assertEquals(18, charizard.getTieCount());
+        assertEquals("Charizard-Mega-Y", overlay.getRows().get(2).getPokemon());
+        assertEquals("0 SPs / +Spe", overlay.getRows().get(2).getSpread());
+
+        // Served from cache the second time
+        speedTierService.getTeamOverlay(team, "M-A");
+        verify(pokepasteService, times(1)).fetchPasteData(PASTE_URL);
+    }
+
+    @Test
+    void testTeamOverlay_CollidingPastesGetTheirOwnOverlay() {
+        // Same Lombok hashCode: the move name offsets the different Speed investment
+        PokepasteDTO.PasteData fast = new PokepasteDTO.PasteData();
+        fast.getPokemon().add(pokemon("Dragapult", "Choice Scarf", "Jolly", 32));
+        PokepasteDTO.PasteData slow = new PokepasteDTO.PasteData();
+        slow.getPokemon().add(pokemon("Dragapult", "Choice Scarf", "Jolly", 0));
+        slow.getPokemon().get(0).getMoves().add("qWH");
+        assertEquals(fast.hashCode(), slow.hashCode());
+        when(pokepasteService.fetchPasteData(PASTE_URL + "fast")).thenReturn(fast);
+        when(pokepasteService.fetchPasteData(PASTE_URL + "slow")).thenReturn(slow);
+
+        Team team = new Team();
+        team.setId(-1L);
+        team.setRegulation("M-A");
+        team.setPokepaste(PASTE_URL + "fast");
+        assertEquals(319, speedTierService.getTeamOverlay(team, null).getRows().get(0).getSpeedStat());
+        team.setPokepaste(PASTE_URL + "slow");
+        assertTrue(speedTierService.getTeamOverlay(team, null).getRows().get(0).getSpeedStat() < 319);
+    }
+
+    private static PokepasteDTO.PokemonData pokemon(String species, String item, String nature, int speedSps) {
+        PokepasteDTO.PokemonData pokemon = new PokepasteDTO.PokemonData();
+        pokemon.setSpecies(species);
+        pokemon.setItem(item);
+        pokemon.setNature(nature);
+        pokemon.getEvs().put("HP", 2);
+        pokemon.getEvs().put("Spe", speedSps);
+        return pokemon;
+    }
+}
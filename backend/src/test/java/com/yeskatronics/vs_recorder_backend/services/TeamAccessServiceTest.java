@@ -100,6 +100,36 @@ class TeamAccessServiceTest {
                 () -> teamAccessService.resolve(team.getId(), stranger.getId()));
     }
 
+    @Test
+    void resolveVersion_matchesResolve() {
+        TeamCollaborator membership = new TeamCollaborator();
+        membership.setTeam(team);
+        membership.setUser(collaboratorUser);
+        membership.setInviteEmail(collaboratorUser.getEmail());
+        membership.setStatus(Status.ACCEPTED);
+        membership.setInviteExpiresAt(LocalDateTime.now().plusDays(7));
+        membership.setCanAddReplays(true);
+        membership.setCanEditGamePlans(true);
+        collaboratorRepository.save(membership);
+
+        TeamAccessService.AccessVersion ownerVersion =
+                teamAccessService.resolveVersion(team.getId(), owner.getId()).orElseThrow();
+        assertEquals(Role.OWNER, ownerVersion.getRole());
+        assertEquals(Permission.values().length, ownerVersion.getPermissions().size());
+        assertEquals(team.getUpdatedAt(), ownerVersion.getUpdatedAt());
+
+        TeamAccessService.AccessVersion collaboratorVersion =
+                teamAccessService.resolveVersion(team.getId(), collaboratorUser.getId()).orElseThrow();
+        assertEquals(Role.COLLABORATOR, collaboratorVersion.getRole());
+        TeamAccess access = teamAccessService.resolve(team.getId(), collaboratorUser.getId());
+        for (Permission p : Permission.values()) {
+            assertEquals(teamAccessService.has(access, p), collaboratorVersion.getPermissions().contains(p), p.name());
+        }
+
+        assertTrue(teamAccessService.resolveVersion(team.getId(), stranger.getId()).isEmpty());
+        assertTrue(teamAccessService.resolveVersion(-1L, owner.getId()).isEmpty());
+    }
+
     @Test
     void requirePermission_throwsWhenCollaboratorLacksFlag() {
         TeamCollaborator membership = new TeamCollaborator();
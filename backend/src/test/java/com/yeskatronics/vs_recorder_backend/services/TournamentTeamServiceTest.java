@@ -0,0 +1,198 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.yeskatronics.vs_recorder_backend.dto.PokepasteDTO;
+import com.yeskatronics.vs_recorder_backend.dto.TournamentTeamDTO;
+import com.yeskatronics.vs_recorder_backend.exceptions.UpstreamUnavailableException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests for the LabMaus tournament team cache, against a local fixture server standing in for
+ * labmaus.net. M-A serves {@code labmaus/top_teams.json}; M-B always fails.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TournamentTeamServiceTest {
+
+    private static final AtomicInteger upstreamCalls = new AtomicInteger();
+    private static final AtomicReference<String> lastQuery = new AtomicReference<>();
+    private static final AtomicReference<String> lastAuthorization = new AtomicReference<>();
+    private static HttpServer server;
+
+    @Autowired
+    private TournamentTeamService tournamentTeamService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PokepasteService pokepasteService;
+
+    @DynamicPropertySource
+    static void labmausProperties(DynamicPropertyRegistry registry) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/top_teams", TournamentTeamServiceTest::serveTopTeams);
+        server.start();
+
+        registry.add("app.labmaus.base-url", () -> "http://localhost:" + server.getAddress().getPort());
+        registry.add("app.labmaus.token", () -> "test-token");
+        registry.add("app.labmaus.refresh-enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    private static void serveTopTeams(HttpExchange exchange) throws IOException {
+        upstreamCalls.incrementAndGet();
+        String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+        lastQuery.set(query);
+        lastAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+
+        if (!query.contains("regulation=Regulation Set M-A")) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body;
+        try (InputStream fixture = TournamentTeamServiceTest.class.getResourceAsStream("/labmaus/top_teams.json")) {
+            body = fixture.readAllBytes();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    void testRefresh_TrimsAndNormalizes() throws IOException {
+        assertTrue(tournamentTeamService.refresh("M-A"));
+
+        assertTrue(lastQuery.get().contains("date_range="));
+        assertTrue(lastQuery.get().contains("language=en"));
+        assertEquals("Bearer test-token", lastAuthorization.get());
+
+        TournamentTeamDTO.Snapshot snapshot;
+        try (InputStream json = tournamentTeamService.getSnapshot("M-A").openJson()) {
+            snapshot = new ObjectMapper().readValue(json, TournamentTeamDTO.Snapshot.class);
+        }
+        assertEquals("M-A", snapshot.getRegulation());
+        assertEquals("Regulation Set M-A", snapshot.getLabmausRegulation());
+        // Sorted by size; the bucket without a composition is dropped
+        assertEquals(List.of(4, 6), snapshot.getCompositions().stream()
+                .map(TournamentTeamDTO.Composition::getSize).toList());
+
+        TournamentTeamDTO.Cluster cluster = snapshot.getCompositions().get(1).getClusters().get(0);
+        assertTrue(cluster.getPokemonNames().contains("Basculegion-M"));
+        assertEquals(41, cluster.getWins());
+        // Pokebin team dropped; non-numeric placement becomes null
+        assertEquals(List.of("Alice", "Carol"), cluster.getTeams().stream()
+                .map(TournamentTeamDTO.Team::getName).toList());
+        assertEquals(1, cluster.getTeams().get(0).getPlacement());
+        assertNull(cluster.getTeams().get(1).getPlacement());
+
+        List<TournamentTeamDTO.RegulationSummary> summaries = tournamentTeamService.getRegulations();
+        TournamentTeamDTO.RegulationSummary summary = summaries.stream()
+                .filter(s -> s.getRegulation().equals("M-A")).findFirst().orElseThrow();
+        assertEquals(3, summary.getClusters());
+        assertEquals(3, summary.getTeams());
+    }
+
+    @Test
+    void testFindClusters_BySpecies() {
+        List<TournamentTeamDTO.ClusterMatch> incineroar =
+                tournamentTeamService.findClusters("M-A", List.of("incineroar"));
+        assertEquals(2, incineroar.size());
+
+        List<TournamentTeamDTO.ClusterMatch> core =
+                tournamentTeamService.findClusters("M-A", List.of("Incineroar", "Basculegion-M"));
+        assertEquals(1, core.size());
+        assertEquals(6, core.get(0).getSize());
+        assertEquals(0, core.get(0).getClusterIndex());
+
+        assertTrue(tournamentTeamService.findClusters("M-A", List.of("Kyogre", "Maushold")).isEmpty());
+    }
+
+    @Test
+    void testGetTournamentTeams_ETagRevalidation() throws Exception {
+        tournamentTeamService.refresh("M-A");
+        String etag = "\"" + tournamentTeamService.getSnapshot("M-A").getEtag() + "\"";
+
+        mockMvc.perform(get("/api/pokemon/tournament-teams/M-A"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.regulation").value("M-A"))
+                .andExpect(jsonPath("$.compositions.length()").value(2));
+
+        mockMvc.perform(get("/api/pokemon/tournament-teams/M-A").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/api/pokemon/tournament-teams/M-A").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void testResolvePaste_FetchedOnceAndCached() {
+        PokepasteDTO.PasteData paste = new PokepasteDTO.PasteData();
+        paste.setTitle("Alice's team");
+        when(pokepasteService.fetchPasteData("https://pokepast.es/ccc333")).thenReturn(paste);
+
+        assertEquals("Alice's team", tournamentTeamService.resolvePaste("M-A", 6, 0, 1).getTitle());
+        assertEquals("Alice's team", tournamentTeamService.resolvePaste("M-A", 6, 0, 1).getTitle());
+        verify(pokepasteService, times(1)).fetchPasteData("https://pokepast.es/ccc333");
+
+        assertThrows(IllegalArgumentException.class, () -> tournamentTeamService.resolvePaste("M-A", 6, 0, 5));
+        assertThrows(IllegalArgumentException.class, () -> tournamentTeamService.resolvePaste("M-A", 3, 0, 0));
+    }
+
+    @Test
+    void testUpstreamFailure_Returns503WithoutRetryStorm() throws Exception {
+        assertThrows(UpstreamUnavailableException.class, () -> tournamentTeamService.getSnapshot("M-B"));
+        int calls = upstreamCalls.get();
+
+        // Within the retry backoff, requests fail fast instead of hitting LabMaus again
+        mockMvc.perform(get("/api/pokemon/tournament-teams/M-B"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        assertEquals(calls, upstreamCalls.get());
+    }
+
+    @Test
+    void testUnsupportedRegulation() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> tournamentTeamService.getSnapshot("Z-Z"));
+
+        mockMvc.perform(get("/api/pokemon/tournament-teams/Z-Z"))
+                .andExpect(status().isBadRequest());
+    }
+}
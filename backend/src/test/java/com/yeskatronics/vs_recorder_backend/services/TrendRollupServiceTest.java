@@ -0,0 +1,168 @@
+package com.yeskatronics.vs_recorder_backend.services;
+
+import com.yeskatronics.vs_recorder_backend.dto.AnalyticsDTO;
+import com.yeskatronics.vs_recorder_backend.entities.Replay;
+import com.yeskatronics.vs_recorder_backend.entities.Team;
+import com.yeskatronics.vs_recorder_backend.entities.TrendRollup;
+import com.yeskatronics.vs_recorder_backend.entities.User;
+import com.yeskatronics.vs_recorder_backend.repositories.ReplayRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TeamRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.TrendRollupRepository;
+import com.yeskatronics.vs_recorder_backend.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for day/week trend rollups: maintained on replay create, update and delete, rebuilt when
+ * replays are (re)indexed, and read back as series. Fixtures all have "larry ayuso" on our side.
+ */
+@SpringBootTest
+@Transactional
+class TrendRollupServiceTest {
+
+    // Monday and Wednesday of one ISO week, and the Tuesday after
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 10, 0);
+    private static final LocalDateTime WEDNESDAY = LocalDateTime.of(2026, 3, 4, 21, 30);
+    private static final LocalDateTime NEXT_TUESDAY = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ReplayRepository replayRepository;
+
+    @Autowired
+    private TrendRollupRepository rollupRepository;
+
+    @Autowired
+    private OpponentIndexBackfill opponentIndexBackfill;
+
+    private Team team;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("trenduser");
+        user.setEmail("trend@example.com");
+        user.setPasswordHash("hashed_password");
+        user = userRepository.save(user);
+
+        team = new Team();
+        team.setName("Trend Team");
+        team.setPokepaste("https://pokepast.es/test");
+        team.setRegulation("Reg G");
+        team.setUser(user);
+        team.addShowdownUsername("larry ayuso");
+        team = teamRepository.save(team);
+    }
+
+    private Replay newReplay(String file, String result, LocalDateTime date) throws IOException {
+        Replay replay = new Replay();
+        replay.setUrl("file://" + file + "/" + date);
+        replay.setBattleLog(Files.readString(Paths.get("src/test/resources/replays/bo1/" + file)));
+        replay.setResult(result);
+        replay.setDate(date);
+        return replay;
+    }
+
+    @Test
+    void rollupsFollowCreateUpdateAndDelete() throws IOException {
+        replayService.createReplay(newReplay("bothtera.json", "loss", MONDAY), team.getId());
+        Replay win = replayService.createReplay(newReplay("notera.json", "win", WEDNESDAY), team.getId());
+        replayService.createReplay(newReplay("reggshadowvsice.json", "win", NEXT_TUESDAY), team.getId());
+
+        AnalyticsDTO.TrendResponse weekly = analyticsService.getTrends(team.getId(), "week", null, null, 6);
+        assertEquals("week", weekly.getGranularity());
+        assertEquals(2, weekly.getPoints().size());
+        assertPoint(weekly.getPoints().get(0), LocalDate.of(2026, 3, 2), 2, 1);
+        assertPoint(weekly.getPoints().get(1), LocalDate.of(2026, 3, 9), 1, 1);
+
+        // Our Grimmsnarl was brought in every game
+        AnalyticsDTO.TrendSeries grimmsnarl = weekly.getSpecies().stream()
+                .filter(s -> s.getName().equals("Grimmsnarl")).findFirst().orElseThrow();
+        assertEquals(3, grimmsnarl.getGames());
+        assertEquals(2, grimmsnarl.getPoints().size());
+        assertFalse(weekly.getLeadPairs().isEmpty());
+
+        AnalyticsDTO.TrendResponse daily = analyticsService.getTrends(team.getId(), "day",
+                LocalDate.of(2026, 3, 3), LocalDate.of(2026, 3, 31), 6);
+        assertEquals(2, daily.getPoints().size());
+        assertPoint(daily.getPoints().get(0), LocalDate.of(2026, 3, 4), 1, 1);
+
+        // Flipping a result and moving a game to the next week rebuild both buckets
+        Replay updates = new Replay();
+        updates.setResult("loss");
+        updates.setDate(NEXT_TUESDAY.plusHours(1));
+        replayService.updateReplay(win.getId(), updates);
+
+        weekly = analyticsService.getTrends(team.getId(), "week", null, null, 6);
+        assertPoint(weekly.getPoints().get(0), LocalDate.of(2026, 3, 2), 1, 0);
+        assertPoint(weekly.getPoints().get(1), LocalDate.of(2026, 3, 9), 2, 1);
+
+        // Deleting the only game of a week removes the bucket
+        Replay monday = replayRepository.findByTeamId(team.getId()).stream()
+                .filter(r -> r.getDate().equals(MONDAY)).findFirst().orElseThrow();
+        replayService.deleteReplay(monday.getId());
+
+        weekly = analyticsService.getTrends(team.getId(), "week", null, null, 6);
+        assertEquals(1, weekly.getPoints().size());
+        assertTrue(rollupRepository.findSeries(team.getId(), TrendRollup.Granularity.DAY,
+                MONDAY.toLocalDate(), MONDAY.toLocalDate()).isEmpty());
+    }
+
+    @Test
+    void unindexedReplaysAreRolledUpByTheBackfill() throws IOException {
+        // Saved straight through the repository (as imports do), so nothing is rolled up yet
+        for (String file : List.of("bothtera.json", "notera.json")) {
+            Replay replay = newReplay(file, "win", MONDAY);
+            replay.setTeam(team);
+            replayRepository.save(replay);
+        }
+        assertTrue(rollupRepository.findSeries(team.getId(), TrendRollup.Granularity.DAY, null, null).isEmpty());
+
+        // Reading doesn't index them
+        assertTrue(analyticsService.getTrends(team.getId(), "day", null, null, 1).getPoints().isEmpty());
+
+        opponentIndexBackfill.backfill();
+        AnalyticsDTO.TrendResponse daily = analyticsService.getTrends(team.getId(), "day", null, null, 1);
+        assertEquals(1, daily.getPoints().size());
+        assertPoint(daily.getPoints().get(0), MONDAY.toLocalDate(), 2, 2);
+        assertEquals(1, daily.getSpecies().size());
+    }
+
+    @Test
+    void rejectsUnknownGranularityAndInvertedRange() {
+        Long teamId = team.getId();
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.getTrends(teamId, "month", null, null, 6));
+        assertThrows(IllegalArgumentException.class,
+                () -> analyticsService.getTrends(teamId, "day", LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 1), 6));
+    }
+
+    private static void assertPoint(AnalyticsDTO.TrendPoint point, LocalDate start, int games, int wins) {
+        assertEquals(start, point.getPeriodStart());
+        assertEquals(games, point.getGames());
+        assertEquals(wins, point.getWins());
+    }
+}
@@ -1,9 +1,11 @@
 package com.yeskatronics.vs_recorder_backend.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeskatronics.vs_recorder_backend.dto.ReplayDTO;
 import com.yeskatronics.vs_recorder_backend.services.PokemonService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -11,6 +13,9 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.yeskatronics.vs_recorder_backend.utils.BattleLogParser.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -447,4 +452,70 @@ class BattleLogParserTest {
         assertTrue(battleData.getP1Picks().contains("Zacian-Crowned"),
                 "Picks should be keyed on the revealed forme");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testParseBattleLog_withPokemonService_resolvesEachNameOncePerBattle() throws IOException {
+        // Every |switch|, |move| and Tera line maps back to a team slot; the parser must resolve
+        // each distinct species string once instead of re-normalizing the roster per line.
+        PokemonService spy = Mockito.spy(pokemonService);
+        String log = loadTestFile("/bo1/maus.json");
+
+        BattleLogParser.BattleData viaSpy = BattleLogParser.parseBattleLog(log, spy);
+        assertEquals(BattleLogParser.parseBattleLog(log, pokemonService), viaSpy);
+
+        Map<Object, Long> callsByName = Mockito.mockingDetails(spy).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals("getSpriteInfo"))
+                .collect(Collectors.groupingBy(i -> i.getArgument(0), Collectors.counting()));
+        assertFalse(callsByName.isEmpty());
+        callsByName.forEach((name, calls) -> assertEquals(1L, calls, "resolved " + name + " " + calls + " times"));
+    }
+
+    @Test
+    void testParseTimeline_groupsBoardChangesByTurn() throws IOException {
+        String log = loadTestFile("/bo1/bothtera.json");
+        ReplayDTO.Timeline timeline = BattleLogParser.parseTimeline(log);
+
+        assertEquals("larry ayuso", timeline.getPlayers().get("p1"));
+        assertEquals(BattleLogParser.parseBattleLog(log).getTurnCount(), timeline.getTurnCount());
+        assertEquals(timeline.getTurnCount() + 1, timeline.getTurns().size());
+        assertNotNull(timeline.getWinner());
+
+        // Turn 0: leads, with their switch-in formes
+        List<ReplayDTO.TimelineEvent> leads = timeline.getTurns().get(0).getEvents().stream()
+                .filter(e -> e.getKind().equals("switch")).toList();
+        assertEquals(List.of("Calyrex-Ice", "Grimmsnarl", "Urshifu-Rapid-Strike", "Incineroar"),
+                leads.stream().map(ReplayDTO.TimelineEvent::getSpecies).toList());
+        assertEquals("p1a", leads.get(0).getPos());
+
+        // Turn 1: burn, then burn damage as an HP delta with its cause
+        List<ReplayDTO.TimelineEvent> turn1 = timeline.getTurns().get(1).getEvents();
+        assertTrue(turn1.contains(ReplayDTO.TimelineEvent.builder().kind("status").pos("p1a")
+                .species("Landorus").detail("brn").build()));
+        assertTrue(turn1.contains(ReplayDTO.TimelineEvent.builder().kind("damage").pos("p1a")
+                .species("Landorus").hp(95).delta(-5).from("brn").build()));
+
+        // Turn 2: Tera, a KO, and Drizzle rain from the replacement
+        List<ReplayDTO.TimelineEvent> turn2 = timeline.getTurns().get(2).getEvents();
+        assertTrue(turn2.contains(ReplayDTO.TimelineEvent.builder().kind("tera").pos("p1a")
+                .species("Landorus").detail("Water").build()));
+        assertTrue(turn2.contains(ReplayDTO.TimelineEvent.builder().kind("damage").pos("p2b")
+                .species("Incineroar").hp(0).delta(-100).build()));
+        assertTrue(turn2.stream().anyMatch(e -> e.getKind().equals("faint") && e.getSpecies().equals("Incineroar")));
+        assertTrue(turn2.contains(ReplayDTO.TimelineEvent.builder().kind("weather").detail("RainDance").build()));
+
+        // Side conditions and spread targets
+        assertTrue(timeline.getTurns().get(3).getEvents().contains(
+                ReplayDTO.TimelineEvent.builder().kind("side").pos("p1").detail("Light Screen").build()));
+        assertTrue(timeline.getTurns().get(5).getEvents().stream()
+                .anyMatch(e -> "Electroweb".equals(e.getMove()) && "p2a,p2b".equals(e.getTarget())));
+    }
+
+    @Test
+    void testParseTimeline_withUnreadableLog_returnsEmptyTimeline() throws IOException {
+        ReplayDTO.Timeline timeline = BattleLogParser.parseTimeline(loadTestFile("/bad/malformed.json"));
+
+        assertNotNull(timeline.getTurns());
+        assertTrue(timeline.getTurns().isEmpty());
+        assertEquals(0, timeline.getTurnCount());
+    }
+}
@@ -0,0 +1,112 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bounded lookup cache: negative caching, no caching of failures,
+ * single-flight loading and size bounds.
+ */
+class LookupCacheTest {
+
+    private LookupCache<String, String> newCache(long maxSize) {
+        return LookupCache.create("test", maxSize, Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void hitIsCached() {
+        LookupCache<String, String> cache = newCache(100);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(Optional.of("v"), cache.get("k", k -> { calls.incrementAndGet(); return "v"; }));
+        assertEquals(Optional.of("v"), cache.get("k", k -> { calls.incrementAndGet(); return "other"; }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void missIsCachedNegatively() {
+        LookupCache<String, String> cache = newCache(100);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertTrue(cache.get("bogus", k -> { calls.incrementAndGet(); return null; }).isEmpty());
+        assertTrue(cache.get("bogus", k -> { calls.incrementAndGet(); return "late"; }).isEmpty());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void loaderExceptionIsNotCached() {
+        LookupCache<String, String> cache = newCache(100);
+
+        assertThrows(IllegalStateException.class,
+                () -> cache.get("k", k -> { throw new IllegalStateException("upstream down"); }));
+        assertEquals(Optional.of("v"), cache.get("k", k -> "v"));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        LookupCache<String, String> cache = newCache(100);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<Optional<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> cache.get("same", k -> {
+                    calls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "sprite";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Optional<String>> f : futures) {
+                assertEquals(Optional.of("sprite"), f.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void sizeIsBounded() {
+        LookupCache<String, String> cache = newCache(50);
+        for (int i = 0; i < 1000; i++) {
+            String key = "name-" + i;
+            cache.get(key, k -> null);
+        }
+        cache.cleanUp();
+        assertTrue(cache.estimatedSize() <= 50, "size was " + cache.estimatedSize());
+    }
+
+    @Test
+    void metricsAreRegistered() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LookupCache<String, String> cache = newCache(10).withMetrics(registry);
+        cache.get("a", k -> "x");
+        cache.get("a", k -> "x");
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "test").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "test").tag("result", "miss").functionCounter().count());
+    }
+}
@@ -0,0 +1,92 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yeskatronics.vs_recorder_backend.dto.PokemonEntry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the compiled registry: binary round-trip, lookups and the pre-serialized body.
+ */
+class PokemonRegistryTest {
+
+    private static PokemonRegistry compiled;
+    private static PokemonRegistry roundTripped;
+
+    @BeforeAll
+    static void compile() throws IOException {
+        try (InputStream json = PokemonRegistryTest.class.getResourceAsStream("/pokemon-data.json")) {
+            compiled = PokemonRegistryCompiler.compile(json);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream json = PokemonRegistryTest.class.getResourceAsStream("/pokemon-data.json")) {
+            PokemonRegistryCompiler.compile(json, out);
+        }
+        roundTripped = PokemonRegistry.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    @Test
+    void binaryRoundTripPreservesEverything() {
+        assertEquals(compiled.getVersion(), roundTripped.getVersion());
+        assertEquals(compiled.getEtag(), roundTripped.getEtag());
+        assertEquals(compiled.size(), roundTripped.size());
+        assertEquals(compiled.aliasCount(), roundTripped.aliasCount());
+        assertEquals(compiled.asMap(), roundTripped.asMap());
+        assertArrayEquals(compiled.getRegistryJsonGzip(), roundTripped.getRegistryJsonGzip());
+    }
+
+    @Test
+    void iterationFollowsRegistryOrder() {
+        assertEquals("bulbasaur", roundTripped.asMap().keySet().iterator().next());
+        assertEquals("bulbasaur", roundTripped.entryAt(0).canonicalName());
+    }
+
+    @Test
+    void aliasLookups() {
+        assertEquals("ogerpon-hearthflame", roundTripped.resolveAlias("ogerponhearthflame"));
+        assertEquals("flutter-mane", roundTripped.resolveAlias("flutter mane"));
+        assertNull(roundTripped.resolveAlias("not-a-pokemon"));
+        assertNull(roundTripped.get("Flutter Mane"));
+        assertEquals(-1, roundTripped.indexOfKey("missingno"));
+    }
+
+    @Test
+    void stringsAreShared() {
+        PokemonEntry bulbasaur = roundTripped.get("bulbasaur");
+        PokemonEntry ivysaur = roundTripped.get("ivysaur");
+        assertSame(bulbasaur.types().get(0), ivysaur.types().get(0));
+    }
+
+    @Test
+    void registryBodyMatchesEntries() throws IOException {
+        JsonNode body;
+        try (InputStream json = roundTripped.openRegistryJson()) {
+            body = new ObjectMapper().readTree(json);
+        }
+        assertEquals(roundTripped.getVersion(), body.path("version").asText());
+        assertEquals(roundTripped.size(), body.path("pokemon").size());
+
+        JsonNode rillaboom = body.path("pokemon").path("rillaboom");
+        PokemonEntry entry = roundTripped.get("rillaboom");
+        assertEquals(entry.num(), rillaboom.path("num").asInt());
+        assertEquals(entry.displayName(), rillaboom.path("displayName").asText());
+        assertEquals("rillaboom", rillaboom.path("canonicalName").asText());
+    }
+
+    @Test
+    void emptyRegistryIsUsable() {
+        PokemonRegistry empty = PokemonRegistry.empty();
+        assertEquals(0, empty.size());
+        assertNull(empty.resolveAlias("rillaboom"));
+        assertEquals(Map.of(), empty.asMap());
+    }
+}
@@ -0,0 +1,121 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the primitive accumulators used by analytics: LongIntMap, CounterTable, NameIds and TopK.
+ */
+class PrimitiveCountersTest {
+
+    @Test
+    void longIntMapSurvivesRehash() {
+        LongIntMap map = new LongIntMap(2);
+        for (int i = 0; i < 5000; i++) {
+            map.put(LongIntMap.pack(i, i * 7), i);
+        }
+        assertEquals(5000, map.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, map.get(LongIntMap.pack(i, i * 7)));
+        }
+        assertEquals(LongIntMap.MISSING, map.get(LongIntMap.pack(1, 1)));
+
+        map.put(LongIntMap.pack(3, 21), 42);
+        assertEquals(42, map.get(LongIntMap.pack(3, 21)));
+        assertEquals(5000, map.size());
+    }
+
+    @Test
+    void packRoundTrips() {
+        long packed = LongIntMap.pack(7, -1);
+        assertEquals(7, LongIntMap.high(packed));
+        assertEquals(-1, LongIntMap.low(packed));
+        assertNotEquals(LongIntMap.pack(1, 2), LongIntMap.pack(2, 1));
+    }
+
+    @Test
+    void counterTableGrowsAndStartsAtZero() {
+        CounterTable table = new CounterTable(3, 1);
+        table.increment(100, 2);
+        table.add(100, 2, 4);
+        table.increment(0, 0);
+
+        assertEquals(101, table.rows());
+        assertEquals(5, table.get(100, 2));
+        assertEquals(1, table.get(0, 0));
+        assertEquals(0, table.get(50, 1));
+        assertEquals(0, table.get(500, 1), "rows never written read as zero");
+        assertEquals(101, table.addRow());
+    }
+
+    @Test
+    void nameIdsNormalizeOncePerRawName() {
+        AtomicInteger calls = new AtomicInteger();
+        NameIds ids = new NameIds(raw -> {
+            calls.incrementAndGet();
+            return raw.replace("-Tera", "");
+        });
+
+        int hearthflame = ids.idOf("Ogerpon-Hearthflame");
+        assertEquals(hearthflame, ids.idOf("Ogerpon-Hearthflame-Tera"));
+        assertEquals(hearthflame, ids.idOf("Ogerpon-Hearthflame-Tera"));
+        assertEquals(hearthflame, ids.idOf("Ogerpon-Hearthflame"));
+        assertEquals(2, calls.get());
+
+        assertEquals(1, ids.idOf("Incineroar"));
+        assertEquals("Ogerpon-Hearthflame", ids.nameOf(hearthflame));
+        assertEquals(2, ids.size());
+    }
+
+    @Test
+    void topKKeepsTheHighestKeysInStableOrder() {
+        TopK top = new TopK(3);
+        int[] keys = {5, 9, 1, 9, 7, 5, 9, 3};
+        for (int handle = 0; handle < keys.length; handle++) {
+            top.offer(keys[handle], handle);
+        }
+
+        assertEquals(8, top.offered());
+        assertArrayEquals(new int[]{1, 3, 6}, top.drain(), "equal keys keep offer order");
+        assertArrayEquals(new int[0], top.drain());
+    }
+
+    @Test
+    void topKBreaksEqualKeysOnTheTiebreak() {
+        TopK top = new TopK(2);
+        // Handles 0-3 all tie on the key; the lowest tiebreaks (handles 2 and 3) win over earlier offers
+        int[] tiebreaks = {3, 2, 0, 1};
+        for (int handle = 0; handle < tiebreaks.length; handle++) {
+            top.offer(7, tiebreaks[handle], handle);
+        }
+        top.offer(6, -1, 4);
+
+        assertArrayEquals(new int[]{2, 3}, top.drain());
+    }
+
+    @Test
+    void topKRanksEverythingWhenUnbounded() {
+        TopK all = new TopK(Integer.MAX_VALUE);
+        for (int handle = 0; handle < 100; handle++) {
+            all.offer(TopK.key(-(handle % 10), handle), handle);
+        }
+
+        int[] ranked = all.drain();
+        assertEquals(100, ranked.length);
+        // Lowest primary first (negated), then highest secondary
+        assertEquals(90, ranked[0]);
+        assertEquals(0, ranked[9]);
+        assertEquals(9, ranked[99]);
+        assertEquals(0, new TopK(0).drain().length);
+    }
+
+    @Test
+    void topKKeyOrdersByPrimaryThenSecondary() {
+        assertTrue(TopK.key(2, -100) > TopK.key(1, 100));
+        assertTrue(TopK.key(-1, 5) > TopK.key(-1, 4));
+        assertTrue(TopK.key(0, Integer.MIN_VALUE) > TopK.key(-1, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,98 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for request coalescing: one loader run per in-flight key, shared results and failures,
+ * and nothing retained once the flight lands.
+ */
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, String> flights = SingleFlight.<String, String>create("test").withMetrics(registry);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> flights.execute("battle-1", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "parsed";
+            })));
+        }
+
+        // Wait until the leader is running and the others have joined it
+        while (calls.get() == 0 || registry.get("upstream.coalesced").counter().count() < 7) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        for (Future<String> result : results) {
+            assertEquals("parsed", result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, flights.inFlightCount());
+
+        // Landed flights aren't cached
+        assertEquals("again", flights.execute("battle-1", () -> "again"));
+    }
+
+    @Test
+    void failureIsSharedAndNotRemembered() throws Exception {
+        SingleFlight<String, String> flights = SingleFlight.create("test");
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<String> leader = pool.submit(() -> flights.execute("paste", () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new IllegalArgumentException("upstream 404");
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+        Future<String> follower = pool.submit(() -> flights.execute("paste", () -> "unused"));
+        Thread.sleep(50);
+        release.countDown();
+
+        for (Future<String> result : List.of(leader, follower)) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+            assertEquals("upstream 404", e.getCause().getMessage());
+        }
+        pool.shutdown();
+
+        assertEquals("ok", flights.execute("paste", () -> "ok"));
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        SingleFlight<String, Integer> flights = SingleFlight.create("test");
+        assertEquals(1, flights.execute("a", () -> flights.execute("b", () -> 1)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the lock-free token bucket, driven by an explicit clock.
+ */
+class TokenBucketTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void burstUpToCapacityThenRefillsEvenly() {
+        long now = 1_000;
+        TokenBucket bucket = new TokenBucket(3, Duration.ofMinutes(3), 0, now);
+
+        assertEquals(3, bucket.remaining(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.remaining(now));
+        assertEquals(MINUTE, bucket.tryAcquire(now));
+
+        // One token per minute comes back
+        assertEquals(0, bucket.tryAcquire(now + MINUTE));
+        assertTrue(bucket.tryAcquire(now + MINUTE) > 0);
+        assertEquals(3, bucket.remaining(now + 10 * MINUTE));
+    }
+
+    @Test
+    void coldStartCountAndRefund() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, Duration.ofDays(1), 9, now);
+        assertEquals(1, bucket.remaining(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now) > 0);
+
+        bucket.refund(now);
+        assertEquals(1, bucket.remaining(now));
+        assertEquals(TimeUnit.DAYS.toNanos(1) - TimeUnit.DAYS.toNanos(1) / 10, bucket.nanosUntilFull(now));
+
+        // More used than capacity is clamped
+        assertEquals(0, new TokenBucket(3, Duration.ofHours(1), 7, now).remaining(now));
+    }
+
+    @Test
+    void concurrentCallersNeverOverdraw() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, Duration.ofHours(1), 0, System.nanoTime());
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.submit(() -> {
+                if (bucket.tryAcquire(System.nanoTime()) == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // An hour-long refill can't add a token during the test
+        assertEquals(100, granted.get());
+    }
+}
@@ -0,0 +1,45 @@
+package com.yeskatronics.vs_recorder_backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Wilson interval and Beta smoothing behind confidence-ranked analytics.
+ */
+class WinRateScoreTest {
+
+    @Test
+    void wilsonIntervalNarrowsWithMoreGames() {
+        assertEquals(44, WinRateScore.percent(WinRateScore.lower(3, 3)));
+        assertEquals(100, WinRateScore.percent(WinRateScore.upper(3, 3)));
+        assertEquals(89, WinRateScore.percent(WinRateScore.lower(30, 30)));
+
+        // 60% over 50 games is surer than 100% over 3
+        assertTrue(WinRateScore.lower(30, 50) > WinRateScore.lower(3, 3));
+        assertTrue(WinRateScore.lower(6, 10) < 0.6 && WinRateScore.upper(6, 10) > 0.6);
+    }
+
+    @Test
+    void noGamesMeansNoInformation() {
+        assertEquals(0.0, WinRateScore.lower(0, 0));
+        assertEquals(1.0, WinRateScore.upper(0, 0));
+        assertEquals(0.55, WinRateScore.smoothed(0, 0, 0.55, 5));
+        assertEquals(0.55, WinRateScore.smoothed(0, 0, 0.55, 0));
+    }
+
+    @Test
+    void smoothingShrinksSmallSamplesTowardThePrior() {
+        assertEquals(0.75, WinRateScore.smoothed(3, 3, 0.5, 3), 1e-9);
+        assertEquals(0.5, WinRateScore.smoothed(50, 100, 0.5, 5), 1e-9);
+        assertEquals(1.0, WinRateScore.smoothed(3, 3, 0.5, 0), 1e-9);
+        assertTrue(WinRateScore.smoothed(100, 100, 0.5, 5) > WinRateScore.smoothed(3, 3, 0.5, 5));
+    }
+
+    @Test
+    void rankKeysKeepRatesOrdered() {
+        assertTrue(WinRateScore.rankKey(WinRateScore.lower(30, 50)) > WinRateScore.rankKey(WinRateScore.lower(29, 50)));
+        assertEquals(1_000_000_000, WinRateScore.rankKey(1.0));
+        assertEquals(0, WinRateScore.rankKey(0.0));
+    }
+}
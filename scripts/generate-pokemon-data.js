@@ -121,6 +121,7 @@ async function main() {
       displayName,
       baseSpecies,
       types,
+      baseSpeed: species.baseStats.spe,
       aliases: [],
     };
 
@@ -4,7 +4,7 @@
  * Generate per-regulation speed tier JSON for the Speed Tiers page.
  *
  * Reads:
- *   - scripts/regulation-species/regM-*.json (per-regulation explicit species list)
+ *   - backend/src/main/resources/regulation-species/regM-*.json (per-regulation explicit species list)
  *   - @smogon/calc Gen 9 dex (base stats, calcStat, mega forme list)
  *
  * Writes one file per regulation:
@@ -29,7 +29,7 @@ const require = createRequire(resolve(ROOT, "frontend/package.json"));
 const { Generations, calcStat } = require("@smogon/calc");
 const gen = Generations.get(9);
 
-const REG_SPECIES_DIR = resolve(ROOT, "scripts/regulation-species");
+const REG_SPECIES_DIR = resolve(ROOT, "backend/src/main/resources/regulation-species");
 const OUT_DIR = resolve(ROOT, "frontend/src/data");
 
 // Champions-era regulations (M-A and onward) display Stat Points instead of